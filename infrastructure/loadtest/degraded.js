@@ -0,0 +1,65 @@
+// k6 load test of load shedding while the database is degraded. Sends a fixed arrival rate of reads and a few writes,
+// counts requests shed with 503 or 429 and fails when the p99 latency of served requests exceeds P99_MS.
+//
+//   docker run --rm -i --network host -e RATE=2000 grafana/k6 run - < infrastructure/loadtest/degraded.js
+//
+// Degrade the database while the test runs, e.g. by throttling its container to a tenth of a CPU:
+//
+//   docker update --cpus 0.1 $(docker compose ps -q db)
+//
+// BASE_URL  API base URL, default http://localhost:8080
+// RATE      Requests per second, default 1000
+// DURATION  Test duration, default 3m
+// MAX_ID    Stock ids are picked from 1..MAX_ID, default 1000
+// P99_MS    Highest accepted p99 latency of served requests in milliseconds, default 1000
+import http from 'k6/http';
+import {check} from 'k6';
+import {Counter} from 'k6/metrics';
+
+const baseUrl = __ENV.BASE_URL || 'http://localhost:8080';
+const rate = parseInt(__ENV.RATE || '1000');
+const maxId = parseInt(__ENV.MAX_ID || '1000');
+const p99 = parseInt(__ENV.P99_MS || '1000');
+
+const shed = new Counter('shed_requests');
+
+http.setResponseCallback(http.expectedStatuses(200, 429, 503));
+
+export const options = {
+    discardResponseBodies: true,
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_duration{status:200}': [`p(99)<${p99}`],
+        'http_req_failed': ['rate<0.01'],
+    },
+    scenarios: {
+        stocks: {
+            executor: 'constant-arrival-rate',
+            rate: rate,
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '3m',
+            preAllocatedVUs: rate,
+            maxVUs: rate * 4,
+        },
+    },
+};
+
+export default function () {
+    const id = 1 + Math.floor(Math.random() * maxId);
+    const draw = Math.random();
+    const response = draw < 0.75
+        ? http.get(`${baseUrl}/api/v1/stocks/${id}`, {tags: {name: 'getStockById'}})
+        : draw < 0.95
+            ? http.get(`${baseUrl}/api/v1/stocks?page=${Math.floor(Math.random() * 10)}&size=100`, {tags: {name: 'getStocks'}})
+            : http.patch(`${baseUrl}/api/v1/stocks/${id}`, JSON.stringify({currentPrice: 1 + Math.floor(Math.random() * 1000)}), {
+                headers: {'Content-Type': 'application/json'},
+                tags: {name: 'patchStock'},
+            });
+
+    if (response.status === 503 || response.status === 429) {
+        shed.add(1);
+        check(response, {'shed response has Retry-After': (r) => r.headers['Retry-After'] !== undefined});
+    } else {
+        check(response, {'status is 200': (r) => r.status === 200});
+    }
+}
@@ -0,0 +1,52 @@
+// k6 load test of a price feed. Sends a fixed arrival rate of price updates to a few hot stocks through the write-behind
+// endpoint, or through PATCH to compare, and fails when the p99 latency exceeds P99_MS.
+//
+//   docker run --rm -i --network host -e RATE=5000 grafana/k6 run - < infrastructure/loadtest/prices.js
+//
+// Compare stock.price.buffer.coalesced and stock.price.buffer.flushed in /actuator/metrics after the run to see how
+// many updates were written.
+//
+// BASE_URL  API base URL, default http://localhost:8080
+// RATE      Price updates per second, default 1000
+// DURATION  Test duration, default 1m
+// MAX_ID    Stock ids are picked from 1..MAX_ID, default 100
+// ENDPOINT  price for PUT /api/v1/stocks/{id}/price, patch for PATCH /api/v1/stocks/{id}, default price
+// P99_MS    Highest accepted p99 latency in milliseconds, default 100
+import http from 'k6/http';
+import {check} from 'k6';
+
+const baseUrl = __ENV.BASE_URL || 'http://localhost:8080';
+const rate = parseInt(__ENV.RATE || '1000');
+const maxId = parseInt(__ENV.MAX_ID || '100');
+const endpoint = __ENV.ENDPOINT || 'price';
+const p99 = parseInt(__ENV.P99_MS || '100');
+
+export const options = {
+    discardResponseBodies: true,
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_duration': [`p(99)<${p99}`],
+        'http_req_failed': ['rate<0.01'],
+    },
+    scenarios: {
+        prices: {
+            executor: 'constant-arrival-rate',
+            rate: rate,
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '1m',
+            preAllocatedVUs: rate,
+            maxVUs: rate * 4,
+        },
+    },
+};
+
+export default function () {
+    const id = 1 + Math.floor(Math.random() * maxId);
+    const body = JSON.stringify({currentPrice: (1 + Math.random() * 1000).toFixed(4)});
+    const params = {headers: {'Content-Type': 'application/json'}, tags: {name: endpoint}};
+    const response = endpoint === 'patch'
+        ? http.patch(`${baseUrl}/api/v1/stocks/${id}`, body, params)
+        : http.put(`${baseUrl}/api/v1/stocks/${id}/price`, body, params);
+
+    check(response, {'price accepted': (r) => r.status === 202 || r.status === 200});
+}
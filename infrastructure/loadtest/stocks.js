@@ -0,0 +1,38 @@
+// k6 load test of the read endpoints at a fixed arrival rate. Run it once with SPRING_THREADS_VIRTUAL_ENABLED=false
+// and once with SPRING_THREADS_VIRTUAL_ENABLED=true to compare platform and virtual request threads.
+//
+//   docker run --rm -i --network host -e RATE=2000 grafana/k6 run - < infrastructure/loadtest/stocks.js
+//
+// BASE_URL  API base URL, default http://localhost:8080
+// RATE      Requests per second, default 1000
+// DURATION  Test duration, default 2m
+// MAX_ID    Stock ids are picked from 1..MAX_ID, default 1000
+import http from 'k6/http';
+import {check} from 'k6';
+
+const baseUrl = __ENV.BASE_URL || 'http://localhost:8080';
+const rate = parseInt(__ENV.RATE || '1000');
+const maxId = parseInt(__ENV.MAX_ID || '1000');
+
+export const options = {
+    discardResponseBodies: true,
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    scenarios: {
+        stocks: {
+            executor: 'constant-arrival-rate',
+            rate: rate,
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '2m',
+            preAllocatedVUs: rate,
+            maxVUs: rate * 4,
+        },
+    },
+};
+
+export default function () {
+    const response = Math.random() < 0.8
+        ? http.get(`${baseUrl}/api/v1/stocks/${1 + Math.floor(Math.random() * maxId)}`, {tags: {name: 'getStockById'}})
+        : http.get(`${baseUrl}/api/v1/stocks?page=${Math.floor(Math.random() * 10)}&size=100`, {tags: {name: 'getStocks'}});
+
+    check(response, {'status is 200': (r) => r.status === 200});
+}
@@ -0,0 +1,15 @@
+#!/bin/bash
+# Clones the primary and follows it as a hot standby. The clone is kept in the container, so it is taken again
+# whenever the container is recreated.
+set -e
+
+export PGPASSWORD="$POSTGRES_PASSWORD"
+rm -rf "$PGDATA"
+until pg_basebackup --host=db --username=replicator --pgdata="$PGDATA" --write-recovery-conf --wal-method=stream; do
+    echo "Waiting for the primary"
+    rm -rf "$PGDATA"
+    sleep 1
+done
+chmod 0700 "$PGDATA"
+
+exec postgres -D "$PGDATA"
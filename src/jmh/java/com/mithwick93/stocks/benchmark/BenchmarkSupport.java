@@ -0,0 +1,77 @@
+package com.mithwick93.stocks.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mithwick93.stocks.modal.Stock;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared fixtures of the benchmarks.
+ *
+ * @author mithwick93
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BenchmarkSupport {
+
+    /**
+     * Bind a request to the current thread, as links are built relative to the current request.
+     */
+    public static void bindRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/stocks");
+        request.setServerName("stocks.example.com");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    public static void unbindRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    public static Stock stock(long id) {
+        return new Stock(id, "STOCK" + id, BigDecimal.valueOf(id * 100 + 25, 2), new Timestamp(1_677_000_000_000L), new Timestamp(1_677_000_100_000L), 0L);
+    }
+
+    public static List<Stock> stocks(int size) {
+        List<Stock> stocks = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            stocks.add(stock(i));
+        }
+
+        return stocks;
+    }
+
+    /**
+     * Returns an {@link ObjectMapper} rendering HAL like the one used by the application.
+     *
+     * @return HAL {@link ObjectMapper}.
+     */
+    public static ObjectMapper halObjectMapper() {
+        return halObjectMapper(new JsonFactory());
+    }
+
+    /**
+     * Returns an {@link ObjectMapper} rendering HAL like the one used by the application, in the format of the factory.
+     *
+     * @param jsonFactory Factory of the format, e.g. a CBOR or Smile factory.
+     * @return HAL {@link ObjectMapper}.
+     */
+    public static ObjectMapper halObjectMapper(JsonFactory jsonFactory) {
+        ObjectMapper objectMapper = new ObjectMapper(jsonFactory);
+        objectMapper.registerModule(new Jackson2HalModule());
+        objectMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+
+        return objectMapper;
+    }
+}
@@ -0,0 +1,91 @@
+package com.mithwick93.stocks.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.mithwick93.stocks.controller.dto.StockResponseDto;
+import com.mithwick93.stocks.controller.mapper.StockMapper;
+import com.mithwick93.stocks.modal.Stock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.HateoasPageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.PagedModel;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks writing and reading a HAL page of stocks, as served by <code>GET /api/v1/stocks</code>, in each format the
+ * stocks API negotiates. The size of the encoded page is printed once per trial.
+ *
+ * @author mithwick93
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ContentNegotiationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private JavaType pageType;
+    private PagedModel<StockResponseDto> page;
+    private byte[] encodedPage;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkSupport.bindRequest();
+        objectMapper = BenchmarkSupport.halObjectMapper(jsonFactory(format));
+        pageType = objectMapper.getTypeFactory().constructParametricType(PagedModel.class, StockResponseDto.class);
+        PagedResourcesAssembler<Stock> pagedResourcesAssembler = new PagedResourcesAssembler<>(new HateoasPageableHandlerMethodArgumentResolver(), null);
+        page = pagedResourcesAssembler.toModel(new PageImpl<>(BenchmarkSupport.stocks(pageSize), PageRequest.of(1, pageSize), pageSize * 10L), new StockMapper());
+        encodedPage = objectMapper.writeValueAsBytes(page);
+        System.out.printf("%s page of %d stocks: %d bytes%n", format, pageSize, encodedPage.length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkSupport.unbindRequest();
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PagedModel<StockResponseDto> read() throws IOException {
+        return objectMapper.readValue(encodedPage, pageType);
+    }
+
+    private static JsonFactory jsonFactory(String format) {
+        return switch (format) {
+            case "json" -> new JsonFactory();
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+}
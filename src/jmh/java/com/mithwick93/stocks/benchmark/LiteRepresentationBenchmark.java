@@ -0,0 +1,83 @@
+package com.mithwick93.stocks.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mithwick93.stocks.controller.lite.StockLiteHttpMessageConverter;
+import com.mithwick93.stocks.controller.lite.StockLitePage;
+import com.mithwick93.stocks.controller.mapper.StockMapper;
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockField;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.HateoasPageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks writing a page of stocks as served by <code>GET /api/v1/stocks</code>, assembled into a HAL page and
+ * written by the HAL {@link ObjectMapper}, against the lite representation written by
+ * {@link StockLiteHttpMessageConverter}. Both start from the same page of entities. Run with <code>-prof gc</code> to
+ * compare the allocation per page as well.
+ *
+ * @author mithwick93
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LiteRepresentationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private StockMapper stockMapper;
+    private PagedResourcesAssembler<Stock> pagedResourcesAssembler;
+    private ObjectMapper objectMapper;
+    private StockLiteHttpMessageConverter stockLiteHttpMessageConverter;
+    private Page<Stock> stocksPage;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.bindRequest();
+        stockMapper = new StockMapper();
+        pagedResourcesAssembler = new PagedResourcesAssembler<>(new HateoasPageableHandlerMethodArgumentResolver(), null);
+        objectMapper = BenchmarkSupport.halObjectMapper();
+        stockLiteHttpMessageConverter = new StockLiteHttpMessageConverter();
+        stocksPage = new PageImpl<>(BenchmarkSupport.stocks(pageSize), PageRequest.of(1, pageSize), pageSize * 10L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkSupport.unbindRequest();
+    }
+
+    @Benchmark
+    public byte[] hal() throws IOException {
+        return objectMapper.writeValueAsBytes(pagedResourcesAssembler.toModel(stocksPage, stockMapper));
+    }
+
+    @Benchmark
+    public byte[] lite() throws IOException {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        stockLiteHttpMessageConverter.write(new StockLitePage(stocksPage, StockField.ALL), StockLiteHttpMessageConverter.APPLICATION_STOCKS_LITE, outputMessage);
+
+        return outputMessage.getBodyAsBytes();
+    }
+}
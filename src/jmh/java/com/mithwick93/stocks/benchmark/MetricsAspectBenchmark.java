@@ -0,0 +1,95 @@
+package com.mithwick93.stocks.benchmark;
+
+import com.mithwick93.stocks.aspect.MetricsAspect;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the overhead {@link MetricsAspect} adds to a service call, against a {@link PrometheusMeterRegistry}
+ * with percentile histograms enabled as in <code>application.properties</code>. <code>timerLookup</code> builds the
+ * tags and looks up the timer on each call, which is what caching the success timers saves.
+ *
+ * @author mithwick93
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MetricsAspectBenchmark {
+    private PrometheusMeterRegistry meterRegistry;
+    private NoOpService service;
+    private NoOpService timedService;
+
+    @Setup
+    public void setUp() {
+        meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .build()
+                        .merge(config);
+            }
+        });
+
+        service = new NoOpService();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(service);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new MetricsAspect(meterRegistry));
+        timedService = proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public long untimed() {
+        return service.get(42L);
+    }
+
+    @Benchmark
+    public long timed() {
+        return timedService.get(42L);
+    }
+
+    @Benchmark
+    public long timerLookup() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long result = service.get(42L);
+        sample.stop(Timer.builder(MetricsAspect.SERVICE_TIMER)
+                .tag("endpoint", NoOpService.class.getSimpleName() + ".get")
+                .tag("outcome", "SUCCESS")
+                .tag("exception", "none")
+                .register(meterRegistry));
+
+        return result;
+    }
+
+    /**
+     * Service doing no work, so the benchmark measures only the instrumentation.
+     */
+    @Service
+    public static class NoOpService {
+        public long get(long id) {
+            return id;
+        }
+    }
+}
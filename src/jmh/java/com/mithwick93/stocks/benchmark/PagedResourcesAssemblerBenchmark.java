@@ -0,0 +1,64 @@
+package com.mithwick93.stocks.benchmark;
+
+import com.mithwick93.stocks.controller.dto.StockResponseDto;
+import com.mithwick93.stocks.controller.mapper.StockMapper;
+import com.mithwick93.stocks.modal.Stock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.HateoasPageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.PagedModel;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks assembling a page of stocks into a HAL {@link PagedModel}, as done by <code>GET /api/v1/stocks</code>.
+ *
+ * @author mithwick93
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PagedResourcesAssemblerBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private StockMapper stockMapper;
+    private PagedResourcesAssembler<Stock> pagedResourcesAssembler;
+    private Page<Stock> stocksPage;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.bindRequest();
+        stockMapper = new StockMapper();
+        pagedResourcesAssembler = new PagedResourcesAssembler<>(new HateoasPageableHandlerMethodArgumentResolver(), null);
+        stocksPage = new PageImpl<>(BenchmarkSupport.stocks(pageSize), PageRequest.of(1, pageSize), pageSize * 10L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkSupport.unbindRequest();
+    }
+
+    @Benchmark
+    public PagedModel<StockResponseDto> toModel() {
+        return pagedResourcesAssembler.toModel(stocksPage, stockMapper);
+    }
+}
@@ -0,0 +1,64 @@
+package com.mithwick93.stocks.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mithwick93.stocks.controller.dto.StockResponseDto;
+import com.mithwick93.stocks.controller.mapper.StockMapper;
+import com.mithwick93.stocks.util.JsonUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks json serialization of a {@link StockResponseDto}, as HAL response body and through {@link JsonUtil} for
+ * request logging.
+ *
+ * @author mithwick93
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+    private ObjectMapper halObjectMapper;
+    private StockResponseDto stockResponseDto;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.bindRequest();
+        halObjectMapper = BenchmarkSupport.halObjectMapper();
+        stockResponseDto = new StockMapper().toModel(BenchmarkSupport.stock(42));
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkSupport.unbindRequest();
+    }
+
+    @Benchmark
+    public byte[] halStockResponseDto() throws JsonProcessingException {
+        return halObjectMapper.writeValueAsBytes(stockResponseDto);
+    }
+
+    @Benchmark
+    public String jsonUtilGetJsonString() throws JsonProcessingException {
+        return JsonUtil.getJsonString(stockResponseDto);
+    }
+
+    @Benchmark
+    public String jsonUtilGetJsonStringTruncated() throws JsonProcessingException {
+        return JsonUtil.getJsonString(stockResponseDto, 64);
+    }
+}
@@ -0,0 +1,83 @@
+package com.mithwick93.stocks.benchmark;
+
+import com.mithwick93.stocks.Constants;
+import com.mithwick93.stocks.controller.StockController;
+import com.mithwick93.stocks.controller.dto.StockRequestDto;
+import com.mithwick93.stocks.controller.dto.StockResponseDto;
+import com.mithwick93.stocks.controller.mapper.StockMapper;
+import com.mithwick93.stocks.modal.Stock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Benchmarks mapping of a single stock between entity and DTOs.
+ *
+ * @author mithwick93
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class StockMapperBenchmark {
+    private StockMapper stockMapper;
+    private Stock stock;
+    private StockRequestDto stockRequestDto;
+
+    @Setup
+    public void setUp() {
+        stockMapper = new StockMapper();
+        BenchmarkSupport.bindRequest();
+        stock = BenchmarkSupport.stock(42);
+        stockRequestDto = new StockRequestDto("STOCK42", BigDecimal.TEN);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkSupport.unbindRequest();
+    }
+
+    @Benchmark
+    public StockResponseDto toModel() {
+        return stockMapper.toModel(stock);
+    }
+
+    /**
+     * Baseline of {@link #toModel()}, building the links with {@code linkTo(methodOn(...))} like StockMapper used to.
+     */
+    @Benchmark
+    public StockResponseDto toModelWithLinkTo() {
+        StockResponseDto stockDto = new StockResponseDto(
+                stock.getId(),
+                stock.getName(),
+                stock.getCurrentPrice(),
+                stock.getCreatedAt().getTime(),
+                stock.getLastUpdate().getTime()
+        );
+
+        stockDto.add(linkTo(methodOn(StockController.class).getStockById(stock.getId(), null)).withSelfRel());
+        stockDto.add(linkTo(methodOn(StockController.class).getStocks(Integer.parseInt(Constants.DEFAULT_PAGE_NUMBER), Integer.parseInt(Constants.DEFAULT_PAGE_SIZE), null, null, null, null, null, null, null, null)).withRel("stocks"));
+        return stockDto;
+    }
+
+    @Benchmark
+    public Stock toEntity() {
+        return stockMapper.toEntity(stockRequestDto);
+    }
+}
@@ -12,5 +12,13 @@ import lombok.NoArgsConstructor;
 public final class Constants {
     public static final String DEFAULT_PAGE_NUMBER = "0";
     public static final String DEFAULT_PAGE_SIZE = "10";
+    public static final String DEFAULT_CANDLE_INTERVAL = "1m";
+    public static final String DEFAULT_COUNT_MODE = "exact";
+    public static final String DEFAULT_SORT = "id";
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final String APPLICATION_STOCKS_LITE_VALUE = "application/vnd.stocks.lite+json";
+    public static final String STOCKS_CACHE_NAME = "stocks";
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final int MAX_CANDLES = 1000;
 
 }
@@ -0,0 +1,86 @@
+package com.mithwick93.stocks.aspect;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes log events on a background thread through a bounded queue. Callers never block: when the queue is full the
+ * event is dropped and counted in the <code>request.logging.dropped</code> metric.
+ *
+ * @author mithwick93
+ */
+@Component
+@Slf4j
+public class AsyncLogDispatcher implements DisposableBean {
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private final BlockingQueue<Runnable> queue;
+    private final Counter droppedCounter;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    @Autowired
+    public AsyncLogDispatcher(RequestLoggingProperties requestLoggingProperties, MeterRegistry meterRegistry) {
+        this.queue = new ArrayBlockingQueue<>(requestLoggingProperties.getQueueCapacity());
+        this.droppedCounter = Counter.builder("request.logging.dropped")
+                .description("Request log events dropped because the log queue was full")
+                .register(meterRegistry);
+        Gauge.builder("request.logging.queue.size", queue, BlockingQueue::size)
+                .description("Request log events waiting to be written")
+                .register(meterRegistry);
+
+        this.worker = new Thread(this::drain, "request-logger");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queue log event to be written on the background thread, or drop it if the queue is full.
+     *
+     * @param logEvent Log statement to run.
+     * @return <code>true</code> if the event was queued.
+     */
+    public boolean dispatch(Runnable logEvent) {
+        boolean queued = queue.offer(logEvent);
+        if (!queued) {
+            droppedCounter.increment();
+        }
+
+        return queued;
+    }
+
+    /**
+     * Stop the background thread once the queued events are written.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        worker.join(SHUTDOWN_TIMEOUT_MILLIS);
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Runnable logEvent = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (logEvent != null) {
+                    logEvent.run();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Failed to write request log event", e);
+            }
+        }
+    }
+}
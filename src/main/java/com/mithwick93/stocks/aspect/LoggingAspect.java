@@ -1,7 +1,8 @@
 package com.mithwick93.stocks.aspect;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.mithwick93.stocks.util.JsonUtil;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
@@ -10,14 +11,23 @@ import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Aspect for logging execution of service and repository Spring components.
+ * <p>
+ * Requests are sampled per endpoint, and log statements are written on a background thread by
+ * {@link AsyncLogDispatcher}. Payloads are rendered to strings capped in length on the request thread, only for sampled
+ * requests, as the request and the objects bound to it may be recycled once the request completes. Servlet and
+ * {@link WebRequest} arguments are not logged. Exceptions are always logged.
  *
  * @author mithwick93
  */
@@ -25,6 +35,16 @@ import java.util.Arrays;
 @Component
 @Slf4j
 public class LoggingAspect {
+    private static final String SAMPLED_ATTRIBUTE = LoggingAspect.class.getName() + ".SAMPLED";
+
+    private final RequestLoggingProperties requestLoggingProperties;
+    private final AsyncLogDispatcher asyncLogDispatcher;
+
+    @Autowired
+    public LoggingAspect(RequestLoggingProperties requestLoggingProperties, AsyncLogDispatcher asyncLogDispatcher) {
+        this.requestLoggingProperties = requestLoggingProperties;
+        this.asyncLogDispatcher = asyncLogDispatcher;
+    }
 
     @Pointcut("within(com.mithwick93.stocks..*)" + " && within(@org.springframework.web.bind.annotation.RestController *)")
     @lombok.Generated
@@ -39,38 +59,63 @@ public class LoggingAspect {
     }
 
     /**
-     * Advice that logs when a controller method is entered.
+     * Advice that logs when a controller method is entered, if the request is sampled.
      *
      * @param joinPoint Join point for advice
      */
     @Before("controllerPointcut()")
-    public void beforeEndpoint(JoinPoint joinPoint) throws JsonProcessingException {
+    public void beforeEndpoint(JoinPoint joinPoint) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+
         HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        boolean sampled = ThreadLocalRandom.current().nextDouble() < requestLoggingProperties.getSampleRate(joinPoint.getSignature().getName());
+        request.setAttribute(SAMPLED_ATTRIBUTE, sampled);
+        if (!sampled) {
+            return;
+        }
 
-        log.info(
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        String params = JsonUtil.getLogString(new LinkedHashMap<>(request.getParameterMap()), requestLoggingProperties.getMaxPayloadLength());
+        String args = argsString(joinPoint.getArgs());
+
+        asyncLogDispatcher.dispatch(() -> log.info(
                 "[Request] Endpoint: [{}] {}, Params: {}, Args: {}",
-                request.getMethod(),
-                request.getRequestURI(),
-                JsonUtil.getJsonString(request.getParameterMap()),
-                Arrays.toString(joinPoint.getArgs())
-        );
+                method,
+                uri,
+                params,
+                args
+        ));
     }
 
     /**
-     * Advice that logs when a controller method is exited.
+     * Advice that logs when a controller method is exited, if the request is sampled.
      *
      * @param joinPoint Join point for advice
      */
     @AfterReturning(pointcut = "controllerPointcut()", returning = "returnValue")
-    public void afterEndpoint(JoinPoint joinPoint, Object returnValue) throws JsonProcessingException {
+    public void afterEndpoint(JoinPoint joinPoint, Object returnValue) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+
         HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        if (!Boolean.TRUE.equals(request.getAttribute(SAMPLED_ATTRIBUTE))) {
+            return;
+        }
+
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        String returned = JsonUtil.getLogString(returnValue, requestLoggingProperties.getMaxPayloadLength());
 
-        log.info(
+        asyncLogDispatcher.dispatch(() -> log.info(
                 "[Response] Endpoint: [{}] {}, Returned: {}",
-                request.getMethod(),
-                request.getRequestURI(),
-                JsonUtil.getJsonString(returnValue)
-        );
+                method,
+                uri,
+                returned
+        ));
     }
 
     /**
@@ -83,14 +128,17 @@ public class LoggingAspect {
     public void afterThrow(JoinPoint joinPoint, Exception e) {
         HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
 
-        log.error(
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+
+        asyncLogDispatcher.dispatch(() -> log.error(
                 "[Response Exception] Endpoint: [{}] {}, Exception: {}, Message: {}",
-                request.getMethod(),
-                request.getRequestURI(),
+                method,
+                uri,
                 e.getClass().getSimpleName(),
                 e.getMessage(),
                 e
-        );
+        ));
     }
 
     /**
@@ -99,15 +147,32 @@ public class LoggingAspect {
      * @param joinPoint Join point for advice
      */
     @AfterReturning(pointcut = "controllerAdvisorPointcut()", returning = "returnValue")
-    public void afterExceptionHandle(JoinPoint joinPoint, Object returnValue) throws JsonProcessingException {
+    public void afterExceptionHandle(JoinPoint joinPoint, Object returnValue) {
         HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
 
-        log.error(
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        String returned = JsonUtil.getLogString(returnValue, requestLoggingProperties.getMaxPayloadLength());
+
+        asyncLogDispatcher.dispatch(() -> log.error(
                 "[Exception Handler] Endpoint: [{}] {}, Returned: {}",
-                request.getMethod(),
-                request.getRequestURI(),
-                JsonUtil.getJsonString(returnValue)
-        );
+                method,
+                uri,
+                returned
+        ));
     }
 
+    /**
+     * Render the arguments of a controller method, leaving out the servlet request, response and web request.
+     *
+     * @param args Arguments of the controller method.
+     * @return Arguments as a string, capped in length.
+     */
+    String argsString(Object[] args) {
+        Object[] loggedArgs = Arrays.stream(args)
+                .filter(arg -> !(arg instanceof ServletRequest || arg instanceof ServletResponse || arg instanceof WebRequest))
+                .toArray();
+
+        return JsonUtil.truncate(Arrays.toString(loggedArgs), requestLoggingProperties.getMaxPayloadLength());
+    }
 }
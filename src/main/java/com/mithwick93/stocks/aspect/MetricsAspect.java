@@ -0,0 +1,103 @@
+package com.mithwick93.stocks.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aspect for timing execution of controller and service Spring components. Repository calls are timed by Spring Boot
+ * as <code>spring.data.repository.invocations</code>.
+ * <p>
+ * Timers are tagged with the invoked endpoint, the outcome and the exception class, if any. Timers of successful
+ * invocations are cached per method, so the common path does not build tags or look up the registry.
+ *
+ * @author mithwick93
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+    public static final String CONTROLLER_TIMER = "stocks.controller.invocations";
+    public static final String SERVICE_TIMER = "stocks.service.invocations";
+
+    private static final String SUCCESS = "SUCCESS";
+    private static final String ERROR = "ERROR";
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Pointcut("within(com.mithwick93.stocks..*)" + " && within(@org.springframework.web.bind.annotation.RestController *)")
+    @lombok.Generated
+    public void controllerPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    @Pointcut("within(com.mithwick93.stocks..*)" + " && within(@org.springframework.stereotype.Service *)")
+    @lombok.Generated
+    public void servicePointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Advice that times controller methods.
+     *
+     * @param joinPoint Join point for advice
+     * @return Result of the controller method.
+     * @throws Throwable Exception thrown by the controller method.
+     */
+    @Around("controllerPointcut()")
+    public Object timeEndpoint(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(CONTROLLER_TIMER, joinPoint);
+    }
+
+    /**
+     * Advice that times service methods.
+     *
+     * @param joinPoint Join point for advice
+     * @return Result of the service method.
+     * @throws Throwable Exception thrown by the service method.
+     */
+    @Around("servicePointcut()")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(SERVICE_TIMER, joinPoint);
+    }
+
+    private Object time(String timerName, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            sample.stop(timer(timerName, signature, ERROR, e.getClass().getSimpleName()));
+            throw e;
+        }
+
+        sample.stop(successTimers.computeIfAbsent(signature.getMethod(), method -> timer(timerName, signature, SUCCESS, NO_EXCEPTION)));
+        return result;
+    }
+
+    private Timer timer(String timerName, MethodSignature signature, String outcome, String exception) {
+        return Timer.builder(timerName)
+                .tag("endpoint", signature.getDeclaringType().getSimpleName() + "." + signature.getName())
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+}
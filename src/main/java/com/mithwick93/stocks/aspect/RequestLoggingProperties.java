@@ -0,0 +1,47 @@
+package com.mithwick93.stocks.aspect;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration of request logging done by {@link LoggingAspect}.
+ *
+ * @author mithwick93
+ */
+@Data
+@ConfigurationProperties(prefix = "request-logging")
+public class RequestLoggingProperties {
+
+    /**
+     * Fraction of requests to log, between 0 and 1, for endpoints without their own sample rate.
+     */
+    private double defaultSampleRate = 1.0;
+
+    /**
+     * Fraction of requests to log by controller method name, e.g. <code>getStocks</code>.
+     */
+    private Map<String, Double> sampleRates = new HashMap<>();
+
+    /**
+     * Maximum number of characters logged per payload. Longer payloads are truncated.
+     */
+    private int maxPayloadLength = 1024;
+
+    /**
+     * Maximum number of log events waiting to be written. Events are dropped when the queue is full.
+     */
+    private int queueCapacity = 1024;
+
+    /**
+     * Returns sample rate of the given endpoint.
+     *
+     * @param endpoint Controller method name.
+     * @return Fraction of requests to log.
+     */
+    public double getSampleRate(String endpoint) {
+        return sampleRates.getOrDefault(endpoint, defaultSampleRate);
+    }
+}
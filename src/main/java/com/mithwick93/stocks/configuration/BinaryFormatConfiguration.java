@@ -0,0 +1,45 @@
+package com.mithwick93.stocks.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary encodings of the stock payloads, CBOR as <code>application/cbor</code> and Smile as
+ * <code>application/x-jackson-smile</code>, picked by the <code>Accept</code> and <code>Content-Type</code> headers.
+ * Both are written by Jackson from the same DTOs and render the same HAL document as <code>application/json</code>,
+ * prices are encoded as binary decimals. The converters replace the default ones of Spring MVC, which are neither
+ * configured with <code>spring.jackson.*</code> properties nor render HAL, and follow the json converter, so json stays
+ * the default.
+ *
+ * @author mithwick93
+ */
+@Configuration
+public class BinaryFormatConfiguration {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder,
+            HalMediaTypeConfiguration halMediaTypeConfiguration
+    ) {
+        ObjectMapper objectMapper = jackson2ObjectMapperBuilder.factory(new CBORFactory()).build();
+
+        return new MappingJackson2CborHttpMessageConverter(halMediaTypeConfiguration.configureObjectMapper(objectMapper));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+            Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder,
+            HalMediaTypeConfiguration halMediaTypeConfiguration
+    ) {
+        ObjectMapper objectMapper = jackson2ObjectMapperBuilder.factory(new SmileFactory()).build();
+
+        return new MappingJackson2SmileHttpMessageConverter(halMediaTypeConfiguration.configureObjectMapper(objectMapper));
+    }
+}
@@ -0,0 +1,80 @@
+package com.mithwick93.stocks.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mithwick93.stocks.controller.limit.ClientRateLimitFilter;
+import com.mithwick93.stocks.controller.limit.ClientRateLimiter;
+import com.mithwick93.stocks.controller.limit.ConcurrencyLimitFilter;
+import com.mithwick93.stocks.controller.limit.ConcurrencyLimitProperties;
+import com.mithwick93.stocks.controller.limit.ConcurrencyLimiter;
+import com.mithwick93.stocks.controller.limit.GradientLimit;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Load shedding configuration of the stocks API. The adaptive concurrency limit per endpoint group is enabled unless
+ * <code>concurrency-limit.enabled</code> is false, the token buckets per client only with
+ * <code>concurrency-limit.client-rate-limit.enabled</code>. Both are configured using <code>concurrency-limit.*</code>
+ * properties. The filters run after the request metrics filter, so rejected requests are still recorded in
+ * <code>http.server.requests</code>, and throttled clients are rejected before taking a slot of the concurrency limit.
+ *
+ * @author mithwick93
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfiguration {
+    private static final String[] URL_PATTERNS = {"/api/v1/stocks", "/api/v1/stocks/*"};
+
+    @Bean
+    @ConditionalOnProperty(prefix = "concurrency-limit.client-rate-limit", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<ClientRateLimitFilter> clientRateLimitFilter(
+            ConcurrencyLimitProperties concurrencyLimitProperties,
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper
+    ) {
+        ConcurrencyLimitProperties.ClientRateLimit clientRateLimit = concurrencyLimitProperties.getClientRateLimit();
+        ClientRateLimiter clientRateLimiter = new ClientRateLimiter(clientRateLimit, meterRegistry, System::nanoTime);
+        FilterRegistrationBean<ClientRateLimitFilter> registration = new FilterRegistrationBean<>(
+                new ClientRateLimitFilter(clientRateLimiter, clientRateLimit.getClientHeader(), objectMapper)
+        );
+        registration.addUrlPatterns(URL_PATTERNS);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            ConcurrencyLimitProperties concurrencyLimitProperties,
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper
+    ) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(new ConcurrencyLimitFilter(
+                concurrencyLimiter(ConcurrencyLimitFilter.READ_GROUP, concurrencyLimitProperties, meterRegistry),
+                concurrencyLimiter(ConcurrencyLimitFilter.WRITE_GROUP, concurrencyLimitProperties, meterRegistry),
+                concurrencyLimitProperties.getRetryAfter(),
+                objectMapper
+        ));
+        registration.addUrlPatterns(URL_PATTERNS);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 11);
+
+        return registration;
+    }
+
+    private static ConcurrencyLimiter concurrencyLimiter(String group, ConcurrencyLimitProperties concurrencyLimitProperties, MeterRegistry meterRegistry) {
+        GradientLimit gradientLimit = new GradientLimit(
+                concurrencyLimitProperties.getInitialLimit(),
+                concurrencyLimitProperties.getMinLimit(),
+                concurrencyLimitProperties.getMaxLimit(),
+                concurrencyLimitProperties.getTolerance(),
+                concurrencyLimitProperties.getSmoothing()
+        );
+
+        return new ConcurrencyLimiter(group, gradientLimit, meterRegistry);
+    }
+}
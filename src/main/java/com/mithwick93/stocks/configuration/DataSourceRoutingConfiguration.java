@@ -0,0 +1,104 @@
+package com.mithwick93.stocks.configuration;
+
+import com.mithwick93.stocks.controller.routing.PrimaryPinFilter;
+import com.mithwick93.stocks.dal.datasource.DataSourceRoutingProperties;
+import com.mithwick93.stocks.dal.datasource.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica configuration. When <code>datasource-routing.enabled</code> is set, read-only transactions are served
+ * by the replicas configured with <code>datasource-routing.*</code> properties and everything else by the primary
+ * configured with <code>spring.datasource.*</code> properties.
+ *
+ * @author mithwick93
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource-routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+public class DataSourceRoutingConfiguration {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties
+                .initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            DataSourceRoutingProperties dataSourceRoutingProperties,
+            MeterRegistry meterRegistry
+    ) {
+        List<DataSource> replicas = new ArrayList<>();
+        List<DataSourceRoutingProperties.Replica> replicaProperties = dataSourceRoutingProperties.getReplicas();
+        for (int replica = 0; replica < replicaProperties.size(); replica++) {
+            replicas.add(replicaDataSource(primaryDataSource, replicaProperties.get(replica), replica, dataSourceRoutingProperties));
+        }
+
+        ReadWriteRoutingDataSource readWriteRoutingDataSource = new ReadWriteRoutingDataSource(
+                primaryDataSource,
+                replicas,
+                dataSourceRoutingProperties.getHealthCheckInterval()
+        );
+        Gauge.builder("datasource.replicas.healthy", readWriteRoutingDataSource, ReadWriteRoutingDataSource::getHealthyReplicaCount)
+                .description("Read replicas which are not ejected")
+                .register(meterRegistry);
+
+        return readWriteRoutingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Bean
+    public PrimaryPinFilter primaryPinFilter(DataSourceRoutingProperties dataSourceRoutingProperties) {
+        return new PrimaryPinFilter(dataSourceRoutingProperties.getPrimaryPinDuration(), Clock.systemUTC());
+    }
+
+    private static HikariDataSource replicaDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceRoutingProperties.Replica replica,
+            int index,
+            DataSourceRoutingProperties dataSourceRoutingProperties
+    ) {
+        HikariConfig config = new HikariConfig();
+        primaryDataSource.copyStateTo(config);
+        config.setPoolName("replica-" + index);
+        config.setJdbcUrl(replica.getUrl());
+        if (replica.getUsername() != null) {
+            config.setUsername(replica.getUsername());
+        }
+        if (replica.getPassword() != null) {
+            config.setPassword(replica.getPassword());
+        }
+        config.setReadOnly(true);
+        config.setConnectionTimeout(dataSourceRoutingProperties.getReplicaConnectionTimeout().toMillis());
+        // Start even when the replica is down, it is ejected until its health check succeeds.
+        config.setInitializationFailTimeout(-1);
+
+        return new HikariDataSource(config);
+    }
+}
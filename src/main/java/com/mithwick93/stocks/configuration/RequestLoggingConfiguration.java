@@ -0,0 +1,16 @@
+package com.mithwick93.stocks.configuration;
+
+import com.mithwick93.stocks.aspect.RequestLoggingProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Request logging configuration. Sampling, payload length and queue size are configured using
+ * <code>request-logging.*</code> properties.
+ *
+ * @author mithwick93
+ */
+@Configuration
+@EnableConfigurationProperties(RequestLoggingProperties.class)
+public class RequestLoggingConfiguration {
+}
@@ -0,0 +1,16 @@
+package com.mithwick93.stocks.configuration;
+
+import com.mithwick93.stocks.service.StockCountProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Stock count configuration. The lifetime of the cached count is configured using <code>stock-count.*</code>
+ * properties.
+ *
+ * @author mithwick93
+ */
+@Configuration
+@EnableConfigurationProperties(StockCountProperties.class)
+public class StockCountConfiguration {
+}
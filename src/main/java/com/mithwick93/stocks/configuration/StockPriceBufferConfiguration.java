@@ -0,0 +1,16 @@
+package com.mithwick93.stocks.configuration;
+
+import com.mithwick93.stocks.service.StockPriceBufferProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Write-behind price update configuration. Flush interval, batch size and buffer bounds are configured using
+ * <code>stock-price-buffer.*</code> properties.
+ *
+ * @author mithwick93
+ */
+@Configuration
+@EnableConfigurationProperties(StockPriceBufferProperties.class)
+public class StockPriceBufferConfiguration {
+}
@@ -0,0 +1,16 @@
+package com.mithwick93.stocks.configuration;
+
+import com.mithwick93.stocks.service.StockPriceHistoryProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Stock price history configuration. Queue and batch sizes are configured using
+ * <code>stock-price-history.*</code> properties.
+ *
+ * @author mithwick93
+ */
+@Configuration
+@EnableConfigurationProperties(StockPriceHistoryProperties.class)
+public class StockPriceHistoryConfiguration {
+}
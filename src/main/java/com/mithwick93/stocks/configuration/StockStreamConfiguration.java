@@ -0,0 +1,16 @@
+package com.mithwick93.stocks.configuration;
+
+import com.mithwick93.stocks.controller.stream.StockStreamProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Stock update stream configuration. Per subscriber limits and sender threads are configured using
+ * <code>stock-stream.*</code> properties.
+ *
+ * @author mithwick93
+ */
+@Configuration
+@EnableConfigurationProperties(StockStreamProperties.class)
+public class StockStreamConfiguration {
+}
@@ -0,0 +1,68 @@
+package com.mithwick93.stocks.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Virtual thread configuration, enabled with <code>spring.threads.virtual.enabled</code>, the property Spring Boot 3.2
+ * uses for the same switch. Tomcat runs every request, and the service and repository calls it makes, on a new virtual
+ * thread instead of its worker pool, and the MVC async executor streaming the exports uses the same executor. The
+ * <code>server.tomcat.threads.*</code> properties do not apply in this mode, the Hikari pool size still bounds the
+ * concurrent database calls. Virtual threads need a Java 21 runtime, the application is still compiled for Java 17.
+ *
+ * @author mithwick93
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.threads.virtual", name = "enabled", havingValue = "true")
+public class VirtualThreadsConfiguration {
+    static final String THREAD_NAME_PREFIX = "http-virtual-";
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        return newVirtualThreadPerTaskExecutor(THREAD_NAME_PREFIX);
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    /**
+     * Create an executor starting a new virtual thread per task. Looked up reflectively, as the Java 21 API is not
+     * available when compiling for Java 17.
+     *
+     * @param namePrefix Prefix of the thread names, followed by a counter.
+     * @return {@link ExecutorService} running each task on a new virtual thread.
+     * @throws IllegalStateException When the runtime does not support virtual threads.
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor(String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(String.format(
+                    "spring.threads.virtual.enabled requires Java 21 or later, running on Java %d",
+                    Runtime.version().feature()
+            ), e);
+        }
+    }
+}
@@ -1,11 +1,32 @@
 package com.mithwick93.stocks.controller;
 
 import com.mithwick93.stocks.Constants;
+import com.mithwick93.stocks.controller.conditional.StockETag;
+import com.mithwick93.stocks.controller.dto.StockBatchItemResultDto;
+import com.mithwick93.stocks.controller.dto.StockBatchResponseDto;
+import com.mithwick93.stocks.controller.dto.StockBatchUpdateRequestDto;
+import com.mithwick93.stocks.controller.dto.StockBulkDeleteResponseDto;
+import com.mithwick93.stocks.controller.dto.StockCandleDto;
+import com.mithwick93.stocks.controller.dto.StockPatchRequestDto;
+import com.mithwick93.stocks.controller.dto.StockPriceRequestDto;
 import com.mithwick93.stocks.controller.dto.StockRequestDto;
 import com.mithwick93.stocks.controller.dto.StockResponseDto;
+import com.mithwick93.stocks.controller.export.StockExportFormat;
+import com.mithwick93.stocks.controller.export.StockExportWriter;
+import com.mithwick93.stocks.controller.lite.StockLitePage;
 import com.mithwick93.stocks.controller.mapper.StockMapper;
+import com.mithwick93.stocks.controller.pagination.StockCursor;
+import com.mithwick93.stocks.controller.pagination.StockSort;
+import com.mithwick93.stocks.controller.stream.StockStreamBroadcaster;
+import com.mithwick93.stocks.dal.repository.StocksVersion;
 import com.mithwick93.stocks.exception.StockNotFoundException;
+import com.mithwick93.stocks.modal.CandleInterval;
 import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockCountMode;
+import com.mithwick93.stocks.modal.StockField;
+import com.mithwick93.stocks.modal.StockFilter;
+import com.mithwick93.stocks.modal.StockPrice;
+import com.mithwick93.stocks.service.StockPriceBuffer;
 import com.mithwick93.stocks.service.StockService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,31 +35,67 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
 
 /**
  * Stocks REST controller
@@ -50,22 +107,52 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 @RequestMapping(value = "/api/v1/stocks")
 @Validated
 public class StockController {
+    private static final List<MediaType> STOCK_MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, MediaType.valueOf(Constants.APPLICATION_SMILE_VALUE));
+    private static final MediaType STOCKS_LITE_MEDIA_TYPE = MediaType.valueOf(Constants.APPLICATION_STOCKS_LITE_VALUE);
+
     private final StockService stockService;
     private final StockMapper stockMapper;
     private final PagedResourcesAssembler<Stock> stockPagedResourcesAssembler;
+    private final Validator validator;
+    private final StockStreamBroadcaster stockStreamBroadcaster;
+    private final StockPriceBuffer stockPriceBuffer;
 
     @Autowired
-    public StockController(StockService stockService, StockMapper stockMapper, PagedResourcesAssembler<Stock> stockPagedResourcesAssembler) {
+    public StockController(StockService stockService, StockMapper stockMapper, PagedResourcesAssembler<Stock> stockPagedResourcesAssembler, Validator validator, StockStreamBroadcaster stockStreamBroadcaster, StockPriceBuffer stockPriceBuffer) {
         this.stockService = stockService;
         this.stockMapper = stockMapper;
         this.stockPagedResourcesAssembler = stockPagedResourcesAssembler;
+        this.validator = validator;
+        this.stockStreamBroadcaster = stockStreamBroadcaster;
+        this.stockPriceBuffer = stockPriceBuffer;
     }
 
     /**
      * Returns list of all {@link StockResponseDto}s.
      *
-     * @param page Page number. Default is 0.
-     * @param size Size per page. Default is 10.
+     * The count mode decides how the total number of stocks in the page metadata is found. Exact counts are taken from
+     * the version of the stocks, so the page responds with 304 without loading the stocks when they did not change
+     * since the {@code If-None-Match} or {@code If-Modified-Since} validators of the client. The other modes skip that
+     * query, so their responses carry no validators. The entity tag is specific to the negotiated representation and
+     * responses vary by {@code Accept}. In <code>none</code> mode the page metadata and the <code>last</code> link are
+     * left out.
+     *
+     * Filters and sort are applied by the database, each one served by an index. Stocks matching a filter are counted
+     * exactly unless the count mode is <code>none</code>.
+     *
+     * A sparse fieldset selects only the columns of the requested fields and renders only those fields, without the
+     * links of each stock.
+     *
+     * @param page         Page number. Default is 0.
+     * @param size         Size per page. Default is 10.
+     * @param count        Count mode, exact, cached, estimated or none. Default is exact.
+     * @param minPrice     Lowest current price to list, inclusive. Empty for any price.
+     * @param maxPrice     Highest current price to list, inclusive. Empty for any price.
+     * @param namePrefix   Start of the names to list, regardless of case. Empty for any name.
+     * @param updatedSince Earliest last update time to list, inclusive, ISO-8601 instant. Empty for any time.
+     * @param sort         Sort key and direction, e.g. currentPrice,desc. Default is id.
+     * @param fields       Comma separated fields to render, e.g. id,currentPrice. Empty for all fields and links.
+     * @param webRequest   Current request, to evaluate conditional headers.
      * @return List of all {@link StockResponseDto}s.
      */
     @Operation(summary = "Get all stocks")
@@ -75,6 +162,11 @@ public class StockController {
                     description = "Found the Stocks",
                     content = {@Content(mediaType = "application/json", schema = @Schema(implementation = PagedModel.class))}
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Stocks not modified",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "400",
                     description = "Bad data",
@@ -86,23 +178,290 @@ public class StockController {
                     content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
             )
     })
-    @GetMapping(produces = APPLICATION_JSON_VALUE)
+    @GetMapping(produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, Constants.APPLICATION_SMILE_VALUE})
     @ResponseStatus(HttpStatus.OK)
     @ResponseBody
     public ResponseEntity<PagedModel<StockResponseDto>> getStocks(
             @Parameter(description = "0-index page number. Default is 0") @RequestParam(value = "page", defaultValue = Constants.DEFAULT_PAGE_NUMBER, required = false) @Min(0) int page,
-            @Parameter(description = "Size of a page. Default is 10") @RequestParam(value = "size", defaultValue = Constants.DEFAULT_PAGE_SIZE, required = false) @Min(1) int size
+            @Parameter(description = "Size of a page. Default is 10") @RequestParam(value = "size", defaultValue = Constants.DEFAULT_PAGE_SIZE, required = false) @Min(1) int size,
+            @Parameter(description = "How the total number of stocks is counted, exact, cached, estimated or none. Default is exact") @RequestParam(value = "count", defaultValue = Constants.DEFAULT_COUNT_MODE, required = false) String count,
+            @Parameter(description = "Lowest current price to list, inclusive") @RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+            @Parameter(description = "Highest current price to list, inclusive") @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice,
+            @Parameter(description = "Start of the names to list, regardless of case") @RequestParam(value = "namePrefix", required = false) String namePrefix,
+            @Parameter(description = "List stocks last updated at or after this ISO-8601 instant") @RequestParam(value = "updatedSince", required = false) Instant updatedSince,
+            @Parameter(description = "Sort key id, name, currentPrice or lastUpdate, optionally followed by ,asc or ,desc. Default is id") @RequestParam(value = "sort", defaultValue = Constants.DEFAULT_SORT, required = false) String sort,
+            @Parameter(description = "Comma separated fields to render, id, name, currentPrice, createdAt or lastUpdate. Default is all fields with links") @RequestParam(value = "fields", required = false) String fields,
+            WebRequest webRequest
+    ) {
+        StockCountMode countMode = StockCountMode.of(count);
+        Set<StockField> stockFields = StockField.setOf(fields);
+        RepresentationModelAssembler<Stock, StockResponseDto> assembler = stockFields.containsAll(StockField.ALL)
+                ? stockMapper
+                : stock -> stockMapper.toModel(stock, stockFields);
+        Pageable pageable = PageRequest.of(page, size, StockSort.parse(sort));
+
+        return findStocks(countMode, pageable, stockFilter(minPrice, maxPrice, namePrefix, updatedSince), stockFields, webRequest, representation(webRequest, STOCK_MEDIA_TYPES))
+                .map(stocks -> stocks instanceof Page<Stock> stocksPage
+                        ? stockPagedResourcesAssembler.toModel(stocksPage, assembler)
+                        : toSliceModel(stocks, assembler))
+                .map(StockController::negotiated)
+                .orElseGet(StockController::notModified);
+    }
+
+    /**
+     * Returns list of stocks in the lite representation, a flat array of stocks with the page number and size, whether
+     * there is a next page and the total when the stocks are counted. Takes the same parameters as
+     * {@link #getStocks(int, int, String, BigDecimal, BigDecimal, String, Instant, String, String, WebRequest)} and
+     * answers 304 the same way, but writes the stocks without any links, for clients which page through many stocks.
+     *
+     * @param page         Page number. Default is 0.
+     * @param size         Size per page. Default is 10.
+     * @param count        Count mode, exact, cached, estimated or none. Default is exact.
+     * @param minPrice     Lowest current price to list, inclusive. Empty for any price.
+     * @param maxPrice     Highest current price to list, inclusive. Empty for any price.
+     * @param namePrefix   Start of the names to list, regardless of case. Empty for any name.
+     * @param updatedSince Earliest last update time to list, inclusive, ISO-8601 instant. Empty for any time.
+     * @param sort         Sort key and direction, e.g. currentPrice,desc. Default is id.
+     * @param fields       Comma separated fields to write, e.g. id,currentPrice. Empty for all fields.
+     * @param webRequest   Current request, to evaluate conditional headers.
+     * @return {@link StockLitePage} of stocks.
+     */
+    @Operation(summary = "Get all stocks in the lite representation")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Found the Stocks",
+                    content = {@Content(mediaType = Constants.APPLICATION_STOCKS_LITE_VALUE)}
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Stocks not modified",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad data",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error occurred",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            )
+    })
+    @GetMapping(produces = Constants.APPLICATION_STOCKS_LITE_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @ResponseBody
+    public ResponseEntity<StockLitePage> getStocksLite(
+            @Parameter(description = "0-index page number. Default is 0") @RequestParam(value = "page", defaultValue = Constants.DEFAULT_PAGE_NUMBER, required = false) @Min(0) int page,
+            @Parameter(description = "Size of a page. Default is 10") @RequestParam(value = "size", defaultValue = Constants.DEFAULT_PAGE_SIZE, required = false) @Min(1) int size,
+            @Parameter(description = "How the total number of stocks is counted, exact, cached, estimated or none. Default is exact") @RequestParam(value = "count", defaultValue = Constants.DEFAULT_COUNT_MODE, required = false) String count,
+            @Parameter(description = "Lowest current price to list, inclusive") @RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+            @Parameter(description = "Highest current price to list, inclusive") @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice,
+            @Parameter(description = "Start of the names to list, regardless of case") @RequestParam(value = "namePrefix", required = false) String namePrefix,
+            @Parameter(description = "List stocks last updated at or after this ISO-8601 instant") @RequestParam(value = "updatedSince", required = false) Instant updatedSince,
+            @Parameter(description = "Sort key id, name, currentPrice or lastUpdate, optionally followed by ,asc or ,desc. Default is id") @RequestParam(value = "sort", defaultValue = Constants.DEFAULT_SORT, required = false) String sort,
+            @Parameter(description = "Comma separated fields to write, id, name, currentPrice, createdAt or lastUpdate. Default is all fields") @RequestParam(value = "fields", required = false) String fields,
+            WebRequest webRequest
+    ) {
+        StockCountMode countMode = StockCountMode.of(count);
+        Set<StockField> stockFields = StockField.setOf(fields);
+        Pageable pageable = PageRequest.of(page, size, StockSort.parse(sort));
+
+        return findStocks(countMode, pageable, stockFilter(minPrice, maxPrice, namePrefix, updatedSince), stockFields, webRequest, STOCKS_LITE_MEDIA_TYPE)
+                .map(stocks -> negotiated(new StockLitePage(stocks, stockFields)))
+                .orElseGet(StockController::notModified);
+    }
+
+    /**
+     * Returns list of {@link StockResponseDto}s after the given cursor, using keyset pagination. Takes the filters and
+     * sort of {@link #getStocks(int, int, String, BigDecimal, BigDecimal, String, Instant, String, String, WebRequest)}.
+     * The cursor holds the sort value and id of the last stock seen, so the next page is found with a seek on the sort
+     * column, with the id as the tie-breaker. The <code>next</code> link keeps the filters and sort of the request.
+     *
+     * @param after        Opaque cursor from the <code>next</code> link of the previous page. Empty to start from the
+     *                     beginning.
+     * @param size         Size per page. Default is 10.
+     * @param minPrice     Lowest current price to list, inclusive. Empty for any price.
+     * @param maxPrice     Highest current price to list, inclusive. Empty for any price.
+     * @param namePrefix   Start of the names to list, regardless of case. Empty for any name.
+     * @param updatedSince Earliest last update time to list, inclusive, ISO-8601 instant. Empty for any time.
+     * @param sort         Sort key and direction, e.g. currentPrice,desc. Default is id. Has to be the sort the cursor
+     *                     was issued for.
+     * @return List of {@link StockResponseDto}s with a <code>next</code> link when more stocks are available.
+     */
+    @Operation(summary = "Get all stocks using cursor pagination")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Found the Stocks",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = CollectionModel.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad data",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error occurred",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            )
+    })
+    @GetMapping(params = "after", produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @ResponseBody
+    public ResponseEntity<CollectionModel<StockResponseDto>> getStocksAfter(
+            @Parameter(description = "Opaque cursor of the last seen stock. Empty to start from the beginning") @RequestParam(value = "after") String after,
+            @Parameter(description = "Size of a page. Default is 10") @RequestParam(value = "size", defaultValue = Constants.DEFAULT_PAGE_SIZE, required = false) @Min(1) int size,
+            @Parameter(description = "Lowest current price to list, inclusive") @RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+            @Parameter(description = "Highest current price to list, inclusive") @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice,
+            @Parameter(description = "Start of the names to list, regardless of case") @RequestParam(value = "namePrefix", required = false) String namePrefix,
+            @Parameter(description = "List stocks last updated at or after this ISO-8601 instant") @RequestParam(value = "updatedSince", required = false) Instant updatedSince,
+            @Parameter(description = "Sort key id, name, currentPrice or lastUpdate, optionally followed by ,asc or ,desc. Default is id. Has to be the sort of the cursor") @RequestParam(value = "sort", defaultValue = Constants.DEFAULT_SORT, required = false) String sort
     ) {
-        Page<Stock> stocksPages = stockService.findAllStocks(page, size);
-        PagedModel<StockResponseDto> stockResponseDtos = stockPagedResourcesAssembler.toModel(stocksPages, stockMapper);
+        StockCursor cursor = StockCursor.decode(after, StockSort.parse(sort));
+        Slice<Stock> stocksSlice = stockService.findStocksAfter(stockFilter(minPrice, maxPrice, namePrefix, updatedSince), cursor.getSort(), cursor.getLastStock(), size);
+        List<StockResponseDto> stockResponseDtoList = stocksSlice.map(stockMapper::toModel).getContent();
+
+        CollectionModel<StockResponseDto> stockResponseDtos = CollectionModel.of(stockResponseDtoList);
+        stockResponseDtos.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()));
+        if (stocksSlice.hasNext()) {
+            Stock lastStock = stocksSlice.getContent().get(stocksSlice.getNumberOfElements() - 1);
+            String href = ServletUriComponentsBuilder
+                    .fromCurrentRequest()
+                    .replaceQueryParam("after", StockCursor.after(cursor.getSort(), lastStock).encode())
+                    .toUriString();
+            stockResponseDtos.add(Link.of(href, IanaLinkRelations.NEXT));
+        }
 
         return ResponseEntity.ok(stockResponseDtos);
     }
 
     /**
-     * Returns {@link StockResponseDto} by its id.
+     * Returns the stocks with the given ids, loaded with a single query. Results are in the order of the requested ids
+     * and unknown ids are reported per item.
+     *
+     * @param ids Ids of stocks to lookup.
+     * @return {@link StockBatchResponseDto} with a result per requested id.
+     */
+    @Operation(summary = "Get stocks by their ids")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Looked up the Stocks. See per item results",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = StockBatchResponseDto.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad data",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error occurred",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            )
+    })
+    @GetMapping(params = "ids", produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @ResponseBody
+    public ResponseEntity<StockBatchResponseDto> getStocksByIds(
+            @Parameter(description = "Ids of stocks to be searched") @RequestParam(value = "ids") @Size(min = 1, max = Constants.MAX_BATCH_SIZE) List<Long> ids
+    ) {
+        Map<Long, Stock> stocks = stockService.findStocksByIds(new LinkedHashSet<>(ids));
+
+        StockBatchItemResultDto[] results = new StockBatchItemResultDto[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            Stock stock = stocks.get(ids.get(i));
+            results[i] = stock != null
+                    ? succeededItem(i, HttpStatus.OK, withBufferedPrice(stock))
+                    : failedItem(i, HttpStatus.NOT_FOUND, List.of(new StockNotFoundException(ids.get(i)).getMessage()));
+        }
+
+        return ResponseEntity.ok(batchResponse(results));
+    }
+
+    /**
+     * Export all stocks. The response is streamed while stocks are read from the database, so memory usage does not
+     * depend on the number of stocks.
      *
-     * @param id Id of stock to lookup.
+     * @param accept Accepted media types. NDJSON is used unless CSV is preferred.
+     * @return Stream of all stocks ordered by id, as NDJSON or CSV.
+     */
+    @Operation(summary = "Export all stocks")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Exported the Stocks",
+                    content = {@Content(mediaType = APPLICATION_NDJSON_VALUE), @Content(mediaType = StockExportFormat.TEXT_CSV_VALUE)}
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error occurred",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            )
+    })
+    @GetMapping(value = "/export", produces = {APPLICATION_NDJSON_VALUE, StockExportFormat.TEXT_CSV_VALUE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<StreamingResponseBody> exportStocks(
+            @Parameter(description = "Export format, application/x-ndjson or text/csv") @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = APPLICATION_NDJSON_VALUE) String accept
+    ) {
+        StockExportFormat format = StockExportFormat.negotiate(accept);
+        StreamingResponseBody responseBody = outputStream -> {
+            try (StockExportWriter stockExportWriter = StockExportWriter.of(format, outputStream)) {
+                stockService.exportStocks(stockExportWriter::write);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("stocks." + format.getFileExtension()).build().toString())
+                .body(responseBody);
+    }
+
+    /**
+     * Stream committed changes of stocks as Server-Sent Events. Each event is named <code>created</code>,
+     * <code>updated</code> or <code>deleted</code> and holds the stock as JSON. Rapid updates of a stock are coalesced
+     * to the latest one.
+     *
+     * @param ids Ids of stocks to watch. Empty to watch all stocks.
+     * @return Stream of stock changes.
+     */
+    @Operation(summary = "Stream stock changes")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Streaming stock changes",
+                    content = {@Content(mediaType = TEXT_EVENT_STREAM_VALUE)}
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad data",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error occurred",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            )
+    })
+    @GetMapping(value = "/stream", produces = TEXT_EVENT_STREAM_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public SseEmitter streamStocks(
+            @Parameter(description = "Ids of stocks to watch. Empty to watch all stocks") @RequestParam(value = "ids", required = false, defaultValue = "") @Size(max = Constants.MAX_BATCH_SIZE) Set<Long> ids
+    ) {
+        return stockStreamBroadcaster.subscribe(ids);
+    }
+
+    /**
+     * Returns {@link StockResponseDto} by its id. Responds with 304 without mapping the stock when it did not change
+     * since the {@code If-None-Match} or {@code If-Modified-Since} validators of the client. The entity tag is specific
+     * to the negotiated representation and responses vary by {@code Accept}. A buffered price which is not written yet
+     * is returned instead of the written one, without validators, unless the stock was written after it.
+     *
+     * @param id         Id of stock to lookup.
+     * @param webRequest Current request, to evaluate conditional headers.
      * @return {@link StockResponseDto} by its id.
      * @throws StockNotFoundException When there is no stock with such id.
      */
@@ -113,6 +472,11 @@ public class StockController {
                     description = "Found the Stock",
                     content = {@Content(mediaType = "application/json", schema = @Schema(implementation = StockResponseDto.class))}
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Stock not modified",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Stock not found",
@@ -124,22 +488,145 @@ public class StockController {
                     content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
             )
     })
-    @GetMapping(value = "/{id}", produces = APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/{id}", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, Constants.APPLICATION_SMILE_VALUE})
     @ResponseStatus(HttpStatus.OK)
     @ResponseBody
     public ResponseEntity<StockResponseDto> getStockById(
-            @Parameter(description = "Id of stock to be searched") @PathVariable long id
+            @Parameter(description = "Id of stock to be searched") @PathVariable long id,
+            WebRequest webRequest
     ) {
+        Optional<StockPrice> bufferedPrice = stockPriceBuffer.get(id);
         Stock stock = stockService.findStockById(id);
+        bufferedPrice = bufferedPrice.filter(stockPrice -> isCurrent(stockPrice, stock));
+        if (bufferedPrice.isPresent()) {
+            return negotiated(stockMapper.toModel(withPrice(stock, bufferedPrice.get())));
+        }
+        if (webRequest.checkNotModified(StockETag.of(stock, representation(webRequest, STOCK_MEDIA_TYPES)), stock.getLastUpdate().getTime())) {
+            return notModified();
+        }
+
         StockResponseDto stockResponseDto = stockMapper.toModel(stock);
 
-        return ResponseEntity.ok(stockResponseDto);
+        return negotiated(stockResponseDto);
+    }
+
+    /**
+     * Returns {@link StockResponseDto} by its name, regardless of case. Responds with 304 without mapping the stock when
+     * it did not change since the {@code If-None-Match} or {@code If-Modified-Since} validators of the client. A
+     * buffered price which is not written yet is returned instead of the written one, without validators, unless the
+     * stock was written after it.
+     *
+     * @param name       Name (ticker symbol) of stock to lookup.
+     * @param webRequest Current request, to evaluate conditional headers.
+     * @return {@link StockResponseDto} by its name.
+     * @throws StockNotFoundException When there is no stock with such name.
+     */
+    @Operation(summary = "Get a stock by its name")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Found the Stock",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = StockResponseDto.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Stock not modified",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Stock not found",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error occurred",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            )
+    })
+    @GetMapping(value = "/by-name/{name}", produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @ResponseBody
+    public ResponseEntity<StockResponseDto> getStockByName(
+            @Parameter(description = "Name of stock to be searched") @PathVariable String name,
+            WebRequest webRequest
+    ) {
+        Stock stock = stockService.findStockByName(name);
+        Optional<StockPrice> bufferedPrice = stockPriceBuffer.get(stock.getId())
+                .filter(stockPrice -> isCurrent(stockPrice, stock));
+        if (bufferedPrice.isPresent()) {
+            return negotiated(stockMapper.toModel(withPrice(stock, bufferedPrice.get())));
+        }
+        if (webRequest.checkNotModified(StockETag.of(stock), stock.getLastUpdate().getTime())) {
+            return notModified();
+        }
+
+        StockResponseDto stockResponseDto = stockMapper.toModel(stock);
+
+        return negotiated(stockResponseDto);
+    }
+
+    /**
+     * Returns open, high, low and close prices of a stock per interval, computed from its price history.
+     *
+     * @param id       Id of stock.
+     * @param interval Interval of each candle, 1m, 1h or 1d. Default is 1m.
+     * @param from     Start of the range, inclusive. Default is {@value Constants#MAX_CANDLES} intervals before the end.
+     * @param to       End of the range, exclusive. Default is now.
+     * @return List of {@link StockCandleDto}s ordered by start time.
+     * @throws StockNotFoundException When there is no stock with such id.
+     */
+    @Operation(summary = "Get price candles of a stock")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Found the Candles",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = CollectionModel.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad data",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Stock not found",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error occurred",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            )
+    })
+    @GetMapping(value = "/{id}/candles", produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @ResponseBody
+    public ResponseEntity<CollectionModel<StockCandleDto>> getCandles(
+            @Parameter(description = "Id of stock") @PathVariable long id,
+            @Parameter(description = "Interval of each candle, 1m, 1h or 1d. Default is 1m") @RequestParam(value = "interval", defaultValue = Constants.DEFAULT_CANDLE_INTERVAL, required = false) String interval,
+            @Parameter(description = "Start of the range as ISO-8601 instant, inclusive") @RequestParam(value = "from", required = false) Instant from,
+            @Parameter(description = "End of the range as ISO-8601 instant, exclusive. Default is now") @RequestParam(value = "to", required = false) Instant to
+    ) {
+        CandleInterval candleInterval = CandleInterval.of(interval);
+        Stock stock = stockService.findStockById(id);
+        List<StockCandleDto> stockCandleDtoList = stockService.findCandles(stock.getId(), candleInterval, from, to)
+                .stream()
+                .map(stockMapper::toCandleDto)
+                .toList();
+
+        CollectionModel<StockCandleDto> stockCandleDtos = CollectionModel.of(stockCandleDtoList);
+        stockCandleDtos.add(linkTo(methodOn(StockController.class).getCandles(id, interval, from, to)).withSelfRel());
+        stockCandleDtos.add(linkTo(methodOn(StockController.class).getStockById(id, null)).withRel("stock"));
+
+        return ResponseEntity.ok(stockCandleDtos);
     }
 
     /**
      * Create new stock by request.
      *
      * @param stockRequestDto {@link StockRequestDto} of new stock to add.
+     * @param webRequest      Current request, to tag the stock in the negotiated representation.
      * @return Newly created {@link Stock}.
      */
     @Operation(summary = "Create stock")
@@ -154,32 +641,42 @@ public class StockController {
                     description = "Bad stock data",
                     content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Stock name already taken",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "Internal server error occurred",
                     content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
             )
     })
-    @PostMapping(consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    @PostMapping(consumes = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, Constants.APPLICATION_SMILE_VALUE}, produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, Constants.APPLICATION_SMILE_VALUE})
     @ResponseStatus(HttpStatus.CREATED)
     @ResponseBody
     public ResponseEntity<StockResponseDto> createStock(
-            @Parameter(description = "New stock request") @Valid @RequestBody StockRequestDto stockRequestDto
+            @Parameter(description = "New stock request") @Valid @RequestBody StockRequestDto stockRequestDto,
+            WebRequest webRequest
     ) {
         Stock newStockRequest = stockMapper.toEntity(stockRequestDto);
         Stock createdStock = stockService.createStock(newStockRequest);
         StockResponseDto stockResponseDto = stockMapper.toModel(createdStock);
 
         return ResponseEntity
-                .created(linkTo(methodOn(StockController.class).getStockById(stockResponseDto.getId())).toUri())
+                .created(linkTo(methodOn(StockController.class).getStockById(stockResponseDto.getId(), null)).toUri())
+                .eTag(StockETag.of(createdStock, representation(webRequest, STOCK_MEDIA_TYPES)))
                 .body(stockResponseDto);
     }
 
     /**
-     * Updates given stock.
+     * Updates given stock. When an {@code If-Match} header is sent, the stock is only updated if it is still at that
+     * version.
      *
      * @param id              Id of stock to update.
+     * @param ifMatch         Optional entity tag of the stock version to update.
      * @param stockRequestDto {@link StockRequestDto} of stock to update from.
+     * @param webRequest      Current request, to tag the stock in the negotiated representation.
      * @return Updated {@link Stock}.
      */
     @Operation(summary = "Update stock")
@@ -199,24 +696,280 @@ public class StockController {
                     description = "Stock not found",
                     content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Stock name already taken",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Stock was modified since the version in If-Match",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "Internal server error occurred",
                     content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
             )
     })
-    @PutMapping(value = "/{id}", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    @PutMapping(value = "/{id}", consumes = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, Constants.APPLICATION_SMILE_VALUE}, produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, Constants.APPLICATION_SMILE_VALUE})
     @ResponseStatus(HttpStatus.OK)
     @ResponseBody
     public ResponseEntity<StockResponseDto> updateStock(
             @Parameter(description = "Id of stock to be updated") @PathVariable long id,
-            @Parameter(description = "Stock information to be updated") @Valid @RequestBody StockRequestDto stockRequestDto
+            @Parameter(description = "Entity tag of the stock version to update") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Parameter(description = "Stock information to be updated") @Valid @RequestBody StockRequestDto stockRequestDto,
+            WebRequest webRequest
     ) {
         Stock updateStockRequest = stockMapper.toEntity(stockRequestDto);
-        Stock updatedStock = stockService.updateStock(id, updateStockRequest);
+        Stock updatedStock = stockService.updateStock(id, StockETag.parseIfMatch(ifMatch), updateStockRequest);
         StockResponseDto stockResponseDto = stockMapper.toModel(updatedStock);
 
-        return ResponseEntity.ok(stockResponseDto);
+        return ResponseEntity
+                .ok()
+                .eTag(StockETag.of(updatedStock, representation(webRequest, STOCK_MEDIA_TYPES)))
+                .body(stockResponseDto);
+    }
+
+    /**
+     * Partially updates given stock. Only the fields sent are changed. When an {@code If-Match} header is sent, the
+     * stock is only updated if it is still at that version.
+     *
+     * @param id                   Id of stock to update.
+     * @param ifMatch              Optional entity tag of the stock version to update.
+     * @param stockPatchRequestDto {@link StockPatchRequestDto} of stock fields to change.
+     * @param webRequest           Current request, to tag the stock in the negotiated representation.
+     * @return Updated {@link Stock}.
+     */
+    @Operation(summary = "Partially update stock")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Updated Stock",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = StockResponseDto.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad stock data",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Stock not found",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Stock name already taken",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Stock was modified since the version in If-Match",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error occurred",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            )
+    })
+    @PatchMapping(value = "/{id}", consumes = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, Constants.APPLICATION_SMILE_VALUE}, produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, Constants.APPLICATION_SMILE_VALUE})
+    @ResponseStatus(HttpStatus.OK)
+    @ResponseBody
+    public ResponseEntity<StockResponseDto> patchStock(
+            @Parameter(description = "Id of stock to be updated") @PathVariable long id,
+            @Parameter(description = "Entity tag of the stock version to update") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Parameter(description = "Stock fields to be changed") @Valid @RequestBody StockPatchRequestDto stockPatchRequestDto,
+            WebRequest webRequest
+    ) {
+        Stock patchStockRequest = stockMapper.toEntity(stockPatchRequestDto);
+        Stock updatedStock = stockService.patchStock(id, StockETag.parseIfMatch(ifMatch), patchStockRequest);
+        StockResponseDto stockResponseDto = stockMapper.toModel(updatedStock);
+
+        return ResponseEntity
+                .ok()
+                .eTag(StockETag.of(updatedStock, representation(webRequest, STOCK_MEDIA_TYPES)))
+                .body(stockResponseDto);
+    }
+
+    /**
+     * Update the price of a stock behind the response. The price is buffered and acknowledged right away, and written
+     * with the buffered prices of other stocks on the next flush, keeping only the latest price per stock. Reads of the
+     * stock by id or name see the buffered price before it is written, without validators since its version is not
+     * incremented yet. The stock is not looked up. Prices of unknown stocks, or of stocks written after the price was
+     * accepted, are dropped when flushed.
+     *
+     * Acknowledged prices are lost when the application is killed before the next flush. Without write-behind the
+     * price is written before the response instead.
+     *
+     * @param id                   Id of stock to update.
+     * @param stockPriceRequestDto {@link StockPriceRequestDto} of the new price.
+     * @return Empty response with status 202.
+     */
+    @Operation(summary = "Update stock price behind the response")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Price accepted",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad price",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Stock not found, only without write-behind",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Too many prices waiting to be written",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error occurred",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            )
+    })
+    @PutMapping(value = "/{id}/price", consumes = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, Constants.APPLICATION_SMILE_VALUE})
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ResponseEntity<Void> updateStockPrice(
+            @Parameter(description = "Id of stock to be updated") @PathVariable long id,
+            @Parameter(description = "New price of the stock") @Valid @RequestBody StockPriceRequestDto stockPriceRequestDto
+    ) {
+        stockPriceBuffer.put(id, stockPriceRequestDto.getCurrentPrice());
+
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Create new stocks in a single transaction. Each item is validated on its own, invalid items are reported and
+     * valid items are created.
+     *
+     * @param stockRequestDtos {@link StockRequestDto}s of new stocks to add.
+     * @return {@link StockBatchResponseDto} with a result per request item.
+     */
+    @Operation(summary = "Create stocks in bulk")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Processed the batch. See per item results",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = StockBatchResponseDto.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad batch data",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "A stock name already taken, the batch was not applied",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error occurred",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            )
+    })
+    @PostMapping(value = "/batch", consumes = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, Constants.APPLICATION_SMILE_VALUE}, produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, Constants.APPLICATION_SMILE_VALUE})
+    @ResponseStatus(HttpStatus.OK)
+    @ResponseBody
+    public ResponseEntity<StockBatchResponseDto> createStocks(
+            @Parameter(description = "New stock requests") @RequestBody @Size(min = 1, max = Constants.MAX_BATCH_SIZE) List<StockRequestDto> stockRequestDtos
+    ) {
+        StockBatchItemResultDto[] results = new StockBatchItemResultDto[stockRequestDtos.size()];
+        List<Integer> newStockIndexes = new ArrayList<>();
+        List<Stock> newStockRequests = new ArrayList<>();
+
+        for (int i = 0; i < stockRequestDtos.size(); i++) {
+            List<String> errors = validate(stockRequestDtos.get(i));
+            if (errors.isEmpty()) {
+                newStockIndexes.add(i);
+                newStockRequests.add(stockMapper.toEntity(stockRequestDtos.get(i)));
+            } else {
+                results[i] = failedItem(i, HttpStatus.BAD_REQUEST, errors);
+            }
+        }
+
+        if (!newStockRequests.isEmpty()) {
+            List<Stock> createdStocks = stockService.createStocks(newStockRequests);
+            for (int i = 0; i < newStockIndexes.size(); i++) {
+                results[newStockIndexes.get(i)] = succeededItem(newStockIndexes.get(i), HttpStatus.CREATED, createdStocks.get(i));
+            }
+        }
+
+        return ResponseEntity.ok(batchResponse(results));
+    }
+
+    /**
+     * Updates given stocks in a single transaction. Each item is validated on its own, invalid and unknown stocks are
+     * reported and the remaining stocks are updated.
+     *
+     * @param stockBatchUpdateRequestDtos {@link StockBatchUpdateRequestDto}s of stocks to update.
+     * @return {@link StockBatchResponseDto} with a result per request item.
+     */
+    @Operation(summary = "Update stocks in bulk")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Processed the batch. See per item results",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = StockBatchResponseDto.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad batch data",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "A stock name already taken, the batch was not applied",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error occurred",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            )
+    })
+    @PutMapping(value = "/batch", consumes = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, Constants.APPLICATION_SMILE_VALUE}, produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, Constants.APPLICATION_SMILE_VALUE})
+    @ResponseStatus(HttpStatus.OK)
+    @ResponseBody
+    public ResponseEntity<StockBatchResponseDto> updateStocks(
+            @Parameter(description = "Stock information to be updated") @RequestBody @Size(min = 1, max = Constants.MAX_BATCH_SIZE) List<StockBatchUpdateRequestDto> stockBatchUpdateRequestDtos
+    ) {
+        StockBatchItemResultDto[] results = new StockBatchItemResultDto[stockBatchUpdateRequestDtos.size()];
+        Map<Long, Integer> updateStockIndexes = new LinkedHashMap<>();
+        Map<Long, Stock> updateStockRequests = new LinkedHashMap<>();
+
+        for (int i = 0; i < stockBatchUpdateRequestDtos.size(); i++) {
+            StockBatchUpdateRequestDto stockBatchUpdateRequestDto = stockBatchUpdateRequestDtos.get(i);
+            List<String> errors = validate(stockBatchUpdateRequestDto);
+            if (!errors.isEmpty()) {
+                results[i] = failedItem(i, HttpStatus.BAD_REQUEST, errors);
+            } else if (updateStockIndexes.containsKey(stockBatchUpdateRequestDto.getId())) {
+                results[i] = failedItem(i, HttpStatus.BAD_REQUEST, List.of(String.format("Duplicate stock %d in batch", stockBatchUpdateRequestDto.getId())));
+            } else {
+                updateStockIndexes.put(stockBatchUpdateRequestDto.getId(), i);
+                updateStockRequests.put(stockBatchUpdateRequestDto.getId(), stockMapper.toEntity(stockBatchUpdateRequestDto));
+            }
+        }
+
+        if (!updateStockRequests.isEmpty()) {
+            Map<Long, Stock> updatedStocks = stockService.updateStocks(updateStockRequests);
+            updateStockIndexes.forEach((id, index) -> {
+                Stock updatedStock = updatedStocks.get(id);
+                results[index] = updatedStock != null
+                        ? succeededItem(index, HttpStatus.OK, updatedStock)
+                        : failedItem(index, HttpStatus.NOT_FOUND, List.of(new StockNotFoundException(id).getMessage()));
+            });
+        }
+
+        return ResponseEntity.ok(batchResponse(results));
     }
 
     /**
@@ -252,5 +1005,228 @@ public class StockController {
 
         return ResponseEntity.noContent().build();
     }
-}
 
+    /**
+     * Delete the stocks with the given ids with a single statement. Unknown ids are ignored.
+     *
+     * @param ids Ids of stocks to delete.
+     * @return {@link StockBulkDeleteResponseDto} with the number of deleted stocks.
+     */
+    @Operation(summary = "Delete stocks by their ids")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Deleted the Stocks",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = StockBulkDeleteResponseDto.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad data",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error occurred",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            )
+    })
+    @DeleteMapping(params = "ids", produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @ResponseBody
+    public ResponseEntity<StockBulkDeleteResponseDto> deleteStocks(
+            @Parameter(description = "Ids of stocks to be deleted") @RequestParam(value = "ids") @Size(min = 1, max = Constants.MAX_BATCH_SIZE) Set<Long> ids
+    ) {
+        int deleted = stockService.deleteStocks(ids);
+
+        return ResponseEntity.ok(new StockBulkDeleteResponseDto(deleted));
+    }
+
+    /**
+     * Delete all stocks which were not updated since the given time, with a single statement.
+     *
+     * @param updatedBefore Exclusive upper bound of the last update time, ISO-8601 instant.
+     * @return {@link StockBulkDeleteResponseDto} with the number of deleted stocks.
+     */
+    @Operation(summary = "Delete stocks not updated since a time")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Deleted the Stocks",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = StockBulkDeleteResponseDto.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad data",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error occurred",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))}
+            )
+    })
+    @DeleteMapping(params = "updatedBefore", produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @ResponseBody
+    public ResponseEntity<StockBulkDeleteResponseDto> deleteStocksUpdatedBefore(
+            @Parameter(description = "Delete stocks last updated before this ISO-8601 instant") @RequestParam(value = "updatedBefore") Instant updatedBefore
+    ) {
+        int deleted = stockService.deleteStocksUpdatedBefore(updatedBefore);
+
+        return ResponseEntity.ok(new StockBulkDeleteResponseDto(deleted));
+    }
+
+    private List<String> validate(Object requestDto) {
+        return validator.validate(requestDto)
+                .stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .toList();
+    }
+
+    private StockBatchItemResultDto succeededItem(int index, HttpStatus status, Stock stock) {
+        return StockBatchItemResultDto.builder()
+                .index(index)
+                .status(status.value())
+                .stock(stockMapper.toModel(stock))
+                .build();
+    }
+
+    private StockBatchItemResultDto failedItem(int index, HttpStatus status, List<String> errors) {
+        return StockBatchItemResultDto.builder()
+                .index(index)
+                .status(status.value())
+                .errors(errors)
+                .build();
+    }
+
+    private StockBatchResponseDto batchResponse(StockBatchItemResultDto[] results) {
+        int failed = (int) Arrays.stream(results).filter(result -> result.getErrors() != null).count();
+
+        return StockBatchResponseDto.builder()
+                .succeeded(results.length - failed)
+                .failed(failed)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    /**
+     * Find the page of stocks of a list request. Counts the stocks in the given count mode, or only tells whether there
+     * is a next page in <code>none</code> mode.
+     *
+     * @return {@link Page} of counted stocks, {@link Slice} of stocks in <code>none</code> mode, or empty when the
+     * exact count shows the stocks did not change since the validators of the client for the given representation.
+     */
+    private Optional<Slice<Stock>> findStocks(StockCountMode countMode, Pageable pageable, StockFilter filter, Set<StockField> fields, WebRequest webRequest, MediaType mediaType) {
+        if (countMode == StockCountMode.NONE) {
+            return Optional.of(stockService.findStocksSlice(filter, pageable, fields));
+        }
+
+        long total;
+        if (countMode == StockCountMode.EXACT) {
+            StocksVersion stocksVersion = stockService.findStocksVersion();
+            if (webRequest.checkNotModified(StockETag.of(stocksVersion, mediaType), StockETag.lastModified(stocksVersion))) {
+                return Optional.empty();
+            }
+            total = filter.isEmpty() ? stocksVersion.getStockCount() : stockService.countStocks(countMode, filter);
+        } else {
+            total = stockService.countStocks(countMode, filter);
+        }
+
+        return Optional.of(stockService.findAllStocks(filter, pageable, total, fields));
+    }
+
+    /**
+     * Media type the response is written in, the first of the producible media types in the order preferred by the
+     * {@code Accept} header, as the message converters pick it.
+     */
+    private static MediaType representation(WebRequest webRequest, List<MediaType> producibleMediaTypes) {
+        String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+        List<MediaType> acceptedMediaTypes = accept == null ? List.of(MediaType.ALL) : MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(acceptedMediaTypes);
+
+        return acceptedMediaTypes.stream()
+                .flatMap(acceptedMediaType -> producibleMediaTypes.stream().filter(acceptedMediaType::isCompatibleWith))
+                .findFirst()
+                .orElse(producibleMediaTypes.get(0));
+    }
+
+    /**
+     * Response of a conditional GET, which caches must keep per {@code Accept} header as its validators depend on it.
+     */
+    private static <T> ResponseEntity<T> negotiated(T body) {
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    private static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+
+    private static StockFilter stockFilter(BigDecimal minPrice, BigDecimal maxPrice, String namePrefix, Instant updatedSince) {
+        return StockFilter.builder()
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .namePrefix(namePrefix)
+                .updatedSince(updatedSince)
+                .build();
+    }
+
+    private Stock withBufferedPrice(Stock stock) {
+        return stockPriceBuffer.get(stock.getId())
+                .filter(bufferedPrice -> isCurrent(bufferedPrice, stock))
+                .map(bufferedPrice -> withPrice(stock, bufferedPrice))
+                .orElse(stock);
+    }
+
+    /**
+     * Whether a buffered price is not older than the last write of the stock, the same condition the flush writes it
+     * on. Older prices are dropped when flushed, so a stock written after the price, e.g. by a PUT, is returned as
+     * written.
+     */
+    private static boolean isCurrent(StockPrice stockPrice, Stock stock) {
+        return !stockPrice.getRecordedAt().isBefore(stock.getLastUpdate().toInstant());
+    }
+
+    /**
+     * Copy of the stock with a price which is not written yet, so cached stocks are not changed.
+     */
+    private static Stock withPrice(Stock stock, StockPrice stockPrice) {
+        return new Stock(
+                stock.getId(),
+                stock.getName(),
+                stockPrice.getPrice(),
+                stock.getCreatedAt(),
+                Timestamp.from(stockPrice.getRecordedAt()),
+                stock.getVersion()
+        );
+    }
+
+    private PagedModel<StockResponseDto> toSliceModel(Slice<Stock> stocksSlice, RepresentationModelAssembler<Stock, StockResponseDto> assembler) {
+        List<StockResponseDto> stockResponseDtoList = stocksSlice.map(assembler::toModel).getContent();
+
+        List<Link> links = new ArrayList<>();
+        links.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()));
+        if (stocksSlice.hasPrevious()) {
+            links.add(pageLink(0, IanaLinkRelations.FIRST));
+            links.add(pageLink(stocksSlice.getNumber() - 1, IanaLinkRelations.PREV));
+        }
+        if (stocksSlice.hasNext()) {
+            links.add(pageLink(stocksSlice.getNumber() + 1, IanaLinkRelations.NEXT));
+        }
+
+        return PagedModel.of(stockResponseDtoList, (PagedModel.PageMetadata) null, links);
+    }
+
+    private static Link pageLink(int page, LinkRelation relation) {
+        String href = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .replaceQueryParam("page", page)
+                .toUriString();
+
+        return Link.of(href, relation);
+    }
+}
@@ -0,0 +1,105 @@
+package com.mithwick93.stocks.controller.conditional;
+
+import com.mithwick93.stocks.dal.repository.StocksVersion;
+import com.mithwick93.stocks.modal.Stock;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.http.MediaType;
+
+/**
+ * Entity tags of stocks. The strong entity tag of a stock is its quoted version, which changes with every update. The
+ * entity tag of pages of stocks is derived from the {@link StocksVersion} of all stocks. Representations other than
+ * JSON append their media subtype, since a strong entity tag must differ between the bytes of CBOR, Smile and JSON.
+ *
+ * @author mithwick93
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class StockETag {
+    private static final String ANY = "*";
+    private static final String QUOTE = "\"";
+    private static final String SEPARATOR = "-";
+    private static final String INVALID_IF_MATCH_MESSAGE = "Invalid If-Match header: %s";
+
+    /**
+     * Entity tag of the given stock.
+     *
+     * @param stock {@link Stock} to tag.
+     * @return Quoted version of the stock.
+     */
+    public static String of(Stock stock) {
+        return of(stock, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Entity tag of the given stock in the given representation.
+     *
+     * @param stock     {@link Stock} to tag.
+     * @param mediaType {@link MediaType} the stock is written in.
+     * @return Quoted version of the stock, followed by the media subtype unless it is JSON.
+     */
+    public static String of(Stock stock, MediaType mediaType) {
+        return QUOTE + stock.getVersion() + representation(mediaType) + QUOTE;
+    }
+
+    /**
+     * Entity tag of pages of stocks, which changes whenever a stock is created, updated or deleted.
+     *
+     * @param stocksVersion {@link StocksVersion} of all stocks.
+     * @return Quoted stock count, version sum and last update time.
+     */
+    public static String of(StocksVersion stocksVersion) {
+        return of(stocksVersion, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Entity tag of pages of stocks in the given representation.
+     *
+     * @param stocksVersion {@link StocksVersion} of all stocks.
+     * @param mediaType     {@link MediaType} the page is written in.
+     * @return Quoted stock count, version sum and last update time, followed by the media subtype unless it is JSON.
+     */
+    public static String of(StocksVersion stocksVersion, MediaType mediaType) {
+        return QUOTE + stocksVersion.getStockCount() + SEPARATOR + stocksVersion.getVersionSum() + SEPARATOR + lastModified(stocksVersion) + representation(mediaType) + QUOTE;
+    }
+
+    /**
+     * Last modification time of pages of stocks.
+     *
+     * @param stocksVersion {@link StocksVersion} of all stocks.
+     * @return Last update time of any stock in milliseconds, or -1 when there are no stocks.
+     */
+    public static long lastModified(StocksVersion stocksVersion) {
+        return stocksVersion.getLastUpdate() != null ? stocksVersion.getLastUpdate().getTime() : -1;
+    }
+
+    /**
+     * Parse the version expected by an {@code If-Match} header. A missing header or {@code *} matches any version.
+     * Only a single strong entity tag is supported, in any representation.
+     *
+     * @param ifMatch Value of the {@code If-Match} header, can be null.
+     * @return Expected version, or null when any version matches.
+     * @throws IllegalArgumentException When the header is not a single strong entity tag of a stock.
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+
+        String entityTag = ifMatch.trim();
+        if (entityTag.length() < 3 || !entityTag.startsWith(QUOTE) || !entityTag.endsWith(QUOTE)) {
+            throw new IllegalArgumentException(String.format(INVALID_IF_MATCH_MESSAGE, ifMatch));
+        }
+
+        String opaqueTag = entityTag.substring(1, entityTag.length() - 1);
+        int separator = opaqueTag.indexOf(SEPARATOR);
+        try {
+            return Long.parseLong(separator < 0 ? opaqueTag : opaqueTag.substring(0, separator));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format(INVALID_IF_MATCH_MESSAGE, ifMatch), e);
+        }
+    }
+
+    private static String representation(MediaType mediaType) {
+        return MediaType.APPLICATION_JSON.equalsTypeAndSubtype(mediaType) ? "" : SEPARATOR + mediaType.getSubtype();
+    }
+}
@@ -0,0 +1,26 @@
+package com.mithwick93.stocks.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO used to send the result of a single item of a batch request to clients.
+ *
+ * @author mithwick93
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockBatchItemResultDto {
+    private int index;
+    private int status;
+    private StockResponseDto stock;
+    private List<String> errors;
+}
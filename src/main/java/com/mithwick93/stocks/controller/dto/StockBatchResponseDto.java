@@ -0,0 +1,23 @@
+package com.mithwick93.stocks.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO used to send the results of a batch request to clients. Results are in the same order as the request items.
+ *
+ * @author mithwick93
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockBatchResponseDto {
+    private int succeeded;
+    private int failed;
+    private List<StockBatchItemResultDto> results;
+}
@@ -0,0 +1,29 @@
+package com.mithwick93.stocks.controller.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * Stock DTO used to get a single stock update of a bulk update request from clients.
+ *
+ * @author mithwick93
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@NoArgsConstructor
+public class StockBatchUpdateRequestDto extends StockRequestDto {
+
+    @NotNull(message = "Stock id is required")
+    private Long id;
+
+    public StockBatchUpdateRequestDto(Long id, String name, BigDecimal currentPrice) {
+        super(name, currentPrice);
+        this.id = id;
+    }
+}
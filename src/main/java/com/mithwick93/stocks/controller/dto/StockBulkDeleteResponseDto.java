@@ -0,0 +1,19 @@
+package com.mithwick93.stocks.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO used to send the result of a bulk delete to clients.
+ *
+ * @author mithwick93
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockBulkDeleteResponseDto {
+    private int deleted;
+}
@@ -0,0 +1,28 @@
+package com.mithwick93.stocks.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.hateoas.server.core.Relation;
+
+import java.math.BigDecimal;
+
+/**
+ * Stock candle DTO used to send open, high, low and close prices of an interval to clients.
+ *
+ * @author mithwick93
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Relation(collectionRelation = "candles")
+public class StockCandleDto {
+    private long start;
+    private BigDecimal open;
+    private BigDecimal high;
+    private BigDecimal low;
+    private BigDecimal close;
+    private long ticks;
+}
@@ -0,0 +1,36 @@
+package com.mithwick93.stocks.controller.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Stock DTO used to get partial stock updates from clients. Fields which are not sent are not changed.
+ *
+ * @author mithwick93
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockPatchRequestDto {
+
+    @Size(min = 1, max = 255, message = "Stock name length should be between 1 and 255")
+    private String name;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "Stock price requires a positive number")
+    @Digits(integer = 19, fraction = 4, message = "Stock price is beyond accepted range of decimal(19, 4)")
+    private BigDecimal currentPrice;
+
+    @AssertTrue(message = "Stock name or price is required")
+    private boolean isAnyFieldPresent() {
+        return name != null || currentPrice != null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.mithwick93.stocks.controller.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Stock DTO used to get price only updates from clients.
+ *
+ * @author mithwick93
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockPriceRequestDto {
+
+    @NotNull(message = "Stock price is required")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Stock price requires a positive number")
+    @Digits(integer = 19, fraction = 4, message = "Stock price is beyond accepted range of decimal(19, 4)")
+    private BigDecimal currentPrice;
+}
@@ -1,5 +1,6 @@
 package com.mithwick93.stocks.controller.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,10 +11,11 @@ import org.springframework.hateoas.RepresentationModel;
 import java.math.BigDecimal;
 
 /**
- * Stock DTO used to send stock response to clients.
+ * Stock DTO used to send stock response to clients. Fields left out of a sparse fieldset are null and not rendered.
  *
  * @author mithwick93
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @EqualsAndHashCode(callSuper = false)
 @Data
 @Builder
@@ -23,6 +25,6 @@ public class StockResponseDto extends RepresentationModel<StockResponseDto> {
     private Long id;
     private String name;
     private BigDecimal currentPrice;
-    private long createdAt;
-    private long lastUpdate;
+    private Long createdAt;
+    private Long lastUpdate;
 }
@@ -0,0 +1,50 @@
+package com.mithwick93.stocks.controller.export;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Formats supported by the stock export.
+ *
+ * @author mithwick93
+ */
+@Getter
+@AllArgsConstructor
+public enum StockExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    CSV(new MediaType("text", "csv"), "csv");
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    /**
+     * Pick the export format from an <code>Accept</code> header. Falls back to {@link #NDJSON}.
+     *
+     * @param accept Value of the <code>Accept</code> header.
+     * @return Preferred {@link StockExportFormat}.
+     */
+    public static StockExportFormat negotiate(String accept) {
+        List<MediaType> acceptedMediaTypes = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(acceptedMediaTypes);
+
+        for (MediaType acceptedMediaType : acceptedMediaTypes) {
+            if (acceptedMediaType.isWildcardType() || acceptedMediaType.isWildcardSubtype()) {
+                continue;
+            }
+
+            return Arrays.stream(values())
+                    .filter(format -> format.getMediaType().isCompatibleWith(acceptedMediaType))
+                    .findFirst()
+                    .orElse(NDJSON);
+        }
+
+        return NDJSON;
+    }
+}
@@ -0,0 +1,139 @@
+package com.mithwick93.stocks.controller.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.mithwick93.stocks.modal.Stock;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes {@link Stock}s one by one to an output stream in a {@link StockExportFormat}. Nothing but the current stock is
+ * kept in memory.
+ *
+ * @author mithwick93
+ */
+public abstract class StockExportWriter implements Closeable {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    protected final Writer writer;
+
+    private StockExportWriter(OutputStream outputStream) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Create writer for the given format.
+     *
+     * @param format       {@link StockExportFormat} to write.
+     * @param outputStream Stream to write to.
+     * @return {@link StockExportWriter}
+     */
+    public static StockExportWriter of(StockExportFormat format, OutputStream outputStream) {
+        return format == StockExportFormat.CSV ? new CsvWriter(outputStream) : new NdjsonWriter(outputStream);
+    }
+
+    /**
+     * Write a single stock.
+     *
+     * @param stock {@link Stock} to write.
+     * @throws UncheckedIOException When writing to the output stream failed.
+     */
+    public void write(Stock stock) {
+        try {
+            writeStock(stock);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected abstract void writeStock(Stock stock) throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    private static final class NdjsonWriter extends StockExportWriter {
+        private final JsonGenerator generator;
+
+        private NdjsonWriter(OutputStream outputStream) {
+            super(outputStream);
+            try {
+                this.generator = JSON_FACTORY.createGenerator(writer).setRootValueSeparator(null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        protected void writeStock(Stock stock) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", stock.getId());
+            generator.writeStringField("name", stock.getName());
+            generator.writeNumberField("currentPrice", stock.getCurrentPrice());
+            generator.writeNumberField("createdAt", stock.getCreatedAt().getTime());
+            generator.writeNumberField("lastUpdate", stock.getLastUpdate().getTime());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.flush();
+            super.close();
+        }
+    }
+
+    private static final class CsvWriter extends StockExportWriter {
+        private static final String HEADER = "id,name,currentPrice,createdAt,lastUpdate\n";
+
+        private boolean headerWritten;
+
+        private CsvWriter(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        protected void writeStock(Stock stock) throws IOException {
+            if (!headerWritten) {
+                writer.write(HEADER);
+                headerWritten = true;
+            }
+
+            writer.write(String.valueOf(stock.getId()));
+            writer.write(',');
+            writer.write(escape(stock.getName()));
+            writer.write(',');
+            writer.write(stock.getCurrentPrice().toPlainString());
+            writer.write(',');
+            writer.write(String.valueOf(stock.getCreatedAt().getTime()));
+            writer.write(',');
+            writer.write(String.valueOf(stock.getLastUpdate().getTime()));
+            writer.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!headerWritten) {
+                writer.write(HEADER);
+                headerWritten = true;
+            }
+            super.close();
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
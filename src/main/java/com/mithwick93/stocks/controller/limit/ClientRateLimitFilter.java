@@ -0,0 +1,45 @@
+package com.mithwick93.stocks.controller.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Rejects requests of clients which ran out of tokens in their {@link ClientRateLimiter} bucket with
+ * <code>429 Too Many Requests</code> and a <code>Retry-After</code> header of when the next token is due. Clients are
+ * identified by a request header, or by their remote address without it.
+ *
+ * @author mithwick93
+ */
+public class ClientRateLimitFilter extends OncePerRequestFilter {
+    private static final String THROTTLED_DETAIL = "Request rate of the client exceeded, retry later";
+
+    private final ClientRateLimiter clientRateLimiter;
+    private final String clientHeader;
+    private final ObjectMapper objectMapper;
+
+    public ClientRateLimitFilter(ClientRateLimiter clientRateLimiter, String clientHeader, ObjectMapper objectMapper) {
+        this.clientRateLimiter = clientRateLimiter;
+        this.clientHeader = clientHeader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String client = request.getHeader(clientHeader);
+        Duration wait = clientRateLimiter.tryAcquire(client != null ? client : request.getRemoteAddr());
+        if (!wait.isZero()) {
+            ProblemResponses.reject(request, response, HttpStatus.TOO_MANY_REQUESTS, THROTTLED_DETAIL, wait, objectMapper);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
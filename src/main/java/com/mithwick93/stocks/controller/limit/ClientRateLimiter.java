@@ -0,0 +1,80 @@
+package com.mithwick93.stocks.controller.limit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per client. Each client may send {@code burst} requests at once and then
+ * {@code requestsPerSecond} requests per second. Buckets of clients which have not sent a request for a minute are
+ * dropped, and at most {@code maxClients} buckets are kept, so memory stays bounded however many clients there are.
+ *
+ * @author mithwick93
+ */
+public class ClientRateLimiter {
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(1);
+    private static final long NANOS_PER_SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final double requestsPerSecond;
+    private final double burst;
+    private final LongSupplier nanoTime;
+    private final Cache<String, TokenBucket> buckets;
+    private final Counter throttledCounter;
+
+    public ClientRateLimiter(ConcurrencyLimitProperties.ClientRateLimit clientRateLimit, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        if (clientRateLimit.getRequestsPerSecond() <= 0 || clientRateLimit.getBurst() < 1) {
+            throw new IllegalArgumentException("Client rate limit needs a positive rate and a burst of at least 1");
+        }
+
+        this.requestsPerSecond = clientRateLimit.getRequestsPerSecond();
+        this.burst = clientRateLimit.getBurst();
+        this.nanoTime = nanoTime;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(IDLE_TIMEOUT)
+                .maximumSize(clientRateLimit.getMaxClients())
+                .build();
+        this.throttledCounter = Counter.builder("stocks.client.throttled")
+                .description("Requests rejected because their client ran out of tokens")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Take a token of the client's bucket.
+     *
+     * @param client Client identifier.
+     * @return Zero when the request is allowed, otherwise how long the client has to wait for the next token.
+     */
+    public Duration tryAcquire(String client) {
+        long waitNanos = buckets.get(client, key -> new TokenBucket(burst, nanoTime.getAsLong())).tryTake(nanoTime.getAsLong());
+        if (waitNanos > 0) {
+            throttledCounter.increment();
+        }
+
+        return Duration.ofNanos(waitNanos);
+    }
+
+    private class TokenBucket {
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+
+        synchronized long tryTake(long now) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * requestsPerSecond / NANOS_PER_SECOND);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens--;
+                return 0;
+            }
+
+            return (long) Math.ceil((1 - tokens) * NANOS_PER_SECOND / requestsPerSecond);
+        }
+    }
+}
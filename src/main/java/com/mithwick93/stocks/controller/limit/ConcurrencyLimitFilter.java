@@ -0,0 +1,69 @@
+package com.mithwick93.stocks.controller.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Sheds load once the stocks API slows down. Reads (<code>GET</code> and <code>HEAD</code>) and writes are separate
+ * endpoint groups, each admitted by its own {@link ConcurrencyLimiter}, so slow writes do not starve reads or the other
+ * way round. Requests over the limit are answered right away with <code>503 Service Unavailable</code> and a
+ * <code>Retry-After</code> header instead of waiting in Tomcat's queue for a database connection. Only
+ * <code>/api/v1/stocks/**</code> is limited, so health and metrics probes keep answering while the database is slow.
+ * The long lived stream and export requests are not limited either, their latency says nothing about the database.
+ *
+ * @author mithwick93
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    public static final String READ_GROUP = "read";
+    public static final String WRITE_GROUP = "write";
+
+    private static final String REJECTED_DETAIL = "Too many concurrent requests, retry later";
+    private static final Set<String> READ_METHODS = Set.of(HttpMethod.GET.name(), HttpMethod.HEAD.name());
+    private static final String LIMITED_PATH = "/api/v1/stocks";
+    private static final Set<String> UNLIMITED_PATHS = Set.of("/api/v1/stocks/stream", "/api/v1/stocks/export");
+
+    private final ConcurrencyLimiter readLimiter;
+    private final ConcurrencyLimiter writeLimiter;
+    private final Duration retryAfter;
+    private final ObjectMapper objectMapper;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimiter readLimiter, ConcurrencyLimiter writeLimiter, Duration retryAfter, ObjectMapper objectMapper) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.retryAfter = retryAfter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        return !(path.equals(LIMITED_PATH) || path.startsWith(LIMITED_PATH + "/")) || UNLIMITED_PATHS.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        ConcurrencyLimiter limiter = READ_METHODS.contains(request.getMethod()) ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire()) {
+            ProblemResponses.reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, REJECTED_DETAIL, retryAfter, objectMapper);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.mithwick93.stocks.controller.limit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the load shedding done by {@link ConcurrencyLimitFilter}. Each endpoint group gets its own
+ * {@link GradientLimit} with these settings.
+ *
+ * @author mithwick93
+ */
+@Data
+@ConfigurationProperties(prefix = "concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * Whether requests over the concurrency limit are rejected.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Concurrency limit of each endpoint group until latency samples adapt it.
+     */
+    private int initialLimit = 20;
+
+    /**
+     * Lowest concurrency limit of an endpoint group.
+     */
+    private int minLimit = 5;
+
+    /**
+     * Highest concurrency limit of an endpoint group. Requests beyond the request thread pool would queue in Tomcat
+     * anyway.
+     */
+    private int maxLimit = 200;
+
+    /**
+     * How many times slower than the long term average latency requests may get before the limit shrinks.
+     */
+    private double tolerance = 1.5;
+
+    /**
+     * Share of each computed limit change which is applied, between 0 (exclusive) and 1.
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * Value of the <code>Retry-After</code> header of requests rejected by the concurrency limit.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Token buckets per client.
+     */
+    private ClientRateLimit clientRateLimit = new ClientRateLimit();
+
+    /**
+     * Configuration of the token buckets per client.
+     */
+    @Data
+    public static class ClientRateLimit {
+
+        /**
+         * Whether requests of clients without tokens left are rejected.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Tokens added to the bucket of a client per second.
+         */
+        private double requestsPerSecond = 100;
+
+        /**
+         * Size of the bucket of a client, the number of requests a client may send at once.
+         */
+        private int burst = 200;
+
+        /**
+         * Request header identifying the client. Requests without it are identified by their remote address.
+         */
+        private String clientHeader = "X-Client-Id";
+
+        /**
+         * Most buckets kept. Buckets of the least recently seen clients are dropped beyond it.
+         */
+        private long maxClients = 10_000;
+    }
+}
@@ -0,0 +1,73 @@
+package com.mithwick93.stocks.controller.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the requests of one endpoint group running at the same time to the current {@link GradientLimit}. A request
+ * over the limit is not queued, the caller rejects it right away, so requests do not pile up waiting for a database
+ * connection when the database slows down.
+ *
+ * @author mithwick93
+ */
+public class ConcurrencyLimiter {
+    private final GradientLimit gradientLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejectedCounter;
+
+    public ConcurrencyLimiter(String group, GradientLimit gradientLimit, MeterRegistry meterRegistry) {
+        this.gradientLimit = gradientLimit;
+        this.rejectedCounter = Counter.builder("stocks.concurrency.rejected")
+                .description("Requests rejected because the concurrency limit of their endpoint group was reached")
+                .tag("group", group)
+                .register(meterRegistry);
+        Gauge.builder("stocks.concurrency.limit", gradientLimit, GradientLimit::getLimit)
+                .description("Requests of the endpoint group allowed to run concurrently")
+                .tag("group", group)
+                .register(meterRegistry);
+        Gauge.builder("stocks.concurrency.in.flight", inFlight, AtomicInteger::get)
+                .description("Requests of the endpoint group running")
+                .tag("group", group)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admit a request if the limit allows it. Every admitted request must be released.
+     *
+     * @return True when the request is admitted, false when it is rejected.
+     */
+    public boolean tryAcquire() {
+        int limit = gradientLimit.getLimit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejectedCounter.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release an admitted request and adapt the limit to its latency.
+     *
+     * @param latencyNanos Latency of the request, in nanoseconds.
+     */
+    public void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        gradientLimit.onSample(latencyNanos, current);
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getLimit() {
+        return gradientLimit.getLimit();
+    }
+}
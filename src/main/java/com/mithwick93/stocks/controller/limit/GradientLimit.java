@@ -0,0 +1,88 @@
+package com.mithwick93.stocks.controller.limit;
+
+/**
+ * Concurrency limit adapted to the observed latency with a gradient. A long term average of the latency serves as the
+ * baseline of a healthy service. While requests are not slower than {@code tolerance} times the baseline the limit grows
+ * by the square root of itself per sample, once they are slower it shrinks in proportion, by at most half per sample.
+ * Every change is smoothed and the limit stays between the configured minimum and maximum.
+ * <p>
+ * When the latency stays high, the baseline follows it slowly, so a lasting slowdown is eventually accepted as the new
+ * normal. When the latency recovers the baseline drops back quickly.
+ *
+ * @author mithwick93
+ */
+public class GradientLimit {
+    private static final double LONG_WINDOW = 600;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double RECOVERY_RATIO = 2;
+    private static final double RECOVERY_DECAY = 0.95;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+
+    private double limit;
+    private double baselineNanos;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(String.format("Limits must satisfy 1 <= min <= initial <= max, got %d, %d and %d", minLimit, initialLimit, maxLimit));
+        }
+        if (tolerance < 1) {
+            throw new IllegalArgumentException("Tolerance must be at least 1, got " + tolerance);
+        }
+        if (smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("Smoothing must be in (0, 1], got " + smoothing);
+        }
+
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return Number of requests allowed to run concurrently.
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Adapt the limit to the latency of a finished request.
+     *
+     * @param latencyNanos Latency of the request, in nanoseconds.
+     * @param inFlight     Requests running when the request finished, including it.
+     * @return Limit after the sample.
+     */
+    public synchronized int onSample(long latencyNanos, int inFlight) {
+        if (latencyNanos <= 0) {
+            return (int) limit;
+        }
+
+        if (baselineNanos == 0) {
+            baselineNanos = latencyNanos;
+        } else {
+            baselineNanos += (latencyNanos - baselineNanos) / LONG_WINDOW;
+            if (baselineNanos / latencyNanos > RECOVERY_RATIO) {
+                baselineNanos *= RECOVERY_DECAY;
+            }
+        }
+
+        // Growing a limit which is not used would let a burst through once the requests arrive.
+        if (inFlight < limit / 2) {
+            return (int) limit;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1, tolerance * baselineNanos / latencyNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+
+        return (int) limit;
+    }
+}
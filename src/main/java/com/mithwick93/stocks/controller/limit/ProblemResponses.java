@@ -0,0 +1,49 @@
+package com.mithwick93.stocks.controller.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Writes the RFC-7807 {@link ProblemDetail} of a request rejected before reaching a controller, where
+ * {@code ControllerAdvisor} does not apply.
+ *
+ * @author mithwick93
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class ProblemResponses {
+
+    static void reject(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            HttpStatus status,
+            String detail,
+            Duration retryAfter,
+            ObjectMapper objectMapper
+    ) throws IOException {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, detail);
+        problemDetail.setTitle(status.getReasonPhrase());
+        problemDetail.setInstance(URI.create(request.getRequestURI()));
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds(retryAfter)));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problemDetail);
+    }
+
+    private static long retryAfterSeconds(Duration retryAfter) {
+        long seconds = retryAfter.toSeconds();
+
+        return Math.max(1, retryAfter.toNanosPart() > 0 ? seconds + 1 : seconds);
+    }
+}
@@ -0,0 +1,89 @@
+package com.mithwick93.stocks.controller.lite;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.mithwick93.stocks.Constants;
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockField;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Writes a {@link StockLitePage} as <code>application/vnd.stocks.lite+json</code>: the page number and size, whether
+ * there is a next page, the total when it was counted and a flat array of stocks. Each stock is streamed field by field
+ * from the entity, so no {@code RepresentationModel}, link or DTO is allocated per stock.
+ *
+ * @author mithwick93
+ */
+@Component
+public class StockLiteHttpMessageConverter extends AbstractHttpMessageConverter<StockLitePage> {
+    public static final MediaType APPLICATION_STOCKS_LITE = MediaType.parseMediaType(Constants.APPLICATION_STOCKS_LITE_VALUE);
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    public StockLiteHttpMessageConverter() {
+        super(APPLICATION_STOCKS_LITE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return StockLitePage.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected StockLitePage readInternal(Class<? extends StockLitePage> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Lite stock pages are write only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(StockLitePage stockLitePage, HttpOutputMessage outputMessage) throws IOException {
+        Slice<Stock> stocks = stockLitePage.stocks();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputMessage.getBody(), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeNumberField("page", stocks.getNumber());
+            generator.writeNumberField("size", stocks.getSize());
+            generator.writeBooleanField("hasNext", stocks.hasNext());
+            if (stocks instanceof Page<Stock> page) {
+                generator.writeNumberField("totalElements", page.getTotalElements());
+            }
+            generator.writeArrayFieldStart("stocks");
+            for (Stock stock : stocks) {
+                writeStock(generator, stock, stockLitePage.fields());
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeStock(JsonGenerator generator, Stock stock, Set<StockField> fields) throws IOException {
+        generator.writeStartObject();
+        for (StockField field : fields) {
+            switch (field) {
+                case ID -> generator.writeNumberField(field.getValue(), stock.getId());
+                case NAME -> generator.writeStringField(field.getValue(), stock.getName());
+                case CURRENT_PRICE -> generator.writeNumberField(field.getValue(), stock.getCurrentPrice());
+                case CREATED_AT -> generator.writeNumberField(field.getValue(), stock.getCreatedAt().getTime());
+                case LAST_UPDATE -> generator.writeNumberField(field.getValue(), stock.getLastUpdate().getTime());
+            }
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,18 @@
+package com.mithwick93.stocks.controller.lite;
+
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockField;
+import org.springframework.data.domain.Slice;
+
+import java.util.Set;
+
+/**
+ * Page of stocks in the lite representation, written by {@link StockLiteHttpMessageConverter} straight from the
+ * {@link Stock}s, without a DTO or links per stock.
+ *
+ * @param stocks Page of stocks, a {@link org.springframework.data.domain.Page} when the stocks were counted.
+ * @param fields {@link StockField}s to write of each stock.
+ * @author mithwick93
+ */
+public record StockLitePage(Slice<Stock> stocks, Set<StockField> fields) {
+}
@@ -0,0 +1,90 @@
+package com.mithwick93.stocks.controller.mapper;
+
+import com.mithwick93.stocks.Constants;
+import com.mithwick93.stocks.controller.StockController;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Builds the links of a stock without {@code linkTo(methodOn(...))} per stock. The paths of the {@link StockController}
+ * mappings are resolved once, and prefixed with the base URI of the current request, which is resolved once per
+ * request. The links are identical to the ones built by {@code linkTo(methodOn(...))}.
+ *
+ * @author mithwick93
+ */
+class StockLinks {
+    static final String STOCKS_REL = "stocks";
+
+    private static final String REQUEST_LINKS_ATTRIBUTE = StockLinks.class.getName() + ".REQUEST_LINKS";
+    private static final long ID_PLACEHOLDER = Long.MIN_VALUE;
+
+    private final String stockPathPrefix;
+    private final String stockPathSuffix;
+    private final String stocksPath;
+    private final String stocksQuery;
+
+    StockLinks() {
+        UriComponents stock = linkTo(methodOn(StockController.class).getStockById(ID_PLACEHOLDER, null)).toUriComponentsBuilder().build();
+        String stockPath = stock.getPath();
+        String placeholder = String.valueOf(ID_PLACEHOLDER);
+        int placeholderIndex = stockPath.lastIndexOf(placeholder);
+        this.stockPathPrefix = stockPath.substring(0, placeholderIndex);
+        this.stockPathSuffix = stockPath.substring(placeholderIndex + placeholder.length());
+
+        UriComponents stocks = linkTo(methodOn(StockController.class).getStocks(Integer.parseInt(Constants.DEFAULT_PAGE_NUMBER), Integer.parseInt(Constants.DEFAULT_PAGE_SIZE), null, null, null, null, null, null, null, null)).toUriComponentsBuilder().build();
+        this.stocksPath = stocks.getPath();
+        this.stocksQuery = stocks.getQuery();
+    }
+
+    /**
+     * Self link of the stock with the given id.
+     *
+     * @param id Id of stock.
+     * @return Self {@link Link}.
+     */
+    Link stock(long id) {
+        return Link.of(requestLinks().stockHrefPrefix + id + stockPathSuffix, IanaLinkRelations.SELF);
+    }
+
+    /**
+     * Link to the first page of stocks.
+     *
+     * @return Stocks {@link Link}.
+     */
+    Link stocks() {
+        return requestLinks().stocks;
+    }
+
+    private RequestLinks requestLinks() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return resolve(UriComponentsBuilder.fromPath("/"));
+        }
+
+        RequestLinks requestLinks = (RequestLinks) requestAttributes.getAttribute(REQUEST_LINKS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (requestLinks == null) {
+            requestLinks = resolve(ServletUriComponentsBuilder.fromCurrentServletMapping());
+            requestAttributes.setAttribute(REQUEST_LINKS_ATTRIBUTE, requestLinks, RequestAttributes.SCOPE_REQUEST);
+        }
+
+        return requestLinks;
+    }
+
+    private RequestLinks resolve(UriComponentsBuilder baseUri) {
+        String stockHrefPrefix = baseUri.cloneBuilder().path(stockPathPrefix).build().toUriString();
+        String stocksHref = baseUri.cloneBuilder().path(stocksPath).query(stocksQuery).build().toUriString();
+
+        return new RequestLinks(stockHrefPrefix, Link.of(stocksHref, STOCKS_REL));
+    }
+
+    private record RequestLinks(String stockHrefPrefix, Link stocks) {
+    }
+}
@@ -1,15 +1,17 @@
 package com.mithwick93.stocks.controller.mapper;
 
-import com.mithwick93.stocks.Constants;
 import com.mithwick93.stocks.controller.StockController;
+import com.mithwick93.stocks.controller.dto.StockCandleDto;
+import com.mithwick93.stocks.controller.dto.StockPatchRequestDto;
 import com.mithwick93.stocks.controller.dto.StockRequestDto;
 import com.mithwick93.stocks.controller.dto.StockResponseDto;
 import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockCandle;
+import com.mithwick93.stocks.modal.StockField;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import java.util.Set;
 
 /**
  * Mapper class to map Stock model to Stock DTO and vise versa.
@@ -18,8 +20,11 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
  */
 @Component
 public class StockMapper extends RepresentationModelAssemblerSupport<Stock, StockResponseDto> {
+    private final StockLinks stockLinks;
+
     public StockMapper() {
         super(StockController.class, StockResponseDto.class);
+        this.stockLinks = new StockLinks();
     }
 
     /**
@@ -38,8 +43,30 @@ public class StockMapper extends RepresentationModelAssemblerSupport<Stock, Stoc
                 stock.getLastUpdate().getTime()
         );
 
-        stockDto.add(linkTo(methodOn(StockController.class).getStockById(stock.getId())).withSelfRel());
-        stockDto.add(linkTo(methodOn(StockController.class).getStocks(Integer.parseInt(Constants.DEFAULT_PAGE_NUMBER), Integer.parseInt(Constants.DEFAULT_PAGE_SIZE))).withRel("stocks"));
+        stockDto.add(stockLinks.stock(stock.getId()));
+        stockDto.add(stockLinks.stocks());
+        return stockDto;
+    }
+
+    /**
+     * Map modal to a DTO of a sparse fieldset. Only the given fields are set and no links are built.
+     *
+     * @param stock  {@link Stock} to convert, with at least the given fields loaded.
+     * @param fields {@link StockField}s to map.
+     * @return {@link StockResponseDto} with only the given fields set.
+     */
+    public StockResponseDto toModel(Stock stock, Set<StockField> fields) {
+        StockResponseDto stockDto = new StockResponseDto();
+        for (StockField field : fields) {
+            switch (field) {
+                case ID -> stockDto.setId(stock.getId());
+                case NAME -> stockDto.setName(stock.getName());
+                case CURRENT_PRICE -> stockDto.setCurrentPrice(stock.getCurrentPrice());
+                case CREATED_AT -> stockDto.setCreatedAt(stock.getCreatedAt().getTime());
+                case LAST_UPDATE -> stockDto.setLastUpdate(stock.getLastUpdate().getTime());
+            }
+        }
+
         return stockDto;
     }
 
@@ -56,4 +83,35 @@ public class StockMapper extends RepresentationModelAssemblerSupport<Stock, Stoc
 
         return stock;
     }
+
+    /**
+     * Map partial update DTO to entity. Fields which are not sent stay null.
+     *
+     * @param stockPatchRequestDto {@link StockPatchRequestDto} to convert.
+     * @return {@link Stock}
+     */
+    public Stock toEntity(StockPatchRequestDto stockPatchRequestDto) {
+        Stock stock = new Stock();
+        stock.setName(stockPatchRequestDto.getName());
+        stock.setCurrentPrice(stockPatchRequestDto.getCurrentPrice());
+
+        return stock;
+    }
+
+    /**
+     * Map candle modal to DTO.
+     *
+     * @param stockCandle {@link StockCandle} to convert.
+     * @return {@link StockCandleDto}
+     */
+    public StockCandleDto toCandleDto(StockCandle stockCandle) {
+        return new StockCandleDto(
+                stockCandle.getStart().toEpochMilli(),
+                stockCandle.getOpen(),
+                stockCandle.getHigh(),
+                stockCandle.getLow(),
+                stockCandle.getClose(),
+                stockCandle.getTicks()
+        );
+    }
 }
@@ -0,0 +1,157 @@
+package com.mithwick93.stocks.controller.pagination;
+
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockSortKey;
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Opaque keyset pagination cursor. Encodes the sort of the list and the sort value and id of the last {@link Stock} a
+ * client has seen, so the next page can be fetched with a seek predicate on the sort column, with the id as the
+ * tie-breaker, instead of an OFFSET. A cursor is only valid for the sort it was issued for.
+ *
+ * @author mithwick93
+ */
+@Value
+public class StockCursor {
+    private static final String SEPARATOR = ":";
+    private static final String SORT_SEPARATOR = ",";
+    private static final String INVALID_CURSOR_MESSAGE = "Invalid cursor: %s";
+    private static final String SORT_MISMATCH_MESSAGE = "Cursor %s was issued for sort %s and cannot be used with sort %s";
+
+    /**
+     * Sort of the list, one {@link StockSortKey} and a direction.
+     */
+    Sort sort;
+
+    /**
+     * Last {@link Stock} seen by the client, with its id and sort value set. Null before the first stock.
+     */
+    Stock lastStock;
+
+    /**
+     * Create cursor pointing before the first stock in the given sort.
+     *
+     * @param sort {@link Sort} of the list, as parsed by {@link StockSort#parse(String)}.
+     * @return {@link StockCursor} before the first stock.
+     */
+    public static StockCursor start(Sort sort) {
+        return new StockCursor(sort, null);
+    }
+
+    /**
+     * Create cursor pointing after the given stock in the given sort.
+     *
+     * @param sort  {@link Sort} of the list, as parsed by {@link StockSort#parse(String)}.
+     * @param stock Last {@link Stock} of the current page.
+     * @return {@link StockCursor} after the given stock.
+     */
+    public static StockCursor after(Sort sort, Stock stock) {
+        StockSortKey sortKey = sortKey(sort);
+        Stock lastStock = new Stock();
+        lastStock.setId(stock.getId());
+        switch (sortKey) {
+            case NAME -> lastStock.setName(stock.getName());
+            case CURRENT_PRICE -> lastStock.setCurrentPrice(stock.getCurrentPrice());
+            case LAST_UPDATE -> lastStock.setLastUpdate(stock.getLastUpdate());
+            default -> {
+            }
+        }
+
+        return new StockCursor(sort, lastStock);
+    }
+
+    /**
+     * Decode cursor token received from a client. An empty token points to the start of the list.
+     *
+     * @param token Opaque cursor token.
+     * @param sort  {@link Sort} of the request, as parsed by {@link StockSort#parse(String)}.
+     * @return Decoded {@link StockCursor}.
+     * @throws IllegalArgumentException When the token is not a valid cursor, or was issued for another sort.
+     */
+    public static StockCursor decode(String token, Sort sort) {
+        if (token == null || token.isBlank()) {
+            return start(sort);
+        }
+
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, 3);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format(INVALID_CURSOR_MESSAGE, token), e);
+        }
+
+        if (parts.length != 3) {
+            throw new IllegalArgumentException(String.format(INVALID_CURSOR_MESSAGE, token));
+        }
+
+        Sort cursorSort;
+        Stock lastStock = new Stock();
+        try {
+            cursorSort = StockSort.parse(parts[0]);
+            lastStock.setId(Long.parseLong(parts[1]));
+            switch (sortKey(cursorSort)) {
+                case NAME -> lastStock.setName(parts[2]);
+                case CURRENT_PRICE -> lastStock.setCurrentPrice(new BigDecimal(parts[2]));
+                case LAST_UPDATE -> lastStock.setLastUpdate(Timestamp.from(Instant.parse(parts[2])));
+                default -> {
+                }
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException(String.format(INVALID_CURSOR_MESSAGE, token), e);
+        }
+
+        if (!cursorSort.equals(sort)) {
+            throw new IllegalArgumentException(String.format(SORT_MISMATCH_MESSAGE, token, format(cursorSort), format(sort)));
+        }
+
+        return new StockCursor(sort, lastStock);
+    }
+
+    /**
+     * Encode cursor as an opaque, URL safe token.
+     *
+     * @return Cursor token.
+     * @throws IllegalStateException When the cursor points to the start of the list, which is the empty token.
+     */
+    public String encode() {
+        if (lastStock == null) {
+            throw new IllegalStateException("Start cursor is encoded as the empty token");
+        }
+
+        String sortValue = switch (sortKey(sort)) {
+            case NAME -> lastStock.getName();
+            case CURRENT_PRICE -> lastStock.getCurrentPrice().toPlainString();
+            case LAST_UPDATE -> lastStock.getLastUpdate().toInstant().toString();
+            default -> "";
+        };
+        String raw = format(sort) + SEPARATOR + lastStock.getId() + SEPARATOR + sortValue;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static StockSortKey sortKey(Sort sort) {
+        return StockSortKey.of(order(sort).getProperty());
+    }
+
+    private static Sort.Order order(Sort sort) {
+        return sort.iterator().next();
+    }
+
+    /**
+     * Sort in the format of the <code>sort</code> parameter, e.g. currentPrice,desc.
+     */
+    private static String format(Sort sort) {
+        Sort.Order order = order(sort);
+
+        return order.getProperty() + SORT_SEPARATOR + order.getDirection().name().toLowerCase(Locale.ROOT);
+    }
+}
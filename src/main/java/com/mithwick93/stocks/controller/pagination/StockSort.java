@@ -0,0 +1,42 @@
+package com.mithwick93.stocks.controller.pagination;
+
+import com.mithwick93.stocks.modal.StockSortKey;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Parses the <code>sort</code> parameter of a page of stocks, <code>key</code> or <code>key,direction</code>. Only the
+ * {@link StockSortKey}s are accepted, so every sort can be served by an index. The format is the one the page links
+ * are written in, so the links of a sorted page keep its sort.
+ *
+ * @author mithwick93
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class StockSort {
+    private static final String SEPARATOR = ",";
+    private static final String INVALID_SORT_MESSAGE = "Invalid sort: %s. Expected key or key,asc or key,desc";
+
+    /**
+     * Parse sort parameter received from a client.
+     *
+     * @param value Sort parameter, e.g. currentPrice,desc. Direction defaults to ascending.
+     * @return {@link Sort} by one {@link StockSortKey}.
+     * @throws IllegalArgumentException When the sort key or direction is not supported.
+     */
+    public static Sort parse(String value) {
+        String[] parts = value.split(SEPARATOR, -1);
+        if (parts.length > 2) {
+            throw new IllegalArgumentException(String.format(INVALID_SORT_MESSAGE, value));
+        }
+
+        StockSortKey sortKey = StockSortKey.of(parts[0]);
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length == 2) {
+            direction = Sort.Direction.fromOptionalString(parts[1])
+                    .orElseThrow(() -> new IllegalArgumentException(String.format(INVALID_SORT_MESSAGE, value)));
+        }
+
+        return Sort.by(direction, sortKey.getValue());
+    }
+}
@@ -0,0 +1,86 @@
+package com.mithwick93.stocks.controller.routing;
+
+import com.mithwick93.stocks.dal.datasource.PrimaryPin;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Gives clients read-your-writes consistency while reads are served by replicas. A write request sets the
+ * {@value #COOKIE_NAME} cookie, holding the time until which the client reads from the primary. Requests carrying an
+ * unexpired cookie are pinned to the primary with {@link PrimaryPin}. Clients which do not keep cookies may read stale
+ * stocks for as long as the replicas lag.
+ *
+ * @author mithwick93
+ */
+public class PrimaryPinFilter extends OncePerRequestFilter {
+    public static final String COOKIE_NAME = "stocks-primary-pin";
+
+    private static final Set<String> READ_METHODS = Set.of(
+            HttpMethod.GET.name(),
+            HttpMethod.HEAD.name(),
+            HttpMethod.OPTIONS.name(),
+            HttpMethod.TRACE.name()
+    );
+
+    private final Duration pinDuration;
+    private final Clock clock;
+
+    public PrimaryPinFilter(Duration pinDuration, Clock clock) {
+        this.pinDuration = pinDuration;
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long now = clock.millis();
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        if (write) {
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now + pinDuration.toMillis()));
+            cookie.setMaxAge((int) Math.max(1, pinDuration.toSeconds()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+
+        if (!write && !pinnedUntilAfter(request, now)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        PrimaryPin.pin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PrimaryPin.clear();
+        }
+    }
+
+    private static boolean pinnedUntilAfter(HttpServletRequest request, long now) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > now;
+                } catch (NumberFormatException ex) {
+                    return false;
+                }
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,425 @@
+package com.mithwick93.stocks.controller.stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.service.StockChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes committed stock changes to Server-Sent Events subscribers. Each change is encoded once and handed to the
+ * matching subscribers without writing to any connection. Every subscriber keeps at most one waiting update per stock,
+ * so rapid updates of a stock are coalesced to the latest one, and at most
+ * {@link StockStreamProperties#getMaxPendingUpdates()} stocks, so a slow subscriber can not exhaust memory. A small
+ * pool of sender threads writes the waiting updates, one task per subscriber with updates at a time.
+ * <p>
+ * Writes block while the client does not read. A subscriber whose write takes longer than
+ * {@link StockStreamProperties#getWriteTimeout()} is disconnected, and the sender pool gets one more thread until that
+ * write returns, which happens once the container times the socket write out. A client which stops reading therefore
+ * can not hold back the updates of other subscribers. At most
+ * {@link StockStreamProperties#getMaxReplacementSenderThreads()} threads are added at a time, further timed out
+ * subscribers are only disconnected. Emitters are only completed by sender threads, so neither the
+ * publishing thread nor the watchdog waits for a blocked write.
+ *
+ * @author mithwick93
+ */
+@Component
+@Slf4j
+public class StockStreamBroadcaster implements DisposableBean {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final int maxPendingUpdates;
+    private final StockStreamProperties.SlowSubscriberPolicy slowSubscriberPolicy;
+    private final long writeTimeoutNanos;
+    private final int maxReplacementSenders;
+    private final Executor senderExecutor;
+    private final ScheduledExecutorService watchdog;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscriber>> subscribersByStockId = new ConcurrentHashMap<>();
+    private final Set<Subscriber> allStocksSubscribers = ConcurrentHashMap.newKeySet();
+    private final Counter coalescedCounter;
+    private final Counter droppedCounter;
+    private final Counter disconnectedCounter;
+    private final Counter timedOutCounter;
+    private int replacementSenders;
+
+    @Autowired
+    public StockStreamBroadcaster(StockStreamProperties stockStreamProperties, MeterRegistry meterRegistry) {
+        this(stockStreamProperties, meterRegistry, Executors.newFixedThreadPool(stockStreamProperties.getSenderThreads(), threadFactory("stock-stream-sender-")));
+    }
+
+    StockStreamBroadcaster(StockStreamProperties stockStreamProperties, MeterRegistry meterRegistry, Executor senderExecutor) {
+        this.maxPendingUpdates = stockStreamProperties.getMaxPendingUpdates();
+        this.slowSubscriberPolicy = stockStreamProperties.getSlowSubscriberPolicy();
+        this.writeTimeoutNanos = stockStreamProperties.getWriteTimeout().toNanos();
+        this.maxReplacementSenders = stockStreamProperties.getMaxReplacementSenderThreads();
+        this.senderExecutor = senderExecutor;
+        this.coalescedCounter = Counter.builder("stock.stream.coalesced")
+                .description("Stock updates replaced by a newer update of the same stock before being sent")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("stock.stream.dropped")
+                .description("Stock updates dropped because a subscriber had too many updates waiting")
+                .register(meterRegistry);
+        this.disconnectedCounter = Counter.builder("stock.stream.disconnected")
+                .description("Subscribers disconnected because they had too many updates waiting")
+                .register(meterRegistry);
+        this.timedOutCounter = Counter.builder("stock.stream.timed.out")
+                .description("Subscribers disconnected because a write did not complete within the write timeout")
+                .register(meterRegistry);
+        Gauge.builder("stock.stream.subscribers", subscribers, Set::size)
+                .description("Open stock update streams")
+                .register(meterRegistry);
+
+        long checkIntervalNanos = Math.max(writeTimeoutNanos / 2, 1);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(threadFactory("stock-stream-watchdog-"));
+        this.watchdog.scheduleWithFixedDelay(this::disconnectTimedOutSubscribers, checkIntervalNanos, checkIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Open a stream of updates of the given stocks.
+     *
+     * @param stockIds Ids of stocks to watch. Empty to watch all stocks.
+     * @return {@link SseEmitter} sending the updates.
+     */
+    public SseEmitter subscribe(Set<Long> stockIds) {
+        SseEmitter emitter = new SseEmitter();
+        subscribe(stockIds, emitter);
+
+        return emitter;
+    }
+
+    void subscribe(Set<Long> stockIds, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(Set.copyOf(stockIds), emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        subscribers.add(subscriber);
+        if (subscriber.stockIds.isEmpty()) {
+            allStocksSubscribers.add(subscriber);
+        } else {
+            subscriber.stockIds.forEach(stockId -> subscribersByStockId.compute(stockId, (id, subscribers) -> {
+                Set<Subscriber> stockSubscribers = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                stockSubscribers.add(subscriber);
+                return stockSubscribers;
+            }));
+        }
+    }
+
+    /**
+     * Queue committed stock changes for the subscribers of each stock.
+     *
+     * @param event {@link StockChangedEvent} to send.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        String eventName = event.getType().name().toLowerCase(Locale.ROOT);
+        for (Stock stock : event.getStocks()) {
+            Set<Subscriber> stockSubscribers = subscribersByStockId.get(stock.getId());
+            if (stockSubscribers == null && allStocksSubscribers.isEmpty()) {
+                continue;
+            }
+
+            StockStreamEvent streamEvent = new StockStreamEvent(eventName, encode(stock));
+            allStocksSubscribers.forEach(subscriber -> subscriber.offer(stock.getId(), streamEvent));
+            if (stockSubscribers != null) {
+                stockSubscribers.forEach(subscriber -> subscriber.offer(stock.getId(), streamEvent));
+            }
+        }
+    }
+
+    /**
+     * Close all streams and stop the sender threads once they completed the streams.
+     */
+    @Override
+    public void destroy() {
+        watchdog.shutdownNow();
+        subscribers.forEach(Subscriber::close);
+        if (senderExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private void disconnectTimedOutSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.disconnectIfWriteTimedOut(now)) {
+                timedOutCounter.increment();
+                log.debug("Closed stock stream after a write blocked for more than {} ms", TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos));
+            }
+        }
+    }
+
+    /**
+     * Add a thread to the sender pool of the application in place of a sender blocked on a timed out write, unless
+     * {@link #maxReplacementSenders} threads were already added. Other executors are left as they are.
+     *
+     * @return Whether a thread was added.
+     */
+    private boolean addReplacementSender() {
+        if (!(senderExecutor instanceof ThreadPoolExecutor threadPoolExecutor)) {
+            return false;
+        }
+
+        synchronized (threadPoolExecutor) {
+            if (replacementSenders >= maxReplacementSenders) {
+                return false;
+            }
+
+            replacementSenders++;
+            threadPoolExecutor.setMaximumPoolSize(threadPoolExecutor.getMaximumPoolSize() + 1);
+            threadPoolExecutor.setCorePoolSize(threadPoolExecutor.getCorePoolSize() + 1);
+            return true;
+        }
+    }
+
+    /**
+     * Remove a thread added by {@link #addReplacementSender()} once the blocked write it replaced returned.
+     */
+    private void removeReplacementSender() {
+        ThreadPoolExecutor threadPoolExecutor = (ThreadPoolExecutor) senderExecutor;
+        synchronized (threadPoolExecutor) {
+            replacementSenders--;
+            threadPoolExecutor.setCorePoolSize(threadPoolExecutor.getCorePoolSize() - 1);
+            threadPoolExecutor.setMaximumPoolSize(threadPoolExecutor.getMaximumPoolSize() - 1);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.subscribed.compareAndSet(true, false)) {
+            return;
+        }
+
+        subscribers.remove(subscriber);
+        if (subscriber.stockIds.isEmpty()) {
+            allStocksSubscribers.remove(subscriber);
+        } else {
+            subscriber.stockIds.forEach(stockId -> subscribersByStockId.computeIfPresent(stockId, (id, subscribers) -> {
+                subscribers.remove(subscriber);
+                return subscribers.isEmpty() ? null : subscribers;
+            }));
+        }
+    }
+
+    private static String encode(Stock stock) {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeNumberField("id", stock.getId());
+            generator.writeStringField("name", stock.getName());
+            // Deleted stocks only carry their id and name.
+            if (stock.getCurrentPrice() != null) {
+                generator.writeNumberField("currentPrice", stock.getCurrentPrice());
+            }
+            if (stock.getCreatedAt() != null) {
+                generator.writeNumberField("createdAt", stock.getCreatedAt().getTime());
+            }
+            if (stock.getLastUpdate() != null) {
+                generator.writeNumberField("lastUpdate", stock.getLastUpdate().getTime());
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return writer.toString();
+    }
+
+    private static CustomizableThreadFactory threadFactory(String threadNamePrefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+        threadFactory.setDaemon(true);
+
+        return threadFactory;
+    }
+
+    private record StockStreamEvent(String name, String data) {
+    }
+
+    private final class Subscriber {
+        private final Set<Long> stockIds;
+        private final SseEmitter emitter;
+        private final LinkedHashMap<Long, StockStreamEvent> pending = new LinkedHashMap<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean subscribed = new AtomicBoolean(true);
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private final Object writeLock = new Object();
+        private long writeStartedNanos;
+        private boolean writing;
+        private boolean timedOut;
+        private boolean senderReplaced;
+        private volatile boolean closed;
+
+        private Subscriber(Set<Long> stockIds, SseEmitter emitter) {
+            this.stockIds = stockIds;
+            this.emitter = emitter;
+        }
+
+        private void offer(long stockId, StockStreamEvent event) {
+            if (closed) {
+                return;
+            }
+
+            boolean overflowed = false;
+            synchronized (pending) {
+                if (pending.remove(stockId) != null) {
+                    coalescedCounter.increment();
+                }
+                pending.put(stockId, event);
+                if (pending.size() > maxPendingUpdates) {
+                    if (slowSubscriberPolicy == StockStreamProperties.SlowSubscriberPolicy.DROP_OLDEST) {
+                        Iterator<Long> oldest = pending.keySet().iterator();
+                        oldest.next();
+                        oldest.remove();
+                        droppedCounter.increment();
+                    } else {
+                        overflowed = true;
+                    }
+                }
+            }
+
+            if (overflowed) {
+                disconnectedCounter.increment();
+                close();
+            } else {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                senderExecutor.execute(this::flush);
+            }
+        }
+
+        private void flush() {
+            try {
+                List<StockStreamEvent> events = takePending();
+                while (!events.isEmpty() && !closed) {
+                    for (StockStreamEvent event : events) {
+                        if (closed) {
+                            break;
+                        }
+                        send(event);
+                    }
+                    events = takePending();
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Closing stock stream after failed send", e);
+                close();
+            } finally {
+                scheduled.set(false);
+            }
+
+            if (closed) {
+                complete();
+            } else if (hasPending()) {
+                schedule();
+            }
+        }
+
+        private void send(StockStreamEvent event) throws IOException {
+            synchronized (writeLock) {
+                writeStartedNanos = System.nanoTime();
+                writing = true;
+            }
+            try {
+                emitter.send(SseEmitter.event().name(event.name()).data(event.data()));
+            } finally {
+                synchronized (writeLock) {
+                    writing = false;
+                    if (senderReplaced) {
+                        senderReplaced = false;
+                        removeReplacementSender();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Close the stream when a write is in progress for longer than the write timeout, and add a sender thread in
+         * place of the blocked one until its write returns, unless the replacement threads are exhausted.
+         *
+         * @return Whether the stream was closed.
+         */
+        private boolean disconnectIfWriteTimedOut(long now) {
+            synchronized (writeLock) {
+                if (!writing || timedOut || now - writeStartedNanos <= writeTimeoutNanos) {
+                    return false;
+                }
+
+                timedOut = true;
+                close();
+                senderReplaced = addReplacementSender();
+                if (!senderReplaced) {
+                    log.debug("Closed stock stream without replacing its blocked sender, {} senders already replaced", maxReplacementSenders);
+                }
+                return true;
+            }
+        }
+
+        private List<StockStreamEvent> takePending() {
+            synchronized (pending) {
+                List<StockStreamEvent> events = new ArrayList<>(pending.values());
+                pending.clear();
+                return events;
+            }
+        }
+
+        private boolean hasPending() {
+            synchronized (pending) {
+                return !pending.isEmpty();
+            }
+        }
+
+        /**
+         * Stop queueing updates and let a sender thread complete the emitter, as completing waits for a write in
+         * progress.
+         */
+        private void close() {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            synchronized (pending) {
+                pending.clear();
+            }
+            unsubscribe(this);
+            schedule();
+        }
+
+        private void complete() {
+            if (completed.compareAndSet(false, true)) {
+                emitter.complete();
+            }
+        }
+    }
+}
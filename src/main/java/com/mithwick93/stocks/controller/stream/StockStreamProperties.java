@@ -0,0 +1,59 @@
+package com.mithwick93.stocks.controller.stream;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the stock update stream served by {@link StockStreamBroadcaster}.
+ *
+ * @author mithwick93
+ */
+@Data
+@ConfigurationProperties(prefix = "stock-stream")
+public class StockStreamProperties {
+
+    /**
+     * Maximum number of stocks with an update waiting to be sent to one subscriber. Updates of the same stock are
+     * coalesced, so this bounds the memory used by a slow subscriber.
+     */
+    private int maxPendingUpdates = 256;
+
+    /**
+     * What to do when a subscriber has more than {@link #maxPendingUpdates} stocks waiting.
+     */
+    private SlowSubscriberPolicy slowSubscriberPolicy = SlowSubscriberPolicy.DISCONNECT;
+
+    /**
+     * Number of threads writing updates to subscribers.
+     */
+    private int senderThreads = 4;
+
+    /**
+     * Longest time a write to one subscriber may block before the subscriber is disconnected and its sender thread is
+     * replaced until the write returns.
+     */
+    private Duration writeTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Maximum number of sender threads added in place of senders blocked on a timed out write. Once reached, further
+     * timed out subscribers are disconnected without a replacement, so clients stalling together can not grow the
+     * sender pool beyond {@link #senderThreads} plus this number.
+     */
+    private int maxReplacementSenderThreads = 16;
+
+    /**
+     * Handling of subscribers which do not keep up with updates.
+     */
+    public enum SlowSubscriberPolicy {
+        /**
+         * Drop the oldest waiting update. The subscriber misses that stock update.
+         */
+        DROP_OLDEST,
+        /**
+         * Close the stream. The subscriber has to reconnect and read current stocks again.
+         */
+        DISCONNECT
+    }
+}
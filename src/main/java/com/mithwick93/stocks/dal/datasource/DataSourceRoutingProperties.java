@@ -0,0 +1,65 @@
+package com.mithwick93.stocks.dal.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration of the read replicas used by {@link ReadWriteRoutingDataSource}.
+ *
+ * @author mithwick93
+ */
+@Data
+@ConfigurationProperties(prefix = "datasource-routing")
+public class DataSourceRoutingProperties {
+
+    /**
+     * Whether read-only transactions are routed to the replicas. All statements go to the primary when disabled.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Read replicas. Their pools use the <code>spring.datasource.hikari.*</code> settings of the primary.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * How long a client reads from the primary after it wrote, so it sees its own writes while replicas catch up.
+     */
+    private Duration primaryPinDuration = Duration.ofSeconds(5);
+
+    /**
+     * Interval of the replica health checks. Ejected replicas are readmitted by the first successful check.
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * Maximum wait for a replica connection before the read falls back to the primary.
+     */
+    private Duration replicaConnectionTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Connection settings of a read replica.
+     */
+    @Data
+    public static class Replica {
+
+        /**
+         * JDBC url of the replica.
+         */
+        private String url;
+
+        /**
+         * Login username of the replica. Defaults to the username of the primary.
+         */
+        private String username;
+
+        /**
+         * Login password of the replica. Defaults to the password of the primary.
+         */
+        private String password;
+    }
+}
@@ -0,0 +1,38 @@
+package com.mithwick93.stocks.dal.datasource;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Holds whether the current thread has to read from the primary, e.g. because its client wrote recently and replicas
+ * may not have applied the write yet. Read by {@link ReadWriteRoutingDataSource}.
+ *
+ * @author mithwick93
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PrimaryPin {
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    /**
+     * Route every following statement of the current thread to the primary, until {@link #clear()} is called.
+     */
+    public static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    /**
+     * Let read-only transactions of the current thread use the replicas again.
+     */
+    public static void clear() {
+        PINNED.remove();
+    }
+
+    /**
+     * Tell whether the current thread is pinned to the primary.
+     *
+     * @return True when pinned.
+     */
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+}
@@ -0,0 +1,141 @@
+package com.mithwick93.stocks.dal.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Data source which hands out connections of a read replica inside read-only transactions and connections of the
+ * primary otherwise. Replicas are used round-robin. A replica which can not be connected to is ejected and the read
+ * falls back to the primary, until a background health check connects to it again. Threads pinned with
+ * {@link PrimaryPin} always use the primary.
+ * <p>
+ * The read-only flag of a transaction is only known once it has begun, so this data source has to be wrapped in a
+ * {@code LazyConnectionDataSourceProxy}, which fetches the connection on the first statement.
+ *
+ * @author mithwick93
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements DisposableBean {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final Set<Integer> ejectedReplicas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration healthCheckInterval) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.healthChecker.scheduleWithFixedDelay(this::checkReplicas, healthCheckInterval.toMillis(), healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return routedConnection(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return routedConnection(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * Returns the number of replicas which are currently used for reads.
+     *
+     * @return Number of replicas which are not ejected.
+     */
+    public int getHealthyReplicaCount() {
+        return replicas.size() - ejectedReplicas.size();
+    }
+
+    /**
+     * Stop the health checks and close the replica pools. The primary is closed by its owner.
+     */
+    @Override
+    public void destroy() {
+        healthChecker.shutdownNow();
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ex) {
+                    log.warn("Failed to close replica data source", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Connect to every replica, eject the ones which fail and readmit the ones which recovered.
+     */
+    void checkReplicas() {
+        for (int replica = 0; replica < replicas.size(); replica++) {
+            boolean healthy;
+            try (Connection connection = replicas.get(replica).getConnection()) {
+                healthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException ex) {
+                healthy = false;
+            }
+
+            if (healthy && ejectedReplicas.remove(replica)) {
+                log.info("Replica {} is healthy again and readmitted", replica);
+            } else if (!healthy && ejectedReplicas.add(replica)) {
+                log.warn("Replica {} failed its health check and is ejected", replica);
+            }
+        }
+    }
+
+    private Connection routedConnection(ConnectionSupplier connectionSupplier) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !PrimaryPin.isPinned()) {
+            int replica = nextHealthyReplica();
+            if (replica >= 0) {
+                try {
+                    return connectionSupplier.get(replicas.get(replica));
+                } catch (SQLException ex) {
+                    // Without a cause the pool was only exhausted, which is no reason to eject the replica.
+                    if (ex.getCause() != null && ejectedReplicas.add(replica)) {
+                        log.warn("Replica {} could not be connected to and is ejected", replica, ex);
+                    }
+                }
+            }
+        }
+
+        return connectionSupplier.get(primary);
+    }
+
+    private int nextHealthyReplica() {
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            int replica = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+            if (!ejectedReplicas.contains(replica)) {
+                return replica;
+            }
+        }
+
+        return -1;
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get(DataSource dataSource) throws SQLException;
+    }
+}
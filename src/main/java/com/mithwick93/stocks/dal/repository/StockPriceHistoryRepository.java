@@ -0,0 +1,113 @@
+package com.mithwick93.stocks.dal.repository;
+
+import com.mithwick93.stocks.modal.CandleInterval;
+import com.mithwick93.stocks.modal.StockCandle;
+import com.mithwick93.stocks.modal.StockPrice;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository of the append-only {@code stock_price_history} table. Rows are never updated, so the table is written
+ * and read with plain JDBC instead of managed entities.
+ *
+ * @author mithwick93
+ */
+@Repository
+public class StockPriceHistoryRepository {
+    static final String INSERT_SQL = "INSERT INTO stock_price_history (stock_id, price, recorded_at) VALUES (:stockId, :price, :recordedAt)";
+    static final String CREATE_PARTITION_SQL = "SELECT create_stock_price_history_partition(:month)";
+
+    /**
+     * Open and close prices are the first and last price of each bucket by time, high, low and tick count are
+     * aggregated over the bucket. The bucket field is taken from {@link CandleInterval}, never from user input.
+     */
+    private static final String CANDLES_SQL = """
+            SELECT bucket, min(open) AS open, max(price) AS high, min(price) AS low, min(close) AS close, count(*) AS ticks
+            FROM (SELECT date_trunc('%1$s', recorded_at AT TIME ZONE 'UTC') AS bucket,
+                         price,
+                         first_value(price) OVER bucket_ticks AS open,
+                         last_value(price) OVER bucket_ticks AS close
+                  FROM stock_price_history
+                  WHERE stock_id = :stockId AND recorded_at >= :from AND recorded_at < :to
+                  WINDOW bucket_ticks AS (PARTITION BY date_trunc('%1$s', recorded_at AT TIME ZONE 'UTC') ORDER BY recorded_at
+                          ROWS BETWEEN UNBOUNDED PRECEDING AND UNBOUNDED FOLLOWING)) ticks
+            GROUP BY bucket
+            ORDER BY bucket""";
+
+    private static final RowMapper<StockCandle> CANDLE_ROW_MAPPER = (resultSet, rowNum) -> new StockCandle(
+            resultSet.getObject("bucket", LocalDateTime.class).toInstant(ZoneOffset.UTC),
+            resultSet.getBigDecimal("open"),
+            resultSet.getBigDecimal("high"),
+            resultSet.getBigDecimal("low"),
+            resultSet.getBigDecimal("close"),
+            resultSet.getLong("ticks")
+    );
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public StockPriceHistoryRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Append the given prices with one JDBC batch.
+     *
+     * @param stockPrices {@link StockPrice}s to append.
+     */
+    @Transactional
+    public void insertAll(Collection<StockPrice> stockPrices) {
+        SqlParameterSource[] parameters = stockPrices.stream()
+                .map(stockPrice -> new MapSqlParameterSource()
+                        .addValue("stockId", stockPrice.getStockId())
+                        .addValue("price", stockPrice.getPrice())
+                        .addValue("recordedAt", toUtc(stockPrice.getRecordedAt())))
+                .toArray(SqlParameterSource[]::new);
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, parameters);
+    }
+
+    /**
+     * Create the partition holding the prices of the month of the given date, unless it already exists.
+     *
+     * @param month Any date of the month, in UTC.
+     */
+    public void createPartition(LocalDate month) {
+        jdbcTemplate.queryForObject(CREATE_PARTITION_SQL, new MapSqlParameterSource("month", month), Object.class);
+    }
+
+    /**
+     * Returns the candles of a stock, computed from the price history in the database.
+     *
+     * @param stockId  Id of stock.
+     * @param interval {@link CandleInterval} of each candle.
+     * @param from     Start of the time range, inclusive.
+     * @param to       End of the time range, exclusive.
+     * @return {@link StockCandle}s ordered by start time. Intervals without prices have no candle.
+     */
+    public List<StockCandle> findCandles(long stockId, CandleInterval interval, Instant from, Instant to) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("stockId", stockId)
+                .addValue("from", toUtc(from))
+                .addValue("to", toUtc(to));
+
+        return jdbcTemplate.query(String.format(CANDLES_SQL, interval.getDateTruncField()), parameters, CANDLE_ROW_MAPPER);
+    }
+
+    private static OffsetDateTime toUtc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
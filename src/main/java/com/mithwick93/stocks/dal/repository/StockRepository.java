@@ -1,12 +1,61 @@
 package com.mithwick93.stocks.dal.repository;
 
 import com.mithwick93.stocks.modal.Stock;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
- * Repository for {@link Stock} entities to perform CRUD operations.
+ * Repository for {@link Stock} entities to perform CRUD operations. Stocks can be counted by {@link StockSpecifications}.
  *
  * @author mithwick93
  */
-public interface StockRepository extends JpaRepository<Stock, Long> {
+public interface StockRepository extends JpaRepository<Stock, Long>, JpaSpecificationExecutor<Stock>, StockRepositoryCustom {
+
+    /**
+     * Estimate the number of stocks from the planner statistics of the table, without scanning it. The estimate is
+     * refreshed by autovacuum and {@code ANALYZE}.
+     *
+     * @return Estimated number of stocks, or -1 when the table was never analyzed.
+     */
+    @Query(value = "SELECT CAST(reltuples AS bigint) FROM pg_class WHERE oid = CAST('stocks' AS regclass)", nativeQuery = true)
+    long estimateCount();
+
+    /**
+     * Stream all stocks ordered by id. Rows are fetched from the database in chunks of the JDBC fetch size, so the
+     * result set is never held in memory at once. Must be consumed inside a transaction and closed after use.
+     *
+     * @return {@link Stream} of all stocks.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select s from Stock s order by s.id")
+    Stream<Stock> streamAll();
+
+    /**
+     * Summarize all stocks with a single aggregate query, without loading any stock.
+     *
+     * @return {@link StocksVersion} of all stocks.
+     */
+    @Query("select count(s) as stockCount, coalesce(sum(s.version), 0) as versionSum, max(s.lastUpdate) as lastUpdate from Stock s")
+    StocksVersion findStocksVersion();
+
+    /**
+     * Find a stock by its name regardless of case, using the unique index on {@code lower(name)}.
+     *
+     * @param name Name of stock.
+     * @return {@link Stock} with the given name, or empty when there is no such stock.
+     */
+    @Query("select s from Stock s where lower(s.name) = lower(:name)")
+    Optional<Stock> findByNameIgnoreCase(String name);
 }
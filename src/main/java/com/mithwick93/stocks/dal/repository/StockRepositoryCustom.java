@@ -0,0 +1,97 @@
+package com.mithwick93.stocks.dal.repository;
+
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockField;
+import com.mithwick93.stocks.modal.StockPrice;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Custom operations of {@link StockRepository} which can not be expressed as query methods.
+ *
+ * @author mithwick93
+ */
+public interface StockRepositoryCustom {
+
+    /**
+     * Update the given columns of a stock and return the updated stock, with a single
+     * {@code UPDATE ... RETURNING} statement. The version of the stock is incremented.
+     *
+     * @param id           Id of stock to update.
+     * @param version      Expected current version of the stock, or null to update any version.
+     * @param name         New name, or null to keep the current name.
+     * @param currentPrice New price, or null to keep the current price.
+     * @return Updated {@link Stock}, or empty when there is no stock with such id and version.
+     */
+    Optional<Stock> updateById(long id, Long version, String name, BigDecimal currentPrice);
+
+    /**
+     * Update the prices of many stocks with a single {@code UPDATE ... FROM unnest(...)} statement. Ids, prices and
+     * times are bound as one array parameter each, so the statement is the same for any number of prices. The last
+     * update time of each stock is set to the time of its price and its version is incremented. Stocks updated after
+     * the time of their price are left as they are, so an older price never overwrites a later write.
+     *
+     * @param stockPrices {@link StockPrice}s to write, at most one per stock.
+     * @return Updated {@link Stock}s in no particular order. Ids without a stock and stocks updated after the time of
+     * their price are left out.
+     */
+    List<Stock> updatePrices(Collection<StockPrice> stockPrices);
+
+    /**
+     * Find a page of the stocks matching the specification without counting them. One more stock than the page size is
+     * fetched to tell whether there is a next page. Stocks with the same sort key are ordered by id in the direction of
+     * the sort, so pages are stable and the sort can be served by an index on the key and id.
+     *
+     * @param specification {@link Specification} of the stocks to find.
+     * @param pageable      Page number, size and sort by {@link com.mithwick93.stocks.modal.StockSortKey} values.
+     * @return {@link Slice} of matching stocks.
+     */
+    Slice<Stock> findAllBy(Specification<Stock> specification, Pageable pageable);
+
+    /**
+     * Find a page of the stocks matching the specification like {@link #findAllBy(Specification, Pageable)}, selecting
+     * only the columns of the given fields with a tuple query. The stocks are not managed and only the given fields are
+     * set, the others are null.
+     *
+     * @param specification {@link Specification} of the stocks to find.
+     * @param pageable      Page number, size and sort by {@link com.mithwick93.stocks.modal.StockSortKey} values.
+     * @param fields        {@link StockField}s to select.
+     * @return {@link Slice} of matching stocks with only the given fields set.
+     */
+    Slice<Stock> findAllBy(Specification<Stock> specification, Pageable pageable, Set<StockField> fields);
+
+    /**
+     * Find the stocks with the given ids with a single {@code WHERE id = ANY(...)} statement. The ids are bound as one
+     * array parameter, so the statement is the same for any number of ids.
+     *
+     * @param ids Ids of stocks to find.
+     * @return Found {@link Stock}s in no particular order. Ids without a stock are left out.
+     */
+    List<Stock> findAllByIds(Collection<Long> ids);
+
+    /**
+     * Delete the stocks with the given ids with a single {@code DELETE ... RETURNING} statement. The stocks are not
+     * looked up before they are deleted, and only the id and name of the deleted rows are returned.
+     *
+     * @param ids Ids of stocks to delete.
+     * @return Deleted {@link Stock}s with only id and name set. Ids without a stock are left out.
+     */
+    List<Stock> deleteAllByIds(Collection<Long> ids);
+
+    /**
+     * Delete the stocks last updated before the given time with a single {@code DELETE ... RETURNING} statement. Only
+     * the id and name of the deleted rows are returned.
+     *
+     * @param updatedBefore Exclusive upper bound of the last update time.
+     * @return Deleted {@link Stock}s with only id and name set.
+     */
+    List<Stock> deleteAllUpdatedBefore(Instant updatedBefore);
+}
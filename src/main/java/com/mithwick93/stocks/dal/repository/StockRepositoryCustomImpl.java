@@ -0,0 +1,234 @@
+package com.mithwick93.stocks.dal.repository;
+
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockField;
+import com.mithwick93.stocks.modal.StockPrice;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of {@link StockRepositoryCustom}. Only the given columns are written and no parameter is bound as
+ * null, so the statements do not depend on how the driver types null parameters. Lists of ids are bound as a single
+ * {@code bigint[]} literal, and the prices and times of batched price updates as one array literal each, so there is
+ * one statement per operation regardless of the number of ids.
+ *
+ * @author mithwick93
+ */
+public class StockRepositoryCustomImpl implements StockRepositoryCustom {
+    static final String UPDATE_PRICES_SQL = """
+            UPDATE stocks SET current_price = prices.price, last_update = prices.recorded_at, version = version + 1
+            FROM unnest(CAST(:ids AS bigint[]), CAST(:prices AS numeric[]), CAST(:recordedAts AS timestamptz[])) AS prices(id, price, recorded_at)
+            WHERE stocks.id = prices.id AND stocks.last_update <= prices.recorded_at
+            RETURNING stocks.*""";
+    private static final String IDS_PARAMETER = "ids";
+    private static final String ID_PROPERTY = "id";
+    private static final String NAME_PROPERTY = "name";
+
+    private final EntityManager entityManager;
+
+    public StockRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public Optional<Stock> updateById(long id, Long version, String name, BigDecimal currentPrice) {
+        StringJoiner assignments = new StringJoiner(", ");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (name != null) {
+            assignments.add("name = :name");
+            parameters.put("name", name);
+        }
+        if (currentPrice != null) {
+            assignments.add("current_price = :currentPrice");
+            parameters.put("currentPrice", currentPrice);
+        }
+        assignments.add("last_update = :lastUpdate");
+        parameters.put("lastUpdate", new Timestamp(System.currentTimeMillis()));
+        assignments.add("version = version + 1");
+
+        StringBuilder sql = new StringBuilder("UPDATE stocks SET ").append(assignments).append(" WHERE id = :id");
+        parameters.put("id", id);
+        if (version != null) {
+            sql.append(" AND version = :version");
+            parameters.put("version", version);
+        }
+        sql.append(" RETURNING *");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Stock.class);
+        parameters.forEach(query::setParameter);
+
+        return resultList(query)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    @Transactional
+    public List<Stock> updatePrices(Collection<StockPrice> stockPrices) {
+        Query query = entityManager.createNativeQuery(UPDATE_PRICES_SQL, Stock.class);
+        query.setParameter(IDS_PARAMETER, idsArray(stockPrices.stream().map(StockPrice::getStockId).toList()));
+        query.setParameter("prices", arrayLiteral(stockPrices.stream().map(stockPrice -> stockPrice.getPrice().toPlainString())));
+        query.setParameter("recordedAts", arrayLiteral(stockPrices.stream().map(stockPrice -> stockPrice.getRecordedAt().toString())));
+
+        return resultList(query);
+    }
+
+    @Override
+    public Slice<Stock> findAllBy(Specification<Stock> specification, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Stock> criteriaQuery = criteriaBuilder.createQuery(Stock.class);
+        Root<Stock> stock = criteriaQuery.from(Stock.class);
+
+        return slice(criteriaQuery, stock, specification, pageable);
+    }
+
+    @Override
+    public Slice<Stock> findAllBy(Specification<Stock> specification, Pageable pageable, Set<StockField> fields) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<Stock> stock = criteriaQuery.from(Stock.class);
+        criteriaQuery.multiselect(fields.stream()
+                .<Selection<?>>map(field -> stock.get(field.getValue()).alias(field.getValue()))
+                .toList());
+
+        return slice(criteriaQuery, stock, specification, pageable).map(tuple -> toStock(tuple, fields));
+    }
+
+    @Override
+    public List<Stock> findAllByIds(Collection<Long> ids) {
+        Query query = entityManager.createNativeQuery("SELECT * FROM stocks WHERE id = ANY(CAST(:ids AS bigint[]))", Stock.class);
+        query.setParameter(IDS_PARAMETER, idsArray(ids));
+
+        return resultList(query);
+    }
+
+    @Override
+    @Transactional
+    public List<Stock> deleteAllByIds(Collection<Long> ids) {
+        Query query = entityManager.createNativeQuery("DELETE FROM stocks WHERE id = ANY(CAST(:ids AS bigint[])) RETURNING id, name");
+        query.setParameter(IDS_PARAMETER, idsArray(ids));
+
+        return deletedStocks(query);
+    }
+
+    @Override
+    @Transactional
+    public List<Stock> deleteAllUpdatedBefore(Instant updatedBefore) {
+        Query query = entityManager.createNativeQuery("DELETE FROM stocks WHERE last_update < :updatedBefore RETURNING id, name");
+        query.setParameter("updatedBefore", Timestamp.from(updatedBefore));
+
+        return deletedStocks(query);
+    }
+
+    private <T> Slice<T> slice(CriteriaQuery<T> criteriaQuery, Root<Stock> stock, Specification<Stock> specification, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        Predicate predicate = specification.toPredicate(stock, criteriaQuery, criteriaBuilder);
+        if (predicate != null) {
+            criteriaQuery.where(predicate);
+        }
+        criteriaQuery.orderBy(orders(pageable.getSort(), stock, criteriaBuilder));
+
+        List<T> results = entityManager.createQuery(criteriaQuery)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = results.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? results.subList(0, pageable.getPageSize()) : results, pageable, hasNext);
+    }
+
+    private static Stock toStock(Tuple tuple, Set<StockField> fields) {
+        Stock stock = new Stock();
+        for (StockField field : fields) {
+            switch (field) {
+                case ID -> stock.setId(tuple.get(field.getValue(), Long.class));
+                case NAME -> stock.setName(tuple.get(field.getValue(), String.class));
+                case CURRENT_PRICE -> stock.setCurrentPrice(tuple.get(field.getValue(), BigDecimal.class));
+                case CREATED_AT -> stock.setCreatedAt(tuple.get(field.getValue(), Timestamp.class));
+                case LAST_UPDATE -> stock.setLastUpdate(tuple.get(field.getValue(), Timestamp.class));
+            }
+        }
+
+        return stock;
+    }
+
+    private static List<Order> orders(Sort sort, Root<Stock> stock, CriteriaBuilder criteriaBuilder) {
+        List<Order> orders = new ArrayList<>();
+        Sort.Direction direction = Sort.Direction.ASC;
+        boolean sortedById = false;
+        for (Sort.Order order : sort) {
+            direction = order.getDirection();
+            sortedById |= ID_PROPERTY.equals(order.getProperty());
+            // Names are unique regardless of case, sorting by the lower cased name uses their unique index.
+            Expression<?> expression = NAME_PROPERTY.equals(order.getProperty())
+                    ? criteriaBuilder.lower(stock.get(NAME_PROPERTY))
+                    : stock.get(order.getProperty());
+            orders.add(order.isAscending() ? criteriaBuilder.asc(expression) : criteriaBuilder.desc(expression));
+        }
+
+        if (!sortedById) {
+            Path<Long> id = stock.get(ID_PROPERTY);
+            orders.add(direction.isAscending() ? criteriaBuilder.asc(id) : criteriaBuilder.desc(id));
+        }
+
+        return orders;
+    }
+
+    private static String idsArray(Collection<Long> ids) {
+        return arrayLiteral(ids.stream().map(String::valueOf));
+    }
+
+    private static String arrayLiteral(Stream<String> elements) {
+        return elements.collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private static List<Stock> resultList(Query query) {
+        return ((List<?>) query.getResultList())
+                .stream()
+                .map(Stock.class::cast)
+                .toList();
+    }
+
+    private static List<Stock> deletedStocks(Query query) {
+        return ((List<?>) query.getResultList())
+                .stream()
+                .map(Object[].class::cast)
+                .map(row -> {
+                    Stock stock = new Stock();
+                    stock.setId(((Number) row[0]).longValue());
+                    stock.setName((String) row[1]);
+                    return stock;
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,147 @@
+package com.mithwick93.stocks.dal.repository;
+
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockFilter;
+import com.mithwick93.stocks.modal.StockSortKey;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * {@link Specification}s of {@link Stock}s, composed into the where clause of a single query. Each one matches an
+ * index, price and last update ranges the indexes on their columns, name prefixes the {@code text_pattern_ops} index on
+ * the lower cased name.
+ *
+ * @author mithwick93
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class StockSpecifications {
+    private static final char LIKE_ESCAPE = '\\';
+
+    /**
+     * Returns specification of the stocks matching every condition of the filter.
+     *
+     * @param filter {@link StockFilter} to match.
+     * @return {@link Specification} of matching stocks. Matches every stock for an empty filter.
+     */
+    public static Specification<Stock> matching(StockFilter filter) {
+        return Specification
+                .where(priceAtLeast(filter.getMinPrice()))
+                .and(priceAtMost(filter.getMaxPrice()))
+                .and(nameStartingWith(filter.getNamePrefix()))
+                .and(updatedSince(filter.getUpdatedSince()));
+    }
+
+    /**
+     * @param minPrice Inclusive lower bound of the current price, or null for any price.
+     * @return {@link Specification} of stocks priced at least the given price, or null.
+     */
+    public static Specification<Stock> priceAtLeast(BigDecimal minPrice) {
+        if (minPrice == null) {
+            return null;
+        }
+
+        return (stock, query, criteriaBuilder) -> criteriaBuilder.greaterThanOrEqualTo(stock.<BigDecimal>get("currentPrice"), minPrice);
+    }
+
+    /**
+     * @param maxPrice Inclusive upper bound of the current price, or null for any price.
+     * @return {@link Specification} of stocks priced at most the given price, or null.
+     */
+    public static Specification<Stock> priceAtMost(BigDecimal maxPrice) {
+        if (maxPrice == null) {
+            return null;
+        }
+
+        return (stock, query, criteriaBuilder) -> criteriaBuilder.lessThanOrEqualTo(stock.<BigDecimal>get("currentPrice"), maxPrice);
+    }
+
+    /**
+     * @param namePrefix Start of the name regardless of case, or null or empty for any name.
+     * @return {@link Specification} of stocks whose name starts with the given prefix, or null.
+     */
+    public static Specification<Stock> nameStartingWith(String namePrefix) {
+        if (namePrefix == null || namePrefix.isEmpty()) {
+            return null;
+        }
+
+        String pattern = escapeLike(namePrefix.toLowerCase(Locale.ROOT)) + "%";
+
+        return (stock, query, criteriaBuilder) -> criteriaBuilder.like(criteriaBuilder.lower(stock.<String>get("name")), pattern, LIKE_ESCAPE);
+    }
+
+    /**
+     * @param updatedSince Inclusive lower bound of the last update time, or null for any time.
+     * @return {@link Specification} of stocks updated at or after the given time, or null.
+     */
+    public static Specification<Stock> updatedSince(Instant updatedSince) {
+        if (updatedSince == null) {
+            return null;
+        }
+
+        Timestamp timestamp = Timestamp.from(updatedSince);
+
+        return (stock, query, criteriaBuilder) -> criteriaBuilder.greaterThanOrEqualTo(stock.<Timestamp>get("lastUpdate"), timestamp);
+    }
+
+    /**
+     * Seek predicate of keyset pagination. Matches the stocks after the last stock in the given sort, comparing the
+     * sort column first and the id on ties, in the order the list query sorts them, so it can be served by the index
+     * of the sort column.
+     *
+     * @param sort      {@link Sort} by one {@link StockSortKey}.
+     * @param lastStock Last {@link Stock} seen, with its id and sort value set, or null to start from the first stock.
+     * @return {@link Specification} of the stocks after the last stock, or null.
+     */
+    public static Specification<Stock> after(Sort sort, Stock lastStock) {
+        if (lastStock == null) {
+            return null;
+        }
+
+        Sort.Order order = sort.iterator().next();
+        boolean ascending = order.isAscending();
+        Long lastId = lastStock.getId();
+
+        return (stock, query, criteriaBuilder) -> {
+            Path<Long> id = stock.get("id");
+            Predicate idAfter = ascending ? criteriaBuilder.greaterThan(id, lastId) : criteriaBuilder.lessThan(id, lastId);
+
+            return switch (StockSortKey.of(order.getProperty())) {
+                case NAME -> seek(criteriaBuilder, ascending, criteriaBuilder.lower(stock.get("name")), lastStock.getName().toLowerCase(Locale.ROOT), idAfter);
+                case CURRENT_PRICE -> seek(criteriaBuilder, ascending, stock.get("currentPrice"), lastStock.getCurrentPrice(), idAfter);
+                case LAST_UPDATE -> seek(criteriaBuilder, ascending, stock.get("lastUpdate"), lastStock.getLastUpdate(), idAfter);
+                default -> idAfter;
+            };
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Predicate seek(CriteriaBuilder criteriaBuilder, boolean ascending, Expression<T> sortColumn, T lastValue, Predicate idAfter) {
+        Predicate sortColumnAfter = ascending
+                ? criteriaBuilder.greaterThan(sortColumn, lastValue)
+                : criteriaBuilder.lessThan(sortColumn, lastValue);
+
+        return criteriaBuilder.or(sortColumnAfter, criteriaBuilder.and(criteriaBuilder.equal(sortColumn, lastValue), idAfter));
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char character : value.toCharArray()) {
+            if (character == LIKE_ESCAPE || character == '%' || character == '_') {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(character);
+        }
+
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,29 @@
+package com.mithwick93.stocks.dal.repository;
+
+import com.mithwick93.stocks.modal.Stock;
+
+import java.sql.Timestamp;
+
+/**
+ * Summary of all {@link Stock}s which changes whenever a stock is created, updated or deleted. Used to validate cached
+ * pages of stocks without loading them.
+ *
+ * @author mithwick93
+ */
+public interface StocksVersion {
+
+    /**
+     * @return Number of stocks.
+     */
+    long getStockCount();
+
+    /**
+     * @return Sum of the versions of all stocks. Grows with every update.
+     */
+    long getVersionSum();
+
+    /**
+     * @return Latest update time of any stock, or null when there are no stocks.
+     */
+    Timestamp getLastUpdate();
+}
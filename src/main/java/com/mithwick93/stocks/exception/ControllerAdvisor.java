@@ -1,7 +1,9 @@
 package com.mithwick93.stocks.exception;
 
+import com.mithwick93.stocks.util.DataIntegrityUtil;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -42,6 +44,63 @@ public class ControllerAdvisor extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(problemDetail, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handle {@link StockVersionMismatchException}.
+     *
+     * @param ex      Exception to handle.
+     * @param request Web request.
+     * @return RFC-7807 {@link ProblemDetail} wrapped in {@link ResponseEntity} with HTTP status 412.
+     */
+    @ExceptionHandler(value = StockVersionMismatchException.class)
+    public ResponseEntity<ProblemDetail> handleStockVersionMismatch(StockVersionMismatchException ex, WebRequest request) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+        problemDetail.setTitle("Precondition failed");
+        problemDetail.setInstance(URI.create(((ServletWebRequest) request).getRequest().getRequestURI()));
+
+        return new ResponseEntity<>(problemDetail, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Handle {@link StockPriceBufferFullException}.
+     *
+     * @param ex      Exception to handle.
+     * @param request Web request.
+     * @return RFC-7807 {@link ProblemDetail} wrapped in {@link ResponseEntity} with HTTP status 503 and a
+     * <code>Retry-After</code> header.
+     */
+    @ExceptionHandler(value = StockPriceBufferFullException.class)
+    public ResponseEntity<ProblemDetail> handleStockPriceBufferFull(StockPriceBufferFullException ex, WebRequest request) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        problemDetail.setTitle("Service unavailable");
+        problemDetail.setInstance(URI.create(((ServletWebRequest) request).getRequest().getRequestURI()));
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(problemDetail);
+    }
+
+    /**
+     * Handle {@link DataIntegrityViolationException} of the unique stock name index, a stock name which is already
+     * taken. Other violations are rethrown and answered as any other unexpected error.
+     *
+     * @param ex      Exception to handle.
+     * @param request Web request.
+     * @return RFC-7807 {@link ProblemDetail} wrapped in {@link ResponseEntity} with HTTP status 409.
+     */
+    @ExceptionHandler(value = DataIntegrityViolationException.class)
+    public ResponseEntity<ProblemDetail> handleDataIntegrityViolation(DataIntegrityViolationException ex, WebRequest request) {
+        if (!DataIntegrityUtil.isStockNameTaken(ex)) {
+            throw ex;
+        }
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, "Stock conflicts with an existing stock, stock names must be unique");
+        problemDetail.setTitle("Conflict");
+        problemDetail.setInstance(URI.create(((ServletWebRequest) request).getRequest().getRequestURI()));
+
+        return new ResponseEntity<>(problemDetail, HttpStatus.CONFLICT);
+    }
+
     /**
      * Handle Bad input.
      *
@@ -12,11 +12,16 @@ import java.util.function.Supplier;
 public class StockNotFoundException extends RuntimeException {
 
     private static final String STOCK_NOT_FOUND_MESSAGE = "Stock %d not found";
+    private static final String STOCK_NAME_NOT_FOUND_MESSAGE = "Stock %s not found";
 
     public StockNotFoundException(long id) {
         super(String.format(STOCK_NOT_FOUND_MESSAGE, id));
     }
 
+    public StockNotFoundException(String name) {
+        super(String.format(STOCK_NAME_NOT_FOUND_MESSAGE, name));
+    }
+
     public static Supplier<StockNotFoundException> supplier(long id) {
         return () -> new StockNotFoundException(id);
     }
@@ -0,0 +1,24 @@
+package com.mithwick93.stocks.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Exception to indicate a price update was not accepted because too many buffered prices are waiting to be written.
+ *
+ * @author mithwick93
+ */
+@Getter
+public class StockPriceBufferFullException extends RuntimeException {
+
+    private static final String STOCK_PRICE_BUFFER_FULL_MESSAGE = "Prices of %d stocks are waiting to be written, retry later";
+
+    private final Duration retryAfter;
+
+    public StockPriceBufferFullException(int maxPending, Duration retryAfter) {
+        super(String.format(STOCK_PRICE_BUFFER_FULL_MESSAGE, maxPending));
+        this.retryAfter = retryAfter;
+    }
+
+}
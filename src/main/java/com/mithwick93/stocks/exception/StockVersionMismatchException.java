@@ -0,0 +1,18 @@
+package com.mithwick93.stocks.exception;
+
+import com.mithwick93.stocks.modal.Stock;
+
+/**
+ * Exception to indicate {@link Stock} was modified since the version a client expected.
+ *
+ * @author mithwick93
+ */
+public class StockVersionMismatchException extends RuntimeException {
+
+    private static final String STOCK_VERSION_MISMATCH_MESSAGE = "Stock %d is not at version %d";
+
+    public StockVersionMismatchException(long id, long version) {
+        super(String.format(STOCK_VERSION_MISMATCH_MESSAGE, id, version));
+    }
+
+}
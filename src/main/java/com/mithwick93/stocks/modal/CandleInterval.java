@@ -0,0 +1,40 @@
+package com.mithwick93.stocks.modal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Supported intervals of {@link StockCandle}s. Candles start at the beginning of a UTC minute, hour or day.
+ *
+ * @author mithwick93
+ */
+@Getter
+@AllArgsConstructor
+public enum CandleInterval {
+    MINUTE("1m", "minute", Duration.ofMinutes(1)),
+    HOUR("1h", "hour", Duration.ofHours(1)),
+    DAY("1d", "day", Duration.ofDays(1));
+
+    private static final String INVALID_INTERVAL_MESSAGE = "Invalid candle interval: %s. Supported intervals are %s";
+
+    private final String value;
+    private final String dateTruncField;
+    private final Duration duration;
+
+    /**
+     * Returns interval by its value.
+     *
+     * @param value Interval value, e.g. 1m.
+     * @return {@link CandleInterval} with the given value.
+     * @throws IllegalArgumentException When the interval is not supported.
+     */
+    public static CandleInterval of(String value) {
+        return Arrays.stream(values())
+                .filter(interval -> interval.value.equals(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format(INVALID_INTERVAL_MESSAGE, value, Arrays.stream(values()).map(CandleInterval::getValue).toList())));
+    }
+}
@@ -5,9 +5,11 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -32,7 +34,8 @@ import java.sql.Timestamp;
 public class Stock {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stocks_id_generator")
+    @SequenceGenerator(name = "stocks_id_generator", sequenceName = "stocks_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -50,4 +53,8 @@ public class Stock {
     @Column(nullable = false)
     @UpdateTimestamp
     private Timestamp lastUpdate;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,50 @@
+package com.mithwick93.stocks.modal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Supported ways to count all stocks for the totals of a page of stocks.
+ *
+ * @author mithwick93
+ */
+@Getter
+@AllArgsConstructor
+public enum StockCountMode {
+    /**
+     * Count all stocks for every page.
+     */
+    EXACT("exact"),
+    /**
+     * Exact count, reused until it expires or a stock is created or deleted by this instance.
+     */
+    CACHED("cached"),
+    /**
+     * Row estimate of the planner statistics, kept up to date by autovacuum.
+     */
+    ESTIMATED("estimated"),
+    /**
+     * No count. Only tells whether there is a next page.
+     */
+    NONE("none");
+
+    private static final String INVALID_COUNT_MODE_MESSAGE = "Invalid count mode: %s. Supported count modes are %s";
+
+    private final String value;
+
+    /**
+     * Returns count mode by its value.
+     *
+     * @param value Count mode value, e.g. exact.
+     * @return {@link StockCountMode} with the given value.
+     * @throws IllegalArgumentException When the count mode is not supported.
+     */
+    public static StockCountMode of(String value) {
+        return Arrays.stream(values())
+                .filter(countMode -> countMode.value.equals(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format(INVALID_COUNT_MODE_MESSAGE, value, Arrays.stream(values()).map(StockCountMode::getValue).toList())));
+    }
+}
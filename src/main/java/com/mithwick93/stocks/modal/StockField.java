@@ -0,0 +1,84 @@
+package com.mithwick93.stocks.modal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Properties of {@link Stock} a client can ask for in a sparse fieldset. Only the columns of the requested fields are
+ * selected and only those fields are rendered.
+ *
+ * @author mithwick93
+ */
+@Getter
+@AllArgsConstructor
+public enum StockField {
+    /**
+     * Id of the stock.
+     */
+    ID("id"),
+    /**
+     * Name (ticker) of the stock.
+     */
+    NAME("name"),
+    /**
+     * Current price of the stock.
+     */
+    CURRENT_PRICE("currentPrice"),
+    /**
+     * Creation time of the stock, in epoch milliseconds.
+     */
+    CREATED_AT("createdAt"),
+    /**
+     * Last update time of the stock, in epoch milliseconds.
+     */
+    LAST_UPDATE("lastUpdate");
+
+    /**
+     * Every field, the full representation of a stock.
+     */
+    public static final Set<StockField> ALL = Collections.unmodifiableSet(EnumSet.allOf(StockField.class));
+
+    private static final String SEPARATOR = ",";
+    private static final String INVALID_FIELD_MESSAGE = "Invalid field: %s. Supported fields are %s";
+
+    private final String value;
+
+    /**
+     * Returns field by its value.
+     *
+     * @param value Field value, e.g. currentPrice.
+     * @return {@link StockField} with the given value.
+     * @throws IllegalArgumentException When the field is not supported.
+     */
+    public static StockField of(String value) {
+        return Arrays.stream(values())
+                .filter(field -> field.value.equals(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format(INVALID_FIELD_MESSAGE, value, Arrays.stream(values()).map(StockField::getValue).toList())));
+    }
+
+    /**
+     * Returns the fields of a comma separated list.
+     *
+     * @param values Comma separated field values, e.g. id,currentPrice. Null or blank for all fields.
+     * @return {@link StockField}s in declaration order.
+     * @throws IllegalArgumentException When a field is not supported.
+     */
+    public static Set<StockField> setOf(String values) {
+        if (values == null || values.isBlank()) {
+            return ALL;
+        }
+
+        Set<StockField> fields = EnumSet.noneOf(StockField.class);
+        for (String value : values.split(SEPARATOR, -1)) {
+            fields.add(of(value.trim()));
+        }
+
+        return fields;
+    }
+}
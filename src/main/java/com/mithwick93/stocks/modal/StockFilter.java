@@ -0,0 +1,37 @@
+package com.mithwick93.stocks.modal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Conditions a {@link Stock} has to meet to be listed. Null conditions match every stock.
+ *
+ * @author mithwick93
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockFilter {
+    /**
+     * Filter matching every stock.
+     */
+    public static final StockFilter NONE = new StockFilter();
+
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private String namePrefix;
+    private Instant updatedSince;
+
+    /**
+     * @return True when the filter matches every stock.
+     */
+    public boolean isEmpty() {
+        return minPrice == null && maxPrice == null && (namePrefix == null || namePrefix.isEmpty()) && updatedSince == null;
+    }
+}
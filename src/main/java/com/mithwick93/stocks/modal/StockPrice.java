@@ -0,0 +1,34 @@
+package com.mithwick93.stocks.modal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Price of a stock at a point in time, as recorded in the price history.
+ *
+ * @author mithwick93
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockPrice {
+    private long stockId;
+    private BigDecimal price;
+    private Instant recordedAt;
+
+    /**
+     * Current price of the given stock, recorded at its last update.
+     *
+     * @param stock {@link Stock} to record.
+     * @return {@link StockPrice} of the stock.
+     */
+    public static StockPrice of(Stock stock) {
+        return new StockPrice(stock.getId(), stock.getCurrentPrice(), stock.getLastUpdate().toInstant());
+    }
+}
@@ -0,0 +1,50 @@
+package com.mithwick93.stocks.modal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Properties of {@link Stock} a page of stocks can be sorted by. Each one is backed by an index.
+ *
+ * @author mithwick93
+ */
+@Getter
+@AllArgsConstructor
+public enum StockSortKey {
+    /**
+     * Sort by id, using the primary key.
+     */
+    ID("id"),
+    /**
+     * Sort by name regardless of case, using the unique index on the lower cased name.
+     */
+    NAME("name"),
+    /**
+     * Sort by current price, then id.
+     */
+    CURRENT_PRICE("currentPrice"),
+    /**
+     * Sort by last update time, then id.
+     */
+    LAST_UPDATE("lastUpdate");
+
+    private static final String INVALID_SORT_KEY_MESSAGE = "Invalid sort key: %s. Supported sort keys are %s";
+
+    private final String value;
+
+    /**
+     * Returns sort key by its value.
+     *
+     * @param value Sort key value, e.g. currentPrice.
+     * @return {@link StockSortKey} with the given value.
+     * @throws IllegalArgumentException When the sort key is not supported.
+     */
+    public static StockSortKey of(String value) {
+        return Arrays.stream(values())
+                .filter(sortKey -> sortKey.value.equals(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format(INVALID_SORT_KEY_MESSAGE, value, Arrays.stream(values()).map(StockSortKey::getValue).toList())));
+    }
+}
@@ -0,0 +1,26 @@
+package com.mithwick93.stocks.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Entry point of the reactive variant of the stocks API. Serves the CRUD operations of {@code /api/v1/stocks} on
+ * WebFlux with R2DBC, with the same DTOs and errors as the Spring MVC application. Runs with the {@value #PROFILE}
+ * profile, which configures the R2DBC connection pool.
+ *
+ * @author mithwick93
+ */
+@SpringBootApplication
+public class ReactiveApplication {
+    public static final String PROFILE = "reactive";
+
+    @lombok.Generated
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(ReactiveApplication.class);
+        application.setWebApplicationType(WebApplicationType.REACTIVE);
+        application.setAdditionalProfiles(PROFILE);
+        application.run(args);
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.mithwick93.stocks.reactive.configuration;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.config.EnableHypermediaSupport;
+import org.springframework.hateoas.config.EnableHypermediaSupport.HypermediaType;
+import org.springframework.hateoas.mediatype.hal.HalConfiguration;
+import org.springframework.hateoas.support.WebStack;
+import org.springframework.http.MediaType;
+
+/**
+ * Hypermedia configuration of the reactive application. Spring Boot only auto-configures HAL for servlet
+ * applications, so it is enabled here for WebFlux and used for <code>application/json</code> as well, to render the
+ * same responses as the Spring MVC application.
+ *
+ * @author mithwick93
+ */
+@Configuration
+@EnableHypermediaSupport(type = HypermediaType.HAL, stacks = WebStack.WEBFLUX)
+public class HypermediaConfiguration {
+
+    @Bean
+    public HalConfiguration halConfiguration() {
+        return new HalConfiguration().withMediaType(MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,21 @@
+package com.mithwick93.stocks.reactive.configuration;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * R2DBC configuration of the reactive application. The pooled {@link ConnectionFactory} is configured using
+ * <code>spring.r2dbc.*</code> properties.
+ *
+ * @author mithwick93
+ */
+@Configuration
+public class R2dbcConfiguration {
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+}
@@ -0,0 +1,187 @@
+package com.mithwick93.stocks.reactive.controller;
+
+import com.mithwick93.stocks.Constants;
+import com.mithwick93.stocks.controller.conditional.StockETag;
+import com.mithwick93.stocks.controller.dto.StockPatchRequestDto;
+import com.mithwick93.stocks.controller.dto.StockRequestDto;
+import com.mithwick93.stocks.controller.dto.StockResponseDto;
+import com.mithwick93.stocks.exception.StockNotFoundException;
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.reactive.controller.mapper.ReactiveStockMapper;
+import com.mithwick93.stocks.reactive.service.ReactiveStockService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Reactive stocks REST controller. Serves the CRUD operations of the Spring MVC {@code StockController} with the same
+ * paths, DTOs and status codes, without blocking a thread while the database is queried.
+ *
+ * @author mithwick93
+ */
+@RestController
+@RequestMapping(value = ReactiveStockMapper.STOCKS_PATH)
+@Validated
+public class ReactiveStockController {
+    private final ReactiveStockService reactiveStockService;
+    private final ReactiveStockMapper reactiveStockMapper;
+
+    @Autowired
+    public ReactiveStockController(ReactiveStockService reactiveStockService, ReactiveStockMapper reactiveStockMapper) {
+        this.reactiveStockService = reactiveStockService;
+        this.reactiveStockMapper = reactiveStockMapper;
+    }
+
+    /**
+     * Returns list of all {@link StockResponseDto}s.
+     *
+     * @param page    Page number. Default is 0.
+     * @param size    Size per page. Default is 10.
+     * @param request Current request, to resolve links.
+     * @return List of all {@link StockResponseDto}s.
+     */
+    @GetMapping(produces = APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<PagedModel<StockResponseDto>>> getStocks(
+            @RequestParam(value = "page", defaultValue = Constants.DEFAULT_PAGE_NUMBER, required = false) @Min(0) int page,
+            @RequestParam(value = "size", defaultValue = Constants.DEFAULT_PAGE_SIZE, required = false) @Min(1) int size,
+            ServerHttpRequest request
+    ) {
+        return reactiveStockService
+                .findAllStocks(page, size)
+                .map(stocks -> ResponseEntity.ok(reactiveStockMapper.toPagedModel(stocks, request)));
+    }
+
+    /**
+     * Returns {@link StockResponseDto} by its id.
+     *
+     * @param id      Id of stock to lookup.
+     * @param request Current request, to resolve links.
+     * @return {@link StockResponseDto} by its id, or {@link StockNotFoundException} when there is no stock with such id.
+     */
+    @GetMapping(value = "/{id}", produces = APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<StockResponseDto>> getStockById(
+            @PathVariable long id,
+            ServerHttpRequest request
+    ) {
+        return reactiveStockService
+                .findStockById(id)
+                .map(stock -> ResponseEntity
+                        .ok()
+                        .eTag(StockETag.of(stock))
+                        .lastModified(stock.getLastUpdate().getTime())
+                        .body(reactiveStockMapper.toModel(stock, request)));
+    }
+
+    /**
+     * Create new stock by request.
+     *
+     * @param stockRequestDto {@link StockRequestDto} of new stock.
+     * @param request         Current request, to resolve links.
+     * @return Created {@link StockResponseDto}.
+     */
+    @PostMapping(consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<StockResponseDto>> createStock(
+            @Valid @RequestBody StockRequestDto stockRequestDto,
+            ServerHttpRequest request
+    ) {
+        return reactiveStockService
+                .createStock(reactiveStockMapper.toEntity(stockRequestDto))
+                .map(createdStock -> {
+                    StockResponseDto stockResponseDto = reactiveStockMapper.toModel(createdStock, request);
+
+                    return ResponseEntity
+                            .created(URI.create(stockResponseDto.getRequiredLink(IanaLinkRelations.SELF).getHref()))
+                            .eTag(StockETag.of(createdStock))
+                            .body(stockResponseDto);
+                });
+    }
+
+    /**
+     * Updates given stock. When an {@code If-Match} header is sent, the stock is only updated if it is still at that
+     * version.
+     *
+     * @param id              Id of stock to update.
+     * @param ifMatch         Optional entity tag of the stock version to update.
+     * @param stockRequestDto {@link StockRequestDto} of stock to update from.
+     * @param request         Current request, to resolve links.
+     * @return Updated {@link StockResponseDto}.
+     */
+    @PutMapping(value = "/{id}", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<StockResponseDto>> updateStock(
+            @PathVariable long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody StockRequestDto stockRequestDto,
+            ServerHttpRequest request
+    ) {
+        return reactiveStockService
+                .updateStock(id, StockETag.parseIfMatch(ifMatch), reactiveStockMapper.toEntity(stockRequestDto))
+                .map(updatedStock -> updatedResponse(updatedStock, request));
+    }
+
+    /**
+     * Updates the sent fields of given stock. When an {@code If-Match} header is sent, the stock is only updated if it
+     * is still at that version.
+     *
+     * @param id                   Id of stock to update.
+     * @param ifMatch              Optional entity tag of the stock version to update.
+     * @param stockPatchRequestDto {@link StockPatchRequestDto} with the fields to change.
+     * @param request              Current request, to resolve links.
+     * @return Updated {@link StockResponseDto}.
+     */
+    @PatchMapping(value = "/{id}", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<StockResponseDto>> patchStock(
+            @PathVariable long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody StockPatchRequestDto stockPatchRequestDto,
+            ServerHttpRequest request
+    ) {
+        return reactiveStockService
+                .patchStock(id, StockETag.parseIfMatch(ifMatch), reactiveStockMapper.toEntity(stockPatchRequestDto))
+                .map(updatedStock -> updatedResponse(updatedStock, request));
+    }
+
+    /**
+     * Delete a stock by id.
+     *
+     * @param id Id of stock to delete.
+     * @return HTTP 204 response code with no body.
+     */
+    @DeleteMapping(value = "/{id}")
+    public Mono<ResponseEntity<Void>> deleteStock(
+            @PathVariable long id
+    ) {
+        return reactiveStockService
+                .deleteStock(id)
+                .then(Mono.just(ResponseEntity.status(HttpStatus.NO_CONTENT).build()));
+    }
+
+    private ResponseEntity<StockResponseDto> updatedResponse(Stock updatedStock, ServerHttpRequest request) {
+        return ResponseEntity
+                .ok()
+                .eTag(StockETag.of(updatedStock))
+                .body(reactiveStockMapper.toModel(updatedStock, request));
+    }
+}
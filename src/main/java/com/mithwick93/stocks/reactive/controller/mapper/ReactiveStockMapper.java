@@ -0,0 +1,121 @@
+package com.mithwick93.stocks.reactive.controller.mapper;
+
+import com.mithwick93.stocks.Constants;
+import com.mithwick93.stocks.controller.dto.StockPatchRequestDto;
+import com.mithwick93.stocks.controller.dto.StockRequestDto;
+import com.mithwick93.stocks.controller.dto.StockResponseDto;
+import com.mithwick93.stocks.modal.Stock;
+import org.springframework.data.domain.Page;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mapper class to map Stock model to Stock DTO and vise versa in the reactive application. Links are identical to the
+ * ones of the Spring MVC application and are resolved against the base URI of the current request.
+ *
+ * @author mithwick93
+ */
+@Component
+public class ReactiveStockMapper {
+    public static final String STOCKS_PATH = "/api/v1/stocks";
+    static final String STOCKS_REL = "stocks";
+
+    /**
+     * Map modal to DTO.
+     *
+     * @param stock   {@link Stock} to convert.
+     * @param request Current request, to resolve links.
+     * @return {@link StockResponseDto}
+     */
+    public StockResponseDto toModel(Stock stock, ServerHttpRequest request) {
+        return toModel(stock, baseUri(request));
+    }
+
+    /**
+     * Map a page of modals to a paged model of DTOs, with the same navigation links as {@code PagedResourcesAssembler}.
+     *
+     * @param stocks  {@link Page} of {@link Stock}s to convert.
+     * @param request Current request, to resolve links.
+     * @return {@link PagedModel} of {@link StockResponseDto}s.
+     */
+    public PagedModel<StockResponseDto> toPagedModel(Page<Stock> stocks, ServerHttpRequest request) {
+        String baseUri = baseUri(request);
+        List<StockResponseDto> stockResponseDtos = stocks.map(stock -> toModel(stock, baseUri)).getContent();
+
+        List<Link> links = new ArrayList<>();
+        if (stocks.hasPrevious()) {
+            links.add(pageLink(baseUri, 0, stocks.getSize(), IanaLinkRelations.FIRST.value()));
+            links.add(pageLink(baseUri, stocks.getNumber() - 1, stocks.getSize(), IanaLinkRelations.PREV.value()));
+        }
+        links.add(pageLink(baseUri, stocks.getNumber(), stocks.getSize(), IanaLinkRelations.SELF.value()));
+        if (stocks.hasNext()) {
+            links.add(pageLink(baseUri, stocks.getNumber() + 1, stocks.getSize(), IanaLinkRelations.NEXT.value()));
+            links.add(pageLink(baseUri, stocks.getTotalPages() - 1, stocks.getSize(), IanaLinkRelations.LAST.value()));
+        }
+
+        PagedModel.PageMetadata pageMetadata = new PagedModel.PageMetadata(stocks.getSize(), stocks.getNumber(), stocks.getTotalElements(), stocks.getTotalPages());
+
+        return PagedModel.of(stockResponseDtos, pageMetadata, links);
+    }
+
+    /**
+     * Map DTO to entity.
+     *
+     * @param stockRequestDto {@link StockRequestDto} to convert.
+     * @return {@link Stock}
+     */
+    public Stock toEntity(StockRequestDto stockRequestDto) {
+        Stock stock = new Stock();
+        stock.setName(stockRequestDto.getName());
+        stock.setCurrentPrice(stockRequestDto.getCurrentPrice());
+
+        return stock;
+    }
+
+    /**
+     * Map partial update DTO to entity. Fields which are not sent stay null.
+     *
+     * @param stockPatchRequestDto {@link StockPatchRequestDto} to convert.
+     * @return {@link Stock}
+     */
+    public Stock toEntity(StockPatchRequestDto stockPatchRequestDto) {
+        Stock stock = new Stock();
+        stock.setName(stockPatchRequestDto.getName());
+        stock.setCurrentPrice(stockPatchRequestDto.getCurrentPrice());
+
+        return stock;
+    }
+
+    private StockResponseDto toModel(Stock stock, String baseUri) {
+        StockResponseDto stockDto = new StockResponseDto(
+                stock.getId(),
+                stock.getName(),
+                stock.getCurrentPrice(),
+                stock.getCreatedAt().getTime(),
+                stock.getLastUpdate().getTime()
+        );
+
+        stockDto.add(Link.of(baseUri + STOCKS_PATH + "/" + stock.getId(), IanaLinkRelations.SELF));
+        stockDto.add(pageLink(baseUri, Integer.parseInt(Constants.DEFAULT_PAGE_NUMBER), Integer.parseInt(Constants.DEFAULT_PAGE_SIZE), STOCKS_REL));
+        return stockDto;
+    }
+
+    private static Link pageLink(String baseUri, int page, int size, String rel) {
+        return Link.of(baseUri + STOCKS_PATH + "?page=" + page + "&size=" + size, rel);
+    }
+
+    private static String baseUri(ServerHttpRequest request) {
+        return UriComponentsBuilder.fromHttpRequest(request)
+                .replacePath(request.getPath().contextPath().value())
+                .replaceQuery(null)
+                .build()
+                .toUriString();
+    }
+}
@@ -0,0 +1,173 @@
+package com.mithwick93.stocks.reactive.dal.repository;
+
+import com.mithwick93.stocks.modal.Stock;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Non-blocking repository of {@link Stock}s on R2DBC. Uses the same statements as the JPA repository of the Spring MVC
+ * application, so both applications can share a database. Every operation is a single statement.
+ *
+ * @author mithwick93
+ */
+@Repository
+public class ReactiveStockRepository {
+    static final String FIND_PAGE_SQL = "SELECT * FROM stocks ORDER BY id LIMIT :size OFFSET :offset";
+    static final String COUNT_SQL = "SELECT count(*) FROM stocks";
+    static final String FIND_BY_ID_SQL = "SELECT * FROM stocks WHERE id = :id";
+    static final String EXISTS_BY_ID_SQL = "SELECT EXISTS (SELECT 1 FROM stocks WHERE id = :id)";
+    static final String INSERT_SQL = "INSERT INTO stocks (name, current_price, created_at, last_update, version) VALUES (:name, :currentPrice, :now, :now, 0) RETURNING *";
+    static final String DELETE_BY_ID_SQL = "DELETE FROM stocks WHERE id = :id";
+
+    private final DatabaseClient databaseClient;
+
+    @Autowired
+    public ReactiveStockRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Find a page of stocks ordered by id.
+     *
+     * @param page 0-index page number.
+     * @param size Size of a page.
+     * @return {@link Flux} of the stocks of the page.
+     */
+    public Flux<Stock> findAll(int page, int size) {
+        return databaseClient.sql(FIND_PAGE_SQL)
+                .bind("size", size)
+                .bind("offset", (long) page * size)
+                .map(ReactiveStockRepository::toStock)
+                .all();
+    }
+
+    /**
+     * Count all stocks.
+     *
+     * @return Number of stocks.
+     */
+    public Mono<Long> count() {
+        return databaseClient.sql(COUNT_SQL)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Find a stock by its id.
+     *
+     * @param id Id of stock.
+     * @return {@link Stock} with the given id, or empty when there is no such stock.
+     */
+    public Mono<Stock> findById(long id) {
+        return databaseClient.sql(FIND_BY_ID_SQL)
+                .bind("id", id)
+                .map(ReactiveStockRepository::toStock)
+                .one();
+    }
+
+    /**
+     * Tell whether a stock exists.
+     *
+     * @param id Id of stock.
+     * @return True when there is a stock with the given id.
+     */
+    public Mono<Boolean> existsById(long id) {
+        return databaseClient.sql(EXISTS_BY_ID_SQL)
+                .bind("id", id)
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+
+    /**
+     * Insert a new stock. The id is taken from the {@code stocks_id_seq} sequence by the column default.
+     *
+     * @param stock {@link Stock} to insert.
+     * @return Inserted {@link Stock}.
+     */
+    public Mono<Stock> insert(Stock stock) {
+        return databaseClient.sql(INSERT_SQL)
+                .bind("name", stock.getName())
+                .bind("currentPrice", stock.getCurrentPrice())
+                .bind("now", Instant.now())
+                .map(ReactiveStockRepository::toStock)
+                .one();
+    }
+
+    /**
+     * Update the given columns of a stock and return the updated stock, with a single {@code UPDATE ... RETURNING}
+     * statement. The version of the stock is incremented.
+     *
+     * @param id           Id of stock to update.
+     * @param version      Expected current version of the stock, or null to update any version.
+     * @param name         New name, or null to keep the current name.
+     * @param currentPrice New price, or null to keep the current price.
+     * @return Updated {@link Stock}, or empty when there is no stock with such id and version.
+     */
+    public Mono<Stock> updateById(long id, Long version, String name, BigDecimal currentPrice) {
+        StringJoiner assignments = new StringJoiner(", ");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (name != null) {
+            assignments.add("name = :name");
+            parameters.put("name", name);
+        }
+        if (currentPrice != null) {
+            assignments.add("current_price = :currentPrice");
+            parameters.put("currentPrice", currentPrice);
+        }
+        assignments.add("last_update = :lastUpdate");
+        parameters.put("lastUpdate", Instant.now());
+        assignments.add("version = version + 1");
+
+        StringBuilder sql = new StringBuilder("UPDATE stocks SET ").append(assignments).append(" WHERE id = :id");
+        parameters.put("id", id);
+        if (version != null) {
+            sql.append(" AND version = :version");
+            parameters.put("version", version);
+        }
+        sql.append(" RETURNING *");
+
+        DatabaseClient.GenericExecuteSpec statement = databaseClient.sql(sql.toString());
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            statement = statement.bind(parameter.getKey(), parameter.getValue());
+        }
+
+        return statement
+                .map(ReactiveStockRepository::toStock)
+                .one();
+    }
+
+    /**
+     * Delete a stock by its id.
+     *
+     * @param id Id of stock to delete.
+     * @return Number of deleted stocks, 0 or 1.
+     */
+    public Mono<Long> deleteById(long id) {
+        return databaseClient.sql(DELETE_BY_ID_SQL)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    static Stock toStock(Readable row) {
+        return Stock.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .currentPrice(row.get("current_price", BigDecimal.class))
+                .createdAt(Timestamp.from(row.get("created_at", Instant.class)))
+                .lastUpdate(Timestamp.from(row.get("last_update", Instant.class)))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.mithwick93.stocks.reactive.exception;
+
+import com.mithwick93.stocks.exception.StockNotFoundException;
+import com.mithwick93.stocks.exception.StockVersionMismatchException;
+import com.mithwick93.stocks.util.DataIntegrityUtil;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityExceptionHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Global Exception handler of the reactive application. Responds with the same RFC-7807 {@link ProblemDetail}s as the
+ * exception handler of the Spring MVC application. Extends {@link ResponseEntityExceptionHandler}.
+ *
+ * @author mithwick93
+ */
+@RestControllerAdvice
+public class ReactiveControllerAdvisor extends ResponseEntityExceptionHandler {
+
+    /**
+     * Handle {@link StockNotFoundException}.
+     *
+     * @param ex       Exception to handle.
+     * @param exchange Current exchange.
+     * @return RFC-7807 {@link ProblemDetail} wrapped in {@link ResponseEntity} with HTTP status 404.
+     */
+    @ExceptionHandler(value = StockNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleStockNotFound(StockNotFoundException ex, ServerWebExchange exchange) {
+        return problem(HttpStatus.NOT_FOUND, "Not found", ex.getMessage(), exchange);
+    }
+
+    /**
+     * Handle {@link StockVersionMismatchException}.
+     *
+     * @param ex       Exception to handle.
+     * @param exchange Current exchange.
+     * @return RFC-7807 {@link ProblemDetail} wrapped in {@link ResponseEntity} with HTTP status 412.
+     */
+    @ExceptionHandler(value = StockVersionMismatchException.class)
+    public ResponseEntity<ProblemDetail> handleStockVersionMismatch(StockVersionMismatchException ex, ServerWebExchange exchange) {
+        return problem(HttpStatus.PRECONDITION_FAILED, "Precondition failed", ex.getMessage(), exchange);
+    }
+
+    /**
+     * Handle {@link DataIntegrityViolationException} of the unique stock name index, a stock name which is already
+     * taken. Other violations are rethrown and answered as any other unexpected error.
+     *
+     * @param ex       Exception to handle.
+     * @param exchange Current exchange.
+     * @return RFC-7807 {@link ProblemDetail} wrapped in {@link ResponseEntity} with HTTP status 409.
+     */
+    @ExceptionHandler(value = DataIntegrityViolationException.class)
+    public ResponseEntity<ProblemDetail> handleDataIntegrityViolation(DataIntegrityViolationException ex, ServerWebExchange exchange) {
+        if (!DataIntegrityUtil.isStockNameTaken(ex)) {
+            throw ex;
+        }
+
+        return problem(HttpStatus.CONFLICT, "Conflict", "Stock conflicts with an existing stock, stock names must be unique", exchange);
+    }
+
+    /**
+     * Handle Bad input.
+     *
+     * @param ex       Exception to handle.
+     * @param exchange Current exchange.
+     * @return RFC-7807 {@link ProblemDetail} wrapped in {@link ResponseEntity} with HTTP status 400.
+     */
+    @ExceptionHandler({ConstraintViolationException.class, IllegalArgumentException.class})
+    public ResponseEntity<ProblemDetail> handleConstraintViolation(Exception ex, ServerWebExchange exchange) {
+        return problem(HttpStatus.BAD_REQUEST, "Invalid request content.", ex.getMessage(), exchange);
+    }
+
+    /**
+     * Handle invalid requests thrown with {@link WebExchangeBindException}.
+     *
+     * @param ex       Exception to handle.
+     * @param headers  Headers of the response.
+     * @param status   Status of the response.
+     * @param exchange Current exchange.
+     * @return RFC-7807 {@link ProblemDetail} wrapped in {@link ResponseEntity} with HTTP status 400.
+     */
+    @Override
+    protected Mono<ResponseEntity<Object>> handleWebExchangeBindException(
+            WebExchangeBindException ex,
+            HttpHeaders headers,
+            HttpStatusCode status,
+            ServerWebExchange exchange
+    ) {
+        List<String> errors = ex.getBindingResult()
+                .getFieldErrors()
+                .stream()
+                .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                .toList();
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, errors.toString());
+        problemDetail.setTitle("Invalid request content.");
+        problemDetail.setInstance(URI.create(exchange.getRequest().getPath().value()));
+
+        return Mono.just(new ResponseEntity<>(problemDetail, headers, status));
+    }
+
+    private static ResponseEntity<ProblemDetail> problem(HttpStatus status, String title, String detail, ServerWebExchange exchange) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, detail);
+        problemDetail.setTitle(title);
+        problemDetail.setInstance(URI.create(exchange.getRequest().getPath().value()));
+
+        return new ResponseEntity<>(problemDetail, status);
+    }
+}
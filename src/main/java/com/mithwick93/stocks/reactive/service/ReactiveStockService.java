@@ -0,0 +1,115 @@
+package com.mithwick93.stocks.reactive.service;
+
+import com.mithwick93.stocks.exception.StockNotFoundException;
+import com.mithwick93.stocks.exception.StockVersionMismatchException;
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.reactive.dal.repository.ReactiveStockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Non-blocking service to perform business logic on {@link Stock} entities. Same rules and errors as the service of
+ * the Spring MVC application, without its cache, price history and change events.
+ *
+ * @author mithwick93
+ */
+@Service
+public class ReactiveStockService {
+    private final ReactiveStockRepository reactiveStockRepository;
+
+    @Autowired
+    public ReactiveStockService(ReactiveStockRepository reactiveStockRepository) {
+        this.reactiveStockRepository = reactiveStockRepository;
+    }
+
+    /**
+     * Returns a page of {@link Stock}s. The page and the total count are queried concurrently.
+     *
+     * @param page 0-index page number.
+     * @param size Size of a page.
+     * @return {@link Page} of {@link Stock}s.
+     */
+    public Mono<Page<Stock>> findAllStocks(int page, int size) {
+        return Mono.zip(reactiveStockRepository.findAll(page, size).collectList(), reactiveStockRepository.count())
+                .map(pageAndCount -> new PageImpl<>(pageAndCount.getT1(), PageRequest.of(page, size), pageAndCount.getT2()));
+    }
+
+    /**
+     * Returns {@link Stock} by its id.
+     *
+     * @param id Id of stock to lookup.
+     * @return {@link Stock} by its id, or {@link StockNotFoundException} when there is no stock with such id.
+     */
+    public Mono<Stock> findStockById(long id) {
+        return reactiveStockRepository
+                .findById(id)
+                .switchIfEmpty(Mono.error(StockNotFoundException.supplier(id)));
+    }
+
+    /**
+     * Create new stock.
+     *
+     * @param stock {@link Stock} new stock to add.
+     * @return Created {@link Stock}.
+     */
+    public Mono<Stock> createStock(Stock stock) {
+        return reactiveStockRepository.insert(stock);
+    }
+
+    /**
+     * Update {@link Stock} by its id, with a single statement which only succeeds when the stock is still at the
+     * expected version.
+     *
+     * @param id      Id of stock to update.
+     * @param version Expected current version of the stock, or null to update any version.
+     * @param stock   New {@link Stock} information.
+     * @return Updated {@link Stock}, or {@link StockNotFoundException} when there is no stock with such id, or
+     * {@link StockVersionMismatchException} when the stock is not at the expected version.
+     */
+    public Mono<Stock> updateStock(long id, Long version, Stock stock) {
+        return updateStockColumns(id, version, stock.getName(), stock.getCurrentPrice());
+    }
+
+    /**
+     * Partially update {@link Stock} by its id. Only the non-null name and price of the given stock are written.
+     *
+     * @param id      Id of stock to update.
+     * @param version Expected current version of the stock, or null to update any version.
+     * @param stock   {@link Stock} information to change. Null fields are kept.
+     * @return Updated {@link Stock}, or {@link StockNotFoundException} when there is no stock with such id, or
+     * {@link StockVersionMismatchException} when the stock is not at the expected version.
+     */
+    public Mono<Stock> patchStock(long id, Long version, Stock stock) {
+        return updateStockColumns(id, version, stock.getName(), stock.getCurrentPrice());
+    }
+
+    /**
+     * Delete {@link Stock} by its id, with a single statement.
+     *
+     * @param id Id of stock to delete.
+     * @return Completes when deleted, or {@link StockNotFoundException} when there is no stock with such id.
+     */
+    public Mono<Void> deleteStock(long id) {
+        return reactiveStockRepository
+                .deleteById(id)
+                .flatMap(deleted -> deleted > 0 ? Mono.<Void>empty() : Mono.error(new StockNotFoundException(id)));
+    }
+
+    private Mono<Stock> updateStockColumns(long id, Long version, String name, BigDecimal currentPrice) {
+        return reactiveStockRepository
+                .updateById(id, version, name, currentPrice)
+                .switchIfEmpty(Mono.defer(() -> version == null
+                        ? Mono.error(new StockNotFoundException(id))
+                        : reactiveStockRepository.existsById(id).flatMap(exists -> Mono.error(exists
+                                ? new StockVersionMismatchException(id, version)
+                                : new StockNotFoundException(id)
+                        ))
+                ));
+    }
+}
@@ -0,0 +1,74 @@
+package com.mithwick93.stocks.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key. The first caller of a key runs the load, callers arriving while it runs
+ * wait for it and receive the same result or exception instead of loading again. Nothing is cached: the key is
+ * forgotten as soon as its load finishes, successfully or not, so a later caller loads again.
+ * <p>
+ * Loads in flight are kept in a {@link ConcurrentHashMap}, which only locks the bin of the key while registering or
+ * removing a load, and never while a load runs.
+ *
+ * @param <K> Type of the key.
+ * @param <V> Type of the loaded value.
+ * @author mithwick93
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Load the value of a key, or wait for the load of the key which is already running.
+     *
+     * @param key    Key to load.
+     * @param loader Loads the value, run by the first caller only.
+     * @return Value loaded by this or a concurrent caller.
+     * @throws RuntimeException The exception of the load, to every waiting caller.
+     */
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> runningFlight = inFlight.putIfAbsent(key, flight);
+        if (runningFlight != null) {
+            return await(runningFlight);
+        }
+
+        try {
+            V value = loader.get();
+            flight.complete(value);
+
+            return value;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Returns the number of keys being loaded.
+     *
+     * @return Loads in flight.
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+}
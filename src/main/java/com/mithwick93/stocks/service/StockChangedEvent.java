@@ -0,0 +1,29 @@
+package com.mithwick93.stocks.service;
+
+import com.mithwick93.stocks.modal.Stock;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Published by {@link StockService} when stocks are created, updated or deleted. Listeners should use
+ * {@code @TransactionalEventListener} to only see committed changes.
+ *
+ * @author mithwick93
+ */
+@Data
+@AllArgsConstructor
+public class StockChangedEvent {
+    private Type type;
+    private List<Stock> stocks;
+
+    /**
+     * Kind of change.
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,92 @@
+package com.mithwick93.stocks.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Exact number of stocks, counted at most once per time to live. Committed creates and deletes discard the count, so
+ * this instance sees its own changes on the next call. Creates and deletes of other application instances are only
+ * seen once the count expires. Concurrent callers of an expired count wait for a single count query, on a
+ * {@link ReentrantLock} rather than a monitor, so a virtual thread waiting on the query does not pin its carrier.
+ *
+ * @author mithwick93
+ */
+@Component
+public class StockCountCache {
+    private final long ttlMillis;
+    private final Clock clock;
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock countLock = new ReentrantLock();
+    private volatile CachedCount cachedCount;
+
+    @Autowired
+    public StockCountCache(StockCountProperties stockCountProperties) {
+        this(stockCountProperties, Clock.systemUTC());
+    }
+
+    StockCountCache(StockCountProperties stockCountProperties, Clock clock) {
+        this.ttlMillis = stockCountProperties.getCacheTtl().toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached number of stocks, counting them when there is no unexpired count.
+     *
+     * @param counter Counts all stocks.
+     * @return Number of stocks.
+     */
+    public long get(LongSupplier counter) {
+        CachedCount current = cachedCount;
+        if (current != null && current.expiresAt() > clock.millis()) {
+            return current.count();
+        }
+
+        countLock.lock();
+        try {
+            current = cachedCount;
+            if (current != null && current.expiresAt() > clock.millis()) {
+                return current.count();
+            }
+
+            // A create or delete committing while counting makes the count outdated, so it is not kept.
+            long countedGeneration = generation.get();
+            long count = counter.getAsLong();
+            if (countedGeneration == generation.get()) {
+                cachedCount = new CachedCount(count, clock.millis() + ttlMillis);
+            }
+
+            return count;
+        } finally {
+            countLock.unlock();
+        }
+    }
+
+    /**
+     * Discard the cached count.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        cachedCount = null;
+    }
+
+    /**
+     * Discard the cached count once a create or delete commits. Updates do not change the number of stocks.
+     *
+     * @param event {@link StockChangedEvent} to apply.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        if (event.getType() != StockChangedEvent.Type.UPDATED) {
+            invalidate();
+        }
+    }
+
+    private record CachedCount(long count, long expiresAt) {
+    }
+}
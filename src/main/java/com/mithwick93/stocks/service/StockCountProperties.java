@@ -0,0 +1,21 @@
+package com.mithwick93.stocks.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the stock count cached by {@link StockCountCache}.
+ *
+ * @author mithwick93
+ */
+@Data
+@ConfigurationProperties(prefix = "stock-count")
+public class StockCountProperties {
+
+    /**
+     * How long a counted number of stocks is reused. Creates and deletes of this instance discard it earlier.
+     */
+    private Duration cacheTtl = Duration.ofSeconds(30);
+}
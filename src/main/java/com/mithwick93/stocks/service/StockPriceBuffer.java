@@ -0,0 +1,242 @@
+package com.mithwick93.stocks.service;
+
+import com.mithwick93.stocks.exception.StockNotFoundException;
+import com.mithwick93.stocks.exception.StockPriceBufferFullException;
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockPrice;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind buffer of price updates. Accepted prices are kept in memory, the latest price per stock replacing the
+ * ones not yet written, and a background thread writes the buffered prices with one statement per batch of
+ * {@link StockPriceBufferProperties#getBatchSize()} stocks. A flush runs every
+ * {@link StockPriceBufferProperties#getFlushInterval()}, or earlier once a batch is full.
+ * <p>
+ * Accepted prices are not durable until they are flushed, so prices still buffered when the application is killed are
+ * lost. On shutdown the buffered prices are flushed once more, prices which can not be written then are counted in the
+ * <code>stock.price.buffer.lost</code> metric. A failed flush keeps the prices buffered and retries them with the next
+ * flush. While the buffer holds prices of {@link StockPriceBufferProperties#getMaxPending()} stocks, updates of other
+ * stocks are rejected, which bounds both the memory used and the prices at risk. Prices of stocks which do not exist,
+ * or were updated after the price was accepted, are dropped when flushed. Without write-behind each price is written
+ * before it is acknowledged instead, and the background thread is not started.
+ *
+ * @author mithwick93
+ */
+@Component
+@Slf4j
+public class StockPriceBuffer implements InitializingBean, DisposableBean {
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private final StockService stockService;
+    private final Clock clock;
+    private final boolean writeBehind;
+    private final long flushIntervalNanos;
+    private final int batchSize;
+    private final int maxPending;
+    private final Duration retryAfter;
+    private final ConcurrentMap<Long, StockPrice> pending = new ConcurrentHashMap<>();
+    private final Counter coalescedCounter;
+    private final Counter rejectedCounter;
+    private final Counter flushedCounter;
+    private final Counter skippedCounter;
+    private final Counter failedCounter;
+    private final Counter lostCounter;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    @Autowired
+    public StockPriceBuffer(StockService stockService, StockPriceBufferProperties stockPriceBufferProperties, MeterRegistry meterRegistry) {
+        this(stockService, stockPriceBufferProperties, meterRegistry, Clock.systemUTC());
+    }
+
+    StockPriceBuffer(StockService stockService, StockPriceBufferProperties stockPriceBufferProperties, MeterRegistry meterRegistry, Clock clock) {
+        this.stockService = stockService;
+        this.clock = clock;
+        this.writeBehind = stockPriceBufferProperties.isWriteBehind();
+        this.flushIntervalNanos = stockPriceBufferProperties.getFlushInterval().toNanos();
+        this.batchSize = stockPriceBufferProperties.getBatchSize();
+        this.maxPending = stockPriceBufferProperties.getMaxPending();
+        this.retryAfter = stockPriceBufferProperties.getRetryAfter();
+        this.coalescedCounter = Counter.builder("stock.price.buffer.coalesced")
+                .description("Buffered stock prices replaced by a later price before they were written")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("stock.price.buffer.rejected")
+                .description("Stock prices rejected because the price buffer was full")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("stock.price.buffer.flushed")
+                .description("Buffered stock prices written to the database")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("stock.price.buffer.skipped")
+                .description("Buffered stock prices dropped because the stock does not exist or was updated later")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("stock.price.buffer.failed")
+                .description("Buffered stock prices whose write failed and is retried")
+                .register(meterRegistry);
+        this.lostCounter = Counter.builder("stock.price.buffer.lost")
+                .description("Buffered stock prices which could not be written on shutdown")
+                .register(meterRegistry);
+        Gauge.builder("stock.price.buffer.pending", pending, Map::size)
+                .description("Stocks with a buffered price waiting to be written")
+                .register(meterRegistry);
+
+        this.worker = new Thread(this::flushPeriodically, "stock-price-buffer");
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * Start the background thread once the buffer is fully initialized, so a context which fails to start does not
+     * leave it running. Without write-behind there is nothing to flush and no thread is started.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (writeBehind) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Buffer the price of a stock, replacing its buffered price if any. The stock is not looked up. Without
+     * write-behind the price is written right away instead.
+     *
+     * @param stockId Id of stock.
+     * @param price   New price.
+     * @return Accepted {@link StockPrice}, with the time it was accepted.
+     * @throws StockPriceBufferFullException When the stock has no buffered price and the buffer is full.
+     * @throws StockNotFoundException        Without write-behind, when there is no stock with such id.
+     */
+    public StockPrice put(long stockId, BigDecimal price) {
+        StockPrice stockPrice = StockPrice.builder()
+                .stockId(stockId)
+                .price(price)
+                .recordedAt(clock.instant())
+                .build();
+
+        if (!writeBehind) {
+            if (stockService.updateStockPrices(List.of(stockPrice)).isEmpty()) {
+                // Either there is no such stock or it was written meanwhile, only the lookup tells them apart.
+                stockService.findStockById(stockId);
+            }
+            return stockPrice;
+        }
+
+        pending.compute(stockId, (id, bufferedPrice) -> {
+            if (bufferedPrice != null) {
+                coalescedCounter.increment();
+                return stockPrice;
+            }
+            if (!running || pending.size() >= maxPending) {
+                rejectedCounter.increment();
+                throw new StockPriceBufferFullException(maxPending, retryAfter);
+            }
+
+            return stockPrice;
+        });
+
+        if (pending.size() >= batchSize) {
+            LockSupport.unpark(worker);
+        }
+
+        return stockPrice;
+    }
+
+    /**
+     * Returns the buffered price of a stock, which is not written yet.
+     *
+     * @param stockId Id of stock.
+     * @return Buffered {@link StockPrice}, or empty when the latest price of the stock is written.
+     */
+    public Optional<StockPrice> get(long stockId) {
+        return Optional.ofNullable(pending.get(stockId));
+    }
+
+    /**
+     * Returns the number of stocks with a buffered price.
+     *
+     * @return Stocks with a buffered price.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Stop the background thread and write the buffered prices. Prices which can not be written are logged and lost.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(worker);
+        worker.join(SHUTDOWN_TIMEOUT_MILLIS);
+
+        if (!flush()) {
+            lostCounter.increment(pending.size());
+            log.error("Lost {} buffered stock prices which could not be written on shutdown", pending.size());
+        }
+    }
+
+    /**
+     * Write the prices buffered when the flush starts, one statement per batch. Prices buffered while flushing are left
+     * for the next flush, so a steady stream of updates can not keep a flush running. A written price is only removed
+     * from the buffer if it was not replaced meanwhile.
+     *
+     * @return Whether every batch was written. The first failed batch stops the flush and stays buffered.
+     */
+    synchronized boolean flush() {
+        int batches = (pending.size() + batchSize - 1) / batchSize;
+        for (int i = 0; i < batches; i++) {
+            List<StockPrice> batch = pending.values()
+                    .stream()
+                    .limit(batchSize)
+                    .toList();
+            if (batch.isEmpty()) {
+                return true;
+            }
+            if (!write(batch)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void flushPeriodically() {
+        while (running) {
+            LockSupport.parkNanos(this, flushIntervalNanos);
+            if (running) {
+                flush();
+            }
+        }
+    }
+
+    private boolean write(List<StockPrice> batch) {
+        try {
+            List<Stock> updatedStocks = stockService.updateStockPrices(batch);
+            flushedCounter.increment(updatedStocks.size());
+            skippedCounter.increment(batch.size() - updatedStocks.size());
+        } catch (RuntimeException e) {
+            failedCounter.increment(batch.size());
+            log.warn("Failed to write {} buffered stock prices, retrying with the next flush", batch.size(), e);
+            return false;
+        }
+
+        batch.forEach(stockPrice -> pending.remove(stockPrice.getStockId(), stockPrice));
+
+        return true;
+    }
+}
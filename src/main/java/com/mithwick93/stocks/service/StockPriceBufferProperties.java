@@ -0,0 +1,44 @@
+package com.mithwick93.stocks.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the write-behind price updates buffered by {@link StockPriceBuffer}. The flush interval is the
+ * longest time an acknowledged price waits to be written, so it is also the window of prices lost when the application
+ * is killed.
+ *
+ * @author mithwick93
+ */
+@Data
+@ConfigurationProperties(prefix = "stock-price-buffer")
+public class StockPriceBufferProperties {
+
+    /**
+     * Whether accepted prices are buffered and written behind. When false each price is written before it is
+     * acknowledged, which is durable but costs one statement per update.
+     */
+    private boolean writeBehind = true;
+
+    /**
+     * Time between flushes of the buffered prices.
+     */
+    private Duration flushInterval = Duration.ofMillis(100);
+
+    /**
+     * Maximum number of prices written with one statement. A flush starts early once this many stocks have a price.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Maximum number of stocks with a buffered price. Updates of other stocks are rejected while the buffer is full.
+     */
+    private int maxPending = 100000;
+
+    /**
+     * Time clients are asked to wait before retrying a rejected update.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,24 @@
+package com.mithwick93.stocks.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the price history written by {@link StockPriceHistoryWriter}.
+ *
+ * @author mithwick93
+ */
+@Data
+@ConfigurationProperties(prefix = "stock-price-history")
+public class StockPriceHistoryProperties {
+
+    /**
+     * Maximum number of prices waiting to be written. Prices are dropped when the queue is full.
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * Maximum number of prices written with one JDBC batch.
+     */
+    private int batchSize = 500;
+}
@@ -0,0 +1,158 @@
+package com.mithwick93.stocks.service;
+
+import com.mithwick93.stocks.dal.repository.StockPriceHistoryRepository;
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockPrice;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends stock prices to the price history on a background thread, so stock writes do not pay for an extra insert.
+ * Prices are queued once the transaction which wrote them commits and are inserted in JDBC batches. Callers never
+ * block: when the queue is full the price is dropped and counted in the <code>stock.price.history.dropped</code>
+ * metric. Prices still queued when the application is killed are lost.
+ *
+ * @author mithwick93
+ */
+@Component
+@Slf4j
+public class StockPriceHistoryWriter implements InitializingBean, DisposableBean {
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private final StockPriceHistoryRepository stockPriceHistoryRepository;
+    private final int batchSize;
+    private final BlockingQueue<StockPrice> queue;
+    private final Set<LocalDate> partitionMonths = new HashSet<>();
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    @Autowired
+    public StockPriceHistoryWriter(
+            StockPriceHistoryRepository stockPriceHistoryRepository,
+            StockPriceHistoryProperties stockPriceHistoryProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.stockPriceHistoryRepository = stockPriceHistoryRepository;
+        this.batchSize = stockPriceHistoryProperties.getBatchSize();
+        this.queue = new ArrayBlockingQueue<>(stockPriceHistoryProperties.getQueueCapacity());
+        this.droppedCounter = Counter.builder("stock.price.history.dropped")
+                .description("Stock prices dropped because the price history queue was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("stock.price.history.failed")
+                .description("Stock prices which could not be written to the price history")
+                .register(meterRegistry);
+        Gauge.builder("stock.price.history.queue.size", queue, BlockingQueue::size)
+                .description("Stock prices waiting to be written to the price history")
+                .register(meterRegistry);
+
+        this.worker = new Thread(this::drain, "stock-price-history-writer");
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * Start the background thread once the writer is fully initialized, so a context which fails to start does not
+     * leave it running.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        worker.start();
+    }
+
+    /**
+     * Record the current prices of the given stocks. Within a transaction the prices are queued after it commits, so
+     * rolled back writes are not recorded and timestamps set on flush are known.
+     *
+     * @param stocks {@link Stock}s whose price was written.
+     */
+    public void record(Collection<Stock> stocks) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(stocks);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(stocks);
+            }
+        });
+    }
+
+    /**
+     * Stop the background thread once the queued prices are written.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        worker.join(SHUTDOWN_TIMEOUT_MILLIS);
+    }
+
+    private void enqueue(Collection<Stock> stocks) {
+        for (Stock stock : stocks) {
+            if (!queue.offer(StockPrice.of(stock))) {
+                droppedCounter.increment();
+            }
+        }
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                StockPrice stockPrice = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (stockPrice != null) {
+                    List<StockPrice> batch = new ArrayList<>(batchSize);
+                    batch.add(stockPrice);
+                    queue.drainTo(batch, batchSize - 1);
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(List<StockPrice> batch) {
+        batch.stream()
+                .map(stockPrice -> LocalDate.ofInstant(stockPrice.getRecordedAt(), ZoneOffset.UTC).withDayOfMonth(1))
+                .filter(partitionMonths::add)
+                .forEach(this::createPartition);
+
+        try {
+            stockPriceHistoryRepository.insertAll(batch);
+        } catch (RuntimeException e) {
+            failedCounter.increment(batch.size());
+            log.warn("Failed to write {} stock prices to the price history", batch.size(), e);
+        }
+    }
+
+    private void createPartition(LocalDate month) {
+        try {
+            stockPriceHistoryRepository.createPartition(month);
+        } catch (RuntimeException e) {
+            log.warn("Failed to create price history partition of {}, prices are written to the default partition", month, e);
+        }
+    }
+}
@@ -1,52 +1,270 @@
 package com.mithwick93.stocks.service;
 
+import com.mithwick93.stocks.Constants;
+import com.mithwick93.stocks.dal.datasource.PrimaryPin;
+import com.mithwick93.stocks.dal.repository.StockPriceHistoryRepository;
 import com.mithwick93.stocks.dal.repository.StockRepository;
+import com.mithwick93.stocks.dal.repository.StockSpecifications;
+import com.mithwick93.stocks.dal.repository.StocksVersion;
 import com.mithwick93.stocks.exception.StockNotFoundException;
+import com.mithwick93.stocks.exception.StockVersionMismatchException;
+import com.mithwick93.stocks.modal.CandleInterval;
 import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockCandle;
+import com.mithwick93.stocks.modal.StockCountMode;
+import com.mithwick93.stocks.modal.StockField;
+import com.mithwick93.stocks.modal.StockFilter;
+import com.mithwick93.stocks.modal.StockPrice;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * Service to perform business logic on {@link Stock} entities.
+ * Service to perform business logic on {@link Stock} entities. Single stock lookups are served through the
+ * {@value Constants#STOCKS_CACHE_NAME} cache, which is kept up to date by create, update and delete operations. Every
+ * create, update and delete publishes a {@link StockChangedEvent}. Reads run in read-only transactions, which are served
+ * by a read replica when data source routing is enabled.
  *
  * @author mithwick93
  */
 @Service
+@CacheConfig(cacheNames = Constants.STOCKS_CACHE_NAME)
 public class StockService {
+    private static final String INVALID_CANDLE_RANGE_MESSAGE = "Candle range start %s must be before its end %s";
+    private static final String TOO_MANY_CANDLES_MESSAGE = "Candle range from %s to %s has more than %d %s candles";
+    private static final String NO_COUNT_MESSAGE = "Count mode %s does not count stocks";
+
     private final StockRepository stockRepository;
+    private final EntityManager entityManager;
+    private final StockPriceHistoryRepository stockPriceHistoryRepository;
+    private final StockPriceHistoryWriter stockPriceHistoryWriter;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final StockSymbolIndex stockSymbolIndex;
+    private final StockCountCache stockCountCache;
+    private final CacheManager cacheManager;
+    private final SingleFlight<Long, Stock> stockLookups = new SingleFlight<>();
 
     @Autowired
-    public StockService(StockRepository stockRepository) {
+    public StockService(
+            StockRepository stockRepository,
+            EntityManager entityManager,
+            StockPriceHistoryRepository stockPriceHistoryRepository,
+            StockPriceHistoryWriter stockPriceHistoryWriter,
+            ApplicationEventPublisher applicationEventPublisher,
+            StockSymbolIndex stockSymbolIndex,
+            StockCountCache stockCountCache,
+            CacheManager cacheManager
+    ) {
         this.stockRepository = stockRepository;
+        this.entityManager = entityManager;
+        this.stockPriceHistoryRepository = stockPriceHistoryRepository;
+        this.stockPriceHistoryWriter = stockPriceHistoryWriter;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.stockSymbolIndex = stockSymbolIndex;
+        this.stockCountCache = stockCountCache;
+        this.cacheManager = cacheManager;
     }
 
     /**
-     * Returns list of all {@link Stock}s.
+     * Returns a page of the {@link Stock}s matching the filter with the given total, without counting them. The total
+     * is corrected when the fetched page proves it wrong, so that the page links stay consistent with the stocks which
+     * exist.
      *
-     * @return List of all {@link Stock}s.
+     * @param filter   {@link StockFilter} the stocks have to match.
+     * @param pageable Page number, size and sort.
+     * @param total    Number of matching stocks known by the caller, see {@link #countStocks(StockCountMode, StockFilter)}.
+     * @param fields   {@link StockField}s to load. Stocks of a sparse fieldset only have these fields set.
+     * @return {@link Page} of {@link Stock}s.
      */
-    public Page<Stock> findAllStocks(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
+    @Transactional(readOnly = true)
+    public Page<Stock> findAllStocks(StockFilter filter, Pageable pageable, long total, Set<StockField> fields) {
+        Slice<Stock> stocksSlice = findAllBy(filter, pageable, fields);
+
+        long seen = pageable.getOffset() + stocksSlice.getNumberOfElements();
+        long pageTotal = total;
+        if (stocksSlice.hasNext()) {
+            pageTotal = Math.max(total, seen + 1);
+        } else if (stocksSlice.hasContent()) {
+            pageTotal = seen;
+        }
+
+        return new PageImpl<>(stocksSlice.getContent(), pageable, pageTotal);
+    }
 
-        return stockRepository.findAll(pageable);
+    /**
+     * Returns a slice of the {@link Stock}s matching the filter, which only tells whether there is a next page and does
+     * not count the stocks.
+     *
+     * @param filter   {@link StockFilter} the stocks have to match.
+     * @param pageable Page number, size and sort.
+     * @param fields   {@link StockField}s to load. Stocks of a sparse fieldset only have these fields set.
+     * @return {@link Slice} of {@link Stock}s.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Stock> findStocksSlice(StockFilter filter, Pageable pageable, Set<StockField> fields) {
+        return findAllBy(filter, pageable, fields);
     }
 
     /**
-     * Returns {@link Stock} by its id.
+     * Returns the number of stocks matching the filter, counted as requested. Cached counts and estimates only exist
+     * for all stocks, so the stocks matching a non-empty filter are always counted exactly.
+     *
+     * @param countMode {@link StockCountMode} to count with.
+     * @param filter    {@link StockFilter} the stocks have to match.
+     * @return Number of matching stocks.
+     * @throws IllegalArgumentException When the count mode does not count stocks.
+     */
+    @Transactional(readOnly = true)
+    public long countStocks(StockCountMode countMode, StockFilter filter) {
+        if (countMode == StockCountMode.NONE) {
+            throw new IllegalArgumentException(String.format(NO_COUNT_MESSAGE, countMode.getValue()));
+        }
+        if (!filter.isEmpty()) {
+            return stockRepository.count(StockSpecifications.matching(filter));
+        }
+
+        return switch (countMode) {
+            case CACHED -> stockCountCache.get(stockRepository::count);
+            case ESTIMATED -> {
+                long estimate = stockRepository.estimateCount();
+                yield estimate >= 0 ? estimate : stockCountCache.get(stockRepository::count);
+            }
+            default -> stockRepository.count();
+        };
+    }
+
+    /**
+     * Returns the current {@link StocksVersion} of all stocks. Cheaper than loading a page of stocks, so it can be
+     * used to tell whether a page a client already has is still up to date.
+     *
+     * @return {@link StocksVersion} of all stocks.
+     */
+    @Transactional(readOnly = true)
+    public StocksVersion findStocksVersion() {
+        return stockRepository.findStocksVersion();
+    }
+
+    /**
+     * Returns a slice of the {@link Stock}s matching the filter in the given sort, starting after the given stock. Uses
+     * a seek predicate on the sort column, with the id as the tie-breaker, and does not count the total number of
+     * stocks.
+     *
+     * @param filter    {@link StockFilter} the stocks have to match.
+     * @param sort      {@link Sort} of the list, by one sort key.
+     * @param lastStock Last {@link Stock} already seen by the client, with its id and sort value set, or null to start
+     *                  from the first stock.
+     * @param size      Maximum number of stocks to return.
+     * @return {@link Slice} of {@link Stock}s after the given stock.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Stock> findStocksAfter(StockFilter filter, Sort sort, Stock lastStock, int size) {
+        Pageable pageable = PageRequest.of(0, size, sort);
+
+        return stockRepository.findAllBy(StockSpecifications.matching(filter).and(StockSpecifications.after(sort, lastStock)), pageable);
+    }
+
+    /**
+     * Pass every {@link Stock} ordered by id to the given consumer. Stocks are streamed from the database and detached
+     * once consumed, so memory usage does not depend on the number of stocks.
+     *
+     * @param consumer Consumer of each {@link Stock}.
+     */
+    @Transactional(readOnly = true)
+    public void exportStocks(Consumer<Stock> consumer) {
+        try (Stream<Stock> stocks = stockRepository.streamAll()) {
+            stocks.forEach(stock -> {
+                consumer.accept(stock);
+                entityManager.detach(stock);
+            });
+        }
+    }
+
+    /**
+     * Returns {@link Stock} by its id. Concurrent cache misses of the same id share one query and all receive its stock
+     * or its exception. Requests pinned to the primary query on their own, so they never receive a stock read from a
+     * replica.
      *
      * @param id Id of stock to lookup.
      * @return {@link Stock} by its id.
      * @throws StockNotFoundException When there is no stock with such id.
      */
+    @Cacheable(key = "#id")
     public Stock findStockById(long id) {
+        if (PrimaryPin.isPinned()) {
+            return loadStockById(id);
+        }
+
+        return stockLookups.load(id, () -> loadStockById(id));
+    }
+
+    /**
+     * Returns the {@link Stock}s with the given ids, loaded with a single query.
+     *
+     * @param ids Ids of stocks to lookup.
+     * @return Found {@link Stock}s by their ids. Ids without a stock are left out.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Stock> findStocksByIds(Collection<Long> ids) {
         return stockRepository
-                .findById(id)
-                .orElseThrow(
-                        StockNotFoundException.supplier(id)
-                );
+                .findAllByIds(ids)
+                .stream()
+                .collect(Collectors.toMap(Stock::getId, Function.identity()));
+    }
+
+    /**
+     * Returns {@link Stock} by its name, regardless of case. Known names are resolved to the id in memory and the stock
+     * is read through the {@value Constants#STOCKS_CACHE_NAME} cache, loading it by its primary key on a miss. Other
+     * names are looked up through the unique index on the name and remembered.
+     *
+     * @param name Name of stock to lookup.
+     * @return {@link Stock} by its name.
+     * @throws StockNotFoundException When there is no stock with such name.
+     */
+    @Transactional(readOnly = true)
+    public Stock findStockByName(String name) {
+        String symbol = StockSymbolIndex.symbol(name);
+        Long id = stockSymbolIndex.findId(name);
+        if (id != null) {
+            Optional<Stock> stock = findCachedStockById(id)
+                    .filter(existingStock -> StockSymbolIndex.symbol(existingStock.getName()).equals(symbol));
+            if (stock.isPresent()) {
+                return stock.get();
+            }
+            stockSymbolIndex.remove(id);
+        }
+
+        Stock stock = stockRepository
+                .findByNameIgnoreCase(name)
+                .orElseThrow(() -> new StockNotFoundException(name));
+        stockSymbolIndex.put(stock);
+
+        return stock;
     }
 
     /**
@@ -55,35 +273,246 @@ public class StockService {
      * @param stock {@link Stock} new stock to add.
      * @return Created {@link Stock}.
      */
+    @CachePut(key = "#result.id")
     public Stock createStock(Stock stock) {
-        return stockRepository.save(stock);
+        Stock createdStock = stockRepository.save(stock);
+        stockPriceHistoryWriter.record(List.of(createdStock));
+        applicationEventPublisher.publishEvent(new StockChangedEvent(StockChangedEvent.Type.CREATED, List.of(createdStock)));
+
+        return createdStock;
+    }
+
+    /**
+     * Create new stocks in a single transaction. Inserts are sent to the database in JDBC batches.
+     *
+     * @param stocks {@link Stock}s new stocks to add.
+     * @return Created {@link Stock}s in the same order.
+     */
+    @Transactional
+    public List<Stock> createStocks(List<Stock> stocks) {
+        List<Stock> createdStocks = stockRepository.saveAll(stocks);
+        stockPriceHistoryWriter.record(createdStocks);
+        applicationEventPublisher.publishEvent(new StockChangedEvent(StockChangedEvent.Type.CREATED, createdStocks));
+
+        return createdStocks;
+    }
+
+    /**
+     * Update {@link Stock}s by their ids in a single transaction. Existing stocks are loaded with one query and
+     * updates are sent to the database in JDBC batches. Ids without a stock are ignored. Each updated stock is put in
+     * the cache, so the other cached stocks are kept.
+     *
+     * @param stocks New {@link Stock} information by id of stock to update.
+     * @return Updated {@link Stock}s by their ids.
+     */
+    @Transactional
+    public Map<Long, Stock> updateStocks(Map<Long, Stock> stocks) {
+        List<Stock> existingStocks = stockRepository.findAllById(stocks.keySet());
+
+        existingStocks.forEach(existingStock -> {
+            Stock stock = stocks.get(existingStock.getId());
+            existingStock.setName(stock.getName());
+            existingStock.setCurrentPrice(stock.getCurrentPrice());
+        });
+
+        List<Stock> updatedStocks = stockRepository.saveAll(existingStocks);
+        cacheStocks(updatedStocks);
+        stockPriceHistoryWriter.record(updatedStocks);
+        applicationEventPublisher.publishEvent(new StockChangedEvent(StockChangedEvent.Type.UPDATED, updatedStocks));
+
+        return updatedStocks
+                .stream()
+                .collect(Collectors.toMap(Stock::getId, Function.identity()));
     }
 
     /**
-     * Update {@link Stock} by its id based on the request received.
+     * Update the prices of {@link Stock}s with a single statement. The stocks are not looked up before they are
+     * updated. Ids without a stock and stocks updated after the time of their price are ignored. Each updated stock is
+     * put in the cache, instead of evicting all cached stocks, so frequent price updates do not empty the cache.
      *
-     * @param id    Id of stock to delete.
-     * @param stock New {@link Stock} information.
+     * @param stockPrices {@link StockPrice}s to write, at most one per stock.
+     * @return Updated {@link Stock}s.
+     */
+    @Transactional
+    public List<Stock> updateStockPrices(Collection<StockPrice> stockPrices) {
+        List<Stock> updatedStocks = stockRepository.updatePrices(stockPrices);
+        if (updatedStocks.isEmpty()) {
+            return updatedStocks;
+        }
+
+        cacheStocks(updatedStocks);
+        stockPriceHistoryWriter.record(updatedStocks);
+        applicationEventPublisher.publishEvent(new StockChangedEvent(StockChangedEvent.Type.UPDATED, updatedStocks));
+
+        return updatedStocks;
+    }
+
+    /**
+     * Update {@link Stock} by its id based on the request received. The stock is updated with a single statement,
+     * which only succeeds when the stock is still at the expected version.
+     *
+     * @param id      Id of stock to update.
+     * @param version Expected current version of the stock, or null to update any version.
+     * @param stock   New {@link Stock} information.
      * @return Updated {@link Stock}.
+     * @throws StockNotFoundException        When there is no stock with such id.
+     * @throws StockVersionMismatchException When the stock is not at the expected version.
      */
-    public Stock updateStock(long id, Stock stock) {
-        Stock existingStock = findStockById(id);
+    @Transactional
+    @CachePut(key = "#id")
+    public Stock updateStock(long id, Long version, Stock stock) {
+        Stock updatedStock = updateStockColumns(id, version, stock.getName(), stock.getCurrentPrice());
+        stockPriceHistoryWriter.record(List.of(updatedStock));
+        applicationEventPublisher.publishEvent(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(updatedStock)));
 
-        existingStock.setName(stock.getName());
-        existingStock.setCurrentPrice(stock.getCurrentPrice());
+        return updatedStock;
+    }
 
-        return stockRepository.save(existingStock);
+    /**
+     * Partially update {@link Stock} by its id. Only the non-null name and price of the given stock are written, with
+     * a single statement which only succeeds when the stock is still at the expected version.
+     *
+     * @param id      Id of stock to update.
+     * @param version Expected current version of the stock, or null to update any version.
+     * @param stock   {@link Stock} information to change. Null fields are kept.
+     * @return Updated {@link Stock}.
+     * @throws StockNotFoundException        When there is no stock with such id.
+     * @throws StockVersionMismatchException When the stock is not at the expected version.
+     */
+    @Transactional
+    @CachePut(key = "#id")
+    public Stock patchStock(long id, Long version, Stock stock) {
+        Stock updatedStock = updateStockColumns(id, version, stock.getName(), stock.getCurrentPrice());
+        if (stock.getCurrentPrice() != null) {
+            stockPriceHistoryWriter.record(List.of(updatedStock));
+        }
+        applicationEventPublisher.publishEvent(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(updatedStock)));
+
+        return updatedStock;
     }
 
     /**
-     * Delete {@link Stock} by its id.
+     * Delete {@link Stock} by its id, with a single statement which returns the deleted stock.
      *
      * @param id Id of stock to delete.
+     * @throws StockNotFoundException When there is no stock with such id.
      */
+    @CacheEvict(key = "#id")
     public void deleteStock(long id) {
-        Stock existingStock = findStockById(id);
+        List<Stock> deletedStocks = stockRepository.deleteAllByIds(List.of(id));
+        if (deletedStocks.isEmpty()) {
+            throw new StockNotFoundException(id);
+        }
+
+        applicationEventPublisher.publishEvent(new StockChangedEvent(StockChangedEvent.Type.DELETED, deletedStocks));
+    }
+
+    /**
+     * Delete {@link Stock}s by their ids with a single statement. Stocks are not loaded before they are deleted. Ids
+     * without a stock are ignored. Only the deleted stocks are evicted from the cache.
+     *
+     * @param ids Ids of stocks to delete.
+     * @return Number of deleted stocks.
+     */
+    @Transactional
+    public int deleteStocks(Collection<Long> ids) {
+        return publishDeleted(stockRepository.deleteAllByIds(ids));
+    }
 
-        stockRepository.deleteById(existingStock.getId());
+    /**
+     * Delete all {@link Stock}s last updated before the given time with a single statement. Stocks are not loaded
+     * before they are deleted. Only the deleted stocks are evicted from the cache.
+     *
+     * @param updatedBefore Exclusive upper bound of the last update time.
+     * @return Number of deleted stocks.
+     */
+    @Transactional
+    public int deleteStocksUpdatedBefore(Instant updatedBefore) {
+        return publishDeleted(stockRepository.deleteAllUpdatedBefore(updatedBefore));
     }
 
+    /**
+     * Returns the candles of a stock computed from its price history. Without a range, the last
+     * {@value Constants#MAX_CANDLES} intervals up to now are returned.
+     *
+     * @param id       Id of stock.
+     * @param interval {@link CandleInterval} of each candle.
+     * @param from     Start of the range, inclusive. Null for {@value Constants#MAX_CANDLES} intervals before the end.
+     * @param to       End of the range, exclusive. Null for now.
+     * @return {@link StockCandle}s ordered by start time. Intervals without prices have no candle.
+     * @throws IllegalArgumentException When the range is empty or spans more than {@value Constants#MAX_CANDLES}
+     *                                  intervals.
+     */
+    @Transactional(readOnly = true)
+    public List<StockCandle> findCandles(long id, CandleInterval interval, Instant from, Instant to) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(interval.getDuration().multipliedBy(Constants.MAX_CANDLES));
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException(String.format(INVALID_CANDLE_RANGE_MESSAGE, start, end));
+        }
+        if (start.plus(interval.getDuration().multipliedBy(Constants.MAX_CANDLES)).isBefore(end)) {
+            throw new IllegalArgumentException(String.format(TOO_MANY_CANDLES_MESSAGE, start, end, Constants.MAX_CANDLES, interval.getValue()));
+        }
+
+        return stockPriceHistoryRepository.findCandles(id, interval, start, end);
+    }
+
+    private Optional<Stock> findCachedStockById(long id) {
+        Cache stocksCache = cacheManager.getCache(Constants.STOCKS_CACHE_NAME);
+        Stock cachedStock = stocksCache != null ? stocksCache.get(id, Stock.class) : null;
+        if (cachedStock != null) {
+            return Optional.of(cachedStock);
+        }
+
+        Optional<Stock> stock = stockRepository.findById(id);
+        if (stocksCache != null) {
+            stock.ifPresent(existingStock -> stocksCache.put(id, existingStock));
+        }
+
+        return stock;
+    }
+
+    private void cacheStocks(List<Stock> stocks) {
+        Cache stocksCache = cacheManager.getCache(Constants.STOCKS_CACHE_NAME);
+        if (stocksCache != null) {
+            stocks.forEach(stock -> stocksCache.put(stock.getId(), stock));
+        }
+    }
+
+    private Stock loadStockById(long id) {
+        return stockRepository
+                .findById(id)
+                .orElseThrow(
+                        StockNotFoundException.supplier(id)
+                );
+    }
+
+    private int publishDeleted(List<Stock> deletedStocks) {
+        if (!deletedStocks.isEmpty()) {
+            Cache stocksCache = cacheManager.getCache(Constants.STOCKS_CACHE_NAME);
+            if (stocksCache != null) {
+                deletedStocks.forEach(deletedStock -> stocksCache.evict(deletedStock.getId()));
+            }
+            applicationEventPublisher.publishEvent(new StockChangedEvent(StockChangedEvent.Type.DELETED, deletedStocks));
+        }
+
+        return deletedStocks.size();
+    }
+
+    private Stock updateStockColumns(long id, Long version, String name, BigDecimal currentPrice) {
+        return stockRepository
+                .updateById(id, version, name, currentPrice)
+                .orElseThrow(() -> version != null && stockRepository.existsById(id)
+                        ? new StockVersionMismatchException(id, version)
+                        : new StockNotFoundException(id)
+                );
+    }
+
+    private Slice<Stock> findAllBy(StockFilter filter, Pageable pageable, Set<StockField> fields) {
+        if (fields.containsAll(StockField.ALL)) {
+            return stockRepository.findAllBy(StockSpecifications.matching(filter), pageable);
+        }
+
+        return stockRepository.findAllBy(StockSpecifications.matching(filter), pageable, fields);
+    }
 }
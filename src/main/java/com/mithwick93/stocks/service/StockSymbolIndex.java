@@ -0,0 +1,85 @@
+package com.mithwick93.stocks.service;
+
+import com.mithwick93.stocks.modal.Stock;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory map of stock names to stock ids. Names are matched regardless of case, like the unique index on
+ * {@code lower(name)}. Kept up to date with committed creates, renames and deletes through {@link StockChangedEvent}s.
+ * Writes of other application instances are not seen, so callers have to verify the name of the stock they load.
+ *
+ * @author mithwick93
+ */
+@Component
+public class StockSymbolIndex {
+    private final Map<String, Long> idsBySymbol = new ConcurrentHashMap<>();
+    private final Map<Long, String> symbolsById = new ConcurrentHashMap<>();
+
+    /**
+     * Normalize a stock name to its symbol.
+     *
+     * @param name Name of stock.
+     * @return Lower case name.
+     */
+    public static String symbol(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns id of the stock with the given name, if known.
+     *
+     * @param name Name of stock, in any case.
+     * @return Id of stock, or null when not known.
+     */
+    public Long findId(String name) {
+        return idsBySymbol.get(symbol(name));
+    }
+
+    /**
+     * Map the name of the given stock to its id, replacing the previous name of the stock.
+     *
+     * @param stock {@link Stock} to index.
+     */
+    public synchronized void put(Stock stock) {
+        String symbol = symbol(stock.getName());
+        String previousSymbol = symbolsById.put(stock.getId(), symbol);
+        if (previousSymbol != null && !previousSymbol.equals(symbol)) {
+            idsBySymbol.remove(previousSymbol, stock.getId());
+        }
+        Long previousId = idsBySymbol.put(symbol, stock.getId());
+        if (previousId != null && !previousId.equals(stock.getId())) {
+            symbolsById.remove(previousId, symbol);
+        }
+    }
+
+    /**
+     * Forget the stock with the given id.
+     *
+     * @param id Id of stock.
+     */
+    public synchronized void remove(long id) {
+        String symbol = symbolsById.remove(id);
+        if (symbol != null) {
+            idsBySymbol.remove(symbol, id);
+        }
+    }
+
+    /**
+     * Apply committed stock changes.
+     *
+     * @param event {@link StockChangedEvent} to apply.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        if (event.getType() == StockChangedEvent.Type.DELETED) {
+            event.getStocks().forEach(stock -> remove(stock.getId()));
+        } else {
+            event.getStocks().forEach(this::put);
+        }
+    }
+}
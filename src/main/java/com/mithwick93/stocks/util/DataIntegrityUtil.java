@@ -0,0 +1,33 @@
+package com.mithwick93.stocks.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Class to hold data integrity violation related utils.
+ *
+ * @author mithwick93
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class DataIntegrityUtil {
+    public static final String STOCKS_LOWER_NAME_INDEX = "stocks_lower_name_idx";
+
+    /**
+     * Returns whether the violation is of the unique index on the lower cased stock name. The JDBC and R2DBC drivers
+     * both name the violated index in the message of the exception or of one of its causes.
+     *
+     * @param ex Violation to check.
+     * @return Whether a stock name was already taken.
+     */
+    public static boolean isStockNameTaken(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && message.contains(STOCKS_LOWER_NAME_INDEX)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
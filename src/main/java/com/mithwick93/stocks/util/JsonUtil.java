@@ -2,9 +2,14 @@ package com.mithwick93.stocks.util;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
 /**
  * Class to hold json related utils.
  *
@@ -12,9 +17,120 @@ import lombok.NoArgsConstructor;
  */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class JsonUtil {
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    public static final String TRUNCATED_SUFFIX = "...(truncated)";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
 
     public static String getJsonString(Object object) throws JsonProcessingException {
         return OBJECT_MAPPER.writeValueAsString(object);
     }
+
+    /**
+     * Serialize object to json, stopping as soon as the given length is exceeded.
+     *
+     * @param object    Object to serialize.
+     * @param maxLength Maximum number of characters to return, excluding the {@value #TRUNCATED_SUFFIX} suffix.
+     * @return Json string, truncated and suffixed with {@value #TRUNCATED_SUFFIX} when longer than maxLength.
+     * @throws JsonProcessingException When the object can not be serialized.
+     */
+    public static String getJsonString(Object object, int maxLength) throws JsonProcessingException {
+        LimitedWriter writer = new LimitedWriter(maxLength);
+        try {
+            OBJECT_MAPPER.writeValue(writer, object);
+        } catch (JsonProcessingException e) {
+            if (!writer.isLimitReached()) {
+                throw e;
+            }
+        } catch (IOException e) {
+            if (!writer.isLimitReached()) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return writer.isLimitReached() ? writer + TRUNCATED_SUFFIX : writer.toString();
+    }
+
+    /**
+     * Serialize object to json for logging, stopping as soon as the given length is exceeded. Objects which can not be
+     * serialized are logged by their <code>toString</code>, cut to the same length.
+     *
+     * @param object    Object to serialize.
+     * @param maxLength Maximum number of characters to return, excluding the {@value #TRUNCATED_SUFFIX} suffix.
+     * @return Json string or string value, truncated and suffixed with {@value #TRUNCATED_SUFFIX} when longer than
+     * maxLength.
+     */
+    public static String getLogString(Object object, int maxLength) {
+        try {
+            return getJsonString(object, maxLength);
+        } catch (JsonProcessingException e) {
+            return truncate(String.valueOf(object), maxLength);
+        }
+    }
+
+    /**
+     * Cut a string to the given length.
+     *
+     * @param value     String to cut.
+     * @param maxLength Maximum number of characters to return, excluding the {@value #TRUNCATED_SUFFIX} suffix.
+     * @return The string, truncated and suffixed with {@value #TRUNCATED_SUFFIX} when longer than maxLength.
+     */
+    public static String truncate(String value, int maxLength) {
+        return value.length() > maxLength ? value.substring(0, maxLength) + TRUNCATED_SUFFIX : value;
+    }
+
+    private static final class LimitedWriter extends Writer {
+        private final StringBuilder builder = new StringBuilder();
+        private final int maxLength;
+        private boolean limitReached;
+
+        private LimitedWriter(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            int remaining = maxLength - builder.length();
+            if (length > remaining) {
+                builder.append(chars, offset, Math.max(remaining, 0));
+                limitReached = true;
+                throw new LimitReachedException();
+            }
+
+            builder.append(chars, offset, length);
+        }
+
+        @Override
+        public void flush() {
+            // Nothing to flush, content is kept in memory.
+        }
+
+        @Override
+        public void close() {
+            // Nothing to close, content is kept in memory.
+        }
+
+        private boolean isLimitReached() {
+            return limitReached;
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+
+    /**
+     * Signals that the json length limit was reached to abort serialization. Thrown on every truncated payload, so it
+     * does not capture a stack trace.
+     */
+    private static final class LimitReachedException extends IOException {
+        private LimitReachedException() {
+            super("Json length limit reached");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
 }
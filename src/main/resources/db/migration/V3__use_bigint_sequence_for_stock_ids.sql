@@ -0,0 +1,5 @@
+-- Widen stock ids to bigint and allocate them in blocks of 50 so Hibernate can pre-allocate ids and batch inserts.
+-- The increment must match the allocationSize of the id generator in the Stock entity.
+
+ALTER TABLE STOCKS ALTER COLUMN id TYPE BIGINT;
+ALTER SEQUENCE stocks_id_seq AS BIGINT INCREMENT BY 50;
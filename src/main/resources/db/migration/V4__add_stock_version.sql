@@ -0,0 +1,3 @@
+-- Optimistic locking version of a stock. Incremented by every update and exposed to clients as the ETag of the stock.
+
+ALTER TABLE STOCKS ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,30 @@
+-- Append-only history of stock prices, range partitioned by month of recorded_at (UTC). Rows are only ever appended
+-- in recorded_at order, so a BRIN index on recorded_at stays small and lets range scans skip unrelated blocks.
+
+CREATE TABLE stock_price_history
+(
+    stock_id    BIGINT                   NOT NULL,
+    price       DECIMAL(19, 4)           NOT NULL,
+    recorded_at TIMESTAMP WITH TIME ZONE NOT NULL
+) PARTITION BY RANGE (recorded_at);
+
+CREATE INDEX stock_price_history_recorded_at_idx ON stock_price_history USING BRIN (recorded_at);
+
+-- Catches rows of months without a partition, so inserts never fail.
+CREATE TABLE stock_price_history_default PARTITION OF stock_price_history DEFAULT;
+
+-- Creates the partition of the month of the given date, if it does not exist. Called by the application before it
+-- writes prices of a month.
+CREATE FUNCTION create_stock_price_history_partition(month DATE) RETURNS VOID AS
+$$
+DECLARE
+    partition_start TIMESTAMP WITH TIME ZONE := date_trunc('month', month::TIMESTAMP) AT TIME ZONE 'UTC';
+    partition_name  TEXT                     := 'stock_price_history_' || to_char(month, 'YYYYMM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF stock_price_history FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, partition_start, partition_start + INTERVAL '1 month');
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_stock_price_history_partition(CURRENT_DATE);
+SELECT create_stock_price_history_partition((CURRENT_DATE + INTERVAL '1 month')::DATE);
@@ -0,0 +1,4 @@
+-- Stock names are ticker symbols, unique regardless of case. Lookups by symbol use lower(name) to hit this index.
+-- Fails if stocks with the same name in different case already exist, they have to be renamed or removed first.
+
+CREATE UNIQUE INDEX stocks_lower_name_idx ON STOCKS (lower(name));
@@ -0,0 +1,7 @@
+-- Indexes for the filters and sort keys of the stocks list.
+-- Price and last update ranges and sorts are served by these indexes, id breaks ties so pages are stable.
+-- text_pattern_ops lets name prefix matches, lower(name) LIKE 'abc%', use the index regardless of the collation.
+
+CREATE INDEX stocks_current_price_id_idx ON STOCKS (current_price, id);
+CREATE INDEX stocks_last_update_id_idx ON STOCKS (last_update, id);
+CREATE INDEX stocks_lower_name_pattern_idx ON STOCKS (lower(name) text_pattern_ops);
@@ -0,0 +1,35 @@
+-- Candles read the prices of one stock in a time range. The BRIN index on recorded_at only narrows the blocks of the
+-- range, which hold the prices of every stock, so prices are indexed by stock and time as well. Indexes of the
+-- partitioned table are created on every partition, including partitions created later.
+
+CREATE INDEX stock_price_history_stock_id_recorded_at_idx ON stock_price_history (stock_id, recorded_at);
+
+-- Creating the partition of a month fails while the default partition holds rows of that month, which happens when
+-- prices were written before the partition was created. The partition is now created detached, the rows of its month
+-- are moved out of the default partition, and only then is it attached. The default partition is locked first, so no
+-- rows of the month are added to it meanwhile and concurrent calls for the same month wait for each other.
+CREATE OR REPLACE FUNCTION create_stock_price_history_partition(month DATE) RETURNS VOID AS
+$$
+DECLARE
+    partition_start TIMESTAMP WITH TIME ZONE := date_trunc('month', month::TIMESTAMP) AT TIME ZONE 'UTC';
+    partition_end   TIMESTAMP WITH TIME ZONE := partition_start + INTERVAL '1 month';
+    partition_name  TEXT                     := 'stock_price_history_' || to_char(month, 'YYYYMM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+
+    LOCK TABLE stock_price_history_default IN ACCESS EXCLUSIVE MODE;
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE stock_price_history INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                   partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM stock_price_history_default WHERE recorded_at >= %L AND recorded_at < %L RETURNING *) '
+                       || 'INSERT INTO %I SELECT * FROM moved',
+                   partition_start, partition_end, partition_name);
+    EXECUTE format('ALTER TABLE stock_price_history ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, partition_start, partition_end);
+END;
+$$ LANGUAGE plpgsql;
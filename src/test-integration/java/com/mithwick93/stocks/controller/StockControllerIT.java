@@ -1,5 +1,14 @@
 package com.mithwick93.stocks.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.mithwick93.stocks.Constants;
+import com.mithwick93.stocks.controller.dto.StockBatchResponseDto;
+import com.mithwick93.stocks.controller.dto.StockBatchUpdateRequestDto;
+import com.mithwick93.stocks.controller.dto.StockBulkDeleteResponseDto;
+import com.mithwick93.stocks.controller.dto.StockCandleDto;
+import com.mithwick93.stocks.controller.dto.StockPriceRequestDto;
 import com.mithwick93.stocks.controller.dto.StockRequestDto;
 import com.mithwick93.stocks.controller.dto.StockResponseDto;
 import com.mithwick93.stocks.core.IntegrationTest;
@@ -9,22 +18,41 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
-import static com.mithwick93.stocks.core.TestUtils.creatRequestStock;
+import static com.mithwick93.stocks.core.TestUtils.creatUniqueRequestStock;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class StockControllerIT extends IntegrationTest {
+    private static final ObjectMapper CBOR_MAPPER = new ObjectMapper(new CBORFactory());
 
     @LocalServerPort
     private int port;
@@ -36,7 +64,7 @@ public class StockControllerIT extends IntegrationTest {
 
     @Test
     public void createStock_whenCalledWithValidRequest_thenReturnCreatedResponseWithStock() {
-        Stock stock = creatRequestStock();
+        Stock stock = creatUniqueRequestStock();
         ResponseEntity<StockResponseDto> createResponse = createStock(stock);
 
         assertEquals(HttpStatusCode.valueOf(HttpStatus.CREATED.value()), createResponse.getStatusCode());
@@ -56,9 +84,209 @@ public class StockControllerIT extends IntegrationTest {
         assertFalse(response.getBody().getContent().isEmpty());
     }
 
+    @Test
+    public void getStocks_whenCachedCountRequested_thenCountCreatedStocks() {
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+        ParameterizedTypeReference<PagedModel<StockResponseDto>> typeRef = new ParameterizedTypeReference<>() {
+        };
+        String url = createURLWithPort("/api/v1/stocks?page=0&size=1&count=cached");
+
+        long before = restTemplate.exchange(url, HttpMethod.GET, entity, typeRef).getBody().getMetadata().getTotalElements();
+        createStock(creatUniqueRequestStock());
+        ResponseEntity<PagedModel<StockResponseDto>> response = restTemplate.exchange(url, HttpMethod.GET, entity, typeRef);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), response.getStatusCode());
+        assertEquals(before + 1, response.getBody().getMetadata().getTotalElements());
+    }
+
+    @Test
+    public void getStocks_whenNoCountRequested_thenReturnStocksWithoutPageMetadata() {
+        createStock(creatUniqueRequestStock());
+        createStock(creatUniqueRequestStock());
+
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+        ParameterizedTypeReference<PagedModel<StockResponseDto>> typeRef = new ParameterizedTypeReference<>() {
+        };
+
+        ResponseEntity<PagedModel<StockResponseDto>> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks?page=0&size=1&count=none"), HttpMethod.GET, entity, typeRef);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), response.getStatusCode());
+        assertEquals(1, response.getBody().getContent().size());
+        assertNull(response.getBody().getMetadata());
+        assertTrue(response.getBody().getLink(IanaLinkRelations.NEXT).isPresent());
+        assertFalse(response.getBody().getLink(IanaLinkRelations.LAST).isPresent());
+    }
+
+    @Test
+    public void getStocks_whenFilteredAndSorted_thenReturnMatchingStocksWithSortInLinks() {
+        Stock cheapStock = creatUniqueRequestStock();
+        cheapStock.setCurrentPrice(new BigDecimal("2001"));
+        Stock expensiveStock = creatUniqueRequestStock();
+        expensiveStock.setCurrentPrice(new BigDecimal("2002"));
+        createStock(cheapStock);
+        createStock(expensiveStock);
+
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+        ParameterizedTypeReference<PagedModel<StockResponseDto>> typeRef = new ParameterizedTypeReference<>() {
+        };
+
+        ResponseEntity<PagedModel<StockResponseDto>> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks?minPrice=2001&maxPrice=2002&namePrefix=msw_&size=1&sort=currentPrice,desc"), HttpMethod.GET, entity, typeRef);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), response.getStatusCode());
+        assertEquals(2, response.getBody().getMetadata().getTotalElements());
+        assertEquals(expensiveStock.getName(), response.getBody().getContent().iterator().next().getName());
+        assertTrue(response.getBody().getLink(IanaLinkRelations.NEXT).orElseThrow().getHref().contains("sort=currentPrice,desc"));
+    }
+
+    @Test
+    public void getStocks_whenFieldsRequested_thenReturnOnlyThoseFields() {
+        Stock stock = creatUniqueRequestStock();
+        stock.setCurrentPrice(new BigDecimal("3001"));
+        createStock(stock);
+
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+        ParameterizedTypeReference<PagedModel<StockResponseDto>> typeRef = new ParameterizedTypeReference<>() {
+        };
+
+        ResponseEntity<PagedModel<StockResponseDto>> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks?minPrice=3001&maxPrice=3001&fields=id,currentPrice"), HttpMethod.GET, entity, typeRef);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), response.getStatusCode());
+        StockResponseDto stockDto = response.getBody().getContent().iterator().next();
+        assertEquals(0, stock.getCurrentPrice().compareTo(stockDto.getCurrentPrice()));
+        assertNotNull(stockDto.getId());
+        assertNull(stockDto.getName());
+        assertNull(stockDto.getCreatedAt());
+        assertFalse(stockDto.hasLinks());
+        assertTrue(response.getBody().getLink(IanaLinkRelations.SELF).orElseThrow().getHref().contains("fields=id,currentPrice"));
+    }
+
+    @Test
+    public void getStocks_whenLiteAccepted_thenReturnFlatStocks() throws IOException {
+        Stock stock = creatUniqueRequestStock();
+        stock.setCurrentPrice(new BigDecimal("3002"));
+        createStock(stock);
+
+        HttpHeaders liteHeaders = new HttpHeaders();
+        liteHeaders.setAccept(List.of(MediaType.parseMediaType(Constants.APPLICATION_STOCKS_LITE_VALUE)));
+        HttpEntity<String> entity = new HttpEntity<>(null, liteHeaders);
+
+        ResponseEntity<String> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks?minPrice=3002&maxPrice=3002&fields=name,currentPrice"), HttpMethod.GET, entity, String.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), response.getStatusCode());
+        assertEquals(Constants.APPLICATION_STOCKS_LITE_VALUE, response.getHeaders().getContentType().toString());
+        JsonNode body = new ObjectMapper().readTree(response.getBody());
+        assertEquals(1, body.get("totalElements").asLong());
+        JsonNode stockNode = body.get("stocks").get(0);
+        assertEquals(stock.getName(), stockNode.get("name").asText());
+        assertEquals(0, stock.getCurrentPrice().compareTo(stockNode.get("currentPrice").decimalValue()));
+        assertFalse(stockNode.has("id"));
+        assertFalse(body.has("_links"));
+    }
+
+    @Test
+    public void getStocks_whenSortKeyNotSupported_thenReturnBadRequestResponse() {
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+        ResponseEntity<ProblemDetail> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks?sort=createdAt"), HttpMethod.GET, entity, ProblemDetail.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.BAD_REQUEST.value()), response.getStatusCode());
+    }
+
+    @Test
+    public void getStocksAfter_whenFollowingNextLinks_thenReturnEveryStockOnceInIdOrder() {
+        createStock(creatUniqueRequestStock());
+        createStock(creatUniqueRequestStock());
+
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+        ParameterizedTypeReference<CollectionModel<StockResponseDto>> typeRef = new ParameterizedTypeReference<>() {
+        };
+
+        List<Long> ids = new ArrayList<>();
+        String url = createURLWithPort("/api/v1/stocks?after=&size=2");
+        while (url != null) {
+            ResponseEntity<CollectionModel<StockResponseDto>> response = restTemplate.exchange(url, HttpMethod.GET, entity, typeRef);
+
+            assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), response.getStatusCode());
+            response.getBody().getContent().forEach(stockResponseDto -> ids.add(stockResponseDto.getId()));
+            Optional<Link> next = response.getBody().getLink(IanaLinkRelations.NEXT);
+            url = next.map(Link::getHref).orElse(null);
+        }
+
+        assertTrue(ids.size() >= 2);
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1) < ids.get(i));
+        }
+    }
+
+    @Test
+    public void getStocksAfter_whenSortedAndFiltered_thenFollowNextLinksInSortOrder() {
+        String prefix = "Cursor_" + UUID.randomUUID();
+        for (String price : new String[]{"3", "1", "2", "2"}) {
+            Stock stock = creatUniqueRequestStock();
+            stock.setName(prefix + "_" + UUID.randomUUID());
+            stock.setCurrentPrice(new BigDecimal(price));
+            createStock(stock);
+        }
+
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+        ParameterizedTypeReference<CollectionModel<StockResponseDto>> typeRef = new ParameterizedTypeReference<>() {
+        };
+
+        List<StockResponseDto> stocks = new ArrayList<>();
+        String url = createURLWithPort("/api/v1/stocks?after=&size=1&sort=currentPrice,desc&namePrefix=" + prefix);
+        while (url != null) {
+            ResponseEntity<CollectionModel<StockResponseDto>> response = restTemplate.exchange(url, HttpMethod.GET, entity, typeRef);
+
+            assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), response.getStatusCode());
+            stocks.addAll(response.getBody().getContent());
+            url = response.getBody().getLink(IanaLinkRelations.NEXT).map(Link::getHref).orElse(null);
+        }
+
+        assertEquals(List.of("3", "2", "2", "1"), stocks.stream().map(stock -> stock.getCurrentPrice().stripTrailingZeros().toPlainString()).toList());
+        assertTrue(stocks.get(1).getId() > stocks.get(2).getId());
+    }
+
+    @Test
+    public void getStocksAfter_whenCursorOfOtherSortPassed_thenReturnBadRequestResponse() {
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+        ParameterizedTypeReference<CollectionModel<StockResponseDto>> typeRef = new ParameterizedTypeReference<>() {
+        };
+        createStock(creatUniqueRequestStock());
+        createStock(creatUniqueRequestStock());
+
+        ResponseEntity<CollectionModel<StockResponseDto>> firstResponse = restTemplate.exchange(createURLWithPort("/api/v1/stocks?after=&size=1&sort=name"), HttpMethod.GET, entity, typeRef);
+        String next = firstResponse.getBody().getLink(IanaLinkRelations.NEXT).orElseThrow().getHref();
+        ResponseEntity<ProblemDetail> response = restTemplate.exchange(next.replace("sort=name", "sort=currentPrice"), HttpMethod.GET, entity, ProblemDetail.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.BAD_REQUEST.value()), response.getStatusCode());
+    }
+
+    @Test
+    public void getStocksAfter_whenCalledWithInvalidCursor_thenReturnBadRequestResponse() {
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+        ResponseEntity<ProblemDetail> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks?after=invalid"), HttpMethod.GET, entity, ProblemDetail.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.BAD_REQUEST.value()), response.getStatusCode());
+    }
+
+    @Test
+    public void exportStocks_whenCalled_thenReturnOneLinePerStock() {
+        createStock(creatUniqueRequestStock());
+
+        HttpHeaders exportHeaders = new HttpHeaders();
+        exportHeaders.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        HttpEntity<String> entity = new HttpEntity<>(null, exportHeaders);
+
+        ResponseEntity<String> exportResponse = restTemplate.exchange(createURLWithPort("/api/v1/stocks/export"), HttpMethod.GET, entity, String.class);
+        ResponseEntity<PagedModel<StockResponseDto>> pageResponse = restTemplate.exchange(createURLWithPort("/api/v1/stocks?page=0&size=1"), HttpMethod.GET, new HttpEntity<>(null, headers), new ParameterizedTypeReference<>() {
+        });
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), exportResponse.getStatusCode());
+        assertEquals(pageResponse.getBody().getMetadata().getTotalElements(), exportResponse.getBody().lines().count());
+    }
+
     @Test
     public void getStockById_whenCalledWithValidId_thenReturnOkResponseWithStock() {
-        Stock stock = creatRequestStock();
+        Stock stock = creatUniqueRequestStock();
         ResponseEntity<StockResponseDto> createResponse = createStock(stock);
 
         long id = createResponse.getBody().getId();
@@ -69,6 +297,100 @@ public class StockControllerIT extends IntegrationTest {
         assertEquals(id, getByIdResponse.getBody().getId());
     }
 
+    @Test
+    public void createStock_whenCalledWithCbor_thenReturnCborResponseReadableById() throws IOException {
+        Stock stock = creatUniqueRequestStock();
+        HttpHeaders cborHeaders = new HttpHeaders();
+        cborHeaders.setContentType(MediaType.APPLICATION_CBOR);
+        cborHeaders.setAccept(List.of(MediaType.APPLICATION_CBOR));
+        byte[] body = CBOR_MAPPER.writeValueAsBytes(new StockRequestDto(stock.getName(), stock.getCurrentPrice()));
+
+        ResponseEntity<byte[]> createResponse = restTemplate.exchange(createURLWithPort("/api/v1/stocks"), HttpMethod.POST, new HttpEntity<>(body, cborHeaders), byte[].class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.CREATED.value()), createResponse.getStatusCode());
+        assertEquals(MediaType.APPLICATION_CBOR, createResponse.getHeaders().getContentType());
+        JsonNode created = CBOR_MAPPER.readTree(createResponse.getBody());
+        assertEquals(stock.getName(), created.get("name").asText());
+        assertEquals(0, stock.getCurrentPrice().compareTo(created.get("currentPrice").decimalValue()));
+
+        ResponseEntity<byte[]> getByIdResponse = restTemplate.exchange(created.at("/_links/self/href").asText(), HttpMethod.GET, new HttpEntity<>(null, cborHeaders), byte[].class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), getByIdResponse.getStatusCode());
+        assertEquals(created, CBOR_MAPPER.readTree(getByIdResponse.getBody()));
+    }
+
+    @Test
+    public void getStockById_whenCalledWithCurrentETag_thenReturnNotModifiedResponse() {
+        ResponseEntity<StockResponseDto> createResponse = createStock(creatUniqueRequestStock());
+        long id = createResponse.getBody().getId();
+
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        conditionalHeaders.setIfNoneMatch(createResponse.getHeaders().getETag());
+        ResponseEntity<String> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks/" + id), HttpMethod.GET, new HttpEntity<>(null, conditionalHeaders), String.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.NOT_MODIFIED.value()), response.getStatusCode());
+        assertEquals(createResponse.getHeaders().getETag(), response.getHeaders().getETag());
+    }
+
+    @Test
+    public void getStocks_whenCalledWithCurrentETag_thenReturnNotModifiedUntilStockCreated() {
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+        ResponseEntity<String> firstResponse = restTemplate.exchange(createURLWithPort("/api/v1/stocks?page=0&size=10"), HttpMethod.GET, entity, String.class);
+
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        conditionalHeaders.setIfNoneMatch(firstResponse.getHeaders().getETag());
+        HttpEntity<String> conditionalEntity = new HttpEntity<>(null, conditionalHeaders);
+        ResponseEntity<String> unchangedResponse = restTemplate.exchange(createURLWithPort("/api/v1/stocks?page=0&size=10"), HttpMethod.GET, conditionalEntity, String.class);
+        createStock(creatUniqueRequestStock());
+        ResponseEntity<String> changedResponse = restTemplate.exchange(createURLWithPort("/api/v1/stocks?page=0&size=10"), HttpMethod.GET, conditionalEntity, String.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.NOT_MODIFIED.value()), unchangedResponse.getStatusCode());
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), changedResponse.getStatusCode());
+        assertNotEquals(firstResponse.getHeaders().getETag(), changedResponse.getHeaders().getETag());
+    }
+
+    @Test
+    public void getStockByName_whenCalledWithNameInOtherCase_thenReturnOkResponseWithStock() {
+        Stock stock = creatUniqueRequestStock();
+        long id = createStock(stock).getBody().getId();
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<StockResponseDto> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks/by-name/" + stock.getName().toLowerCase()), HttpMethod.GET, entity, StockResponseDto.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), response.getStatusCode());
+        assertEquals(id, response.getBody().getId());
+        assertEquals(stock.getName(), response.getBody().getName());
+    }
+
+    @Test
+    public void getStockByName_whenStockRenamed_thenReturnNotFoundForPreviousName() {
+        Stock stock = creatUniqueRequestStock();
+        long id = createStock(stock).getBody().getId();
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+        restTemplate.exchange(createURLWithPort("/api/v1/stocks/by-name/" + stock.getName()), HttpMethod.GET, entity, StockResponseDto.class);
+
+        HttpEntity<StockRequestDto> updateEntity = new HttpEntity<>(new StockRequestDto("renamed_" + id, BigDecimal.ONE), headers);
+        restTemplate.exchange(createURLWithPort("/api/v1/stocks/" + id), HttpMethod.PUT, updateEntity, StockResponseDto.class);
+
+        ResponseEntity<ProblemDetail> previousNameResponse = restTemplate.exchange(createURLWithPort("/api/v1/stocks/by-name/" + stock.getName()), HttpMethod.GET, entity, ProblemDetail.class);
+        ResponseEntity<StockResponseDto> newNameResponse = restTemplate.exchange(createURLWithPort("/api/v1/stocks/by-name/renamed_" + id), HttpMethod.GET, entity, StockResponseDto.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.NOT_FOUND.value()), previousNameResponse.getStatusCode());
+        assertEquals(id, newNameResponse.getBody().getId());
+    }
+
+    @Test
+    public void createStock_whenNameTakenInOtherCase_thenReturnConflictResponse() {
+        Stock stock = creatUniqueRequestStock();
+        createStock(stock);
+        stock.setName(stock.getName().toLowerCase());
+
+        HttpEntity<StockRequestDto> entity = new HttpEntity<>(new StockRequestDto(stock.getName(), stock.getCurrentPrice()), headers);
+        ResponseEntity<ProblemDetail> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks"), HttpMethod.POST, entity, ProblemDetail.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.CONFLICT.value()), response.getStatusCode());
+    }
+
     @Test
     public void getStockById_whenCalledWithInValidId_thenReturnNotFoundResponseWithNoBody() {
         long id = -1L;
@@ -80,7 +402,7 @@ public class StockControllerIT extends IntegrationTest {
 
     @Test
     public void updateStock_whenCalledWithValidRequest_thenReturnOkResponseWithUpdatedStock() {
-        Stock stock = creatRequestStock();
+        Stock stock = creatUniqueRequestStock();
         ResponseEntity<StockResponseDto> createResponse = createStock(stock);
 
         long id = createResponse.getBody().getId();
@@ -97,9 +419,153 @@ public class StockControllerIT extends IntegrationTest {
 
     }
 
+    @Test
+    public void updateStockPrice_whenCalled_thenReadPriceBeforeAndAfterFlush() throws InterruptedException {
+        ResponseEntity<StockResponseDto> createResponse = createStock(creatUniqueRequestStock());
+        long id = createResponse.getBody().getId();
+        HttpEntity<StockPriceRequestDto> updateEntity = new HttpEntity<>(new StockPriceRequestDto(new BigDecimal("42.5")), headers);
+
+        ResponseEntity<Void> updateResponse = restTemplate.exchange(createURLWithPort("/api/v1/stocks/" + id + "/price"), HttpMethod.PUT, updateEntity, Void.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.ACCEPTED.value()), updateResponse.getStatusCode());
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+        ResponseEntity<StockResponseDto> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks/" + id), HttpMethod.GET, entity, StockResponseDto.class);
+        assertEquals(0, new BigDecimal("42.5").compareTo(response.getBody().getCurrentPrice()));
+
+        for (int attempt = 0; attempt < 50 && response.getHeaders().getETag() == null; attempt++) {
+            Thread.sleep(100);
+            response = restTemplate.exchange(createURLWithPort("/api/v1/stocks/" + id), HttpMethod.GET, entity, StockResponseDto.class);
+        }
+
+        assertNotNull(response.getHeaders().getETag());
+        assertNotEquals(createResponse.getHeaders().getETag(), response.getHeaders().getETag());
+        assertEquals(0, new BigDecimal("42.5").compareTo(response.getBody().getCurrentPrice()));
+    }
+
+    @Test
+    public void updateStockPrice_whenCalledWithInvalidPrice_thenReturnBadRequestResponse() {
+        long id = createStock(creatUniqueRequestStock()).getBody().getId();
+        HttpEntity<StockPriceRequestDto> entity = new HttpEntity<>(new StockPriceRequestDto(BigDecimal.valueOf(-1)), headers);
+
+        ResponseEntity<ProblemDetail> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks/" + id + "/price"), HttpMethod.PUT, entity, ProblemDetail.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.BAD_REQUEST.value()), response.getStatusCode());
+    }
+
+    @Test
+    public void getCandles_whenStockPriceUpdated_thenReturnCandleOfRecordedPrices() throws InterruptedException {
+        long id = createStock(creatUniqueRequestStock()).getBody().getId();
+        HttpEntity<StockRequestDto> updateEntity = new HttpEntity<>(new StockRequestDto("candles_" + id, BigDecimal.ONE), headers);
+        restTemplate.exchange(createURLWithPort("/api/v1/stocks/" + id), HttpMethod.PUT, updateEntity, StockResponseDto.class);
+
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+        ParameterizedTypeReference<CollectionModel<StockCandleDto>> typeRef = new ParameterizedTypeReference<>() {
+        };
+        ResponseEntity<CollectionModel<StockCandleDto>> response;
+        long ticks = 0;
+        for (int attempt = 0; attempt < 50 && ticks < 2; attempt++) {
+            Thread.sleep(100);
+            response = restTemplate.exchange(createURLWithPort("/api/v1/stocks/" + id + "/candles?interval=1d"), HttpMethod.GET, entity, typeRef);
+            assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), response.getStatusCode());
+            ticks = response.getBody().getContent().stream().mapToLong(StockCandleDto::getTicks).sum();
+        }
+
+        assertEquals(2, ticks);
+    }
+
+    @Test
+    public void getCandles_whenCalledWithInvalidInterval_thenReturnBadRequestResponse() {
+        long id = createStock(creatUniqueRequestStock()).getBody().getId();
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<ProblemDetail> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks/" + id + "/candles?interval=5m"), HttpMethod.GET, entity, ProblemDetail.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.BAD_REQUEST.value()), response.getStatusCode());
+    }
+
+    @Test
+    public void streamStocks_whenStockUpdated_thenReceiveUpdatedEvent() throws Exception {
+        long id = createStock(creatUniqueRequestStock()).getBody().getId();
+        HttpRequest streamRequest = HttpRequest.newBuilder(URI.create(createURLWithPort("/api/v1/stocks/stream?ids=" + id)))
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .build();
+        HttpResponse<Stream<String>> streamResponse = HttpClient.newHttpClient().send(streamRequest, HttpResponse.BodyHandlers.ofLines());
+        assertEquals(HttpStatus.OK.value(), streamResponse.statusCode());
+
+        HttpEntity<StockRequestDto> updateEntity = new HttpEntity<>(new StockRequestDto("streamed_" + id, BigDecimal.ONE), headers);
+        restTemplate.exchange(createURLWithPort("/api/v1/stocks/" + id), HttpMethod.PUT, updateEntity, StockResponseDto.class);
+
+        try (Stream<String> lines = streamResponse.body()) {
+            List<String> event = lines.limit(2).toList();
+            assertEquals("event:updated", event.get(0));
+            assertTrue(event.get(1).startsWith("data:{\"id\":" + id + ",\"name\":\"streamed_" + id + "\""));
+        }
+    }
+
+    @Test
+    public void updateStock_whenCalledWithStaleIfMatch_thenReturnPreconditionFailedResponse() {
+        ResponseEntity<StockResponseDto> createResponse = createStock(creatUniqueRequestStock());
+        long id = createResponse.getBody().getId();
+        String createdETag = createResponse.getHeaders().getETag();
+
+        HttpHeaders ifMatchHeaders = new HttpHeaders();
+        ifMatchHeaders.setIfMatch(createdETag);
+        HttpEntity<StockRequestDto> firstUpdate = new HttpEntity<>(new StockRequestDto("first update", BigDecimal.ONE), ifMatchHeaders);
+        HttpEntity<StockRequestDto> secondUpdate = new HttpEntity<>(new StockRequestDto("second update", BigDecimal.TEN), ifMatchHeaders);
+
+        ResponseEntity<StockResponseDto> firstUpdateResponse = restTemplate.exchange(createURLWithPort("/api/v1/stocks/" + id), HttpMethod.PUT, firstUpdate, StockResponseDto.class);
+        ResponseEntity<ProblemDetail> secondUpdateResponse = restTemplate.exchange(createURLWithPort("/api/v1/stocks/" + id), HttpMethod.PUT, secondUpdate, ProblemDetail.class);
+        ResponseEntity<StockResponseDto> getByIdResponse = restTemplate.exchange(createURLWithPort("/api/v1/stocks/" + id), HttpMethod.GET, new HttpEntity<>(null, headers), StockResponseDto.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), firstUpdateResponse.getStatusCode());
+        assertNotEquals(createdETag, firstUpdateResponse.getHeaders().getETag());
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.PRECONDITION_FAILED.value()), secondUpdateResponse.getStatusCode());
+        assertEquals("first update", getByIdResponse.getBody().getName());
+        assertEquals(firstUpdateResponse.getHeaders().getETag(), getByIdResponse.getHeaders().getETag());
+    }
+
+    @Test
+    public void createStocks_whenCalledWithBatch_thenReturnOkResponseWithPerItemResults() {
+        List<StockRequestDto> stockRequestDtos = List.of(
+                new StockRequestDto("Test_batch_1", BigDecimal.ONE),
+                new StockRequestDto("", BigDecimal.ONE),
+                new StockRequestDto("Test_batch_2", BigDecimal.TEN)
+        );
+
+        HttpEntity<List<StockRequestDto>> entity = new HttpEntity<>(stockRequestDtos, headers);
+        ResponseEntity<StockBatchResponseDto> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks/batch"), HttpMethod.POST, entity, StockBatchResponseDto.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), response.getStatusCode());
+        assertEquals(2, response.getBody().getSucceeded());
+        assertEquals(1, response.getBody().getFailed());
+        assertEquals(HttpStatus.CREATED.value(), response.getBody().getResults().get(0).getStatus());
+        assertEquals(HttpStatus.BAD_REQUEST.value(), response.getBody().getResults().get(1).getStatus());
+        assertEquals("Test_batch_2", response.getBody().getResults().get(2).getStock().getName());
+    }
+
+    @Test
+    public void updateStocks_whenCalledWithBatch_thenReturnOkResponseWithPerItemResults() {
+        long id = createStock(creatUniqueRequestStock()).getBody().getId();
+        List<StockBatchUpdateRequestDto> stockBatchUpdateRequestDtos = List.of(
+                new StockBatchUpdateRequestDto(id, "Test_batch_update", BigDecimal.TEN),
+                new StockBatchUpdateRequestDto(-1L, "Test_batch_update", BigDecimal.TEN)
+        );
+
+        HttpEntity<List<StockBatchUpdateRequestDto>> entity = new HttpEntity<>(stockBatchUpdateRequestDtos, headers);
+        ResponseEntity<StockBatchResponseDto> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks/batch"), HttpMethod.PUT, entity, StockBatchResponseDto.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), response.getStatusCode());
+        assertEquals(HttpStatus.OK.value(), response.getBody().getResults().get(0).getStatus());
+        assertEquals("Test_batch_update", response.getBody().getResults().get(0).getStock().getName());
+        assertEquals(HttpStatus.NOT_FOUND.value(), response.getBody().getResults().get(1).getStatus());
+
+        ResponseEntity<StockResponseDto> getByIdResponse = restTemplate.exchange(createURLWithPort("/api/v1/stocks/" + id), HttpMethod.GET, new HttpEntity<>(null, headers), StockResponseDto.class);
+        assertEquals("Test_batch_update", getByIdResponse.getBody().getName());
+    }
+
     @Test
     public void deleteStock_whenCalledWithValidId_thenReturnNoContentResponseWithNoBody() {
-        Stock stock = creatRequestStock();
+        Stock stock = creatUniqueRequestStock();
         ResponseEntity<StockResponseDto> createResponse = createStock(stock);
 
         long id = createResponse.getBody().getId();
@@ -109,6 +575,56 @@ public class StockControllerIT extends IntegrationTest {
         assertEquals(HttpStatusCode.valueOf(HttpStatus.NO_CONTENT.value()), deleteStockResponse.getStatusCode());
     }
 
+    @Test
+    public void getStocksByIds_whenExistingAndMissingIdsPassed_thenReturnResultsInRequestOrder() {
+        long firstId = createStock(creatUniqueRequestStock()).getBody().getId();
+        long secondId = createStock(creatUniqueRequestStock()).getBody().getId();
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<StockBatchResponseDto> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks?ids=" + secondId + ",-1," + firstId), HttpMethod.GET, entity, StockBatchResponseDto.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), response.getStatusCode());
+        assertEquals(2, response.getBody().getSucceeded());
+        assertEquals(secondId, response.getBody().getResults().get(0).getStock().getId());
+        assertEquals(HttpStatus.NOT_FOUND.value(), response.getBody().getResults().get(1).getStatus());
+        assertEquals(firstId, response.getBody().getResults().get(2).getStock().getId());
+    }
+
+    @Test
+    public void deleteStocks_whenIdsPassed_thenDeleteExistingStocksAndReturnCount() {
+        long firstId = createStock(creatUniqueRequestStock()).getBody().getId();
+        long secondId = createStock(creatUniqueRequestStock()).getBody().getId();
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+        restTemplate.exchange(createURLWithPort("/api/v1/stocks/" + firstId), HttpMethod.GET, entity, StockResponseDto.class);
+
+        ResponseEntity<StockBulkDeleteResponseDto> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks?ids=" + firstId + "," + secondId + ",-1"), HttpMethod.DELETE, entity, StockBulkDeleteResponseDto.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), response.getStatusCode());
+        assertEquals(2, response.getBody().getDeleted());
+        ResponseEntity<ProblemDetail> getByIdResponse = restTemplate.exchange(createURLWithPort("/api/v1/stocks/" + firstId), HttpMethod.GET, entity, ProblemDetail.class);
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.NOT_FOUND.value()), getByIdResponse.getStatusCode());
+    }
+
+    @Test
+    public void deleteStocksUpdatedBefore_whenNoStockThatOld_thenReturnZero() {
+        createStock(creatUniqueRequestStock());
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<StockBulkDeleteResponseDto> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks?updatedBefore=2000-01-01T00:00:00Z"), HttpMethod.DELETE, entity, StockBulkDeleteResponseDto.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), response.getStatusCode());
+        assertEquals(0, response.getBody().getDeleted());
+    }
+
+    @Test
+    public void deleteStock_whenCalledWithUnknownId_thenReturnNotFound() {
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<ProblemDetail> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks/-1"), HttpMethod.DELETE, entity, ProblemDetail.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.NOT_FOUND.value()), response.getStatusCode());
+    }
+
     private ResponseEntity<StockResponseDto> createStock(Stock stock) {
         StockRequestDto stockRequestDto = new StockRequestDto(stock.getName(), stock.getCurrentPrice());
 
@@ -0,0 +1,38 @@
+package com.mithwick93.stocks.core;
+
+import com.mithwick93.stocks.reactive.ReactiveApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * This spins up a database container for the tests of the reactive application.
+ */
+@SpringBootTest(
+        classes = ReactiveApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive"
+)
+@ActiveProfiles(ReactiveApplication.PROFILE)
+@Testcontainers
+public class ReactiveIntegrationTest {
+    private static final PostgreSQLContainer<?> databaseContainer = new PostgreSQLContainer<>("postgres:latest");
+
+    public ReactiveIntegrationTest() {
+        databaseContainer.start();
+    }
+
+    @DynamicPropertySource
+    static void registerPostgreSQLProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + databaseContainer.getHost() + ":" + databaseContainer.getFirstMappedPort() + "/" + databaseContainer.getDatabaseName());
+        registry.add("spring.r2dbc.username", databaseContainer::getUsername);
+        registry.add("spring.r2dbc.password", databaseContainer::getPassword);
+        registry.add("spring.flyway.url", databaseContainer::getJdbcUrl);
+        registry.add("spring.flyway.user", databaseContainer::getUsername);
+        registry.add("spring.flyway.password", databaseContainer::getPassword);
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.mithwick93.stocks.core;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL statements Hibernate generates, so tests can inspect the plan of the statements actually executed.
+ * Registered with the <code>hibernate.session_factory.statement_inspector</code> property.
+ */
+public class SqlCapture implements StatementInspector {
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    /**
+     * Returns the last captured statement containing the given text.
+     *
+     * @param text Text the statement has to contain.
+     * @return Last matching SQL statement.
+     */
+    public static String last(String text) {
+        for (int i = STATEMENTS.size() - 1; i >= 0; i--) {
+            if (STATEMENTS.get(i).contains(text)) {
+                return STATEMENTS.get(i);
+            }
+        }
+
+        throw new IllegalStateException("No statement containing " + text + " was captured: " + STATEMENTS);
+    }
+}
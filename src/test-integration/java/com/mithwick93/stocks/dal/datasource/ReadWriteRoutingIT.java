@@ -0,0 +1,90 @@
+package com.mithwick93.stocks.dal.datasource;
+
+import com.mithwick93.stocks.controller.dto.StockRequestDto;
+import com.mithwick93.stocks.controller.dto.StockResponseDto;
+import com.mithwick93.stocks.controller.routing.PrimaryPinFilter;
+import com.mithwick93.stocks.core.IntegrationTest;
+import com.mithwick93.stocks.modal.Stock;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import static com.mithwick93.stocks.core.TestUtils.creatUniqueRequestStock;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Routes reads to a second database which does not replicate the primary, so a stock created on the primary can only
+ * be read when the request is pinned to the primary.
+ */
+public class ReadWriteRoutingIT extends IntegrationTest {
+    private static final PostgreSQLContainer<?> replicaContainer = new PostgreSQLContainer<>("postgres:latest");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @DynamicPropertySource
+    static void registerReplicaProperties(DynamicPropertyRegistry registry) {
+        replicaContainer.start();
+        Flyway.configure()
+                .dataSource(replicaContainer.getJdbcUrl(), replicaContainer.getUsername(), replicaContainer.getPassword())
+                .load()
+                .migrate();
+
+        registry.add("datasource-routing.enabled", () -> "true");
+        registry.add("datasource-routing.replicas[0].url", replicaContainer::getJdbcUrl);
+        registry.add("datasource-routing.replicas[0].username", replicaContainer::getUsername);
+        registry.add("datasource-routing.replicas[0].password", replicaContainer::getPassword);
+    }
+
+    @Test
+    public void getStockByName_whenNotPinned_thenReadFromReplica() {
+        Stock stock = creatUniqueRequestStock();
+        createStock(stock);
+
+        ResponseEntity<ProblemDetail> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks/by-name/" + stock.getName()), HttpMethod.GET, new HttpEntity<>(null, new HttpHeaders()), ProblemDetail.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.NOT_FOUND.value()), response.getStatusCode());
+    }
+
+    @Test
+    public void getStockByName_whenPinnedAfterWrite_thenReadFromPrimary() {
+        Stock stock = creatUniqueRequestStock();
+        ResponseEntity<StockResponseDto> createResponse = createStock(stock);
+        String pinCookie = createResponse.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        assertNotNull(pinCookie);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.COOKIE, pinCookie.split(";")[0]);
+        ResponseEntity<StockResponseDto> response = restTemplate.exchange(createURLWithPort("/api/v1/stocks/by-name/" + stock.getName()), HttpMethod.GET, new HttpEntity<>(null, headers), StockResponseDto.class);
+
+        assertEquals(HttpStatusCode.valueOf(HttpStatus.OK.value()), response.getStatusCode());
+        assertEquals(createResponse.getBody().getId(), response.getBody().getId());
+        assertEquals(PrimaryPinFilter.COOKIE_NAME, pinCookie.substring(0, pinCookie.indexOf('=')));
+    }
+
+    private ResponseEntity<StockResponseDto> createStock(Stock stock) {
+        HttpEntity<StockRequestDto> entity = new HttpEntity<>(new StockRequestDto(stock.getName(), stock.getCurrentPrice()), new HttpHeaders());
+
+        return restTemplate.exchange(createURLWithPort("/api/v1/stocks"), HttpMethod.POST, entity, StockResponseDto.class);
+    }
+
+    private String createURLWithPort(String uri) {
+        return "http://localhost:" + port + uri;
+    }
+}
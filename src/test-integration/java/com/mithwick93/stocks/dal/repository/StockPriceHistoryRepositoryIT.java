@@ -0,0 +1,70 @@
+package com.mithwick93.stocks.dal.repository;
+
+import com.mithwick93.stocks.core.IntegrationTest;
+import com.mithwick93.stocks.modal.CandleInterval;
+import com.mithwick93.stocks.modal.StockCandle;
+import com.mithwick93.stocks.modal.StockPrice;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StockPriceHistoryRepositoryIT extends IntegrationTest {
+    private static final long STOCK_ID = -100L;
+
+    @Autowired
+    private StockPriceHistoryRepository stockPriceHistoryRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Test
+    public void findCandles_whenPricesInserted_thenReturnOpenHighLowCloseByInterval() {
+        stockPriceHistoryRepository.createPartition(LocalDate.of(2023, 1, 1));
+        stockPriceHistoryRepository.createPartition(LocalDate.of(2023, 1, 1));
+        stockPriceHistoryRepository.insertAll(List.of(
+                new StockPrice(STOCK_ID, new BigDecimal("10.0000"), Instant.parse("2023-01-31T23:00:10Z")),
+                new StockPrice(STOCK_ID, new BigDecimal("12.0000"), Instant.parse("2023-01-31T23:20:00Z")),
+                new StockPrice(STOCK_ID, new BigDecimal("8.0000"), Instant.parse("2023-01-31T23:40:00Z")),
+                new StockPrice(STOCK_ID, new BigDecimal("9.0000"), Instant.parse("2023-01-31T23:59:59Z")),
+                new StockPrice(STOCK_ID, new BigDecimal("11.0000"), Instant.parse("2023-02-01T00:30:00Z")),
+                new StockPrice(STOCK_ID + 1, new BigDecimal("99.0000"), Instant.parse("2023-01-31T23:30:00Z"))
+        ));
+
+        List<StockCandle> candles = stockPriceHistoryRepository.findCandles(STOCK_ID, CandleInterval.HOUR, Instant.parse("2023-01-31T00:00:00Z"), Instant.parse("2023-02-02T00:00:00Z"));
+
+        assertEquals(List.of(
+                new StockCandle(Instant.parse("2023-01-31T23:00:00Z"), new BigDecimal("10.0000"), new BigDecimal("12.0000"), new BigDecimal("8.0000"), new BigDecimal("9.0000"), 4),
+                new StockCandle(Instant.parse("2023-02-01T00:00:00Z"), new BigDecimal("11.0000"), new BigDecimal("11.0000"), new BigDecimal("11.0000"), new BigDecimal("11.0000"), 1)
+        ), candles);
+    }
+
+    @Test
+    public void createPartition_whenDefaultPartitionHoldsPricesOfMonth_thenMovePricesToNewPartition() {
+        stockPriceHistoryRepository.insertAll(List.of(
+                new StockPrice(STOCK_ID, new BigDecimal("10.0000"), Instant.parse("2022-06-30T23:59:59Z")),
+                new StockPrice(STOCK_ID, new BigDecimal("20.0000"), Instant.parse("2022-07-01T00:00:00Z"))
+        ));
+
+        stockPriceHistoryRepository.createPartition(LocalDate.of(2022, 6, 1));
+
+        assertEquals(1, count("stock_price_history_202206"));
+        assertEquals(List.of(new BigDecimal("20.0000")), jdbcTemplate.queryForList(
+                "SELECT price FROM stock_price_history_default WHERE stock_id = :stockId",
+                new MapSqlParameterSource("stockId", STOCK_ID),
+                BigDecimal.class
+        ));
+        assertEquals(1, stockPriceHistoryRepository.findCandles(STOCK_ID, CandleInterval.DAY, Instant.parse("2022-06-30T00:00:00Z"), Instant.parse("2022-07-01T00:00:00Z")).size());
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, new MapSqlParameterSource(), Long.class);
+    }
+}
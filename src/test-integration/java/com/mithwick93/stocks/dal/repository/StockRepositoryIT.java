@@ -1,15 +1,28 @@
 package com.mithwick93.stocks.dal.repository;
 
 import com.mithwick93.stocks.core.IntegrationTest;
+import com.mithwick93.stocks.core.SqlCapture;
 import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockFilter;
+import com.mithwick93.stocks.modal.StockPrice;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -17,11 +30,19 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.mithwick93.stocks.core.SqlCapture")
 class StockRepositoryIT extends IntegrationTest {
+    private static final int EXPLAIN_PAGE_SIZE = 10;
 
     @Autowired
     private StockRepository stockRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Test
     public void save_whenStockPassed_thenReturnSavedStock() {
         Stock stock = new Stock();
@@ -106,4 +127,260 @@ class StockRepositoryIT extends IntegrationTest {
         assertThrows(EmptyResultDataAccessException.class, () -> stockRepository.deleteById(id));
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void updateById_whenVersionMatches_thenUpdateGivenColumnsAndIncrementVersion() {
+        Stock stock = new Stock();
+        stock.setName("Test_updateById");
+        stock.setCurrentPrice(BigDecimal.TEN);
+        Stock saveResult = stockRepository.save(stock);
+
+        Optional<Stock> updateResult = stockRepository.updateById(saveResult.getId(), saveResult.getVersion(), null, BigDecimal.ONE);
+
+        assertTrue(updateResult.isPresent());
+        assertEquals("Test_updateById", updateResult.get().getName());
+        assertEquals(0, BigDecimal.ONE.compareTo(updateResult.get().getCurrentPrice()));
+        assertEquals(saveResult.getVersion() + 1, updateResult.get().getVersion());
+    }
+
+    @Test
+    public void updateById_whenVersionDoesNotMatch_thenReturnEmpty() {
+        Stock stock = new Stock();
+        stock.setName("Test_updateById_stale");
+        stock.setCurrentPrice(BigDecimal.TEN);
+        Stock saveResult = stockRepository.save(stock);
+        stockRepository.updateById(saveResult.getId(), saveResult.getVersion(), "Test_updateById_first", null);
+
+        Optional<Stock> updateResult = stockRepository.updateById(saveResult.getId(), saveResult.getVersion(), "Test_updateById_second", null);
+
+        assertTrue(updateResult.isEmpty());
+        assertEquals("Test_updateById_first", stockRepository.findById(saveResult.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    public void updatePrices_whenPricesPassed_thenUpdateExistingStocksWithOneStatement() {
+        Stock stock = new Stock();
+        stock.setName("Test_updatePrices");
+        stock.setCurrentPrice(BigDecimal.TEN);
+        Stock saveResult = stockRepository.save(stock);
+        Instant recordedAt = Instant.now().plusSeconds(1).truncatedTo(ChronoUnit.MILLIS);
+
+        List<Stock> updateResult = stockRepository.updatePrices(List.of(
+                StockPrice.builder().stockId(saveResult.getId()).price(new BigDecimal("12.3456")).recordedAt(recordedAt).build(),
+                StockPrice.builder().stockId(-1L).price(BigDecimal.ONE).recordedAt(recordedAt).build()
+        ));
+
+        assertEquals(1, updateResult.size());
+        assertEquals(saveResult.getId(), updateResult.get(0).getId());
+        assertEquals("Test_updatePrices", updateResult.get(0).getName());
+        assertEquals(0, new BigDecimal("12.3456").compareTo(updateResult.get(0).getCurrentPrice()));
+        assertEquals(recordedAt, updateResult.get(0).getLastUpdate().toInstant());
+        assertEquals(saveResult.getVersion() + 1, updateResult.get(0).getVersion());
+    }
+
+    @Test
+    public void updatePrices_whenStockUpdatedAfterPrice_thenKeepLaterUpdate() {
+        Stock stock = new Stock();
+        stock.setName("Test_updatePrices_stale");
+        stock.setCurrentPrice(BigDecimal.TEN);
+        Stock saveResult = stockRepository.save(stock);
+
+        List<Stock> updateResult = stockRepository.updatePrices(List.of(
+                StockPrice.builder().stockId(saveResult.getId()).price(BigDecimal.ONE).recordedAt(Instant.now().minus(1, ChronoUnit.HOURS)).build()
+        ));
+
+        assertTrue(updateResult.isEmpty());
+        assertEquals(0, BigDecimal.TEN.compareTo(stockRepository.findById(saveResult.getId()).orElseThrow().getCurrentPrice()));
+    }
+
+    @Test
+    public void findStocksVersion_whenStockUpdated_thenReturnChangedVersion() {
+        Stock stock = new Stock();
+        stock.setName("Test_findStocksVersion");
+        stock.setCurrentPrice(BigDecimal.TEN);
+        Stock saveResult = stockRepository.save(stock);
+        StocksVersion before = stockRepository.findStocksVersion();
+
+        stockRepository.updateById(saveResult.getId(), null, null, BigDecimal.ONE);
+        StocksVersion after = stockRepository.findStocksVersion();
+
+        assertEquals(before.getStockCount(), after.getStockCount());
+        assertEquals(before.getVersionSum() + 1, after.getVersionSum());
+        assertFalse(after.getLastUpdate().before(before.getLastUpdate()));
+    }
+
+    @Test
+    public void findByNameIgnoreCase_whenNameInOtherCasePassed_thenReturnStock() {
+        Stock stock = new Stock();
+        stock.setName("Test_findByNameIgnoreCase");
+        stock.setCurrentPrice(BigDecimal.TEN);
+        Stock saveResult = stockRepository.save(stock);
+
+        Optional<Stock> findResult = stockRepository.findByNameIgnoreCase("TEST_FINDBYNAMEIGNORECASE");
+
+        assertTrue(findResult.isPresent());
+        assertEquals(saveResult.getId(), findResult.get().getId());
+        assertTrue(stockRepository.findByNameIgnoreCase("Test_findByNameIgnoreCase_missing").isEmpty());
+    }
+
+    @Test
+    public void findAllByIds_whenExistingAndMissingIdsPassed_thenReturnExistingStocks() {
+        Stock stock = new Stock();
+        stock.setName("Test_findAllByIds");
+        stock.setCurrentPrice(BigDecimal.TEN);
+        Stock saveResult = stockRepository.save(stock);
+
+        List<Stock> findResult = stockRepository.findAllByIds(List.of(saveResult.getId(), -1L));
+
+        assertEquals(1, findResult.size());
+        assertEquals(saveResult.getId(), findResult.get(0).getId());
+    }
+
+    @Test
+    public void deleteAllByIds_whenExistingAndMissingIdsPassed_thenDeleteAndReturnExistingStocks() {
+        Stock stock = new Stock();
+        stock.setName("Test_deleteAllByIds");
+        stock.setCurrentPrice(BigDecimal.TEN);
+        Stock saveResult = stockRepository.save(stock);
+
+        List<Stock> deleteResult = stockRepository.deleteAllByIds(List.of(saveResult.getId(), -1L));
+
+        assertEquals(1, deleteResult.size());
+        assertEquals("Test_deleteAllByIds", deleteResult.get(0).getName());
+        assertTrue(stockRepository.findById(saveResult.getId()).isEmpty());
+    }
+
+    @Test
+    public void findAllBy_whenFilterAndSortPassed_thenReturnMatchingStocksInOrder() {
+        stockRepository.save(Stock.builder().name("Filter_a").currentPrice(new BigDecimal("1001.5")).build());
+        stockRepository.save(Stock.builder().name("FILTER_b").currentPrice(new BigDecimal("1002.5")).build());
+        stockRepository.save(Stock.builder().name("Filter_c").currentPrice(new BigDecimal("1500")).build());
+        stockRepository.save(Stock.builder().name("Filterx").currentPrice(new BigDecimal("1001")).build());
+        StockFilter filter = StockFilter.builder()
+                .minPrice(new BigDecimal("1001"))
+                .maxPrice(new BigDecimal("1002.5"))
+                .namePrefix("filter_")
+                .updatedSince(Instant.now().minus(1, ChronoUnit.HOURS))
+                .build();
+        Pageable pageable = PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "currentPrice"));
+
+        Slice<Stock> firstSlice = stockRepository.findAllBy(StockSpecifications.matching(filter), pageable);
+        Slice<Stock> secondSlice = stockRepository.findAllBy(StockSpecifications.matching(filter), pageable.next());
+
+        assertEquals(List.of("FILTER_b"), firstSlice.map(Stock::getName).getContent());
+        assertTrue(firstSlice.hasNext());
+        assertEquals(List.of("Filter_a"), secondSlice.map(Stock::getName).getContent());
+        assertFalse(secondSlice.hasNext());
+        assertEquals(2, stockRepository.count(StockSpecifications.matching(filter)));
+    }
+
+    @Test
+    public void findAllBy_whenSeekingAfterLastStock_thenReturnNextStocksInSortOrder() {
+        Stock first = stockRepository.save(Stock.builder().name("Seek_a").currentPrice(new BigDecimal("2002")).build());
+        Stock tied = stockRepository.save(Stock.builder().name("Seek_b").currentPrice(new BigDecimal("2001")).build());
+        Stock last = stockRepository.save(Stock.builder().name("Seek_c").currentPrice(new BigDecimal("2001")).build());
+        StockFilter filter = StockFilter.builder().namePrefix("seek_").build();
+        Sort sort = Sort.by(Sort.Direction.DESC, "currentPrice");
+        Pageable pageable = PageRequest.of(0, 2, sort);
+
+        Slice<Stock> firstSlice = stockRepository.findAllBy(StockSpecifications.matching(filter).and(StockSpecifications.after(sort, null)), pageable);
+        Stock lastSeen = firstSlice.getContent().get(firstSlice.getNumberOfElements() - 1);
+        Slice<Stock> secondSlice = stockRepository.findAllBy(StockSpecifications.matching(filter).and(StockSpecifications.after(sort, lastSeen)), pageable);
+
+        assertEquals(List.of(first.getId(), last.getId()), firstSlice.map(Stock::getId).getContent());
+        assertTrue(firstSlice.hasNext());
+        assertEquals(List.of(tied.getId()), secondSlice.map(Stock::getId).getContent());
+        assertFalse(secondSlice.hasNext());
+    }
+
+    @Test
+    public void explain_whenSeekingByPrice_thenUsePriceIndex() {
+        Sort sort = Sort.by(Sort.Direction.DESC, "currentPrice");
+        Stock lastStock = Stock.builder().id(100L).currentPrice(BigDecimal.TEN).build();
+
+        String plan = explain(
+                () -> stockRepository.findAllBy(StockSpecifications.after(sort, lastStock), PageRequest.of(0, EXPLAIN_PAGE_SIZE, sort)),
+                BigDecimal.TEN,
+                BigDecimal.TEN,
+                100L
+        );
+
+        assertTrue(plan.contains("stocks_current_price_id_idx"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    public void explain_whenFilteringByPriceRange_thenUsePriceIndex() {
+        StockFilter filter = StockFilter.builder()
+                .minPrice(BigDecimal.TEN)
+                .maxPrice(BigDecimal.valueOf(20))
+                .build();
+
+        String plan = explain(
+                () -> stockRepository.findAllBy(StockSpecifications.matching(filter), PageRequest.of(0, EXPLAIN_PAGE_SIZE, Sort.by("currentPrice"))),
+                BigDecimal.TEN,
+                BigDecimal.valueOf(20)
+        );
+
+        assertTrue(plan.contains("stocks_current_price_id_idx"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    public void explain_whenFilteringByUpdatedSince_thenUseLastUpdateIndex() {
+        Instant updatedSince = Instant.parse("2023-03-01T00:00:00Z");
+
+        String plan = explain(
+                () -> stockRepository.findAllBy(StockSpecifications.updatedSince(updatedSince), PageRequest.of(0, EXPLAIN_PAGE_SIZE, Sort.by("lastUpdate"))),
+                Timestamp.from(updatedSince)
+        );
+
+        assertTrue(plan.contains("stocks_last_update_id_idx"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    public void explain_whenFilteringByNamePrefix_thenUseNamePatternIndex() {
+        String plan = explain(
+                () -> stockRepository.findAllBy(StockSpecifications.nameStartingWith("MS_"), PageRequest.of(0, EXPLAIN_PAGE_SIZE)),
+                "ms\\_%"
+        );
+
+        assertTrue(plan.contains("stocks_lower_name_pattern_idx"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    public void explain_whenSortingByName_thenUseLowerNameIndex() {
+        String plan = explain(() -> stockRepository.findAllBy((stock, query, builder) -> null, PageRequest.of(0, EXPLAIN_PAGE_SIZE, Sort.by("name"))));
+
+        assertTrue(plan.contains("stocks_lower_name_idx"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    /**
+     * Run a query through Hibernate and explain the SQL it generated with the same bind parameters. Pagination is bound
+     * after the filter parameters, as an offset of 0 when rendered and a limit of one more than the page size.
+     */
+    private String explain(Runnable query, Object... filterParameters) {
+        SqlCapture.clear();
+        query.run();
+        String sql = SqlCapture.last("from stocks");
+
+        List<Object> parameters = new ArrayList<>(List.of(filterParameters));
+        long placeholders = sql.chars().filter(character -> character == '?').count();
+        if (placeholders == parameters.size() + 2) {
+            parameters.add(0);
+        }
+        parameters.add(EXPLAIN_PAGE_SIZE + 1);
+        assertEquals(placeholders, parameters.size(), sql);
+
+        return transactionTemplate.execute(status -> {
+            // The test table is too small for the planner to prefer an index, so sequential scans are discouraged.
+            // A predicate no index can serve still gets a sequential scan.
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+
+            return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters.toArray()));
+        });
+    }
+}
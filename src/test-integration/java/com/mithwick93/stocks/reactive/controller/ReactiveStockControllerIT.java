@@ -0,0 +1,140 @@
+package com.mithwick93.stocks.reactive.controller;
+
+import com.mithwick93.stocks.controller.dto.StockPatchRequestDto;
+import com.mithwick93.stocks.controller.dto.StockRequestDto;
+import com.mithwick93.stocks.controller.dto.StockResponseDto;
+import com.mithwick93.stocks.core.ReactiveIntegrationTest;
+import com.mithwick93.stocks.modal.Stock;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+
+import static com.mithwick93.stocks.core.TestUtils.creatUniqueRequestStock;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class ReactiveStockControllerIT extends ReactiveIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    public void createStock_whenCalledWithValidRequest_thenReturnCreatedResponseWithStock() {
+        Stock stock = creatUniqueRequestStock();
+        EntityExchangeResult<StockResponseDto> createResponse = createStock(stock);
+
+        assertEquals(HttpStatus.CREATED, createResponse.getStatus());
+        assertNotNull(createResponse.getResponseHeaders().getLocation());
+        assertEquals(stock.getName(), createResponse.getResponseBody().getName());
+        assertEquals(stock.getCurrentPrice(), createResponse.getResponseBody().getCurrentPrice());
+    }
+
+    @Test
+    public void createStock_whenNameTaken_thenReturnConflictResponse() {
+        Stock stock = creatUniqueRequestStock();
+        createStock(stock);
+
+        webTestClient.post().uri("/api/v1/stocks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new StockRequestDto(stock.getName(), stock.getCurrentPrice()))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    public void getStocks_whenCalled_thenReturnOkResponseWithStocks() {
+        createStock(creatUniqueRequestStock());
+
+        webTestClient.get().uri("/api/v1/stocks?page=0&size=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$._embedded.stockResponseDtoList").isNotEmpty()
+                .jsonPath("$.page.totalElements").isNotEmpty();
+    }
+
+    @Test
+    public void getStockById_whenCalledWithValidId_thenReturnOkResponseWithStock() {
+        long id = createStock(creatUniqueRequestStock()).getResponseBody().getId();
+
+        webTestClient.get().uri("/api/v1/stocks/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(id);
+    }
+
+    @Test
+    public void getStockById_whenCalledWithInvalidId_thenReturnNotFoundResponse() {
+        webTestClient.get().uri("/api/v1/stocks/{id}", -1L)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Not found");
+    }
+
+    @Test
+    public void updateStock_whenCalledWithStaleETag_thenReturnPreconditionFailedResponse() {
+        Stock stock = creatUniqueRequestStock();
+        long id = createStock(stock).getResponseBody().getId();
+
+        webTestClient.put().uri("/api/v1/stocks/{id}", id)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new StockRequestDto(stock.getName(), BigDecimal.TEN))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        webTestClient.put().uri("/api/v1/stocks/{id}", id)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new StockRequestDto(stock.getName(), BigDecimal.ONE))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    public void patchStock_whenOnlyPriceSent_thenKeepName() {
+        Stock stock = creatUniqueRequestStock();
+        long id = createStock(stock).getResponseBody().getId();
+
+        webTestClient.patch().uri("/api/v1/stocks/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new StockPatchRequestDto(null, BigDecimal.ONE))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo(stock.getName())
+                .jsonPath("$.currentPrice").isEqualTo(1);
+    }
+
+    @Test
+    public void deleteStock_whenCalledWithValidId_thenReturnNoContentResponse() {
+        long id = createStock(creatUniqueRequestStock()).getResponseBody().getId();
+
+        webTestClient.delete().uri("/api/v1/stocks/{id}", id)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.get().uri("/api/v1/stocks/{id}", id)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private EntityExchangeResult<StockResponseDto> createStock(Stock stock) {
+        return webTestClient.post().uri("/api/v1/stocks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new StockRequestDto(stock.getName(), stock.getCurrentPrice()))
+                .exchange()
+                .expectBody(StockResponseDto.class)
+                .returnResult();
+    }
+}
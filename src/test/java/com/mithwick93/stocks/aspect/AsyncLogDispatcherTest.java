@@ -0,0 +1,87 @@
+package com.mithwick93.stocks.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncLogDispatcherTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AsyncLogDispatcher asyncLogDispatcher;
+
+    @AfterEach
+    public void destroy() throws InterruptedException {
+        asyncLogDispatcher.destroy();
+    }
+
+    @Test
+    public void dispatch_whenQueueHasCapacity_thenRunLogEventOnBackgroundThread() throws InterruptedException {
+        asyncLogDispatcher = new AsyncLogDispatcher(properties(10), meterRegistry);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        boolean result = asyncLogDispatcher.dispatch(latch::countDown);
+
+        assertTrue(result);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void dispatch_whenQueueIsFull_thenDropLogEventAndCountIt() throws InterruptedException {
+        asyncLogDispatcher = new AsyncLogDispatcher(properties(1), meterRegistry);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        asyncLogDispatcher.dispatch(() -> {
+            blocked.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        asyncLogDispatcher.dispatch(() -> {
+        });
+
+        boolean result = asyncLogDispatcher.dispatch(() -> {
+        });
+        release.countDown();
+
+        assertFalse(result);
+        assertEquals(1.0, meterRegistry.get("request.logging.dropped").counter().count());
+    }
+
+    @Test
+    public void destroy_whenEventsQueued_thenRunQueuedEvents() throws InterruptedException {
+        asyncLogDispatcher = new AsyncLogDispatcher(properties(10), meterRegistry);
+        CountDownLatch latch = new CountDownLatch(3);
+
+        asyncLogDispatcher.dispatch(() -> {
+            throw new IllegalStateException("Failing log event");
+        });
+        for (int i = 0; i < 3; i++) {
+            asyncLogDispatcher.dispatch(latch::countDown);
+        }
+        asyncLogDispatcher.destroy();
+
+        assertEquals(0, latch.getCount());
+    }
+
+    private static RequestLoggingProperties properties(int queueCapacity) {
+        RequestLoggingProperties requestLoggingProperties = new RequestLoggingProperties();
+        requestLoggingProperties.setQueueCapacity(queueCapacity);
+
+        return requestLoggingProperties;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.mithwick93.stocks.aspect;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.mithwick93.stocks.exception.StockNotFoundException;
+import com.mithwick93.stocks.util.JsonUtil;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+
+class LoggingAspectTest {
+    private final RequestLoggingProperties requestLoggingProperties = new RequestLoggingProperties();
+    private final AsyncLogDispatcher asyncLogDispatcher = Mockito.mock(AsyncLogDispatcher.class);
+    private final JoinPoint joinPoint = Mockito.mock(JoinPoint.class);
+    private LoggingAspect loggingAspect;
+
+    @BeforeEach
+    public void init() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/stocks");
+        request.setParameter("page", "0");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        Signature signature = Mockito.mock(Signature.class);
+        Mockito.when(signature.getName()).thenReturn("getStocks");
+        Mockito.when(joinPoint.getSignature()).thenReturn(signature);
+        Mockito.when(joinPoint.getArgs()).thenReturn(new Object[]{0, 10});
+
+        loggingAspect = new LoggingAspect(requestLoggingProperties, asyncLogDispatcher);
+    }
+
+    @AfterEach
+    public void reset() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void beforeAndAfterEndpoint_whenRequestSampled_thenDispatchLogEvents() {
+        requestLoggingProperties.getSampleRates().put("getStocks", 1.0);
+
+        loggingAspect.beforeEndpoint(joinPoint);
+        loggingAspect.afterEndpoint(joinPoint, ResponseEntity.ok("x".repeat(2048)));
+
+        runDispatchedLogEvents(2);
+    }
+
+    @Test
+    public void beforeAndAfterEndpoint_whenRequestNotSampled_thenDoNotDispatchLogEvents() {
+        requestLoggingProperties.getSampleRates().put("getStocks", 0.0);
+
+        loggingAspect.beforeEndpoint(joinPoint);
+        loggingAspect.afterEndpoint(joinPoint, ResponseEntity.ok().build());
+
+        Mockito.verify(asyncLogDispatcher, Mockito.never()).dispatch(Mockito.any());
+    }
+
+    @Test
+    public void afterThrowAndAfterExceptionHandle_whenRequestNotSampled_thenDispatchLogEvents() {
+        requestLoggingProperties.setDefaultSampleRate(0.0);
+
+        loggingAspect.beforeEndpoint(joinPoint);
+        loggingAspect.afterThrow(joinPoint, new StockNotFoundException(1L));
+        loggingAspect.afterExceptionHandle(joinPoint, ResponseEntity.notFound().build());
+
+        runDispatchedLogEvents(2);
+    }
+
+    @Test
+    public void beforeEndpoint_whenArgumentChangesAfterDispatch_thenLogArgumentAsOfRequest() {
+        requestLoggingProperties.getSampleRates().put("getStocks", 1.0);
+        StringBuilder name = new StringBuilder("MSW");
+        Mockito.when(joinPoint.getArgs()).thenReturn(new Object[]{name});
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        Logger logger = (Logger) LoggerFactory.getLogger(LoggingAspect.class);
+        logger.addAppender(appender);
+
+        try {
+            loggingAspect.beforeEndpoint(joinPoint);
+            name.append("-recycled");
+            runDispatchedLogEvents(1);
+        } finally {
+            logger.detachAppender(appender);
+        }
+
+        assertEquals("[MSW]", appender.list.get(0).getArgumentArray()[3]);
+    }
+
+    @Test
+    public void argsString_whenServletArgumentsPassed_thenLeaveThemOut() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        Object[] args = {5L, request, new MockHttpServletResponse(), new ServletWebRequest(request)};
+
+        assertEquals("[5]", loggingAspect.argsString(args));
+    }
+
+    @Test
+    public void argsString_whenLongerThanMaxPayloadLength_thenTruncate() {
+        requestLoggingProperties.setMaxPayloadLength(3);
+
+        assertEquals("[ab" + JsonUtil.TRUNCATED_SUFFIX, loggingAspect.argsString(new Object[]{"abc"}));
+    }
+
+    private void runDispatchedLogEvents(int expectedCount) {
+        ArgumentCaptor<Runnable> logEvents = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(asyncLogDispatcher, times(expectedCount)).dispatch(logEvents.capture());
+        logEvents.getAllValues().forEach(Runnable::run);
+    }
+}
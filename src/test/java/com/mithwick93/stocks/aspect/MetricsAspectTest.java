@@ -0,0 +1,61 @@
+package com.mithwick93.stocks.aspect;
+
+import com.mithwick93.stocks.exception.StockNotFoundException;
+import com.mithwick93.stocks.service.StockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MetricsAspectTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProceedingJoinPoint joinPoint = Mockito.mock(ProceedingJoinPoint.class);
+    private MetricsAspect metricsAspect;
+
+    @BeforeEach
+    public void init() {
+        MethodSignature signature = Mockito.mock(MethodSignature.class);
+        Mockito.when(signature.getDeclaringType()).thenReturn(StockService.class);
+        Mockito.when(signature.getName()).thenReturn("findStockById");
+        Mockito.when(signature.getMethod()).thenReturn(StockService.class.getMethods()[0]);
+        Mockito.when(joinPoint.getSignature()).thenReturn(signature);
+
+        metricsAspect = new MetricsAspect(meterRegistry);
+    }
+
+    @Test
+    public void timeService_whenMethodReturns_thenRecordSuccess() throws Throwable {
+        Mockito.when(joinPoint.proceed()).thenReturn("result");
+
+        metricsAspect.timeService(joinPoint);
+        Object result = metricsAspect.timeService(joinPoint);
+
+        Timer timer = meterRegistry.get(MetricsAspect.SERVICE_TIMER)
+                .tag("endpoint", "StockService.findStockById")
+                .tag("outcome", "SUCCESS")
+                .tag("exception", "none")
+                .timer();
+        assertEquals("result", result);
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    public void timeEndpoint_whenMethodThrows_thenRecordErrorWithExceptionClass() throws Throwable {
+        Mockito.when(joinPoint.proceed()).thenThrow(new StockNotFoundException(1L));
+
+        assertThrows(StockNotFoundException.class, () -> metricsAspect.timeEndpoint(joinPoint));
+
+        Timer timer = meterRegistry.get(MetricsAspect.CONTROLLER_TIMER)
+                .tag("outcome", "ERROR")
+                .tag("exception", "StockNotFoundException")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+}
@@ -0,0 +1,111 @@
+package com.mithwick93.stocks.configuration;
+
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.AnnotationConfigServletWebServerApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsConfigurationTest {
+    private static final int VIRTUAL_THREADS_FEATURE = 21;
+
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner(AnnotationConfigServletWebServerApplicationContext::new)
+            .withConfiguration(AutoConfigurations.of(
+                    ServletWebServerFactoryAutoConfiguration.class,
+                    DispatcherServletAutoConfiguration.class,
+                    WebMvcAutoConfiguration.class,
+                    TaskExecutionAutoConfiguration.class
+            ))
+            .withUserConfiguration(PlatformThreadsConfiguration.class)
+            .withPropertyValues("server.port=0");
+
+    @Test
+    public void context_whenVirtualThreadsEnabled_thenRunRequestsAndAsyncRequestsOnExecutor() {
+        contextRunner
+                .withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> {
+                    ExecutorService executor = context.getBean("virtualThreadExecutor", ExecutorService.class);
+                    TomcatWebServer webServer = (TomcatWebServer) ((AnnotationConfigServletWebServerApplicationContext) context.getSourceApplicationContext()).getWebServer();
+                    AsyncTaskExecutor applicationTaskExecutor = context.getBean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, AsyncTaskExecutor.class);
+
+                    assertSame(executor, webServer.getTomcat().getConnector().getProtocolHandler().getExecutor());
+                    assertSame(applicationTaskExecutor, ReflectionTestUtils.getField(context.getBean(RequestMappingHandlerAdapter.class), "taskExecutor"));
+                    assertEquals(PlatformThreadsConfiguration.THREAD_NAME, applicationTaskExecutor.submit(() -> Thread.currentThread().getName()).get(10, TimeUnit.SECONDS));
+                });
+    }
+
+    @Test
+    public void context_whenVirtualThreadsDisabled_thenKeepPlatformThreadPools() {
+        contextRunner
+                .withPropertyValues("spring.threads.virtual.enabled=false")
+                .run(context -> {
+                    TomcatWebServer webServer = (TomcatWebServer) ((AnnotationConfigServletWebServerApplicationContext) context.getSourceApplicationContext()).getWebServer();
+
+                    assertFalse(context.containsBean("virtualThreadExecutor"));
+                    assertInstanceOf(ThreadPoolExecutor.class, webServer.getTomcat().getConnector().getProtocolHandler().getExecutor());
+                    assertInstanceOf(ThreadPoolTaskExecutor.class, context.getBean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME));
+                });
+    }
+
+    @Test
+    public void newVirtualThreadPerTaskExecutor_whenJava21_thenRunTasksOnVirtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= VIRTUAL_THREADS_FEATURE);
+        ExecutorService executor = VirtualThreadsConfiguration.newVirtualThreadPerTaskExecutor("test-virtual-");
+
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+
+            assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+            assertEquals("test-virtual-0", thread.getName());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void newVirtualThreadPerTaskExecutor_whenBeforeJava21_thenThrowIllegalStateException() {
+        assumeTrue(Runtime.version().feature() < VIRTUAL_THREADS_FEATURE);
+
+        assertThrows(IllegalStateException.class, () -> VirtualThreadsConfiguration.newVirtualThreadPerTaskExecutor("test-virtual-"));
+    }
+
+    /**
+     * {@link VirtualThreadsConfiguration} with a platform thread executor in place of the virtual thread one, so its
+     * wiring is tested on every Java version the build runs on.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "spring.threads.virtual", name = "enabled", havingValue = "true")
+    static class PlatformThreadsConfiguration extends VirtualThreadsConfiguration {
+        static final String THREAD_NAME = "test-platform";
+
+        @Override
+        @Bean(destroyMethod = "shutdown")
+        public ExecutorService virtualThreadExecutor() {
+            return Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, THREAD_NAME));
+        }
+    }
+}
@@ -1,38 +1,90 @@
 package com.mithwick93.stocks.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.mithwick93.stocks.Constants;
+import com.mithwick93.stocks.configuration.BinaryFormatConfiguration;
+import com.mithwick93.stocks.controller.dto.StockBatchUpdateRequestDto;
+import com.mithwick93.stocks.controller.dto.StockCandleDto;
+import com.mithwick93.stocks.controller.dto.StockPatchRequestDto;
+import com.mithwick93.stocks.controller.dto.StockPriceRequestDto;
 import com.mithwick93.stocks.controller.dto.StockRequestDto;
 import com.mithwick93.stocks.controller.dto.StockResponseDto;
 import com.mithwick93.stocks.controller.mapper.StockMapper;
+import com.mithwick93.stocks.controller.pagination.StockCursor;
+import com.mithwick93.stocks.controller.stream.StockStreamBroadcaster;
 import com.mithwick93.stocks.exception.StockNotFoundException;
+import com.mithwick93.stocks.exception.StockPriceBufferFullException;
+import com.mithwick93.stocks.exception.StockVersionMismatchException;
+import com.mithwick93.stocks.modal.CandleInterval;
 import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockCandle;
+import com.mithwick93.stocks.modal.StockCountMode;
+import com.mithwick93.stocks.modal.StockField;
+import com.mithwick93.stocks.modal.StockFilter;
+import com.mithwick93.stocks.modal.StockPrice;
+import com.mithwick93.stocks.service.StockPriceBuffer;
 import com.mithwick93.stocks.service.StockService;
+import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static com.mithwick93.stocks.core.TestUtils.creatRequestStock;
 import static com.mithwick93.stocks.core.TestUtils.creatStock;
+import static com.mithwick93.stocks.core.TestUtils.creatStockCandle;
+import static com.mithwick93.stocks.core.TestUtils.creatStocksVersion;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.times;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = StockController.class)
+@Import(BinaryFormatConfiguration.class)
 class StockControllerTest {
+    private static final ObjectMapper CBOR_MAPPER = new ObjectMapper(new CBORFactory());
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory());
 
     @Autowired
     private MockMvc mockMvc;
@@ -49,6 +101,12 @@ class StockControllerTest {
     @MockBean
     private PagedResourcesAssembler<Stock> stockPagedResourcesAssembler;
 
+    @MockBean
+    private StockStreamBroadcaster stockStreamBroadcaster;
+
+    @MockBean
+    private StockPriceBuffer stockPriceBuffer;
+
     @Test
     public void getStocks_whenCorrectParametersPassed_thenReturnResponseEntity() throws Exception {
 
@@ -68,13 +126,260 @@ class StockControllerTest {
         stockDtos.add(stockDto);
         PagedModel<StockResponseDto> stockResponseDtos = PagedModel.of(stockDtos, new PagedModel.PageMetadata(1, 0, 1, 1));
 
-        Mockito.when(stockService.findAllStocks(Mockito.anyInt(), Mockito.anyInt())).thenReturn(stocksPage);
+        Mockito.when(stockService.findStocksVersion()).thenReturn(creatStocksVersion(1, 3, stock.getLastUpdate()));
+        Mockito.when(stockService.findAllStocks(StockFilter.NONE, PageRequest.of(0, 10, Sort.by("id")), 1, StockField.ALL)).thenReturn(stocksPage);
         Mockito.when(stockPagedResourcesAssembler.toModel(stocksPage, stockMapper)).thenReturn(stockResponseDtos);
 
         mockMvc.perform(get("/api/v1/stocks"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3-67890\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+
+        Mockito.verify(stockService, times(1)).findAllStocks(StockFilter.NONE, PageRequest.of(0, 10, Sort.by("id")), 1, StockField.ALL);
+        Mockito.verify(stockService, Mockito.never()).countStocks(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void getStocks_whenIfNoneMatchIsCurrent_thenReturnNotModifiedWithoutLoadingStocks() throws Exception {
+        Mockito.when(stockService.findStocksVersion()).thenReturn(creatStocksVersion(1, 3, new Timestamp(67890)));
+
+        mockMvc.perform(get("/api/v1/stocks").header(HttpHeaders.IF_NONE_MATCH, "\"1-3-67890\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3-67890\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().string(""));
+
+        Mockito.verify(stockService, Mockito.never()).findAllStocks(Mockito.any(), Mockito.any(), Mockito.anyLong(), Mockito.any());
+    }
+
+    @Test
+    public void getStocks_whenIfNoneMatchIsOutdated_thenReturnStocks() throws Exception {
+        Page<Stock> stocksPage = new PageImpl<>(List.of(creatStock()));
+
+        Mockito.when(stockService.findStocksVersion()).thenReturn(creatStocksVersion(1, 4, new Timestamp(99999)));
+        Mockito.when(stockService.findAllStocks(Mockito.any(), Mockito.any(), Mockito.anyLong(), Mockito.any())).thenReturn(stocksPage);
+        Mockito.when(stockPagedResourcesAssembler.toModel(stocksPage, stockMapper)).thenReturn(PagedModel.empty());
+
+        mockMvc.perform(get("/api/v1/stocks").header(HttpHeaders.IF_NONE_MATCH, "\"1-3-67890\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4-99999\""));
+    }
+
+    @Test
+    public void getStocks_whenNoStocksExist_thenReturnETagWithoutLastModified() throws Exception {
+        Page<Stock> stocksPage = new PageImpl<>(List.of());
+
+        Mockito.when(stockService.findStocksVersion()).thenReturn(creatStocksVersion(0, 0, null));
+        Mockito.when(stockService.findAllStocks(Mockito.any(), Mockito.any(), Mockito.anyLong(), Mockito.any())).thenReturn(stocksPage);
+        Mockito.when(stockPagedResourcesAssembler.toModel(stocksPage, stockMapper)).thenReturn(PagedModel.empty());
+
+        mockMvc.perform(get("/api/v1/stocks"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-0--1\""))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    public void getStocks_whenCachedCountRequested_thenReturnPageWithoutValidators() throws Exception {
+        Page<Stock> stocksPage = new PageImpl<>(List.of(creatStock()));
+
+        Mockito.when(stockService.countStocks(StockCountMode.CACHED, StockFilter.NONE)).thenReturn(42L);
+        Mockito.when(stockService.findAllStocks(StockFilter.NONE, PageRequest.of(0, 10, Sort.by("id")), 42L, StockField.ALL)).thenReturn(stocksPage);
+        Mockito.when(stockPagedResourcesAssembler.toModel(stocksPage, stockMapper)).thenReturn(PagedModel.empty());
+
+        mockMvc.perform(get("/api/v1/stocks?count=cached").header(HttpHeaders.IF_NONE_MATCH, "\"1-3-67890\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        Mockito.verify(stockService, Mockito.never()).findStocksVersion();
+    }
+
+    @Test
+    public void getStocks_whenEstimatedCountRequested_thenReturnPageWithEstimate() throws Exception {
+        Page<Stock> stocksPage = new PageImpl<>(List.of(creatStock()));
+
+        Mockito.when(stockService.countStocks(StockCountMode.ESTIMATED, StockFilter.NONE)).thenReturn(40L);
+        Mockito.when(stockService.findAllStocks(StockFilter.NONE, PageRequest.of(1, 5, Sort.by("id")), 40L, StockField.ALL)).thenReturn(stocksPage);
+        Mockito.when(stockPagedResourcesAssembler.toModel(stocksPage, stockMapper)).thenReturn(PagedModel.empty());
+
+        mockMvc.perform(get("/api/v1/stocks?page=1&size=5&count=estimated"))
                 .andExpect(status().isOk());
 
-        Mockito.verify(stockService, times(1)).findAllStocks(Mockito.anyInt(), Mockito.anyInt());
+        Mockito.verify(stockService, times(1)).findAllStocks(StockFilter.NONE, PageRequest.of(1, 5, Sort.by("id")), 40L, StockField.ALL);
+    }
+
+    @Test
+    public void getStocks_whenNoCountRequested_thenReturnSliceWithoutPageMetadata() throws Exception {
+        Stock stock = creatStock();
+        StockResponseDto stockDto = new StockResponseDto(
+                stock.getId(),
+                stock.getName(),
+                stock.getCurrentPrice(),
+                stock.getCreatedAt().getTime(),
+                stock.getLastUpdate().getTime()
+        );
+
+        Mockito.when(stockService.findStocksSlice(StockFilter.NONE, PageRequest.of(1, 1, Sort.by("id")), StockField.ALL)).thenReturn(new SliceImpl<>(List.of(stock), PageRequest.of(1, 1), true));
+        Mockito.when(stockMapper.toModel(stock)).thenReturn(stockDto);
+
+        mockMvc.perform(get("/api/v1/stocks?page=1&size=1&count=none"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$._embedded.stockResponseDtoList[0].id").value(stock.getId()))
+                .andExpect(jsonPath("$.page").doesNotExist())
+                .andExpect(jsonPath("$._links.self.href").value("http://localhost/api/v1/stocks?page=1&size=1&count=none"))
+                .andExpect(jsonPath("$._links.first.href").value("http://localhost/api/v1/stocks?size=1&count=none&page=0"))
+                .andExpect(jsonPath("$._links.prev.href").value("http://localhost/api/v1/stocks?size=1&count=none&page=0"))
+                .andExpect(jsonPath("$._links.next.href").value("http://localhost/api/v1/stocks?size=1&count=none&page=2"))
+                .andExpect(jsonPath("$._links.last").doesNotExist());
+
+        Mockito.verify(stockService, Mockito.never()).findStocksVersion();
+        Mockito.verify(stockService, Mockito.never()).countStocks(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void getStocks_whenFieldsPassed_thenLoadAndRenderOnlyThoseFields() throws Exception {
+        Stock stock = creatStock();
+        Set<StockField> fields = EnumSet.of(StockField.ID, StockField.CURRENT_PRICE);
+        StockResponseDto stockDto = new StockResponseDto();
+        stockDto.setId(stock.getId());
+        stockDto.setCurrentPrice(stock.getCurrentPrice());
+
+        Mockito.when(stockService.findStocksSlice(StockFilter.NONE, PageRequest.of(0, 10, Sort.by("id")), fields)).thenReturn(new SliceImpl<>(List.of(stock)));
+        Mockito.when(stockMapper.toModel(stock, fields)).thenReturn(stockDto);
+
+        mockMvc.perform(get("/api/v1/stocks?count=none&fields=currentPrice, id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.stockResponseDtoList[0].id").value(stock.getId()))
+                .andExpect(jsonPath("$._embedded.stockResponseDtoList[0].currentPrice").value(stock.getCurrentPrice()))
+                .andExpect(jsonPath("$._embedded.stockResponseDtoList[0].name").doesNotExist())
+                .andExpect(jsonPath("$._embedded.stockResponseDtoList[0].createdAt").doesNotExist())
+                .andExpect(jsonPath("$._embedded.stockResponseDtoList[0]._links").doesNotExist());
+
+        Mockito.verify(stockMapper, Mockito.never()).toModel(stock);
+    }
+
+    @Test
+    public void getStocks_whenInvalidFieldPassed_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/stocks?fields=id,version"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Invalid field: version. Supported fields are [id, name, currentPrice, createdAt, lastUpdate]"));
+
+        Mockito.verifyNoInteractions(stockService);
+    }
+
+    @Test
+    public void getStocksLite_whenLiteAccepted_thenReturnFlatStocksWithoutLinks() throws Exception {
+        Page<Stock> stocksPage = new PageImpl<>(List.of(creatStock()), PageRequest.of(0, 10), 1);
+
+        Mockito.when(stockService.findStocksVersion()).thenReturn(creatStocksVersion(1, 3, new Timestamp(67890)));
+        Mockito.when(stockService.findAllStocks(StockFilter.NONE, PageRequest.of(0, 10, Sort.by("id")), 1, StockField.ALL)).thenReturn(stocksPage);
+
+        mockMvc.perform(get("/api/v1/stocks").accept(Constants.APPLICATION_STOCKS_LITE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, Constants.APPLICATION_STOCKS_LITE_VALUE))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3-67890-vnd.stocks.lite+json\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.stocks[0].id").value(1))
+                .andExpect(jsonPath("$.stocks[0].name").value("MSW"))
+                .andExpect(jsonPath("$.stocks[0].lastUpdate").value(67890))
+                .andExpect(jsonPath("$.stocks[0]._links").doesNotExist())
+                .andExpect(jsonPath("$._links").doesNotExist());
+
+        Mockito.verifyNoInteractions(stockPagedResourcesAssembler, stockMapper);
+    }
+
+    @Test
+    public void getStocksLite_whenFieldsPassedWithoutCount_thenReturnOnlyThoseFields() throws Exception {
+        Set<StockField> fields = EnumSet.of(StockField.ID, StockField.CURRENT_PRICE);
+        Stock stock = new Stock();
+        stock.setId(1L);
+        stock.setCurrentPrice(BigDecimal.valueOf(12.4));
+
+        Mockito.when(stockService.findStocksSlice(StockFilter.NONE, PageRequest.of(0, 10, Sort.by("id")), fields)).thenReturn(new SliceImpl<>(List.of(stock), PageRequest.of(0, 10), true));
+
+        mockMvc.perform(get("/api/v1/stocks?count=none&fields=id,currentPrice").accept(Constants.APPLICATION_STOCKS_LITE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"page\":0,\"size\":10,\"hasNext\":true,\"stocks\":[{\"id\":1,\"currentPrice\":12.4}]}"));
+
+        Mockito.verify(stockService, Mockito.never()).findStocksVersion();
+    }
+
+    @Test
+    public void getStocksLite_whenIfNoneMatchIsCurrent_thenReturnNotModified() throws Exception {
+        Mockito.when(stockService.findStocksVersion()).thenReturn(creatStocksVersion(1, 3, new Timestamp(67890)));
+
+        mockMvc.perform(get("/api/v1/stocks").accept(Constants.APPLICATION_STOCKS_LITE_VALUE).header(HttpHeaders.IF_NONE_MATCH, "\"1-3-67890-vnd.stocks.lite+json\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().string(""));
+
+        Mockito.verify(stockService, Mockito.never()).findAllStocks(Mockito.any(), Mockito.any(), Mockito.anyLong(), Mockito.any());
+    }
+
+    @Test
+    public void getStocksLite_whenIfNoneMatchIsOfJsonPage_thenReturnStocks() throws Exception {
+        Page<Stock> stocksPage = new PageImpl<>(List.of(creatStock()), PageRequest.of(0, 10), 1);
+
+        Mockito.when(stockService.findStocksVersion()).thenReturn(creatStocksVersion(1, 3, new Timestamp(67890)));
+        Mockito.when(stockService.findAllStocks(StockFilter.NONE, PageRequest.of(0, 10, Sort.by("id")), 1, StockField.ALL)).thenReturn(stocksPage);
+
+        mockMvc.perform(get("/api/v1/stocks").accept(Constants.APPLICATION_STOCKS_LITE_VALUE).header(HttpHeaders.IF_NONE_MATCH, "\"1-3-67890\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3-67890-vnd.stocks.lite+json\""))
+                .andExpect(jsonPath("$.stocks[0].id").value(1));
+    }
+
+    @Test
+    public void getStocksLite_whenInvalidFieldPassed_thenReturnProblemDetail() throws Exception {
+        mockMvc.perform(get("/api/v1/stocks?fields=version").accept(Constants.APPLICATION_STOCKS_LITE_VALUE))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_PROBLEM_JSON_VALUE));
+
+        Mockito.verifyNoInteractions(stockService);
+    }
+
+    @Test
+    public void getStocks_whenInvalidCountRequested_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/stocks?count=approximate"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(stockService);
+    }
+
+    @Test
+    public void getStocks_whenFiltersAndSortPassed_thenCountAndFindMatchingStocks() throws Exception {
+        StockFilter filter = StockFilter.builder()
+                .minPrice(new BigDecimal("10.5"))
+                .maxPrice(new BigDecimal("20"))
+                .namePrefix("ms")
+                .updatedSince(Instant.parse("2023-03-01T00:00:00Z"))
+                .build();
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "currentPrice"));
+        Page<Stock> stocksPage = new PageImpl<>(List.of(creatStock()));
+
+        Mockito.when(stockService.findStocksVersion()).thenReturn(creatStocksVersion(100, 300, new Timestamp(67890)));
+        Mockito.when(stockService.countStocks(StockCountMode.EXACT, filter)).thenReturn(3L);
+        Mockito.when(stockService.findAllStocks(filter, pageable, 3L, StockField.ALL)).thenReturn(stocksPage);
+        Mockito.when(stockPagedResourcesAssembler.toModel(stocksPage, stockMapper)).thenReturn(PagedModel.empty());
+
+        mockMvc.perform(get("/api/v1/stocks?minPrice=10.5&maxPrice=20&namePrefix=ms&updatedSince=2023-03-01T00:00:00Z&sort=currentPrice,desc"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"100-300-67890\""));
+
+        Mockito.verify(stockService, times(1)).findAllStocks(filter, pageable, 3L, StockField.ALL);
+    }
+
+    @Test
+    public void getStocks_whenInvalidSortPassed_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/stocks?sort=createdAt"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/stocks?sort=id,sideways"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(stockService);
     }
 
     @Test
@@ -87,6 +392,183 @@ class StockControllerTest {
 
     }
 
+    @Test
+    public void getStocksAfter_whenMoreStocksAvailable_thenReturnResponseEntityWithNextLink() throws Exception {
+        int size = 1;
+        Sort sort = Sort.by(Sort.Direction.ASC, "id");
+        Stock stock = creatStock(7L);
+        StockResponseDto stockDto = new StockResponseDto(
+                stock.getId(),
+                stock.getName(),
+                stock.getCurrentPrice(),
+                stock.getCreatedAt().getTime(),
+                stock.getLastUpdate().getTime()
+        );
+
+        Mockito.when(stockService.findStocksAfter(StockFilter.NONE, sort, null, size)).thenReturn(new SliceImpl<>(List.of(stock), PageRequest.of(0, size), true));
+        Mockito.when(stockMapper.toModel(stock)).thenReturn(stockDto);
+
+        mockMvc.perform(get("/api/v1/stocks?after=&size={size}", size))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.next.href").value("http://localhost/api/v1/stocks?size=" + size + "&after=" + StockCursor.after(sort, stock).encode()));
+
+        Mockito.verify(stockService, times(1)).findStocksAfter(StockFilter.NONE, sort, null, size);
+    }
+
+    @Test
+    public void getStocksAfter_whenFilterAndSortPassed_thenSeekInSortAndKeepThemInNextLink() throws Exception {
+        int size = 1;
+        Sort sort = Sort.by(Sort.Direction.DESC, "currentPrice");
+        Stock stock = creatStock(7L);
+        StockCursor cursor = StockCursor.after(sort, creatStock(9L));
+        StockFilter filter = StockFilter.builder().minPrice(BigDecimal.ONE).build();
+
+        Mockito.when(stockService.findStocksAfter(filter, sort, cursor.getLastStock(), size)).thenReturn(new SliceImpl<>(List.of(stock), PageRequest.of(0, size), true));
+        Mockito.when(stockMapper.toModel(stock)).thenReturn(new StockResponseDto());
+
+        mockMvc.perform(get("/api/v1/stocks?minPrice=1&sort=currentPrice,desc&after={after}&size={size}", cursor.encode(), size))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.next.href").value("http://localhost/api/v1/stocks?minPrice=1&sort=currentPrice,desc&size=" + size + "&after=" + StockCursor.after(sort, stock).encode()));
+
+        Mockito.verify(stockService, times(1)).findStocksAfter(filter, sort, cursor.getLastStock(), size);
+    }
+
+    @Test
+    public void getStocksAfter_whenCursorOfOtherSortPassed_thenReturnBadRequest() throws Exception {
+        StockCursor cursor = StockCursor.after(Sort.by(Sort.Direction.DESC, "currentPrice"), creatStock(9L));
+
+        mockMvc.perform(get("/api/v1/stocks?sort=name&after={after}", cursor.encode()))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(stockService);
+    }
+
+    @Test
+    public void getStocksAfter_whenLastStocksReturned_thenReturnResponseEntityWithoutNextLink() throws Exception {
+        int size = 10;
+        Sort sort = Sort.by(Sort.Direction.ASC, "id");
+        StockCursor cursor = StockCursor.after(sort, creatStock(7L));
+
+        Mockito.when(stockService.findStocksAfter(StockFilter.NONE, sort, cursor.getLastStock(), size)).thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, size), false));
+
+        mockMvc.perform(get("/api/v1/stocks?after={after}&size={size}", cursor.encode(), size))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+    }
+
+    @Test
+    public void getStocksAfter_whenInvalidCursorPassed_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/stocks?after={after}", "invalid*cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void exportStocks_whenCsvAccepted_thenStreamCsvResponse() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(creatStock(1L));
+            return null;
+        }).when(stockService).exportStocks(Mockito.any());
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/stocks/export").accept("text/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"stocks.csv\""))
+                .andExpect(content().string("id,name,currentPrice,createdAt,lastUpdate\n1,MSW,12.4,12345,67890\n"));
+    }
+
+    @Test
+    public void getStocksByIds_whenExistingMissingAndRepeatedIdsPassed_thenReturnResultsInRequestOrder() throws Exception {
+        Stock stock = creatStock(7L);
+        StockResponseDto stockDto = new StockResponseDto(
+                stock.getId(),
+                stock.getName(),
+                stock.getCurrentPrice(),
+                stock.getCreatedAt().getTime(),
+                stock.getLastUpdate().getTime()
+        );
+
+        Mockito.when(stockService.findStocksByIds(Set.of(7L, 3L))).thenReturn(Map.of(7L, stock));
+        Mockito.when(stockMapper.toModel(stock)).thenReturn(stockDto);
+
+        mockMvc.perform(get("/api/v1/stocks?ids=3,7,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.results[0].status").value(404))
+                .andExpect(jsonPath("$.results[0].errors[0]").value("Stock 3 not found"))
+                .andExpect(jsonPath("$.results[1].status").value(200))
+                .andExpect(jsonPath("$.results[1].stock.id").value(7))
+                .andExpect(jsonPath("$.results[2].status").value(404));
+
+        Mockito.verify(stockService, times(1)).findStocksByIds(Set.of(7L, 3L));
+        Mockito.verify(stockService, Mockito.never()).findAllStocks(Mockito.any(), Mockito.any(), Mockito.anyLong(), Mockito.any());
+    }
+
+    @Test
+    public void getStocksByIds_whenPriceBuffered_thenReturnBufferedPrice() throws Exception {
+        Mockito.when(stockService.findStocksByIds(Set.of(7L))).thenReturn(Map.of(7L, creatStock(7L)));
+        Mockito.when(stockPriceBuffer.get(7L)).thenReturn(Optional.of(new StockPrice(7L, new BigDecimal("99.5"), Instant.parse("2023-03-15T10:00:00Z"))));
+        Mockito.when(stockMapper.toModel(Mockito.any(Stock.class))).thenAnswer(invocation -> stockResponseDto(invocation.getArgument(0)));
+
+        mockMvc.perform(get("/api/v1/stocks?ids=7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].stock.currentPrice").value(99.5))
+                .andExpect(jsonPath("$.results[0].stock.lastUpdate").value(Instant.parse("2023-03-15T10:00:00Z").toEpochMilli()));
+    }
+
+    @Test
+    public void getStocksByIds_whenNoIdsPassed_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/stocks?ids="))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(stockService);
+    }
+
+    @Test
+    public void exportStocks_whenNoFormatRequested_thenStreamNdjsonResponse() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/stocks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"));
+
+        Mockito.verify(stockService, times(1)).exportStocks(Mockito.any());
+    }
+
+    @Test
+    public void streamStocks_whenIdsPassed_thenSubscribeToThoseStocks() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        Mockito.when(stockStreamBroadcaster.subscribe(Set.of(1L, 2L))).thenReturn(emitter);
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/stocks/stream").param("ids", "1,2").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().name("updated").data("{\"id\":1}"));
+        emitter.complete();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE))
+                .andExpect(content().string("event:updated\ndata:{\"id\":1}\n\n"));
+    }
+
+    @Test
+    public void streamStocks_whenNoIdsPassed_thenSubscribeToAllStocks() throws Exception {
+        Mockito.when(stockStreamBroadcaster.subscribe(Set.of())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/v1/stocks/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        Mockito.verify(stockStreamBroadcaster, times(1)).subscribe(Set.of());
+    }
+
     @Test
     public void getStockById_whenCorrectParametersPassed_thenReturnResponseEntity() throws Exception {
         long id = 1;
@@ -104,11 +586,151 @@ class StockControllerTest {
         Mockito.when(stockMapper.toModel(stock)).thenReturn(stockDto);
 
         mockMvc.perform(get("/api/v1/stocks/{id}", id))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
 
         Mockito.verify(stockService, times(1)).findStockById(id);
     }
 
+    @Test
+    public void getStockById_whenCborAccepted_thenReturnCborHal() throws Exception {
+        long id = 1;
+
+        Stock stock = creatStock();
+        StockResponseDto stockDto = new StockResponseDto(
+                stock.getId(),
+                stock.getName(),
+                stock.getCurrentPrice(),
+                stock.getCreatedAt().getTime(),
+                stock.getLastUpdate().getTime()
+        );
+        stockDto.add(Link.of("http://localhost/api/v1/stocks/1"));
+
+        Mockito.when(stockService.findStockById(id)).thenReturn(stock);
+        Mockito.when(stockMapper.toModel(stock)).thenReturn(stockDto);
+
+        MvcResult result = mockMvc.perform(get("/api/v1/stocks/{id}", id).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        JsonNode body = CBOR_MAPPER.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(stock.getName(), body.get("name").asText());
+        assertEquals(0, stock.getCurrentPrice().compareTo(body.get("currentPrice").decimalValue()));
+        assertEquals("http://localhost/api/v1/stocks/1", body.at("/_links/self/href").asText());
+    }
+
+    @Test
+    public void getStockById_whenNoFormatRequested_thenReturnJson() throws Exception {
+        long id = 1;
+        Stock stock = creatStock();
+
+        Mockito.when(stockService.findStockById(id)).thenReturn(stock);
+        Mockito.when(stockMapper.toModel(stock)).thenReturn(new StockResponseDto());
+
+        mockMvc.perform(get("/api/v1/stocks/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void getStockById_whenIfNoneMatchIsCurrent_thenReturnNotModifiedWithoutMapping() throws Exception {
+        long id = 1;
+
+        Mockito.when(stockService.findStockById(id)).thenReturn(creatStock());
+
+        mockMvc.perform(get("/api/v1/stocks/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+
+        Mockito.verifyNoInteractions(stockMapper);
+    }
+
+    @Test
+    public void getStockById_whenNotModifiedSinceIfModifiedSince_thenReturnNotModified() throws Exception {
+        long id = 1;
+        Stock stock = creatStock();
+
+        Mockito.when(stockService.findStockById(id)).thenReturn(stock);
+
+        mockMvc.perform(get("/api/v1/stocks/{id}", id).header(HttpHeaders.IF_MODIFIED_SINCE, "Thu, 01 Jan 1970 00:01:08 GMT"))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.LAST_MODIFIED, "Thu, 01 Jan 1970 00:01:07 GMT"));
+
+        Mockito.verifyNoInteractions(stockMapper);
+    }
+
+    @Test
+    public void getStockById_whenIfNoneMatchIsOutdated_thenReturnStock() throws Exception {
+        long id = 1;
+        Stock stock = creatStock();
+
+        Mockito.when(stockService.findStockById(id)).thenReturn(stock);
+        Mockito.when(stockMapper.toModel(stock)).thenReturn(new StockResponseDto());
+
+        mockMvc.perform(get("/api/v1/stocks/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    public void getStockById_whenIfNoneMatchIsOfOtherRepresentation_thenReturnStockWithItsETag() throws Exception {
+        long id = 1;
+        Stock stock = creatStock();
+
+        Mockito.when(stockService.findStockById(id)).thenReturn(stock);
+        Mockito.when(stockMapper.toModel(stock)).thenReturn(new StockResponseDto());
+
+        mockMvc.perform(get("/api/v1/stocks/{id}", id).accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-cbor\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        mockMvc.perform(get("/api/v1/stocks/{id}", id).accept(Constants.APPLICATION_SMILE_VALUE + ", application/json;q=0.5").header(HttpHeaders.IF_NONE_MATCH, "\"3-cbor\""))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(Constants.APPLICATION_SMILE_VALUE))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-x-jackson-smile\""));
+        mockMvc.perform(get("/api/v1/stocks/{id}", id).accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, "\"3-cbor\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    public void getStockById_whenPriceBuffered_thenReturnBufferedPriceWithoutValidators() throws Exception {
+        long id = 1;
+
+        Mockito.when(stockService.findStockById(id)).thenReturn(creatStock());
+        Mockito.when(stockPriceBuffer.get(id)).thenReturn(Optional.of(new StockPrice(id, new BigDecimal("99.5"), Instant.parse("2023-03-15T10:00:00Z"))));
+        Mockito.when(stockMapper.toModel(Mockito.any(Stock.class))).thenAnswer(invocation -> stockResponseDto(invocation.getArgument(0)));
+
+        mockMvc.perform(get("/api/v1/stocks/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andExpect(jsonPath("$.currentPrice").value(99.5))
+                .andExpect(jsonPath("$.lastUpdate").value(Instant.parse("2023-03-15T10:00:00Z").toEpochMilli()));
+    }
+
+    @Test
+    public void getStockById_whenStockWrittenAfterPriceBuffered_thenReturnWrittenStockWithValidators() throws Exception {
+        long id = 1;
+        Stock stock = creatStock();
+        stock.setCurrentPrice(new BigDecimal("101.5"));
+        stock.setLastUpdate(Timestamp.from(Instant.parse("2023-03-15T10:00:01Z")));
+
+        Mockito.when(stockService.findStockById(id)).thenReturn(stock);
+        Mockito.when(stockPriceBuffer.get(id)).thenReturn(Optional.of(new StockPrice(id, new BigDecimal("99.5"), Instant.parse("2023-03-15T10:00:00Z"))));
+        Mockito.when(stockMapper.toModel(Mockito.any(Stock.class))).thenAnswer(invocation -> stockResponseDto(invocation.getArgument(0)));
+
+        mockMvc.perform(get("/api/v1/stocks/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.currentPrice").value(101.5))
+                .andExpect(jsonPath("$.lastUpdate").value(Instant.parse("2023-03-15T10:00:01Z").toEpochMilli()));
+    }
+
     @Test
     public void getStockById_whenStockNotFound_thenReturnNotFound() throws Exception {
         long id = 1;
@@ -121,6 +743,135 @@ class StockControllerTest {
         Mockito.verify(stockService, times(1)).findStockById(id);
     }
 
+    @Test
+    public void getStockById_whenStockNotFoundForCborClient_thenReturnProblemDetail() throws Exception {
+        long id = 1;
+
+        Mockito.when(stockService.findStockById(id)).thenThrow(new StockNotFoundException(id));
+
+        mockMvc.perform(get("/api/v1/stocks/{id}", id).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.detail").value("Stock 1 not found"));
+    }
+
+    @Test
+    public void getStockByName_whenCorrectParametersPassed_thenReturnResponseEntity() throws Exception {
+        Stock stock = creatStock();
+
+        Mockito.when(stockService.findStockByName("msw")).thenReturn(stock);
+        Mockito.when(stockMapper.toModel(stock)).thenReturn(new StockResponseDto(stock.getId(), stock.getName(), stock.getCurrentPrice(), 12345L, 67890L));
+
+        mockMvc.perform(get("/api/v1/stocks/by-name/{name}", "msw"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.name").value("MSW"));
+    }
+
+    @Test
+    public void getStockByName_whenIfNoneMatchIsCurrent_thenReturnNotModifiedWithoutMapping() throws Exception {
+        Mockito.when(stockService.findStockByName("MSW")).thenReturn(creatStock());
+
+        mockMvc.perform(get("/api/v1/stocks/by-name/{name}", "MSW").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified());
+
+        Mockito.verifyNoInteractions(stockMapper);
+    }
+
+    @Test
+    public void getStockByName_whenStockWrittenAfterPriceBuffered_thenReturnWrittenStock() throws Exception {
+        Stock stock = creatStock();
+        stock.setCurrentPrice(new BigDecimal("101.5"));
+        stock.setLastUpdate(Timestamp.from(Instant.parse("2023-03-15T10:00:01Z")));
+
+        Mockito.when(stockService.findStockByName("MSW")).thenReturn(stock);
+        Mockito.when(stockPriceBuffer.get(stock.getId())).thenReturn(Optional.of(new StockPrice(stock.getId(), new BigDecimal("99.5"), Instant.parse("2023-03-15T10:00:00Z"))));
+        Mockito.when(stockMapper.toModel(Mockito.any(Stock.class))).thenAnswer(invocation -> stockResponseDto(invocation.getArgument(0)));
+
+        mockMvc.perform(get("/api/v1/stocks/by-name/{name}", "MSW"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.currentPrice").value(101.5));
+    }
+
+    @Test
+    public void getStockByName_whenPriceBuffered_thenReturnBufferedPriceWithoutValidators() throws Exception {
+        Stock stock = creatStock();
+
+        Mockito.when(stockService.findStockByName("MSW")).thenReturn(stock);
+        Mockito.when(stockPriceBuffer.get(stock.getId())).thenReturn(Optional.of(new StockPrice(stock.getId(), new BigDecimal("99.5"), Instant.parse("2023-03-15T10:00:00Z"))));
+        Mockito.when(stockMapper.toModel(Mockito.any(Stock.class))).thenAnswer(invocation -> stockResponseDto(invocation.getArgument(0)));
+
+        mockMvc.perform(get("/api/v1/stocks/by-name/{name}", "MSW"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.currentPrice").value(99.5));
+    }
+
+    @Test
+    public void getStockByName_whenStockNotFound_thenReturnNotFound() throws Exception {
+        Mockito.when(stockService.findStockByName("NONE")).thenThrow(new StockNotFoundException("NONE"));
+
+        mockMvc.perform(get("/api/v1/stocks/by-name/{name}", "NONE"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("Stock NONE not found"));
+    }
+
+    @Test
+    public void getCandles_whenRangePassed_thenReturnCandlesWithLinks() throws Exception {
+        long id = 1;
+        Instant from = Instant.parse("2023-03-01T10:00:00Z");
+        Instant to = Instant.parse("2023-03-01T12:00:00Z");
+        StockCandle stockCandle = creatStockCandle(from);
+
+        Mockito.when(stockService.findStockById(id)).thenReturn(creatStock());
+        Mockito.when(stockService.findCandles(id, CandleInterval.HOUR, from, to)).thenReturn(List.of(stockCandle));
+        Mockito.when(stockMapper.toCandleDto(stockCandle)).thenReturn(new StockCandleDto(from.toEpochMilli(), BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ONE, BigDecimal.TEN, 3));
+
+        mockMvc.perform(get("/api/v1/stocks/{id}/candles", id)
+                        .param("interval", "1h")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.candles[0].start").value(from.toEpochMilli()))
+                .andExpect(jsonPath("$._embedded.candles[0].ticks").value(3))
+                .andExpect(jsonPath("$._links.self.href").value("http://localhost/api/v1/stocks/1/candles?interval=1h&from=2023-03-01T10%3A00%3A00Z&to=2023-03-01T12%3A00%3A00Z"))
+                .andExpect(jsonPath("$._links.stock.href").value("http://localhost/api/v1/stocks/1"));
+    }
+
+    @Test
+    public void getCandles_whenNoParametersPassed_thenUseDefaultInterval() throws Exception {
+        long id = 1;
+
+        Mockito.when(stockService.findStockById(id)).thenReturn(creatStock());
+        Mockito.when(stockService.findCandles(id, CandleInterval.MINUTE, null, null)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/v1/stocks/{id}/candles", id))
+                .andExpect(status().isOk());
+
+        Mockito.verify(stockService, times(1)).findCandles(id, CandleInterval.MINUTE, null, null);
+    }
+
+    @Test
+    public void getCandles_whenInvalidIntervalPassed_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/stocks/{id}/candles", 1).param("interval", "5m"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(stockService);
+    }
+
+    @Test
+    public void getCandles_whenStockNotFound_thenReturnNotFound() throws Exception {
+        long id = 1;
+
+        Mockito.when(stockService.findStockById(id)).thenThrow(new StockNotFoundException(id));
+
+        mockMvc.perform(get("/api/v1/stocks/{id}/candles", id))
+                .andExpect(status().isNotFound());
+
+        Mockito.verify(stockService, times(0)).findCandles(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
     @Test
     public void createStock_whenCorrectParametersPassed_thenReturnResponseEntity() throws Exception {
         Stock stock = creatRequestStock();
@@ -151,6 +902,69 @@ class StockControllerTest {
         Mockito.verify(stockService, times(1)).createStock(stock);
     }
 
+    @Test
+    public void createStock_whenSmileSent_thenReturnSmile() throws Exception {
+        Stock stock = creatRequestStock();
+        StockRequestDto stockRequestDto = new StockRequestDto(stock.getName(), stock.getCurrentPrice());
+        Stock savedStock = creatStock();
+
+        Mockito.when(stockMapper.toEntity(stockRequestDto)).thenReturn(stock);
+        Mockito.when(stockService.createStock(stock)).thenReturn(savedStock);
+        Mockito.when(stockMapper.toModel(savedStock)).thenReturn(new StockResponseDto(savedStock.getId(), savedStock.getName(), savedStock.getCurrentPrice(), 0L, 0L));
+
+        MvcResult result = mockMvc.perform(post("/api/v1/stocks")
+                        .contentType(Constants.APPLICATION_SMILE_VALUE)
+                        .accept(Constants.APPLICATION_SMILE_VALUE)
+                        .content(SMILE_MAPPER.writeValueAsBytes(stockRequestDto))
+                )
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(Constants.APPLICATION_SMILE_VALUE))
+                .andReturn();
+
+        assertEquals(savedStock.getId(), SMILE_MAPPER.readTree(result.getResponse().getContentAsByteArray()).get("id").asLong());
+        Mockito.verify(stockService, times(1)).createStock(stock);
+    }
+
+    @Test
+    public void createStock_whenUnsupportedFormatSent_thenReturnUnsupportedMediaType() throws Exception {
+        mockMvc.perform(post("/api/v1/stocks")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<stock/>")
+                )
+                .andExpect(status().isUnsupportedMediaType());
+
+        Mockito.verifyNoInteractions(stockService);
+    }
+
+    @Test
+    public void createStock_whenNameTaken_thenReturnConflict() throws Exception {
+        Stock stock = creatRequestStock();
+
+        Mockito.when(stockMapper.toEntity(Mockito.any(StockRequestDto.class))).thenReturn(stock);
+        Mockito.when(stockService.createStock(stock)).thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint \"stocks_lower_name_idx\""));
+
+        mockMvc.perform(post("/api/v1/stocks")
+                        .content(objectMapper.writeValueAsString(new StockRequestDto(stock.getName(), stock.getCurrentPrice())))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.title").value("Conflict"));
+    }
+
+    @Test
+    public void createStock_whenOtherConstraintViolated_thenDoNotReturnConflict() throws Exception {
+        Stock stock = creatRequestStock();
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("null value in column \"current_price\" violates not-null constraint");
+
+        Mockito.when(stockMapper.toEntity(Mockito.any(StockRequestDto.class))).thenReturn(stock);
+        Mockito.when(stockService.createStock(stock)).thenThrow(violation);
+
+        ServletException thrown = assertThrows(ServletException.class, () -> mockMvc.perform(post("/api/v1/stocks")
+                .content(objectMapper.writeValueAsString(new StockRequestDto(stock.getName(), stock.getCurrentPrice())))
+                .contentType(MediaType.APPLICATION_JSON)));
+
+        assertEquals(violation, thrown.getCause());
+    }
+
     @Test
     public void createStock_whenIncorrectParametersPassed_thenReturnResponseEntity() throws Exception {
         Stock stock = creatRequestStock();
@@ -183,16 +997,236 @@ class StockControllerTest {
         );
 
         Mockito.when(stockMapper.toEntity(stockRequestDto)).thenReturn(stock);
-        Mockito.when(stockService.updateStock(id, stock)).thenReturn(updatedStock);
+        Mockito.when(stockService.updateStock(id, null, stock)).thenReturn(updatedStock);
         Mockito.when(stockMapper.toModel(updatedStock)).thenReturn(stockDto);
 
         mockMvc.perform(put("/api/v1/stocks/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsBytes(stockRequestDto))
                 )
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+
+        Mockito.verify(stockService, times(1)).updateStock(id, null, stock);
+    }
+
+    @Test
+    public void updateStock_whenIfMatchPassed_thenUpdateExpectedVersion() throws Exception {
+        long id = 2;
+        Stock stock = creatRequestStock();
+        StockRequestDto stockRequestDto = new StockRequestDto(stock.getName(), stock.getCurrentPrice());
+        Stock updatedStock = creatStock(id);
+        updatedStock.setVersion(8L);
+
+        Mockito.when(stockMapper.toEntity(stockRequestDto)).thenReturn(stock);
+        Mockito.when(stockService.updateStock(id, 7L, stock)).thenReturn(updatedStock);
+
+        mockMvc.perform(put("/api/v1/stocks/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(stockRequestDto))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"8\""));
+    }
+
+    @Test
+    public void updateStock_whenIfMatchOfCborRepresentationPassed_thenUpdateExpectedVersion() throws Exception {
+        long id = 2;
+        Stock stock = creatRequestStock();
+        StockRequestDto stockRequestDto = new StockRequestDto(stock.getName(), stock.getCurrentPrice());
+        Stock updatedStock = creatStock(id);
+        updatedStock.setVersion(8L);
+
+        Mockito.when(stockMapper.toEntity(stockRequestDto)).thenReturn(stock);
+        Mockito.when(stockService.updateStock(id, 7L, stock)).thenReturn(updatedStock);
+        Mockito.when(stockMapper.toModel(updatedStock)).thenReturn(new StockResponseDto());
 
-        Mockito.verify(stockService, times(1)).updateStock(id, stock);
+        mockMvc.perform(put("/api/v1/stocks/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"7-cbor\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(objectMapper.writeValueAsBytes(stockRequestDto))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"8-cbor\""));
+    }
+
+    @Test
+    public void updateStock_whenStockAtOtherVersion_thenReturnPreconditionFailed() throws Exception {
+        long id = 2;
+        Stock stock = creatRequestStock();
+        StockRequestDto stockRequestDto = new StockRequestDto(stock.getName(), stock.getCurrentPrice());
+
+        Mockito.when(stockMapper.toEntity(stockRequestDto)).thenReturn(stock);
+        Mockito.when(stockService.updateStock(id, 7L, stock)).thenThrow(new StockVersionMismatchException(id, 7L));
+
+        mockMvc.perform(put("/api/v1/stocks/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(stockRequestDto))
+                )
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.detail").value("Stock 2 is not at version 7"));
+    }
+
+    @Test
+    public void updateStock_whenInvalidIfMatchPassed_thenReturnBadRequest() throws Exception {
+        StockRequestDto stockRequestDto = new StockRequestDto("MSW", BigDecimal.TEN);
+
+        mockMvc.perform(put("/api/v1/stocks/{id}", 2)
+                        .header(HttpHeaders.IF_MATCH, "W/\"7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(stockRequestDto))
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void patchStock_whenPriceSent_thenReturnResponseEntity() throws Exception {
+        long id = 2;
+        StockPatchRequestDto stockPatchRequestDto = new StockPatchRequestDto(null, BigDecimal.TEN);
+        Stock stock = new Stock();
+        stock.setCurrentPrice(BigDecimal.TEN);
+        Stock updatedStock = creatStock(id);
+
+        Mockito.when(stockMapper.toEntity(stockPatchRequestDto)).thenReturn(stock);
+        Mockito.when(stockService.patchStock(id, 3L, stock)).thenReturn(updatedStock);
+
+        mockMvc.perform(patch("/api/v1/stocks/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(stockPatchRequestDto))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+
+        Mockito.verify(stockService, times(1)).patchStock(id, 3L, stock);
+    }
+
+    @Test
+    public void patchStock_whenNoFieldSent_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/v1/stocks/{id}", 2)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}")
+                )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("[Stock name or price is required]"));
+
+        Mockito.verifyNoInteractions(stockService);
+    }
+
+    @Test
+    public void updateStockPrice_whenPriceSent_thenReturnAcceptedWithoutLookingUpStock() throws Exception {
+        mockMvc.perform(put("/api/v1/stocks/{id}/price", 2)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(new StockPriceRequestDto(BigDecimal.TEN)))
+                )
+                .andExpect(status().isAccepted())
+                .andExpect(content().string(""));
+
+        Mockito.verify(stockPriceBuffer, times(1)).put(2, BigDecimal.TEN);
+        Mockito.verifyNoInteractions(stockService);
+    }
+
+    @Test
+    public void updateStockPrice_whenNoPriceSent_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(put("/api/v1/stocks/{id}/price", 2)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}")
+                )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("[Stock price is required]"));
+
+        Mockito.verifyNoInteractions(stockPriceBuffer);
+    }
+
+    @Test
+    public void updateStockPrice_whenBufferFull_thenReturnServiceUnavailableWithRetryAfter() throws Exception {
+        Mockito.when(stockPriceBuffer.put(2, BigDecimal.TEN)).thenThrow(new StockPriceBufferFullException(100000, Duration.ofSeconds(2)));
+
+        mockMvc.perform(put("/api/v1/stocks/{id}/price", 2)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(new StockPriceRequestDto(BigDecimal.TEN)))
+                )
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(jsonPath("$.detail").value("Prices of 100000 stocks are waiting to be written, retry later"));
+    }
+
+    @Test
+    public void createStocks_whenValidAndInvalidItemsPassed_thenReturnPerItemResults() throws Exception {
+        Stock stock = creatRequestStock();
+        StockRequestDto validStockRequestDto = new StockRequestDto(stock.getName(), stock.getCurrentPrice());
+        StockRequestDto invalidStockRequestDto = new StockRequestDto(null, stock.getCurrentPrice());
+        Stock savedStock = creatStock();
+
+        Mockito.when(stockMapper.toEntity(validStockRequestDto)).thenReturn(stock);
+        Mockito.when(stockService.createStocks(List.of(stock))).thenReturn(List.of(savedStock));
+
+        mockMvc.perform(post("/api/v1/stocks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(List.of(invalidStockRequestDto, validStockRequestDto)))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].status").value(400))
+                .andExpect(jsonPath("$.results[0].errors[0]").value("Stock name is required"))
+                .andExpect(jsonPath("$.results[1].status").value(201));
+
+        Mockito.verify(stockService, times(1)).createStocks(List.of(stock));
+    }
+
+    @Test
+    public void createStocks_whenOnlyInvalidItemsPassed_thenDoNotCallService() throws Exception {
+        StockRequestDto invalidStockRequestDto = new StockRequestDto("MSW", null);
+
+        mockMvc.perform(post("/api/v1/stocks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(List.of(invalidStockRequestDto)))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.failed").value(1));
+
+        Mockito.verify(stockService, Mockito.never()).createStocks(Mockito.any());
+    }
+
+    @Test
+    public void createStocks_whenEmptyBatchPassed_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/stocks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]")
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void updateStocks_whenExistingMissingAndDuplicateItemsPassed_thenReturnPerItemResults() throws Exception {
+        Stock stock = creatRequestStock();
+        StockBatchUpdateRequestDto existingStockRequestDto = new StockBatchUpdateRequestDto(1L, stock.getName(), stock.getCurrentPrice());
+        StockBatchUpdateRequestDto missingStockRequestDto = new StockBatchUpdateRequestDto(2L, stock.getName(), stock.getCurrentPrice());
+        StockBatchUpdateRequestDto duplicateStockRequestDto = new StockBatchUpdateRequestDto(1L, stock.getName(), stock.getCurrentPrice());
+        StockBatchUpdateRequestDto invalidStockRequestDto = new StockBatchUpdateRequestDto(null, stock.getName(), stock.getCurrentPrice());
+        Stock updatedStock = creatStock(1L);
+
+        Mockito.when(stockMapper.toEntity(Mockito.any(StockRequestDto.class))).thenReturn(stock);
+        Mockito.when(stockService.updateStocks(Map.of(1L, stock, 2L, stock))).thenReturn(Map.of(1L, updatedStock));
+
+        mockMvc.perform(put("/api/v1/stocks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(List.of(existingStockRequestDto, missingStockRequestDto, duplicateStockRequestDto, invalidStockRequestDto)))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.results[0].status").value(200))
+                .andExpect(jsonPath("$.results[1].status").value(404))
+                .andExpect(jsonPath("$.results[1].errors[0]").value("Stock 2 not found"))
+                .andExpect(jsonPath("$.results[2].status").value(400))
+                .andExpect(jsonPath("$.results[3].status").value(400));
+
+        Mockito.verify(stockService, times(1)).updateStocks(Map.of(1L, stock, 2L, stock));
     }
 
     @Test
@@ -204,4 +1238,44 @@ class StockControllerTest {
 
         Mockito.verify(stockService, times(1)).deleteStock(id);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void deleteStocks_whenIdsPassed_thenReturnDeletedCount() throws Exception {
+        Mockito.when(stockService.deleteStocks(Set.of(1L, 2L, 3L))).thenReturn(2);
+
+        mockMvc.perform(delete("/api/v1/stocks?ids=1,2,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+
+        Mockito.verify(stockService, times(1)).deleteStocks(Set.of(1L, 2L, 3L));
+    }
+
+    @Test
+    public void deleteStocksUpdatedBefore_whenTimePassed_thenReturnDeletedCount() throws Exception {
+        Instant updatedBefore = Instant.parse("2023-03-01T00:00:00Z");
+
+        Mockito.when(stockService.deleteStocksUpdatedBefore(updatedBefore)).thenReturn(5);
+
+        mockMvc.perform(delete("/api/v1/stocks?updatedBefore={updatedBefore}", updatedBefore))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(5));
+    }
+
+    @Test
+    public void deleteStocksUpdatedBefore_whenInvalidTimePassed_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(delete("/api/v1/stocks?updatedBefore=yesterday"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(stockService);
+    }
+
+    private static StockResponseDto stockResponseDto(Stock stock) {
+        return new StockResponseDto(
+                stock.getId(),
+                stock.getName(),
+                stock.getCurrentPrice(),
+                stock.getCreatedAt().getTime(),
+                stock.getLastUpdate().getTime()
+        );
+    }
+}
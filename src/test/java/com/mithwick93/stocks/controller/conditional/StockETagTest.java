@@ -0,0 +1,72 @@
+package com.mithwick93.stocks.controller.conditional;
+
+import com.mithwick93.stocks.dal.repository.StocksVersion;
+import com.mithwick93.stocks.modal.Stock;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.sql.Timestamp;
+
+import static com.mithwick93.stocks.core.TestUtils.creatStock;
+import static com.mithwick93.stocks.core.TestUtils.creatStocksVersion;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StockETagTest {
+
+    @Test
+    public void of_whenStockPassed_thenReturnQuotedVersion() {
+        Stock stock = creatStock();
+        stock.setVersion(42L);
+
+        assertEquals("\"42\"", StockETag.of(stock));
+    }
+
+    @Test
+    public void of_whenStocksVersionPassed_thenReturnQuotedCountVersionSumAndLastUpdate() {
+        StocksVersion stocksVersion = creatStocksVersion(12, 40, new Timestamp(67890));
+
+        assertEquals("\"12-40-67890\"", StockETag.of(stocksVersion));
+        assertEquals(67890, StockETag.lastModified(stocksVersion));
+    }
+
+    @Test
+    public void of_whenRepresentationOtherThanJsonPassed_thenAppendMediaSubtype() {
+        Stock stock = creatStock();
+        stock.setVersion(42L);
+        StocksVersion stocksVersion = creatStocksVersion(12, 40, new Timestamp(67890));
+
+        assertEquals("\"42\"", StockETag.of(stock, MediaType.APPLICATION_JSON));
+        assertEquals("\"42-cbor\"", StockETag.of(stock, MediaType.APPLICATION_CBOR));
+        assertEquals("\"12-40-67890-vnd.stocks.lite+json\"", StockETag.of(stocksVersion, MediaType.valueOf("application/vnd.stocks.lite+json")));
+    }
+
+    @Test
+    public void lastModified_whenNoStocks_thenReturnMinusOne() {
+        assertEquals(-1, StockETag.lastModified(creatStocksVersion(0, 0, null)));
+    }
+
+    @Test
+    public void parseIfMatch_whenEntityTagPassed_thenReturnVersion() {
+        assertEquals(42L, StockETag.parseIfMatch(" \"42\" "));
+        assertEquals(42L, StockETag.parseIfMatch("\"42-x-jackson-smile\""));
+    }
+
+    @Test
+    public void parseIfMatch_whenHeaderMissingOrAny_thenReturnNull() {
+        assertNull(StockETag.parseIfMatch(null));
+        assertNull(StockETag.parseIfMatch(" "));
+        assertNull(StockETag.parseIfMatch("*"));
+    }
+
+    @Test
+    public void parseIfMatch_whenWeakOrInvalidEntityTagPassed_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> StockETag.parseIfMatch("W/\"42\""));
+        assertThrows(IllegalArgumentException.class, () -> StockETag.parseIfMatch("42"));
+        assertThrows(IllegalArgumentException.class, () -> StockETag.parseIfMatch("\"\""));
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> StockETag.parseIfMatch("\"abc\""));
+
+        assertEquals("Invalid If-Match header: \"abc\"", thrown.getMessage());
+    }
+}
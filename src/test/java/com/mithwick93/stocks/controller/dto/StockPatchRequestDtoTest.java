@@ -0,0 +1,54 @@
+package com.mithwick93.stocks.controller.dto;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockPatchRequestDtoTest {
+    private Validator validator;
+
+    @BeforeEach
+    public void setUp() {
+        ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+    }
+
+    @Test
+    public void stockPatchRequestDto_whenNoFieldSent_thenThrowError() {
+        StockPatchRequestDto stockPatchRequestDto = new StockPatchRequestDto(null, null);
+
+        Set<ConstraintViolation<StockPatchRequestDto>> violations = validator.validate(stockPatchRequestDto);
+        assertFalse(violations.isEmpty());
+    }
+
+    @Test
+    public void name_whenEmpty_thenThrowError() {
+        StockPatchRequestDto stockPatchRequestDto = new StockPatchRequestDto("", null);
+
+        Set<ConstraintViolation<StockPatchRequestDto>> violations = validator.validate(stockPatchRequestDto);
+        assertFalse(violations.isEmpty());
+    }
+
+    @Test
+    public void currentPrice_whenNegative_thenThrowError() {
+        StockPatchRequestDto stockPatchRequestDto = new StockPatchRequestDto(null, BigDecimal.valueOf(-1));
+
+        Set<ConstraintViolation<StockPatchRequestDto>> violations = validator.validate(stockPatchRequestDto);
+        assertFalse(violations.isEmpty());
+    }
+
+    @Test
+    public void stockPatchRequestDto_whenOnlyOneValidFieldSent_thenNoErrors() {
+        assertTrue(validator.validate(new StockPatchRequestDto("MSW", null)).isEmpty());
+        assertTrue(validator.validate(new StockPatchRequestDto(null, BigDecimal.TEN)).isEmpty());
+    }
+}
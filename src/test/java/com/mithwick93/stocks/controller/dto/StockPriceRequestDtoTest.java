@@ -0,0 +1,53 @@
+package com.mithwick93.stocks.controller.dto;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockPriceRequestDtoTest {
+    private Validator validator;
+
+    @BeforeEach
+    public void setUp() {
+        ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+    }
+
+    @Test
+    public void currentPrice_whenNull_thenThrowError() {
+        StockPriceRequestDto stockPriceRequestDto = new StockPriceRequestDto(null);
+
+        Set<ConstraintViolation<StockPriceRequestDto>> violations = validator.validate(stockPriceRequestDto);
+        assertFalse(violations.isEmpty());
+    }
+
+    @Test
+    public void currentPrice_whenNegative_thenThrowError() {
+        StockPriceRequestDto stockPriceRequestDto = new StockPriceRequestDto(BigDecimal.valueOf(-1));
+
+        Set<ConstraintViolation<StockPriceRequestDto>> violations = validator.validate(stockPriceRequestDto);
+        assertFalse(violations.isEmpty());
+    }
+
+    @Test
+    public void currentPrice_whenMoreThanFourDecimals_thenThrowError() {
+        StockPriceRequestDto stockPriceRequestDto = new StockPriceRequestDto(new BigDecimal("1.23456"));
+
+        Set<ConstraintViolation<StockPriceRequestDto>> violations = validator.validate(stockPriceRequestDto);
+        assertFalse(violations.isEmpty());
+    }
+
+    @Test
+    public void currentPrice_whenPositive_thenNoErrors() {
+        assertTrue(validator.validate(new StockPriceRequestDto(new BigDecimal("12.3456"))).isEmpty());
+    }
+}
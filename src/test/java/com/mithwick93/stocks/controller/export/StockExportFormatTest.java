@@ -0,0 +1,23 @@
+package com.mithwick93.stocks.controller.export;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StockExportFormatTest {
+
+    @Test
+    public void negotiate_whenCsvAccepted_thenReturnCsv() {
+        assertEquals(StockExportFormat.CSV, StockExportFormat.negotiate("text/csv"));
+    }
+
+    @Test
+    public void negotiate_whenNdjsonPreferred_thenReturnNdjson() {
+        assertEquals(StockExportFormat.NDJSON, StockExportFormat.negotiate("text/csv;q=0.5, application/x-ndjson"));
+    }
+
+    @Test
+    public void negotiate_whenWildcardAccepted_thenReturnNdjson() {
+        assertEquals(StockExportFormat.NDJSON, StockExportFormat.negotiate("*/*"));
+    }
+}
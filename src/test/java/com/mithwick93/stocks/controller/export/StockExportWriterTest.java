@@ -0,0 +1,52 @@
+package com.mithwick93.stocks.controller.export;
+
+import com.mithwick93.stocks.modal.Stock;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static com.mithwick93.stocks.core.TestUtils.creatStock;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StockExportWriterTest {
+
+    @Test
+    public void write_whenNdjsonFormat_thenWriteOneJsonObjectPerLine() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        String expectedResult = "{\"id\":1,\"name\":\"MSW\",\"currentPrice\":12.4,\"createdAt\":12345,\"lastUpdate\":67890}\n"
+                + "{\"id\":2,\"name\":\"MSW\",\"currentPrice\":12.4,\"createdAt\":12345,\"lastUpdate\":67890}\n";
+
+        try (StockExportWriter stockExportWriter = StockExportWriter.of(StockExportFormat.NDJSON, outputStream)) {
+            stockExportWriter.write(creatStock(1L));
+            stockExportWriter.write(creatStock(2L));
+        }
+
+        assertEquals(expectedResult, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void write_whenCsvFormat_thenWriteHeaderAndEscapedRows() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Stock stock = creatStock(3L);
+        stock.setName("M\"S,W");
+        String expectedResult = "id,name,currentPrice,createdAt,lastUpdate\n"
+                + "3,\"M\"\"S,W\",12.4,12345,67890\n";
+
+        try (StockExportWriter stockExportWriter = StockExportWriter.of(StockExportFormat.CSV, outputStream)) {
+            stockExportWriter.write(stock);
+        }
+
+        assertEquals(expectedResult, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void close_whenCsvFormatWithoutStocks_thenWriteHeaderOnly() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        StockExportWriter.of(StockExportFormat.CSV, outputStream).close();
+
+        assertEquals("id,name,currentPrice,createdAt,lastUpdate\n", outputStream.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,59 @@
+package com.mithwick93.stocks.controller.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ClientRateLimitFilterTest {
+    private final ClientRateLimitFilter clientRateLimitFilter = new ClientRateLimitFilter(
+            new ClientRateLimiter(clientRateLimit(), new SimpleMeterRegistry(), () -> 0L),
+            "X-Client-Id",
+            new ObjectMapper()
+    );
+
+    @Test
+    public void doFilter_whenClientOutOfTokens_thenRejectWithTooManyRequests() throws Exception {
+        assertEquals(200, filter("client", "10.0.0.1").getStatus());
+
+        MockHttpServletResponse response = filter("client", "10.0.0.2");
+
+        assertEquals(429, response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(200, filter("other", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    public void doFilter_whenClientHeaderMissing_thenIdentifyClientByRemoteAddress() throws Exception {
+        assertNull(filter(null, "10.0.0.1").getHeader(HttpHeaders.RETRY_AFTER));
+
+        assertEquals(429, filter(null, "10.0.0.1").getStatus());
+        assertEquals(200, filter(null, "10.0.0.2").getStatus());
+    }
+
+    private MockHttpServletResponse filter(String client, String remoteAddress) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/stocks");
+        request.setRemoteAddr(remoteAddress);
+        if (client != null) {
+            request.addHeader("X-Client-Id", client);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        clientRateLimitFilter.doFilter(request, response, new MockFilterChain());
+
+        return response;
+    }
+
+    private static ConcurrencyLimitProperties.ClientRateLimit clientRateLimit() {
+        ConcurrencyLimitProperties.ClientRateLimit clientRateLimit = new ConcurrencyLimitProperties.ClientRateLimit();
+        clientRateLimit.setRequestsPerSecond(0.5);
+        clientRateLimit.setBurst(1);
+
+        return clientRateLimit;
+    }
+}
@@ -0,0 +1,61 @@
+package com.mithwick93.stocks.controller.limit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClientRateLimiterTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    public void tryAcquire_whenBurstUsed_thenReturnWaitUntilNextToken() {
+        ClientRateLimiter clientRateLimiter = clientRateLimiter(2, 2);
+
+        assertEquals(Duration.ZERO, clientRateLimiter.tryAcquire("client"));
+        assertEquals(Duration.ZERO, clientRateLimiter.tryAcquire("client"));
+        assertEquals(Duration.ofMillis(500), clientRateLimiter.tryAcquire("client"));
+        assertEquals(1, meterRegistry.counter("stocks.client.throttled").count());
+    }
+
+    @Test
+    public void tryAcquire_whenTimePassed_thenRefillTokensUpToBurst() {
+        ClientRateLimiter clientRateLimiter = clientRateLimiter(2, 2);
+        clientRateLimiter.tryAcquire("client");
+        clientRateLimiter.tryAcquire("client");
+
+        nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertEquals(Duration.ZERO, clientRateLimiter.tryAcquire("client"));
+        assertEquals(Duration.ZERO, clientRateLimiter.tryAcquire("client"));
+        assertEquals(Duration.ofMillis(500), clientRateLimiter.tryAcquire("client"));
+    }
+
+    @Test
+    public void tryAcquire_whenOtherClientThrottled_thenAllowRequest() {
+        ClientRateLimiter clientRateLimiter = clientRateLimiter(1, 1);
+        clientRateLimiter.tryAcquire("client");
+
+        assertEquals(Duration.ofSeconds(1), clientRateLimiter.tryAcquire("client"));
+        assertEquals(Duration.ZERO, clientRateLimiter.tryAcquire("other"));
+    }
+
+    @Test
+    public void constructor_whenRateNotPositive_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> clientRateLimiter(0, 1));
+    }
+
+    private ClientRateLimiter clientRateLimiter(double requestsPerSecond, int burst) {
+        ConcurrencyLimitProperties.ClientRateLimit clientRateLimit = new ConcurrencyLimitProperties.ClientRateLimit();
+        clientRateLimit.setRequestsPerSecond(requestsPerSecond);
+        clientRateLimit.setBurst(burst);
+
+        return new ClientRateLimiter(clientRateLimit, meterRegistry, nanoTime::get);
+    }
+}
@@ -0,0 +1,121 @@
+package com.mithwick93.stocks.controller.limit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConcurrencyLimitFilterTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitFilter concurrencyLimitFilter = new ConcurrencyLimitFilter(
+            new ConcurrencyLimiter(ConcurrencyLimitFilter.READ_GROUP, new GradientLimit(1, 1, 1, 1.5, 0.2), meterRegistry),
+            new ConcurrencyLimiter(ConcurrencyLimitFilter.WRITE_GROUP, new GradientLimit(1, 1, 1, 1.5, 0.2), meterRegistry),
+            Duration.ofMillis(1500),
+            OBJECT_MAPPER
+    );
+
+    @Test
+    public void doFilter_whenLimitReached_thenRejectWithServiceUnavailableProblem() throws Exception {
+        MockHttpServletResponse rejectedResponse = new MockHttpServletResponse();
+
+        concurrencyLimitFilter.doFilter(
+                new MockHttpServletRequest("GET", "/api/v1/stocks/1"),
+                new MockHttpServletResponse(),
+                (request, response) -> concurrencyLimitFilter.doFilter(new MockHttpServletRequest("GET", "/api/v1/stocks/2"), rejectedResponse, new MockFilterChain())
+        );
+
+        assertEquals(503, rejectedResponse.getStatus());
+        assertEquals("2", rejectedResponse.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(MediaType.APPLICATION_PROBLEM_JSON_VALUE, rejectedResponse.getContentType());
+        JsonNode problemDetail = OBJECT_MAPPER.readTree(rejectedResponse.getContentAsByteArray());
+        assertEquals(503, problemDetail.get("status").asInt());
+        assertEquals("Service Unavailable", problemDetail.get("title").asText());
+        assertEquals("/api/v1/stocks/2", problemDetail.get("instance").asText());
+        assertEquals(1, meterRegistry.get("stocks.concurrency.rejected").tag("group", "read").counter().count());
+    }
+
+    @Test
+    public void doFilter_whenReadLimitReached_thenAdmitWrite() throws Exception {
+        AtomicReference<Integer> writeStatus = new AtomicReference<>();
+
+        concurrencyLimitFilter.doFilter(
+                new MockHttpServletRequest("GET", "/api/v1/stocks"),
+                new MockHttpServletResponse(),
+                (request, response) -> writeStatus.set(filter("POST", "/api/v1/stocks", new MockFilterChain()).getStatus())
+        );
+
+        assertEquals(200, writeStatus.get());
+    }
+
+    @Test
+    public void doFilter_whenStreamRequested_thenDoNotLimit() throws Exception {
+        AtomicReference<Integer> streamStatus = new AtomicReference<>();
+
+        concurrencyLimitFilter.doFilter(
+                new MockHttpServletRequest("GET", "/api/v1/stocks"),
+                new MockHttpServletResponse(),
+                (request, response) -> streamStatus.set(filter("GET", "/api/v1/stocks/stream", new MockFilterChain()).getStatus())
+        );
+
+        assertEquals(200, streamStatus.get());
+    }
+
+    @Test
+    public void doFilter_whenActuatorRequested_thenDoNotLimit() throws Exception {
+        AtomicReference<Integer> healthStatus = new AtomicReference<>();
+        AtomicReference<Integer> prometheusStatus = new AtomicReference<>();
+
+        concurrencyLimitFilter.doFilter(
+                new MockHttpServletRequest("GET", "/api/v1/stocks"),
+                new MockHttpServletResponse(),
+                (request, response) -> {
+                    healthStatus.set(filter("GET", "/actuator/health", new MockFilterChain()).getStatus());
+                    prometheusStatus.set(filter("GET", "/actuator/prometheus", new MockFilterChain()).getStatus());
+                }
+        );
+
+        assertEquals(200, healthStatus.get());
+        assertEquals(200, prometheusStatus.get());
+        assertEquals(0, meterRegistry.get("stocks.concurrency.rejected").tag("group", "read").counter().count());
+    }
+
+    @Test
+    public void doFilter_whenRequestFinished_thenReleaseSlotEvenOnException() throws Exception {
+        FilterChain failingChain = (request, response) -> {
+            throw new IllegalStateException("failed");
+        };
+
+        try {
+            filter("GET", "/api/v1/stocks/1", failingChain);
+        } catch (IllegalStateException ignored) {
+            // Expected, the slot must be released anyway.
+        }
+
+        assertEquals(200, filter("GET", "/api/v1/stocks/1", new MockFilterChain()).getStatus());
+        assertEquals(0, meterRegistry.get("stocks.concurrency.in.flight").tag("group", "read").gauge().value());
+        assertEquals(1, meterRegistry.get("stocks.concurrency.limit").tag("group", "read").gauge().value());
+    }
+
+    private MockHttpServletResponse filter(String method, String uri, FilterChain filterChain) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        concurrencyLimitFilter.doFilter(new MockHttpServletRequest(method, uri), response, filterChain);
+
+        return response;
+    }
+}
@@ -0,0 +1,86 @@
+package com.mithwick93.stocks.controller.limit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientLimitTest {
+    private static final long FAST = 1_000_000L;
+    private static final long SLOW = 10_000_000L;
+
+    @Test
+    public void onSample_whenLatencyStableAndLimitUsed_thenGrowLimit() {
+        GradientLimit gradientLimit = new GradientLimit(20, 5, 200, 1.5, 0.2);
+
+        sample(gradientLimit, FAST, 20);
+
+        assertTrue(gradientLimit.getLimit() > 20);
+    }
+
+    @Test
+    public void onSample_whenLatencyStableAndLimitUsed_thenStopAtMaxLimit() {
+        GradientLimit gradientLimit = new GradientLimit(20, 5, 25, 1.5, 0.2);
+
+        sample(gradientLimit, FAST, 100);
+
+        assertEquals(25, gradientLimit.getLimit());
+    }
+
+    @Test
+    public void onSample_whenLimitNotUsed_thenKeepLimit() {
+        GradientLimit gradientLimit = new GradientLimit(20, 5, 200, 1.5, 0.2);
+
+        for (int i = 0; i < 20; i++) {
+            gradientLimit.onSample(FAST, 9);
+        }
+
+        assertEquals(20, gradientLimit.getLimit());
+    }
+
+    @Test
+    public void onSample_whenLatencyRises_thenShrinkLimitDownToMinLimit() {
+        GradientLimit gradientLimit = new GradientLimit(20, 5, 200, 1.5, 0.2);
+        sample(gradientLimit, FAST, 5);
+        int healthyLimit = gradientLimit.getLimit();
+
+        gradientLimit.onSample(SLOW, healthyLimit);
+
+        assertTrue(gradientLimit.getLimit() < healthyLimit);
+
+        sample(gradientLimit, SLOW, 100);
+
+        assertEquals(5, gradientLimit.getLimit());
+    }
+
+    @Test
+    public void onSample_whenLatencyRecovers_thenGrowLimitAgain() {
+        GradientLimit gradientLimit = new GradientLimit(20, 5, 200, 1.5, 0.2);
+        sample(gradientLimit, FAST, 5);
+        sample(gradientLimit, SLOW, 100);
+
+        sample(gradientLimit, FAST, 20);
+
+        assertTrue(gradientLimit.getLimit() > 5);
+    }
+
+    @Test
+    public void constructor_whenInitialLimitBelowMinLimit_thenThrowIllegalArgumentException() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> new GradientLimit(4, 5, 200, 1.5, 0.2));
+
+        assertEquals("Limits must satisfy 1 <= min <= initial <= max, got 5, 4 and 200", exception.getMessage());
+    }
+
+    @Test
+    public void constructor_whenSmoothingOutOfRange_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new GradientLimit(20, 5, 200, 1.5, 0));
+        assertThrows(IllegalArgumentException.class, () -> new GradientLimit(20, 5, 200, 0.5, 0.2));
+    }
+
+    private static void sample(GradientLimit gradientLimit, long latencyNanos, int samples) {
+        for (int i = 0; i < samples; i++) {
+            gradientLimit.onSample(latencyNanos, gradientLimit.getLimit());
+        }
+    }
+}
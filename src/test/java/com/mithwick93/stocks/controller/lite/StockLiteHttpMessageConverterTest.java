@@ -0,0 +1,68 @@
+package com.mithwick93.stocks.controller.lite;
+
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockField;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.List;
+
+import static com.mithwick93.stocks.core.TestUtils.creatStock;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockLiteHttpMessageConverterTest {
+
+    private final StockLiteHttpMessageConverter stockLiteHttpMessageConverter = new StockLiteHttpMessageConverter();
+
+    @Test
+    public void write_whenPageOfAllFields_thenWriteTotalAndFlatStocks() throws IOException {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        StockLitePage stockLitePage = new StockLitePage(
+                new PageImpl<>(List.of(creatStock(1L), creatStock(2L)), PageRequest.of(0, 2), 5),
+                StockField.ALL
+        );
+        String expectedResult = "{\"page\":0,\"size\":2,\"hasNext\":true,\"totalElements\":5,\"stocks\":["
+                + "{\"id\":1,\"name\":\"MSW\",\"currentPrice\":12.4,\"createdAt\":12345,\"lastUpdate\":67890},"
+                + "{\"id\":2,\"name\":\"MSW\",\"currentPrice\":12.4,\"createdAt\":12345,\"lastUpdate\":67890}]}";
+
+        stockLiteHttpMessageConverter.write(stockLitePage, StockLiteHttpMessageConverter.APPLICATION_STOCKS_LITE, outputMessage);
+
+        assertEquals(expectedResult, outputMessage.getBodyAsString(StandardCharsets.UTF_8));
+        assertEquals(StockLiteHttpMessageConverter.APPLICATION_STOCKS_LITE, outputMessage.getHeaders().getContentType());
+    }
+
+    @Test
+    public void write_whenSliceOfSomeFields_thenWriteOnlyThoseFieldsWithoutTotal() throws IOException {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        Stock stock = new Stock();
+        stock.setId(3L);
+        stock.setCurrentPrice(creatStock().getCurrentPrice());
+        StockLitePage stockLitePage = new StockLitePage(
+                new SliceImpl<>(List.of(stock), PageRequest.of(1, 1), false),
+                EnumSet.of(StockField.CURRENT_PRICE, StockField.ID)
+        );
+
+        stockLiteHttpMessageConverter.write(stockLitePage, StockLiteHttpMessageConverter.APPLICATION_STOCKS_LITE, outputMessage);
+
+        assertEquals(
+                "{\"page\":1,\"size\":1,\"hasNext\":false,\"stocks\":[{\"id\":3,\"currentPrice\":12.4}]}",
+                outputMessage.getBodyAsString(StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    public void canWrite_whenJsonRequested_thenOnlyWriteLiteMediaType() {
+        assertTrue(stockLiteHttpMessageConverter.canWrite(StockLitePage.class, StockLiteHttpMessageConverter.APPLICATION_STOCKS_LITE));
+        assertFalse(stockLiteHttpMessageConverter.canWrite(StockLitePage.class, MediaType.APPLICATION_JSON));
+        assertFalse(stockLiteHttpMessageConverter.canRead(StockLitePage.class, StockLiteHttpMessageConverter.APPLICATION_STOCKS_LITE));
+    }
+}
@@ -0,0 +1,125 @@
+package com.mithwick93.stocks.controller.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mithwick93.stocks.Constants;
+import com.mithwick93.stocks.controller.StockController;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.EvoInflectorLinkRelationProvider;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.ForwardedHeaderFilter;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class StockLinksTest {
+    private ObjectMapper halObjectMapper;
+    private StockLinks stockLinks;
+
+    @BeforeEach
+    public void init() {
+        halObjectMapper = new ObjectMapper();
+        halObjectMapper.registerModule(new Jackson2HalModule());
+        halObjectMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(new EvoInflectorLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        stockLinks = new StockLinks();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void stock_whenNoRequestBound_thenReturnSameLinkAsLinkTo() throws Exception {
+        assertLinksMatchLinkTo(42L);
+    }
+
+    @Test
+    public void stock_whenRequestBound_thenReturnSameLinkAsLinkTo() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/stocks");
+        bind(request);
+
+        assertLinksMatchLinkTo(42L);
+        assertEquals("http://localhost/api/v1/stocks/42", stockLinks.stock(42L).getHref());
+    }
+
+    @Test
+    public void stock_whenRequestHasContextPathAndPort_thenReturnSameLinkAsLinkTo() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/api/v1/stocks");
+        request.setScheme("https");
+        request.setServerName("stocks.example.com");
+        request.setServerPort(8443);
+        request.setContextPath("/app");
+        bind(request);
+
+        assertLinksMatchLinkTo(7L);
+        assertEquals("https://stocks.example.com:8443/app/api/v1/stocks/7", stockLinks.stock(7L).getHref());
+    }
+
+    @Test
+    public void stock_whenForwardedHeadersApplied_thenReturnSameLinkAsLinkTo() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/stocks");
+        request.addHeader("X-Forwarded-Proto", "https");
+        request.addHeader("X-Forwarded-Host", "api.example.com");
+        request.addHeader("X-Forwarded-Port", "443");
+        request.addHeader("X-Forwarded-Prefix", "/stocks-app");
+        bind(applyForwardedHeaders(request));
+
+        assertLinksMatchLinkTo(-3L);
+        assertEquals("https://api.example.com/stocks-app/api/v1/stocks/-3", stockLinks.stock(-3L).getHref());
+        assertEquals("https://api.example.com/stocks-app/api/v1/stocks?page=0&size=10", stockLinks.stocks().getHref());
+    }
+
+    @Test
+    public void stocks_whenCalledTwiceInSameRequest_thenReturnCachedLink() {
+        bind(new MockHttpServletRequest("GET", "/api/v1/stocks"));
+
+        assertSame(stockLinks.stocks(), stockLinks.stocks());
+    }
+
+    private void assertLinksMatchLinkTo(long id) throws JsonProcessingException {
+        Link expectedSelf = linkTo(methodOn(StockController.class).getStockById(id, null)).withSelfRel();
+        Link expectedStocks = linkTo(methodOn(StockController.class).getStocks(Integer.parseInt(Constants.DEFAULT_PAGE_NUMBER), Integer.parseInt(Constants.DEFAULT_PAGE_SIZE), null, null, null, null, null, null, null, null)).withRel(StockLinks.STOCKS_REL).expand();
+
+        assertEquals(toHal(expectedSelf, expectedStocks), toHal(stockLinks.stock(id), stockLinks.stocks()));
+    }
+
+    private String toHal(Link... links) throws JsonProcessingException {
+        return halObjectMapper.writeValueAsString(new RepresentationModel<>(List.of(links)));
+    }
+
+    private static void bind(HttpServletRequest request) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static HttpServletRequest applyForwardedHeaders(MockHttpServletRequest request) throws Exception {
+        AtomicReference<ServletRequest> forwardedRequest = new AtomicReference<>();
+        new ForwardedHeaderFilter().doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                forwardedRequest.set(request);
+            }
+        });
+
+        return (HttpServletRequest) forwardedRequest.get();
+    }
+}
@@ -1,15 +1,23 @@
 package com.mithwick93.stocks.controller.mapper;
 
+import com.mithwick93.stocks.controller.dto.StockCandleDto;
+import com.mithwick93.stocks.controller.dto.StockPatchRequestDto;
 import com.mithwick93.stocks.controller.dto.StockRequestDto;
 import com.mithwick93.stocks.controller.dto.StockResponseDto;
 import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockCandle;
+import com.mithwick93.stocks.modal.StockField;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.EnumSet;
 
+import static com.mithwick93.stocks.core.TestUtils.creatStockCandle;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 class StockMapperTest {
     private StockMapper stockMapper;
@@ -40,6 +48,22 @@ class StockMapperTest {
         assertEquals(expectedStockResponseDto, resultStockResponseDto);
     }
 
+    @Test
+    public void toModel_whenFieldsPassed_thenReturnOnlyThoseFieldsWithoutLinks() {
+        Stock inputStock = new Stock();
+        inputStock.setId(1L);
+        inputStock.setCurrentPrice(BigDecimal.valueOf(12.4));
+
+        StockResponseDto expectedStockResponseDto = new StockResponseDto();
+        expectedStockResponseDto.setId(inputStock.getId());
+        expectedStockResponseDto.setCurrentPrice(inputStock.getCurrentPrice());
+
+        StockResponseDto resultStockResponseDto = stockMapper.toModel(inputStock, EnumSet.of(StockField.ID, StockField.CURRENT_PRICE));
+
+        assertEquals(expectedStockResponseDto, resultStockResponseDto);
+        assertFalse(resultStockResponseDto.hasLinks());
+    }
+
     @Test
     public void toEntity_whenStockRequestDtoPassed_thenReturnCorrectStock() {
         StockRequestDto inputStockRequestDto = new StockRequestDto();
@@ -54,4 +78,27 @@ class StockMapperTest {
 
         assertEquals(expectedStock, resultStock);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void toEntity_whenStockPatchRequestDtoPassed_thenReturnStockWithOnlySentFields() {
+        StockPatchRequestDto inputStockPatchRequestDto = new StockPatchRequestDto(null, BigDecimal.valueOf(1045.6));
+
+        Stock expectedStock = new Stock();
+        expectedStock.setCurrentPrice(inputStockPatchRequestDto.getCurrentPrice());
+
+        Stock resultStock = stockMapper.toEntity(inputStockPatchRequestDto);
+
+        assertEquals(expectedStock, resultStock);
+    }
+
+    @Test
+    public void toCandleDto_whenStockCandlePassed_thenReturnCorrectStockCandleDto() {
+        StockCandle stockCandle = creatStockCandle(Instant.ofEpochMilli(60000));
+
+        StockCandleDto expectedStockCandleDto = new StockCandleDto(60000, BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ONE, BigDecimal.TEN, 3);
+
+        StockCandleDto resultStockCandleDto = stockMapper.toCandleDto(stockCandle);
+
+        assertEquals(expectedStockCandleDto, resultStockCandleDto);
+    }
+}
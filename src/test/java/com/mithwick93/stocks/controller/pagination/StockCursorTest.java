@@ -0,0 +1,91 @@
+package com.mithwick93.stocks.controller.pagination;
+
+import com.mithwick93.stocks.modal.Stock;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static com.mithwick93.stocks.core.TestUtils.creatStock;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StockCursorTest {
+
+    @Test
+    public void decode_whenEncodedCursorPassed_thenReturnSameCursor() {
+        Sort sort = StockSort.parse("id");
+        StockCursor inputCursor = StockCursor.after(sort, creatStock(12345L));
+
+        StockCursor resultCursor = StockCursor.decode(inputCursor.encode(), sort);
+
+        assertEquals(inputCursor, resultCursor);
+        assertEquals(12345L, resultCursor.getLastStock().getId());
+    }
+
+    @Test
+    public void decode_whenCursorOfSortKeyPassed_thenReturnSortValueAndId() {
+        Stock stock = creatStock(12345L);
+        stock.setName("MS:W");
+
+        for (String sortValue : new String[]{"name", "currentPrice,desc", "lastUpdate,asc"}) {
+            Sort sort = StockSort.parse(sortValue);
+
+            StockCursor resultCursor = StockCursor.decode(StockCursor.after(sort, stock).encode(), sort);
+
+            assertEquals(StockCursor.after(sort, stock), resultCursor);
+        }
+
+        Sort nameSort = StockSort.parse("name");
+        assertEquals("MS:W", StockCursor.decode(StockCursor.after(nameSort, stock).encode(), nameSort).getLastStock().getName());
+    }
+
+    @Test
+    public void decode_whenEmptyTokenPassed_thenReturnStartCursor() {
+        Sort sort = StockSort.parse("name,desc");
+
+        assertEquals(StockCursor.start(sort), StockCursor.decode("", sort));
+        assertEquals(StockCursor.start(sort), StockCursor.decode(null, sort));
+        assertNull(StockCursor.decode("", sort).getLastStock());
+    }
+
+    @Test
+    public void decode_whenCursorOfOtherSortPassed_thenThrowIllegalArgumentException() {
+        String token = StockCursor.after(StockSort.parse("currentPrice,desc"), creatStock(1L)).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> StockCursor.decode(token, StockSort.parse("currentPrice,asc")));
+        assertThrows(IllegalArgumentException.class, () -> StockCursor.decode(token, StockSort.parse("id")));
+    }
+
+    @Test
+    public void decode_whenNotBase64TokenPassed_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> StockCursor.decode("not*a*cursor", Sort.by("id")));
+    }
+
+    @Test
+    public void decode_whenUnknownSortKeyPassed_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> StockCursor.decode(token("createdAt,asc:12:1"), Sort.by("id")));
+    }
+
+    @Test
+    public void decode_whenNonNumericIdPassed_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> StockCursor.decode(token("id,asc:abc:"), Sort.by("id")));
+    }
+
+    @Test
+    public void decode_whenInvalidSortValuePassed_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> StockCursor.decode(token("currentPrice,asc:12:abc"), StockSort.parse("currentPrice")));
+        assertThrows(IllegalArgumentException.class, () -> StockCursor.decode(token("lastUpdate,asc:12:abc"), StockSort.parse("lastUpdate")));
+    }
+
+    @Test
+    public void encode_whenStartCursor_thenThrowIllegalStateException() {
+        assertThrows(IllegalStateException.class, () -> StockCursor.start(Sort.by("id")).encode());
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
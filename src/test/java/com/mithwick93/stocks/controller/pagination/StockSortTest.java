@@ -0,0 +1,32 @@
+package com.mithwick93.stocks.controller.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StockSortTest {
+
+    @Test
+    public void parse_whenKeyPassed_thenSortAscending() {
+        assertEquals(Sort.by(Sort.Direction.ASC, "name"), StockSort.parse("name"));
+    }
+
+    @Test
+    public void parse_whenKeyAndDirectionPassed_thenSortInDirection() {
+        assertEquals(Sort.by(Sort.Direction.DESC, "currentPrice"), StockSort.parse("currentPrice,desc"));
+        assertEquals(Sort.by(Sort.Direction.ASC, "lastUpdate"), StockSort.parse("lastUpdate,ASC"));
+    }
+
+    @Test
+    public void parse_whenUnknownKeyPassed_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> StockSort.parse("createdAt"));
+    }
+
+    @Test
+    public void parse_whenUnknownDirectionPassed_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> StockSort.parse("id,up"));
+        assertThrows(IllegalArgumentException.class, () -> StockSort.parse("id,asc,desc"));
+    }
+}
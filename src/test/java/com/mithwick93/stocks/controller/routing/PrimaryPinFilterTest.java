@@ -0,0 +1,108 @@
+package com.mithwick93.stocks.controller.routing;
+
+import com.mithwick93.stocks.dal.datasource.PrimaryPin;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrimaryPinFilterTest {
+    private static final long NOW = 1_000_000L;
+
+    private final PrimaryPinFilter primaryPinFilter = new PrimaryPinFilter(
+            Duration.ofSeconds(5),
+            Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC)
+    );
+
+    @Test
+    public void doFilter_whenWriteRequest_thenPinRequestAndSetCookie() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/stocks");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        primaryPinFilter.doFilter(request, response, recordPin(pinned));
+
+        assertTrue(pinned.get());
+        assertFalse(PrimaryPin.isPinned());
+        Cookie cookie = response.getCookie(PrimaryPinFilter.COOKIE_NAME);
+        assertEquals(Long.toString(NOW + 5000), cookie.getValue());
+        assertEquals(5, cookie.getMaxAge());
+        assertEquals("/", cookie.getPath());
+        assertTrue(cookie.isHttpOnly());
+    }
+
+    @Test
+    public void doFilter_whenReadRequestWithoutCookie_thenDoNotPin() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/stocks/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        primaryPinFilter.doFilter(request, response, recordPin(pinned));
+
+        assertFalse(pinned.get());
+        assertNull(response.getCookie(PrimaryPinFilter.COOKIE_NAME));
+    }
+
+    @Test
+    public void doFilter_whenReadRequestWithUnexpiredCookie_thenPinRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/stocks/1");
+        request.setCookies(new Cookie("other", "value"), new Cookie(PrimaryPinFilter.COOKIE_NAME, Long.toString(NOW + 1)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        primaryPinFilter.doFilter(request, response, recordPin(pinned));
+
+        assertTrue(pinned.get());
+        assertFalse(PrimaryPin.isPinned());
+        assertNull(response.getCookie(PrimaryPinFilter.COOKIE_NAME));
+    }
+
+    @Test
+    public void doFilter_whenReadRequestWithExpiredCookie_thenDoNotPin() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/stocks/1");
+        request.setCookies(new Cookie(PrimaryPinFilter.COOKIE_NAME, Long.toString(NOW)));
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        primaryPinFilter.doFilter(request, new MockHttpServletResponse(), recordPin(pinned));
+
+        assertFalse(pinned.get());
+    }
+
+    @Test
+    public void doFilter_whenReadRequestWithInvalidCookie_thenDoNotPin() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("HEAD", "/api/v1/stocks/1");
+        request.setCookies(new Cookie(PrimaryPinFilter.COOKIE_NAME, "invalid"));
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        primaryPinFilter.doFilter(request, new MockHttpServletResponse(), recordPin(pinned));
+
+        assertFalse(pinned.get());
+    }
+
+    @Test
+    public void doFilter_whenReadRequestWithOtherCookies_thenDoNotPin() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/stocks/1");
+        request.setCookies(new Cookie("other", "value"));
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        primaryPinFilter.doFilter(request, new MockHttpServletResponse(), recordPin(pinned));
+
+        assertFalse(pinned.get());
+    }
+
+    private static FilterChain recordPin(AtomicBoolean pinned) {
+        return (request, response) -> pinned.set(PrimaryPin.isPinned());
+    }
+}
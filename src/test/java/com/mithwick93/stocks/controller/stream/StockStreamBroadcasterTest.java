@@ -0,0 +1,290 @@
+package com.mithwick93.stocks.controller.stream;
+
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.service.StockChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.mithwick93.stocks.core.TestUtils.creatStock;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockStreamBroadcasterTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Runnable> senderTasks = new ArrayList<>();
+
+    @Test
+    public void onStockChanged_whenSubscribedToStock_thenSendEventOnlyToSubscribersOfThatStock() {
+        StockStreamBroadcaster broadcaster = broadcaster(10, StockStreamProperties.SlowSubscriberPolicy.DISCONNECT);
+        RecordingEmitter stockSubscriber = subscribe(broadcaster, Set.of(1L));
+        RecordingEmitter otherSubscriber = subscribe(broadcaster, Set.of(2L));
+
+        broadcaster.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(creatStock(1L))));
+        runSenderTasks();
+
+        assertEquals(List.of("event:updated\ndata:{\"id\":1,\"name\":\"MSW\",\"currentPrice\":12.4,\"createdAt\":12345,\"lastUpdate\":67890}\n\n"), stockSubscriber.events);
+        assertTrue(otherSubscriber.events.isEmpty());
+    }
+
+    @Test
+    public void onStockChanged_whenSubscribedToAllStocks_thenSendEventsOfEveryStock() {
+        StockStreamBroadcaster broadcaster = broadcaster(10, StockStreamProperties.SlowSubscriberPolicy.DISCONNECT);
+        RecordingEmitter subscriber = subscribe(broadcaster, Set.of());
+
+        broadcaster.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.CREATED, List.of(creatStock(1L), creatStock(2L))));
+        broadcaster.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.DELETED, List.of(creatStock(3L))));
+        runSenderTasks();
+
+        assertEquals(List.of("created:1", "created:2", "deleted:3"), subscriber.eventIds());
+    }
+
+    @Test
+    public void onStockChanged_whenStockDeleted_thenSendIdAndNameOnly() {
+        StockStreamBroadcaster broadcaster = broadcaster(10, StockStreamProperties.SlowSubscriberPolicy.DISCONNECT);
+        RecordingEmitter subscriber = subscribe(broadcaster, Set.of(3L));
+        Stock deletedStock = new Stock();
+        deletedStock.setId(3L);
+        deletedStock.setName("MSW");
+
+        broadcaster.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.DELETED, List.of(deletedStock)));
+        runSenderTasks();
+
+        assertEquals(List.of("event:deleted\ndata:{\"id\":3,\"name\":\"MSW\"}\n\n"), subscriber.events);
+    }
+
+    @Test
+    public void onStockChanged_whenStockUpdatedBeforeSend_thenSendOnlyLatestUpdate() {
+        StockStreamBroadcaster broadcaster = broadcaster(10, StockStreamProperties.SlowSubscriberPolicy.DISCONNECT);
+        RecordingEmitter subscriber = subscribe(broadcaster, Set.of(1L));
+        Stock stock = creatStock(1L);
+
+        broadcaster.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(stock)));
+        stock.setCurrentPrice(BigDecimal.valueOf(99));
+        broadcaster.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(stock)));
+        runSenderTasks();
+
+        assertEquals(1, subscriber.events.size());
+        assertTrue(subscriber.events.get(0).contains("\"currentPrice\":99"));
+        assertEquals(1.0, meterRegistry.get("stock.stream.coalesced").counter().count());
+    }
+
+    @Test
+    public void onStockChanged_whenTooManyPendingAndDropOldest_thenDropOldestUpdate() {
+        StockStreamBroadcaster broadcaster = broadcaster(1, StockStreamProperties.SlowSubscriberPolicy.DROP_OLDEST);
+        RecordingEmitter subscriber = subscribe(broadcaster, Set.of());
+
+        broadcaster.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(creatStock(1L), creatStock(2L))));
+        runSenderTasks();
+
+        assertEquals(List.of("updated:2"), subscriber.eventIds());
+        assertEquals(1.0, meterRegistry.get("stock.stream.dropped").counter().count());
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    public void onStockChanged_whenTooManyPendingAndDisconnect_thenCloseStream() {
+        StockStreamBroadcaster broadcaster = broadcaster(1, StockStreamProperties.SlowSubscriberPolicy.DISCONNECT);
+        RecordingEmitter subscriber = subscribe(broadcaster, Set.of(1L, 2L));
+
+        broadcaster.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(creatStock(1L), creatStock(2L))));
+        runSenderTasks();
+        broadcaster.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(creatStock(1L))));
+        runSenderTasks();
+
+        assertTrue(subscriber.events.isEmpty());
+        assertTrue(subscriber.completed);
+        assertEquals(1.0, meterRegistry.get("stock.stream.disconnected").counter().count());
+        assertEquals(0.0, meterRegistry.get("stock.stream.subscribers").gauge().value());
+    }
+
+    @Test
+    public void onStockChanged_whenSendFails_thenCloseStream() {
+        StockStreamBroadcaster broadcaster = broadcaster(10, StockStreamProperties.SlowSubscriberPolicy.DISCONNECT);
+        RecordingEmitter subscriber = subscribe(broadcaster, Set.of(1L));
+        subscriber.failSends = true;
+
+        broadcaster.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(creatStock(1L))));
+        runSenderTasks();
+        broadcaster.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(creatStock(1L))));
+
+        assertTrue(subscriber.completed);
+        assertTrue(senderTasks.isEmpty());
+        assertEquals(0.0, meterRegistry.get("stock.stream.subscribers").gauge().value());
+    }
+
+    @Test
+    public void destroy_whenSubscribersOpen_thenCloseAllStreams() {
+        StockStreamBroadcaster broadcaster = broadcaster(10, StockStreamProperties.SlowSubscriberPolicy.DISCONNECT);
+        RecordingEmitter allStocksSubscriber = subscribe(broadcaster, Set.of());
+        RecordingEmitter stockSubscriber = subscribe(broadcaster, Set.of(1L));
+        assertEquals(2.0, meterRegistry.get("stock.stream.subscribers").gauge().value());
+
+        broadcaster.destroy();
+        runSenderTasks();
+
+        assertTrue(allStocksSubscriber.completed);
+        assertTrue(stockSubscriber.completed);
+        assertEquals(0.0, meterRegistry.get("stock.stream.subscribers").gauge().value());
+    }
+
+    @Test
+    public void onStockChanged_whenClientStopsReading_thenDisconnectItAndKeepSendingToOthers() throws InterruptedException {
+        StockStreamProperties stockStreamProperties = new StockStreamProperties();
+        stockStreamProperties.setWriteTimeout(Duration.ofMillis(100));
+        ThreadPoolExecutor senderExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+        StockStreamBroadcaster broadcaster = new StockStreamBroadcaster(stockStreamProperties, meterRegistry, senderExecutor);
+        BlockingEmitter stalledSubscriber = new BlockingEmitter();
+        broadcaster.subscribe(Set.of(1L), stalledSubscriber);
+        RecordingEmitter subscriber = subscribe(broadcaster, Set.of(2L));
+
+        broadcaster.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(creatStock(1L))));
+        assertTrue(stalledSubscriber.sendStarted.await(5, TimeUnit.SECONDS));
+        broadcaster.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(creatStock(2L))));
+
+        assertTrue(subscriber.sent.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("updated:2"), subscriber.eventIds());
+        assertEquals(1.0, meterRegistry.get("stock.stream.timed.out").counter().count());
+        assertEquals(1.0, meterRegistry.get("stock.stream.subscribers").gauge().value());
+        assertFalse(stalledSubscriber.completed);
+
+        stalledSubscriber.readResumed.countDown();
+
+        assertTrue(stalledSubscriber.completedLatch.await(5, TimeUnit.SECONDS));
+        assertEquals(1, senderExecutor.getCorePoolSize());
+        broadcaster.destroy();
+    }
+
+    @Test
+    public void onStockChanged_whenReplacementSendersExhausted_thenDisconnectWithoutAddingSender() throws InterruptedException {
+        StockStreamProperties stockStreamProperties = new StockStreamProperties();
+        stockStreamProperties.setWriteTimeout(Duration.ofMillis(100));
+        stockStreamProperties.setMaxReplacementSenderThreads(0);
+        ThreadPoolExecutor senderExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+        StockStreamBroadcaster broadcaster = new StockStreamBroadcaster(stockStreamProperties, meterRegistry, senderExecutor);
+        BlockingEmitter stalledSubscriber = new BlockingEmitter();
+        broadcaster.subscribe(Set.of(1L), stalledSubscriber);
+        RecordingEmitter subscriber = subscribe(broadcaster, Set.of(2L));
+
+        broadcaster.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(creatStock(1L))));
+        assertTrue(stalledSubscriber.sendStarted.await(5, TimeUnit.SECONDS));
+        broadcaster.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(creatStock(2L))));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("stock.stream.timed.out").counter().count() < 1.0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1.0, meterRegistry.get("stock.stream.timed.out").counter().count());
+        assertEquals(1, senderExecutor.getCorePoolSize());
+        assertTrue(subscriber.eventIds().isEmpty());
+
+        stalledSubscriber.readResumed.countDown();
+
+        assertTrue(subscriber.sent.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("updated:2"), subscriber.eventIds());
+        assertEquals(1, senderExecutor.getCorePoolSize());
+        broadcaster.destroy();
+    }
+
+    private StockStreamBroadcaster broadcaster(int maxPendingUpdates, StockStreamProperties.SlowSubscriberPolicy slowSubscriberPolicy) {
+        StockStreamProperties stockStreamProperties = new StockStreamProperties();
+        stockStreamProperties.setMaxPendingUpdates(maxPendingUpdates);
+        stockStreamProperties.setSlowSubscriberPolicy(slowSubscriberPolicy);
+
+        return new StockStreamBroadcaster(stockStreamProperties, meterRegistry, senderTasks::add);
+    }
+
+    private static RecordingEmitter subscribe(StockStreamBroadcaster broadcaster, Set<Long> stockIds) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(stockIds, emitter);
+
+        return emitter;
+    }
+
+    private void runSenderTasks() {
+        while (!senderTasks.isEmpty()) {
+            senderTasks.remove(0).run();
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new ArrayList<>();
+        private final CountDownLatch sent = new CountDownLatch(1);
+        private boolean failSends;
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failSends) {
+                throw new IOException("Connection reset");
+            }
+
+            events.add(builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .map(String::valueOf)
+                    .collect(Collectors.joining()));
+            sent.countDown();
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+
+        private List<String> eventIds() {
+            return events.stream()
+                    .map(event -> event.substring("event:".length(), event.indexOf('\n')) + ":" + event.replaceAll("(?s).*\"id\":(\\d+).*", "$1"))
+                    .toList();
+        }
+    }
+
+    /**
+     * Emitter of a client which stopped reading, its writes block until the client reads again.
+     */
+    private static final class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch sendStarted = new CountDownLatch(1);
+        private final CountDownLatch readResumed = new CountDownLatch(1);
+        private final CountDownLatch completedLatch = new CountDownLatch(1);
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sendStarted.countDown();
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    readResumed.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            completedLatch.countDown();
+            super.complete();
+        }
+    }
+}
@@ -1,9 +1,21 @@
 package com.mithwick93.stocks.core;
 
+import com.mithwick93.stocks.dal.repository.StocksVersion;
 import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockCandle;
 
 import java.math.BigDecimal;
 import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 public class TestUtils {
     private TestUtils() {
@@ -17,6 +29,7 @@ public class TestUtils {
         stock.setCurrentPrice(BigDecimal.valueOf(12.4));
         stock.setCreatedAt(new Timestamp(12345));
         stock.setLastUpdate(new Timestamp(67890));
+        stock.setVersion(3L);
 
         return stock;
     }
@@ -35,4 +48,76 @@ public class TestUtils {
 
         return stock;
     }
+
+    public static Stock creatUniqueRequestStock() {
+        Stock stock = creatRequestStock();
+        stock.setName("MSW_" + UUID.randomUUID());
+
+        return stock;
+    }
+
+    public static StocksVersion creatStocksVersion(long stockCount, long versionSum, Timestamp lastUpdate) {
+        return new StocksVersion() {
+            @Override
+            public long getStockCount() {
+                return stockCount;
+            }
+
+            @Override
+            public long getVersionSum() {
+                return versionSum;
+            }
+
+            @Override
+            public Timestamp getLastUpdate() {
+                return lastUpdate;
+            }
+        };
+    }
+
+    public static StockCandle creatStockCandle(Instant start) {
+        return new StockCandle(start, BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ONE, BigDecimal.TEN, 3);
+    }
+
+    public static <T> List<T> callConcurrently(int callers, Function<List<Thread>, Callable<T>> call) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        Map<Integer, T> results = new ConcurrentHashMap<>();
+        Map<Integer, Throwable> failures = new ConcurrentHashMap<>();
+        Callable<T> callable = call.apply(Collections.unmodifiableList(threads));
+        for (int caller = 0; caller < callers; caller++) {
+            int index = caller;
+            threads.add(new Thread(() -> {
+                try {
+                    results.put(index, callable.call());
+                } catch (Throwable ex) {
+                    failures.put(index, ex);
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join(Duration.ofSeconds(10).toMillis());
+        }
+
+        List<T> outcomes = new ArrayList<>();
+        for (int caller = 0; caller < callers; caller++) {
+            if (failures.containsKey(caller)) {
+                throw new AssertionError("Caller " + caller + " failed", failures.get(caller));
+            }
+            outcomes.add(results.get(caller));
+        }
+
+        return outcomes;
+    }
+
+    public static void awaitOthersWaiting(List<Thread> threads) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!threads.stream().filter(thread -> thread != Thread.currentThread()).allMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Concurrent callers did not wait");
+            }
+            Thread.onSpinWait();
+        }
+    }
 }
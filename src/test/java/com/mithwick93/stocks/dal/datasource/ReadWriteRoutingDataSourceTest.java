@@ -0,0 +1,164 @@
+package com.mithwick93.stocks.dal.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.net.ConnectException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@ExtendWith(MockitoExtension.class)
+class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    DataSource primary;
+
+    @Mock
+    DataSource replica1;
+
+    @Mock
+    DataSource replica2;
+
+    @Mock
+    Connection primaryConnection;
+
+    @Mock
+    Connection replica1Connection;
+
+    @Mock
+    Connection replica2Connection;
+
+    ReadWriteRoutingDataSource readWriteRoutingDataSource;
+
+    @BeforeEach
+    public void init() {
+        readWriteRoutingDataSource = new ReadWriteRoutingDataSource(primary, List.of(replica1, replica2), Duration.ofHours(1));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        readWriteRoutingDataSource.destroy();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        PrimaryPin.clear();
+    }
+
+    @Test
+    public void getConnection_whenNotReadOnly_thenUsePrimary() throws SQLException {
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, readWriteRoutingDataSource.getConnection());
+        Mockito.verifyNoInteractions(replica1, replica2);
+    }
+
+    @Test
+    public void getConnection_whenReadOnly_thenUseReplicasRoundRobin() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Mockito.when(replica1.getConnection()).thenReturn(replica1Connection);
+        Mockito.when(replica2.getConnection()).thenReturn(replica2Connection);
+
+        assertSame(replica1Connection, readWriteRoutingDataSource.getConnection());
+        assertSame(replica2Connection, readWriteRoutingDataSource.getConnection());
+        assertSame(replica1Connection, readWriteRoutingDataSource.getConnection());
+        Mockito.verifyNoInteractions(primary);
+    }
+
+    @Test
+    public void getConnection_whenReadOnlyWithCredentials_thenUseReplica() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Mockito.when(replica1.getConnection("user", "password")).thenReturn(replica1Connection);
+
+        assertSame(replica1Connection, readWriteRoutingDataSource.getConnection("user", "password"));
+    }
+
+    @Test
+    public void getConnection_whenReadOnlyButPinned_thenUsePrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        PrimaryPin.pin();
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, readWriteRoutingDataSource.getConnection());
+        Mockito.verifyNoInteractions(replica1, replica2);
+    }
+
+    @Test
+    public void getConnection_whenReplicaCanNotBeConnected_thenEjectReplicaAndUsePrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Mockito.when(replica1.getConnection()).thenThrow(new SQLTransientConnectionException("timeout", "08001", new ConnectException()));
+        Mockito.when(replica2.getConnection()).thenReturn(replica2Connection);
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, readWriteRoutingDataSource.getConnection());
+        assertEquals(1, readWriteRoutingDataSource.getHealthyReplicaCount());
+        assertSame(replica2Connection, readWriteRoutingDataSource.getConnection());
+        assertSame(replica2Connection, readWriteRoutingDataSource.getConnection());
+    }
+
+    @Test
+    public void getConnection_whenReplicaPoolExhausted_thenUsePrimaryWithoutEjecting() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Mockito.when(replica1.getConnection()).thenThrow(new SQLTransientConnectionException("timeout"));
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, readWriteRoutingDataSource.getConnection());
+        assertEquals(2, readWriteRoutingDataSource.getHealthyReplicaCount());
+    }
+
+    @Test
+    public void getConnection_whenAllReplicasEjected_thenUsePrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Mockito.when(replica1.getConnection()).thenThrow(new SQLException("down"));
+        Mockito.when(replica2.getConnection()).thenThrow(new SQLException("down"));
+        readWriteRoutingDataSource.checkReplicas();
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertEquals(0, readWriteRoutingDataSource.getHealthyReplicaCount());
+        assertSame(primaryConnection, readWriteRoutingDataSource.getConnection());
+        Mockito.verify(replica1, Mockito.times(1)).getConnection();
+        Mockito.verify(replica2, Mockito.times(1)).getConnection();
+    }
+
+    @Test
+    public void checkReplicas_whenEjectedReplicaRecovers_thenReadmitReplica() throws SQLException {
+        Mockito.when(replica1.getConnection()).thenThrow(new SQLException("down")).thenReturn(replica1Connection);
+        Mockito.when(replica1Connection.isValid(Mockito.anyInt())).thenReturn(true);
+        Mockito.when(replica2.getConnection()).thenReturn(replica2Connection);
+        Mockito.when(replica2Connection.isValid(Mockito.anyInt())).thenReturn(false);
+
+        readWriteRoutingDataSource.checkReplicas();
+
+        assertEquals(0, readWriteRoutingDataSource.getHealthyReplicaCount());
+
+        readWriteRoutingDataSource.checkReplicas();
+
+        assertEquals(1, readWriteRoutingDataSource.getHealthyReplicaCount());
+        Mockito.verify(replica1Connection).close();
+    }
+
+    @Test
+    public void destroy_whenReplicasCloseable_thenCloseReplicas() throws Exception {
+        CloseableDataSource closeableReplica = Mockito.mock(CloseableDataSource.class);
+        Mockito.doThrow(new IllegalStateException("closed")).when(closeableReplica).close();
+        ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(primary, List.of(replica1, closeableReplica), Duration.ofHours(1));
+
+        dataSource.destroy();
+
+        Mockito.verify(closeableReplica).close();
+        Mockito.verifyNoInteractions(primary);
+    }
+
+    interface CloseableDataSource extends DataSource, AutoCloseable {
+    }
+}
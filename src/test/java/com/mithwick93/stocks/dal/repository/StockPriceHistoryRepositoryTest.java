@@ -0,0 +1,93 @@
+package com.mithwick93.stocks.dal.repository;
+
+import com.mithwick93.stocks.modal.CandleInterval;
+import com.mithwick93.stocks.modal.StockCandle;
+import com.mithwick93.stocks.modal.StockPrice;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static com.mithwick93.stocks.core.TestUtils.creatStockCandle;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+class StockPriceHistoryRepositoryTest {
+
+    @InjectMocks
+    StockPriceHistoryRepository stockPriceHistoryRepository;
+
+    @Mock
+    NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Test
+    public void insertAll_whenPricesPassed_thenInsertWithSingleBatch() {
+        Instant recordedAt = Instant.parse("2023-03-15T10:00:00Z");
+        List<StockPrice> stockPrices = List.of(new StockPrice(1L, BigDecimal.ONE, recordedAt), new StockPrice(2L, BigDecimal.TEN, recordedAt));
+
+        stockPriceHistoryRepository.insertAll(stockPrices);
+
+        ArgumentCaptor<SqlParameterSource[]> parameters = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        Mockito.verify(jdbcTemplate).batchUpdate(eq(StockPriceHistoryRepository.INSERT_SQL), parameters.capture());
+        assertEquals(2, parameters.getValue().length);
+        assertEquals(2L, parameters.getValue()[1].getValue("stockId"));
+        assertEquals(BigDecimal.TEN, parameters.getValue()[1].getValue("price"));
+        assertEquals(OffsetDateTime.of(2023, 3, 15, 10, 0, 0, 0, ZoneOffset.UTC), parameters.getValue()[1].getValue("recordedAt"));
+    }
+
+    @Test
+    public void createPartition_whenMonthPassed_thenCallPartitionFunction() {
+        LocalDate month = LocalDate.of(2023, 3, 1);
+
+        stockPriceHistoryRepository.createPartition(month);
+
+        ArgumentCaptor<MapSqlParameterSource> parameters = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        Mockito.verify(jdbcTemplate).queryForObject(eq(StockPriceHistoryRepository.CREATE_PARTITION_SQL), parameters.capture(), eq(Object.class));
+        assertEquals(month, parameters.getValue().getValue("month"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void findCandles_whenRangePassed_thenAggregateByIntervalInDatabase() throws SQLException {
+        Instant from = Instant.parse("2023-03-15T00:00:00Z");
+        Instant to = Instant.parse("2023-03-16T00:00:00Z");
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.getObject("bucket", LocalDateTime.class)).thenReturn(LocalDateTime.of(2023, 3, 15, 10, 0));
+        Mockito.when(resultSet.getBigDecimal("open")).thenReturn(BigDecimal.ONE);
+        Mockito.when(resultSet.getBigDecimal("high")).thenReturn(BigDecimal.TEN);
+        Mockito.when(resultSet.getBigDecimal("low")).thenReturn(BigDecimal.ONE);
+        Mockito.when(resultSet.getBigDecimal("close")).thenReturn(BigDecimal.TEN);
+        Mockito.when(resultSet.getLong("ticks")).thenReturn(3L);
+
+        stockPriceHistoryRepository.findCandles(5L, CandleInterval.HOUR, from, to);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<MapSqlParameterSource> parameters = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        ArgumentCaptor<RowMapper<StockCandle>> rowMapper = ArgumentCaptor.forClass(RowMapper.class);
+        Mockito.verify(jdbcTemplate).query(sql.capture(), parameters.capture(), rowMapper.capture());
+        assertTrue(sql.getValue().contains("date_trunc('hour', recorded_at AT TIME ZONE 'UTC')"));
+        assertEquals(5L, parameters.getValue().getValue("stockId"));
+        assertEquals(OffsetDateTime.of(2023, 3, 15, 0, 0, 0, 0, ZoneOffset.UTC), parameters.getValue().getValue("from"));
+        assertEquals(OffsetDateTime.of(2023, 3, 16, 0, 0, 0, 0, ZoneOffset.UTC), parameters.getValue().getValue("to"));
+        assertEquals(creatStockCandle(Instant.parse("2023-03-15T10:00:00Z")), rowMapper.getValue().mapRow(resultSet, 0));
+    }
+}
@@ -0,0 +1,267 @@
+package com.mithwick93.stocks.dal.repository;
+
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockField;
+import com.mithwick93.stocks.modal.StockPrice;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import static com.mithwick93.stocks.core.TestUtils.creatStock;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+class StockRepositoryCustomImplTest {
+
+    @InjectMocks
+    StockRepositoryCustomImpl stockRepositoryCustom;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    Query query;
+
+    @Mock
+    CriteriaBuilder criteriaBuilder;
+
+    @Mock
+    CriteriaQuery<Stock> criteriaQuery;
+
+    @Mock
+    CriteriaQuery<Tuple> tupleCriteriaQuery;
+
+    @Mock
+    Root<Stock> root;
+
+    @Mock
+    Path<Object> id;
+
+    @Mock
+    Path<Object> name;
+
+    @Mock
+    Path<Object> price;
+
+    @Mock
+    Expression<String> lowerName;
+
+    @Mock
+    TypedQuery<Stock> typedQuery;
+
+    @Mock
+    TypedQuery<Tuple> tupleTypedQuery;
+
+    @Test
+    public void updateById_whenAllColumnsAndVersionPassed_thenUpdateWithSingleConditionalStatement() {
+        Stock updatedStock = creatStock(5L);
+
+        Mockito.when(entityManager.createNativeQuery(anyString(), eq(Stock.class))).thenReturn(query);
+        Mockito.when(query.getResultList()).thenReturn(List.of(updatedStock));
+
+        Optional<Stock> result = stockRepositoryCustom.updateById(5L, 2L, "MSW", BigDecimal.TEN);
+
+        assertEquals(Optional.of(updatedStock), result);
+        Mockito.verify(entityManager).createNativeQuery(
+                "UPDATE stocks SET name = :name, current_price = :currentPrice, last_update = :lastUpdate, version = version + 1 WHERE id = :id AND version = :version RETURNING *",
+                Stock.class
+        );
+        Mockito.verify(query).setParameter("name", "MSW");
+        Mockito.verify(query).setParameter("currentPrice", BigDecimal.TEN);
+        Mockito.verify(query).setParameter(eq("lastUpdate"), any());
+        Mockito.verify(query).setParameter("id", 5L);
+        Mockito.verify(query).setParameter("version", 2L);
+    }
+
+    @Test
+    public void updateById_whenOnlyPricePassedWithoutVersion_thenOnlyWritePrice() {
+        Mockito.when(entityManager.createNativeQuery(anyString(), eq(Stock.class))).thenReturn(query);
+        Mockito.when(query.getResultList()).thenReturn(List.of());
+
+        Optional<Stock> result = stockRepositoryCustom.updateById(5L, null, null, BigDecimal.ONE);
+
+        assertTrue(result.isEmpty());
+        Mockito.verify(entityManager).createNativeQuery(
+                "UPDATE stocks SET current_price = :currentPrice, last_update = :lastUpdate, version = version + 1 WHERE id = :id RETURNING *",
+                Stock.class
+        );
+        Mockito.verify(query, Mockito.never()).setParameter(eq("name"), any());
+        Mockito.verify(query, Mockito.never()).setParameter(eq("version"), any());
+    }
+
+    @Test
+    public void updatePrices_whenPricesPassed_thenUpdateWithSingleArrayStatement() {
+        Stock updatedStock = creatStock(5L);
+
+        Mockito.when(entityManager.createNativeQuery(anyString(), eq(Stock.class))).thenReturn(query);
+        Mockito.when(query.getResultList()).thenReturn(List.of(updatedStock));
+
+        List<Stock> result = stockRepositoryCustom.updatePrices(List.of(
+                StockPrice.builder().stockId(5L).price(new BigDecimal("12.50")).recordedAt(Instant.parse("2023-03-01T10:15:30.123Z")).build(),
+                StockPrice.builder().stockId(7L).price(new BigDecimal("1E+1")).recordedAt(Instant.parse("2023-03-01T10:15:31Z")).build()
+        ));
+
+        assertEquals(List.of(updatedStock), result);
+        Mockito.verify(entityManager).createNativeQuery(StockRepositoryCustomImpl.UPDATE_PRICES_SQL, Stock.class);
+        Mockito.verify(query).setParameter("ids", "{5,7}");
+        Mockito.verify(query).setParameter("prices", "{12.50,10}");
+        Mockito.verify(query).setParameter("recordedAts", "{2023-03-01T10:15:30.123Z,2023-03-01T10:15:31Z}");
+    }
+
+    @Test
+    public void findAllBy_whenMoreStocksThanPageSize_thenFetchOneMoreAndBreakTiesById() {
+        Order priceOrder = Mockito.mock(Order.class);
+        Order idOrder = Mockito.mock(Order.class);
+        Predicate predicate = Mockito.mock(Predicate.class);
+        List<Stock> stocks = List.of(creatStock(1L), creatStock(2L), creatStock(3L));
+
+        Mockito.when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
+        Mockito.when(criteriaBuilder.createQuery(Stock.class)).thenReturn(criteriaQuery);
+        Mockito.when(criteriaQuery.from(Stock.class)).thenReturn(root);
+        Mockito.when(root.get("currentPrice")).thenReturn(price);
+        Mockito.when(root.get("id")).thenReturn(id);
+        Mockito.when(criteriaBuilder.desc(price)).thenReturn(priceOrder);
+        Mockito.when(criteriaBuilder.desc(id)).thenReturn(idOrder);
+        Mockito.when(entityManager.createQuery(criteriaQuery)).thenReturn(typedQuery);
+        Mockito.when(typedQuery.setFirstResult(2)).thenReturn(typedQuery);
+        Mockito.when(typedQuery.setMaxResults(3)).thenReturn(typedQuery);
+        Mockito.when(typedQuery.getResultList()).thenReturn(stocks);
+
+        Slice<Stock> result = stockRepositoryCustom.findAllBy((stock, query, builder) -> predicate, PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "currentPrice")));
+
+        assertEquals(stocks.subList(0, 2), result.getContent());
+        assertTrue(result.hasNext());
+        Mockito.verify(criteriaQuery).where(predicate);
+        Mockito.verify(criteriaQuery).orderBy(List.of(priceOrder, idOrder));
+    }
+
+    @Test
+    public void findAllBy_whenSortedByNameWithoutFilter_thenSortByLowerCasedName() {
+        Order nameOrder = Mockito.mock(Order.class);
+        Order idOrder = Mockito.mock(Order.class);
+
+        Mockito.when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
+        Mockito.when(criteriaBuilder.createQuery(Stock.class)).thenReturn(criteriaQuery);
+        Mockito.when(criteriaQuery.from(Stock.class)).thenReturn(root);
+        Mockito.when(root.get("name")).thenReturn(name);
+        Mockito.when(root.get("id")).thenReturn(id);
+        Mockito.when(criteriaBuilder.lower(Mockito.any())).thenReturn(lowerName);
+        Mockito.when(criteriaBuilder.asc(lowerName)).thenReturn(nameOrder);
+        Mockito.when(criteriaBuilder.asc(id)).thenReturn(idOrder);
+        Mockito.when(entityManager.createQuery(criteriaQuery)).thenReturn(typedQuery);
+        Mockito.when(typedQuery.setFirstResult(0)).thenReturn(typedQuery);
+        Mockito.when(typedQuery.setMaxResults(11)).thenReturn(typedQuery);
+        Mockito.when(typedQuery.getResultList()).thenReturn(List.of(creatStock(1L)));
+
+        Slice<Stock> result = stockRepositoryCustom.findAllBy((stock, query, builder) -> null, PageRequest.of(0, 10, Sort.by("name")));
+
+        assertEquals(1, result.getNumberOfElements());
+        assertFalse(result.hasNext());
+        Mockito.verify(criteriaQuery, Mockito.never()).where(Mockito.any(Predicate.class));
+        Mockito.verify(criteriaQuery).orderBy(List.of(nameOrder, idOrder));
+    }
+
+    @Test
+    public void findAllBy_whenFieldsPassed_thenSelectOnlyTheirColumns() {
+        Order idOrder = Mockito.mock(Order.class);
+        Tuple tuple = Mockito.mock(Tuple.class);
+
+        Mockito.when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
+        Mockito.when(criteriaBuilder.createTupleQuery()).thenReturn(tupleCriteriaQuery);
+        Mockito.when(tupleCriteriaQuery.from(Stock.class)).thenReturn(root);
+        Mockito.when(root.get("id")).thenReturn(id);
+        Mockito.when(root.get("currentPrice")).thenReturn(price);
+        Mockito.when(id.alias("id")).thenReturn(id);
+        Mockito.when(price.alias("currentPrice")).thenReturn(price);
+        Mockito.when(criteriaBuilder.asc(id)).thenReturn(idOrder);
+        Mockito.when(entityManager.createQuery(tupleCriteriaQuery)).thenReturn(tupleTypedQuery);
+        Mockito.when(tupleTypedQuery.setFirstResult(0)).thenReturn(tupleTypedQuery);
+        Mockito.when(tupleTypedQuery.setMaxResults(11)).thenReturn(tupleTypedQuery);
+        Mockito.when(tupleTypedQuery.getResultList()).thenReturn(List.of(tuple));
+        Mockito.when(tuple.get("id", Long.class)).thenReturn(5L);
+        Mockito.when(tuple.get("currentPrice", BigDecimal.class)).thenReturn(BigDecimal.TEN);
+
+        Slice<Stock> result = stockRepositoryCustom.findAllBy((stock, query, builder) -> null, PageRequest.of(0, 10, Sort.by("id")), EnumSet.of(StockField.ID, StockField.CURRENT_PRICE));
+
+        Stock expectedStock = new Stock();
+        expectedStock.setId(5L);
+        expectedStock.setCurrentPrice(BigDecimal.TEN);
+        assertEquals(List.of(expectedStock), result.getContent());
+        assertFalse(result.hasNext());
+        Mockito.verify(tupleCriteriaQuery).multiselect(List.of(id, price));
+        Mockito.verify(tupleCriteriaQuery).orderBy(List.of(idOrder));
+    }
+
+    @Test
+    public void findAllByIds_whenIdsPassed_thenFindWithSingleArrayParameter() {
+        Stock stock = creatStock(5L);
+
+        Mockito.when(entityManager.createNativeQuery(anyString(), eq(Stock.class))).thenReturn(query);
+        Mockito.when(query.getResultList()).thenReturn(List.of(stock));
+
+        List<Stock> result = stockRepositoryCustom.findAllByIds(List.of(5L, 7L));
+
+        assertEquals(List.of(stock), result);
+        Mockito.verify(entityManager).createNativeQuery("SELECT * FROM stocks WHERE id = ANY(CAST(:ids AS bigint[]))", Stock.class);
+        Mockito.verify(query).setParameter("ids", "{5,7}");
+    }
+
+    @Test
+    public void deleteAllByIds_whenIdsPassed_thenDeleteWithSingleReturningStatement() {
+        Stock stock = new Stock();
+        stock.setId(5L);
+        stock.setName("MSW");
+
+        Mockito.when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        Mockito.when(query.getResultList()).thenReturn(List.<Object[]>of(new Object[]{5L, "MSW"}));
+
+        List<Stock> result = stockRepositoryCustom.deleteAllByIds(List.of(5L, 7L));
+
+        assertEquals(List.of(stock), result);
+        Mockito.verify(entityManager).createNativeQuery("DELETE FROM stocks WHERE id = ANY(CAST(:ids AS bigint[])) RETURNING id, name");
+        Mockito.verify(query).setParameter("ids", "{5,7}");
+    }
+
+    @Test
+    public void deleteAllUpdatedBefore_whenTimePassed_thenDeleteWithSingleReturningStatement() {
+        Instant updatedBefore = Instant.parse("2023-03-01T00:00:00Z");
+
+        Mockito.when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        Mockito.when(query.getResultList()).thenReturn(List.of());
+
+        List<Stock> result = stockRepositoryCustom.deleteAllUpdatedBefore(updatedBefore);
+
+        assertTrue(result.isEmpty());
+        Mockito.verify(entityManager).createNativeQuery("DELETE FROM stocks WHERE last_update < :updatedBefore RETURNING id, name");
+        Mockito.verify(query).setParameter("updatedBefore", Timestamp.from(updatedBefore));
+    }
+}
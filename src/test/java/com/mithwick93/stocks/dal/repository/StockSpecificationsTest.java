@@ -0,0 +1,143 @@
+package com.mithwick93.stocks.dal.repository;
+
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockFilter;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static com.mithwick93.stocks.core.TestUtils.creatStock;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@ExtendWith(MockitoExtension.class)
+class StockSpecificationsTest {
+
+    @Mock
+    Root<Stock> stock;
+
+    @Mock
+    CriteriaQuery<?> query;
+
+    @Mock
+    CriteriaBuilder criteriaBuilder;
+
+    @Mock
+    Path<Object> path;
+
+    @Mock
+    Expression<String> lowerName;
+
+    @Mock
+    Predicate predicate;
+
+    @Test
+    public void matching_whenFilterEmpty_thenMatchEveryStock() {
+        assertNull(StockSpecifications.matching(StockFilter.NONE).toPredicate(stock, query, criteriaBuilder));
+        assertNull(StockSpecifications.matching(StockFilter.builder().namePrefix("").build()).toPredicate(stock, query, criteriaBuilder));
+        Mockito.verifyNoInteractions(criteriaBuilder);
+    }
+
+    @Test
+    public void matching_whenPriceRangePassed_thenCombinePriceBounds() {
+        Predicate minPredicate = Mockito.mock(Predicate.class);
+        Predicate maxPredicate = Mockito.mock(Predicate.class);
+        StockFilter filter = StockFilter.builder().minPrice(BigDecimal.ONE).maxPrice(BigDecimal.TEN).build();
+
+        Mockito.when(stock.get("currentPrice")).thenReturn(path);
+        Mockito.when(criteriaBuilder.greaterThanOrEqualTo(Mockito.<Expression<BigDecimal>>any(), Mockito.eq(BigDecimal.ONE))).thenReturn(minPredicate);
+        Mockito.when(criteriaBuilder.lessThanOrEqualTo(Mockito.<Expression<BigDecimal>>any(), Mockito.eq(BigDecimal.TEN))).thenReturn(maxPredicate);
+        Mockito.when(criteriaBuilder.and(minPredicate, maxPredicate)).thenReturn(predicate);
+
+        assertSame(predicate, StockSpecifications.matching(filter).toPredicate(stock, query, criteriaBuilder));
+    }
+
+    @Test
+    public void nameStartingWith_whenPrefixPassed_thenMatchLowerCasedEscapedPrefix() {
+        Mockito.when(stock.get("name")).thenReturn(path);
+        Mockito.when(criteriaBuilder.lower(Mockito.any())).thenReturn(lowerName);
+        Mockito.when(criteriaBuilder.like(lowerName, "m\\_s\\%w%", '\\')).thenReturn(predicate);
+
+        assertSame(predicate, StockSpecifications.nameStartingWith("M_s%W").toPredicate(stock, query, criteriaBuilder));
+    }
+
+    @Test
+    public void updatedSince_whenTimePassed_thenMatchLaterUpdates() {
+        Instant updatedSince = Instant.parse("2023-03-01T00:00:00Z");
+
+        Mockito.when(stock.get("lastUpdate")).thenReturn(path);
+        Mockito.when(criteriaBuilder.greaterThanOrEqualTo(Mockito.<Expression<Timestamp>>any(), Mockito.eq(Timestamp.from(updatedSince)))).thenReturn(predicate);
+
+        assertSame(predicate, StockSpecifications.updatedSince(updatedSince).toPredicate(stock, query, criteriaBuilder));
+    }
+
+    @Test
+    public void after_whenNoLastStockPassed_thenReturnNull() {
+        assertNull(StockSpecifications.after(Sort.by("id"), null));
+    }
+
+    @Test
+    public void after_whenSortedById_thenSeekOnId() {
+        Mockito.when(stock.get("id")).thenReturn(path);
+        Mockito.when(criteriaBuilder.greaterThan(Mockito.<Expression<Long>>any(), Mockito.eq(7L))).thenReturn(predicate);
+
+        assertSame(predicate, StockSpecifications.after(Sort.by("id"), creatStock(7L)).toPredicate(stock, query, criteriaBuilder));
+    }
+
+    @Test
+    public void after_whenSortedByPriceDescending_thenSeekOnPriceThenId() {
+        Predicate idBefore = Mockito.mock(Predicate.class);
+        Predicate priceBelow = Mockito.mock(Predicate.class);
+        Predicate priceEqual = Mockito.mock(Predicate.class);
+        Predicate tie = Mockito.mock(Predicate.class);
+        Stock lastStock = creatStock(7L);
+
+        Mockito.when(stock.get(Mockito.anyString())).thenReturn(path);
+        Mockito.when(criteriaBuilder.lessThan(Mockito.<Expression<Long>>any(), Mockito.eq(7L))).thenReturn(idBefore);
+        Mockito.when(criteriaBuilder.lessThan(Mockito.<Expression<BigDecimal>>any(), Mockito.eq(lastStock.getCurrentPrice()))).thenReturn(priceBelow);
+        Mockito.when(criteriaBuilder.equal(path, lastStock.getCurrentPrice())).thenReturn(priceEqual);
+        Mockito.when(criteriaBuilder.and(priceEqual, idBefore)).thenReturn(tie);
+        Mockito.when(criteriaBuilder.or(priceBelow, tie)).thenReturn(predicate);
+
+        assertSame(predicate, StockSpecifications.after(Sort.by(Sort.Direction.DESC, "currentPrice"), lastStock).toPredicate(stock, query, criteriaBuilder));
+    }
+
+    @Test
+    public void after_whenSortedByName_thenSeekOnLowerCasedName() {
+        Predicate idAfter = Mockito.mock(Predicate.class);
+        Predicate nameAfter = Mockito.mock(Predicate.class);
+        Predicate nameEqual = Mockito.mock(Predicate.class);
+        Predicate tie = Mockito.mock(Predicate.class);
+        Stock lastStock = creatStock(7L);
+
+        Mockito.when(stock.get(Mockito.anyString())).thenReturn(path);
+        Mockito.when(criteriaBuilder.lower(Mockito.any())).thenReturn(lowerName);
+        Mockito.when(criteriaBuilder.greaterThan(Mockito.<Expression<Long>>any(), Mockito.eq(7L))).thenReturn(idAfter);
+        Mockito.when(criteriaBuilder.greaterThan(lowerName, "msw")).thenReturn(nameAfter);
+        Mockito.when(criteriaBuilder.equal(lowerName, "msw")).thenReturn(nameEqual);
+        Mockito.when(criteriaBuilder.and(nameEqual, idAfter)).thenReturn(tie);
+        Mockito.when(criteriaBuilder.or(nameAfter, tie)).thenReturn(predicate);
+
+        assertSame(predicate, StockSpecifications.after(Sort.by("name"), lastStock).toPredicate(stock, query, criteriaBuilder));
+    }
+
+    @Test
+    public void priceAtLeast_whenNoPricePassed_thenReturnNull() {
+        assertNull(StockSpecifications.priceAtLeast(null));
+        assertNull(StockSpecifications.priceAtMost(null));
+        assertNull(StockSpecifications.updatedSince(null));
+    }
+}
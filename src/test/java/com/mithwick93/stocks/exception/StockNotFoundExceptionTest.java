@@ -17,6 +17,16 @@ class StockNotFoundExceptionTest {
         assertEquals(expectedResult, resultStockNotFoundException.getMessage());
     }
 
+    @Test
+    public void StockNotFoundException_whenStockNamePassed_thenReturnStockNotFoundException() {
+        String inputName = "MSW";
+        String expectedResult = "Stock MSW not found";
+
+        StockNotFoundException resultStockNotFoundException = new StockNotFoundException(inputName);
+
+        assertEquals(expectedResult, resultStockNotFoundException.getMessage());
+    }
+
     @Test
     public void supplier_whenStockIdPassed_thenReturnStockNotFoundExceptionSupplier() {
         long inputId = 45678L;
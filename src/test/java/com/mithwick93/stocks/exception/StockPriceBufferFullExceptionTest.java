@@ -0,0 +1,19 @@
+package com.mithwick93.stocks.exception;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StockPriceBufferFullExceptionTest {
+    @Test
+    public void StockPriceBufferFullException_whenMaxPendingAndRetryAfterPassed_thenReturnStockPriceBufferFullException() {
+        String expectedResult = "Prices of 100000 stocks are waiting to be written, retry later";
+
+        StockPriceBufferFullException resultStockPriceBufferFullException = new StockPriceBufferFullException(100000, Duration.ofSeconds(1));
+
+        assertEquals(expectedResult, resultStockPriceBufferFullException.getMessage());
+        assertEquals(Duration.ofSeconds(1), resultStockPriceBufferFullException.getRetryAfter());
+    }
+}
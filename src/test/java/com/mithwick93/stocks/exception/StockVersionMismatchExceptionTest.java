@@ -0,0 +1,16 @@
+package com.mithwick93.stocks.exception;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StockVersionMismatchExceptionTest {
+    @Test
+    public void StockVersionMismatchException_whenStockIdAndVersionPassed_thenReturnStockVersionMismatchException() {
+        String expectedResult = "Stock 12345 is not at version 7";
+
+        StockVersionMismatchException resultStockVersionMismatchException = new StockVersionMismatchException(12345L, 7L);
+
+        assertEquals(expectedResult, resultStockVersionMismatchException.getMessage());
+    }
+}
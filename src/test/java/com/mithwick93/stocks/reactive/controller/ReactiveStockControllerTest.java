@@ -0,0 +1,247 @@
+package com.mithwick93.stocks.reactive.controller;
+
+import com.mithwick93.stocks.controller.dto.StockPatchRequestDto;
+import com.mithwick93.stocks.controller.dto.StockRequestDto;
+import com.mithwick93.stocks.exception.StockNotFoundException;
+import com.mithwick93.stocks.exception.StockVersionMismatchException;
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.reactive.configuration.HypermediaConfiguration;
+import com.mithwick93.stocks.reactive.controller.mapper.ReactiveStockMapper;
+import com.mithwick93.stocks.reactive.service.ReactiveStockService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.mithwick93.stocks.core.TestUtils.creatRequestStock;
+import static com.mithwick93.stocks.core.TestUtils.creatStock;
+import static org.mockito.Mockito.times;
+
+@WebFluxTest(controllers = ReactiveStockController.class)
+@Import({ReactiveStockMapper.class, HypermediaConfiguration.class})
+class ReactiveStockControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveStockService reactiveStockService;
+
+    @Test
+    public void getStocks_whenCorrectParametersPassed_thenReturnPagedStocksWithLinks() {
+        Stock stock = creatStock(7L);
+
+        Mockito.when(reactiveStockService.findAllStocks(1, 1)).thenReturn(Mono.just(new PageImpl<>(List.of(stock), PageRequest.of(1, 1), 3)));
+
+        webTestClient.get().uri("http://localhost/api/v1/stocks?page=1&size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$._embedded.stockResponseDtoList[0].id").isEqualTo(7)
+                .jsonPath("$._embedded.stockResponseDtoList[0]._links.self.href").isEqualTo("http://localhost/api/v1/stocks/7")
+                .jsonPath("$._embedded.stockResponseDtoList[0]._links.stocks.href").isEqualTo("http://localhost/api/v1/stocks?page=0&size=10")
+                .jsonPath("$._links.first.href").isEqualTo("http://localhost/api/v1/stocks?page=0&size=1")
+                .jsonPath("$._links.prev.href").isEqualTo("http://localhost/api/v1/stocks?page=0&size=1")
+                .jsonPath("$._links.self.href").isEqualTo("http://localhost/api/v1/stocks?page=1&size=1")
+                .jsonPath("$._links.next.href").isEqualTo("http://localhost/api/v1/stocks?page=2&size=1")
+                .jsonPath("$._links.last.href").isEqualTo("http://localhost/api/v1/stocks?page=2&size=1")
+                .jsonPath("$.page.totalElements").isEqualTo(3);
+    }
+
+    @Test
+    public void getStocks_whenIncorrectParametersPassed_thenReturnBadRequest() {
+        webTestClient.get().uri("http://localhost/api/v1/stocks?page=-1")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Invalid request content.");
+
+        Mockito.verifyNoInteractions(reactiveStockService);
+    }
+
+    @Test
+    public void getStockById_whenStockExists_thenReturnStockWithETag() {
+        Stock stock = creatStock(5L);
+
+        Mockito.when(reactiveStockService.findStockById(5L)).thenReturn(Mono.just(stock));
+
+        webTestClient.get().uri("http://localhost/api/v1/stocks/{id}", 5L)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"")
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(5)
+                .jsonPath("$.name").isEqualTo(stock.getName())
+                .jsonPath("$.createdAt").isEqualTo(12345);
+    }
+
+    @Test
+    public void getStockById_whenStockNotFound_thenReturnNotFoundProblem() {
+        Mockito.when(reactiveStockService.findStockById(-1L)).thenReturn(Mono.error(new StockNotFoundException(-1L)));
+
+        webTestClient.get().uri("http://localhost/api/v1/stocks/{id}", -1L)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Not found")
+                .jsonPath("$.detail").isEqualTo("Stock -1 not found")
+                .jsonPath("$.instance").isEqualTo("/api/v1/stocks/-1");
+    }
+
+    @Test
+    public void createStock_whenCorrectParametersPassed_thenReturnCreatedWithLocation() {
+        Stock stock = creatRequestStock();
+
+        Mockito.when(reactiveStockService.createStock(stock)).thenReturn(Mono.just(creatStock(9L)));
+
+        webTestClient.post().uri("http://localhost/api/v1/stocks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new StockRequestDto(stock.getName(), stock.getCurrentPrice()))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(HttpHeaders.LOCATION, "http://localhost/api/v1/stocks/9")
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(9);
+    }
+
+    @Test
+    public void createStock_whenIncorrectParametersPassed_thenReturnBadRequestProblem() {
+        webTestClient.post().uri("http://localhost/api/v1/stocks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new StockRequestDto(null, BigDecimal.TEN))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Invalid request content.")
+                .jsonPath("$.detail").isEqualTo("[Stock name is required]");
+
+        Mockito.verifyNoInteractions(reactiveStockService);
+    }
+
+    @Test
+    public void createStock_whenNameTaken_thenReturnConflict() {
+        Mockito.when(reactiveStockService.createStock(Mockito.any())).thenReturn(Mono.error(new DataIntegrityViolationException("duplicate key value violates unique constraint \"stocks_lower_name_idx\"")));
+
+        webTestClient.post().uri("http://localhost/api/v1/stocks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new StockRequestDto("MSW", BigDecimal.TEN))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Conflict");
+    }
+
+    @Test
+    public void createStock_whenOtherConstraintViolated_thenReturnServerError() {
+        Mockito.when(reactiveStockService.createStock(Mockito.any())).thenReturn(Mono.error(new DataIntegrityViolationException("null value in column \"current_price\" violates not-null constraint")));
+
+        webTestClient.post().uri("http://localhost/api/v1/stocks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new StockRequestDto("MSW", BigDecimal.TEN))
+                .exchange()
+                .expectStatus().is5xxServerError();
+    }
+
+    @Test
+    public void updateStock_whenIfMatchPassed_thenUpdateExpectedVersion() {
+        Stock stock = creatRequestStock();
+
+        Mockito.when(reactiveStockService.updateStock(4L, 3L, stock)).thenReturn(Mono.just(creatStock(4L)));
+
+        webTestClient.put().uri("http://localhost/api/v1/stocks/{id}", 4L)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new StockRequestDto(stock.getName(), stock.getCurrentPrice()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"");
+
+        Mockito.verify(reactiveStockService, times(1)).updateStock(4L, 3L, stock);
+    }
+
+    @Test
+    public void updateStock_whenStockAtOtherVersion_thenReturnPreconditionFailed() {
+        Mockito.when(reactiveStockService.updateStock(Mockito.eq(4L), Mockito.eq(2L), Mockito.any())).thenReturn(Mono.error(new StockVersionMismatchException(4L, 2L)));
+
+        webTestClient.put().uri("http://localhost/api/v1/stocks/{id}", 4L)
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new StockRequestDto("MSW", BigDecimal.TEN))
+                .exchange()
+                .expectStatus().isEqualTo(412)
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Precondition failed");
+    }
+
+    @Test
+    public void updateStock_whenInvalidIfMatchPassed_thenReturnBadRequest() {
+        webTestClient.put().uri("http://localhost/api/v1/stocks/{id}", 4L)
+                .header(HttpHeaders.IF_MATCH, "W/\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new StockRequestDto("MSW", BigDecimal.TEN))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        Mockito.verifyNoInteractions(reactiveStockService);
+    }
+
+    @Test
+    public void patchStock_whenPriceSent_thenPatchAnyVersion() {
+        Stock stock = new Stock();
+        stock.setCurrentPrice(BigDecimal.ONE);
+
+        Mockito.when(reactiveStockService.patchStock(4L, null, stock)).thenReturn(Mono.just(creatStock(4L)));
+
+        webTestClient.patch().uri("http://localhost/api/v1/stocks/{id}", 4L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new StockPatchRequestDto(null, BigDecimal.ONE))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(4);
+    }
+
+    @Test
+    public void patchStock_whenNoFieldSent_thenReturnBadRequest() {
+        webTestClient.patch().uri("http://localhost/api/v1/stocks/{id}", 4L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new StockPatchRequestDto(null, null))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("[Stock name or price is required]");
+    }
+
+    @Test
+    public void deleteStock_whenStockExists_thenReturnNoContent() {
+        Mockito.when(reactiveStockService.deleteStock(3L)).thenReturn(Mono.empty());
+
+        webTestClient.delete().uri("http://localhost/api/v1/stocks/{id}", 3L)
+                .exchange()
+                .expectStatus().isNoContent()
+                .expectBody().isEmpty();
+
+        Mockito.verify(reactiveStockService, times(1)).deleteStock(3L);
+    }
+
+    @Test
+    public void deleteStock_whenStockNotFound_thenReturnNotFound() {
+        Mockito.when(reactiveStockService.deleteStock(3L)).thenReturn(Mono.error(new StockNotFoundException(3L)));
+
+        webTestClient.delete().uri("http://localhost/api/v1/stocks/{id}", 3L)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,211 @@
+package com.mithwick93.stocks.reactive.dal.repository;
+
+import com.mithwick93.stocks.modal.Stock;
+import io.r2dbc.spi.Readable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.Function;
+
+import static com.mithwick93.stocks.core.TestUtils.creatStock;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveStockRepositoryTest {
+
+    @InjectMocks
+    ReactiveStockRepository reactiveStockRepository;
+
+    @Mock
+    DatabaseClient databaseClient;
+
+    @Mock
+    DatabaseClient.GenericExecuteSpec statement;
+
+    @Mock
+    RowsFetchSpec<Object> rows;
+
+    @Mock
+    FetchSpec<Map<String, Object>> fetchSpec;
+
+    @Mock
+    Readable row;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void findAll_whenPagePassed_thenFindWithLimitAndOffset() {
+        Stock stock = creatStock(5L);
+
+        mockStatement();
+        Mockito.when(statement.map(any(Function.class))).thenReturn(rows);
+        Mockito.when(rows.all()).thenReturn(Flux.just(stock));
+
+        StepVerifier.create(reactiveStockRepository.findAll(2, 10))
+                .expectNext(stock)
+                .verifyComplete();
+
+        Mockito.verify(databaseClient).sql(ReactiveStockRepository.FIND_PAGE_SQL);
+        Mockito.verify(statement).bind("size", 10);
+        Mockito.verify(statement).bind("offset", 20L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void count_whenCalled_thenCountWithSingleStatement() {
+        Mockito.when(databaseClient.sql(anyString())).thenReturn(statement);
+        Mockito.when(statement.map(any(Function.class))).thenReturn(rows);
+        Mockito.when(rows.one()).thenReturn(Mono.just(3L));
+
+        StepVerifier.create(reactiveStockRepository.count())
+                .expectNext(3L)
+                .verifyComplete();
+
+        Mockito.verify(databaseClient).sql(ReactiveStockRepository.COUNT_SQL);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void findById_whenIdPassed_thenFindById() {
+        Stock stock = creatStock(5L);
+
+        mockStatement();
+        Mockito.when(statement.map(any(Function.class))).thenReturn(rows);
+        Mockito.when(rows.one()).thenReturn(Mono.just(stock));
+
+        StepVerifier.create(reactiveStockRepository.findById(5L))
+                .expectNext(stock)
+                .verifyComplete();
+
+        Mockito.verify(databaseClient).sql(ReactiveStockRepository.FIND_BY_ID_SQL);
+        Mockito.verify(statement).bind("id", 5L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void existsById_whenIdPassed_thenCheckExistence() {
+        mockStatement();
+        Mockito.when(statement.map(any(Function.class))).thenReturn(rows);
+        Mockito.when(rows.one()).thenReturn(Mono.just(true));
+
+        StepVerifier.create(reactiveStockRepository.existsById(5L))
+                .expectNext(true)
+                .verifyComplete();
+
+        Mockito.verify(databaseClient).sql(ReactiveStockRepository.EXISTS_BY_ID_SQL);
+        Mockito.verify(statement).bind("id", 5L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void insert_whenStockPassed_thenInsertWithSingleReturningStatement() {
+        Stock stock = creatStock(5L);
+
+        mockStatement();
+        Mockito.when(statement.map(any(Function.class))).thenReturn(rows);
+        Mockito.when(rows.one()).thenReturn(Mono.just(stock));
+
+        StepVerifier.create(reactiveStockRepository.insert(stock))
+                .expectNext(stock)
+                .verifyComplete();
+
+        Mockito.verify(databaseClient).sql(ReactiveStockRepository.INSERT_SQL);
+        Mockito.verify(statement).bind("name", stock.getName());
+        Mockito.verify(statement).bind("currentPrice", stock.getCurrentPrice());
+        Mockito.verify(statement).bind(eq("now"), any(Instant.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void updateById_whenAllColumnsAndVersionPassed_thenUpdateWithSingleConditionalStatement() {
+        Stock stock = creatStock(5L);
+
+        mockStatement();
+        Mockito.when(statement.map(any(Function.class))).thenReturn(rows);
+        Mockito.when(rows.one()).thenReturn(Mono.just(stock));
+
+        StepVerifier.create(reactiveStockRepository.updateById(5L, 2L, "MSW", BigDecimal.TEN))
+                .expectNext(stock)
+                .verifyComplete();
+
+        Mockito.verify(databaseClient).sql(
+                "UPDATE stocks SET name = :name, current_price = :currentPrice, last_update = :lastUpdate, version = version + 1 WHERE id = :id AND version = :version RETURNING *"
+        );
+        Mockito.verify(statement).bind("name", "MSW");
+        Mockito.verify(statement).bind("currentPrice", BigDecimal.TEN);
+        Mockito.verify(statement).bind(eq("lastUpdate"), any(Instant.class));
+        Mockito.verify(statement).bind("id", 5L);
+        Mockito.verify(statement).bind("version", 2L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void updateById_whenOnlyPricePassedWithoutVersion_thenOnlyWritePrice() {
+        mockStatement();
+        Mockito.when(statement.map(any(Function.class))).thenReturn(rows);
+        Mockito.when(rows.one()).thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveStockRepository.updateById(5L, null, null, BigDecimal.ONE))
+                .verifyComplete();
+
+        Mockito.verify(databaseClient).sql(
+                "UPDATE stocks SET current_price = :currentPrice, last_update = :lastUpdate, version = version + 1 WHERE id = :id RETURNING *"
+        );
+        Mockito.verify(statement, Mockito.never()).bind(eq("name"), any());
+        Mockito.verify(statement, Mockito.never()).bind(eq("version"), any());
+    }
+
+    @Test
+    public void deleteById_whenIdPassed_thenDeleteWithSingleStatement() {
+        mockStatement();
+        Mockito.when(statement.fetch()).thenReturn(fetchSpec);
+        Mockito.when(fetchSpec.rowsUpdated()).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(reactiveStockRepository.deleteById(5L))
+                .expectNext(1L)
+                .verifyComplete();
+
+        Mockito.verify(databaseClient).sql(ReactiveStockRepository.DELETE_BY_ID_SQL);
+        Mockito.verify(statement).bind("id", 5L);
+    }
+
+    @Test
+    public void toStock_whenRowPassed_thenMapAllColumns() {
+        Mockito.when(row.get("id", Long.class)).thenReturn(5L);
+        Mockito.when(row.get("name", String.class)).thenReturn("MSW");
+        Mockito.when(row.get("current_price", BigDecimal.class)).thenReturn(BigDecimal.TEN);
+        Mockito.when(row.get("created_at", Instant.class)).thenReturn(Instant.ofEpochMilli(12345));
+        Mockito.when(row.get("last_update", Instant.class)).thenReturn(Instant.ofEpochMilli(67890));
+        Mockito.when(row.get("version", Long.class)).thenReturn(3L);
+
+        Stock stock = ReactiveStockRepository.toStock(row);
+
+        assertEquals(5L, stock.getId());
+        assertEquals("MSW", stock.getName());
+        assertEquals(BigDecimal.TEN, stock.getCurrentPrice());
+        assertEquals(new Timestamp(12345), stock.getCreatedAt());
+        assertEquals(new Timestamp(67890), stock.getLastUpdate());
+        assertEquals(3L, stock.getVersion());
+    }
+
+    private void mockStatement() {
+        Mockito.when(databaseClient.sql(anyString())).thenReturn(statement);
+        Mockito.when(statement.bind(anyString(), any())).thenReturn(statement);
+    }
+}
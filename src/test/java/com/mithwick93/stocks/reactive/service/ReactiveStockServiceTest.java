@@ -0,0 +1,157 @@
+package com.mithwick93.stocks.reactive.service;
+
+import com.mithwick93.stocks.exception.StockNotFoundException;
+import com.mithwick93.stocks.exception.StockVersionMismatchException;
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.reactive.dal.repository.ReactiveStockRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+
+import static com.mithwick93.stocks.core.TestUtils.creatRequestStock;
+import static com.mithwick93.stocks.core.TestUtils.creatStock;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveStockServiceTest {
+
+    @InjectMocks
+    ReactiveStockService reactiveStockService;
+
+    @Mock
+    ReactiveStockRepository reactiveStockRepository;
+
+    @Test
+    public void findAllStocks_whenStocksExist_thenReturnPageWithTotal() {
+        Stock stock1 = creatStock(1L);
+        Stock stock2 = creatStock(2L);
+
+        Mockito.when(reactiveStockRepository.findAll(1, 2)).thenReturn(Flux.just(stock1, stock2));
+        Mockito.when(reactiveStockRepository.count()).thenReturn(Mono.just(5L));
+
+        StepVerifier.create(reactiveStockService.findAllStocks(1, 2))
+                .assertNext(stocks -> {
+                    assertEquals(2, stocks.getNumberOfElements());
+                    assertEquals(1, stocks.getNumber());
+                    assertEquals(5, stocks.getTotalElements());
+                    assertEquals(3, stocks.getTotalPages());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void findStockById_whenStockExists_thenReturnStock() {
+        Stock stock = creatStock(1L);
+
+        Mockito.when(reactiveStockRepository.findById(1L)).thenReturn(Mono.just(stock));
+
+        StepVerifier.create(reactiveStockService.findStockById(1L))
+                .expectNext(stock)
+                .verifyComplete();
+    }
+
+    @Test
+    public void findStockById_whenStockNotFound_thenThrowException() {
+        Mockito.when(reactiveStockRepository.findById(1L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveStockService.findStockById(1L))
+                .verifyError(StockNotFoundException.class);
+    }
+
+    @Test
+    public void createStock_whenCorrectParametersPassed_thenReturnCreatedStock() {
+        Stock requestStock = creatRequestStock();
+        Stock stock = creatStock(1L);
+
+        Mockito.when(reactiveStockRepository.insert(requestStock)).thenReturn(Mono.just(stock));
+
+        StepVerifier.create(reactiveStockService.createStock(requestStock))
+                .expectNext(stock)
+                .verifyComplete();
+    }
+
+    @Test
+    public void updateStock_whenStockAtExpectedVersion_thenReturnUpdatedStock() {
+        Stock requestStock = creatRequestStock();
+        Stock stock = creatStock(1L);
+
+        Mockito.when(reactiveStockRepository.updateById(1L, 3L, requestStock.getName(), requestStock.getCurrentPrice())).thenReturn(Mono.just(stock));
+
+        StepVerifier.create(reactiveStockService.updateStock(1L, 3L, requestStock))
+                .expectNext(stock)
+                .verifyComplete();
+
+        Mockito.verify(reactiveStockRepository, Mockito.never()).existsById(Mockito.anyLong());
+    }
+
+    @Test
+    public void updateStock_whenStockNotFoundWithoutVersion_thenThrowStockNotFoundException() {
+        Stock requestStock = creatRequestStock();
+
+        Mockito.when(reactiveStockRepository.updateById(1L, null, requestStock.getName(), requestStock.getCurrentPrice())).thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveStockService.updateStock(1L, null, requestStock))
+                .verifyError(StockNotFoundException.class);
+
+        Mockito.verify(reactiveStockRepository, Mockito.never()).existsById(Mockito.anyLong());
+    }
+
+    @Test
+    public void updateStock_whenStockAtOtherVersion_thenThrowStockVersionMismatchException() {
+        Stock requestStock = creatRequestStock();
+
+        Mockito.when(reactiveStockRepository.updateById(1L, 2L, requestStock.getName(), requestStock.getCurrentPrice())).thenReturn(Mono.empty());
+        Mockito.when(reactiveStockRepository.existsById(1L)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(reactiveStockService.updateStock(1L, 2L, requestStock))
+                .verifyError(StockVersionMismatchException.class);
+    }
+
+    @Test
+    public void updateStock_whenStockNotFoundWithVersion_thenThrowStockNotFoundException() {
+        Stock requestStock = creatRequestStock();
+
+        Mockito.when(reactiveStockRepository.updateById(1L, 2L, requestStock.getName(), requestStock.getCurrentPrice())).thenReturn(Mono.empty());
+        Mockito.when(reactiveStockRepository.existsById(1L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(reactiveStockService.updateStock(1L, 2L, requestStock))
+                .verifyError(StockNotFoundException.class);
+    }
+
+    @Test
+    public void patchStock_whenOnlyPriceSent_thenUpdateOnlyPrice() {
+        Stock requestStock = new Stock();
+        requestStock.setCurrentPrice(BigDecimal.ONE);
+        Stock stock = creatStock(1L);
+
+        Mockito.when(reactiveStockRepository.updateById(1L, null, null, BigDecimal.ONE)).thenReturn(Mono.just(stock));
+
+        StepVerifier.create(reactiveStockService.patchStock(1L, null, requestStock))
+                .expectNext(stock)
+                .verifyComplete();
+    }
+
+    @Test
+    public void deleteStock_whenStockExists_thenComplete() {
+        Mockito.when(reactiveStockRepository.deleteById(1L)).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(reactiveStockService.deleteStock(1L))
+                .verifyComplete();
+    }
+
+    @Test
+    public void deleteStock_whenStockNotFound_thenThrowException() {
+        Mockito.when(reactiveStockRepository.deleteById(1L)).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(reactiveStockService.deleteStock(1L))
+                .verifyError(StockNotFoundException.class);
+    }
+}
@@ -0,0 +1,73 @@
+package com.mithwick93.stocks.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mithwick93.stocks.core.TestUtils.awaitOthersWaiting;
+import static com.mithwick93.stocks.core.TestUtils.callConcurrently;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+    private static final int CALLERS = 16;
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void load_whenCalledConcurrently_thenLoadOnceAndShareValue() throws InterruptedException {
+        List<String> values = callConcurrently(CALLERS, threads -> () -> singleFlight.load(1L, () -> {
+            loads.incrementAndGet();
+            awaitOthersWaiting(threads);
+            return "MSW";
+        }));
+
+        assertEquals(1, loads.get());
+        assertEquals(Collections.nCopies(CALLERS, "MSW"), values);
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    public void load_whenLoadFailsConcurrently_thenShareExceptionAndForgetKey() throws InterruptedException {
+        IllegalStateException failure = new IllegalStateException("query timed out");
+
+        List<RuntimeException> exceptions = callConcurrently(CALLERS, threads -> () -> {
+            try {
+                singleFlight.load(1L, () -> {
+                    loads.incrementAndGet();
+                    awaitOthersWaiting(threads);
+                    throw failure;
+                });
+                return null;
+            } catch (RuntimeException ex) {
+                return ex;
+            }
+        });
+
+        assertEquals(1, loads.get());
+        exceptions.forEach(exception -> assertSame(failure, exception));
+        assertEquals(0, singleFlight.getInFlightCount());
+        assertEquals("MSW", singleFlight.load(1L, () -> "MSW"));
+    }
+
+    @Test
+    public void load_whenPreviousLoadFinished_thenLoadAgain() {
+        singleFlight.load(1L, () -> "MSW" + loads.incrementAndGet());
+
+        assertEquals("MSW2", singleFlight.load(1L, () -> "MSW" + loads.incrementAndGet()));
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    public void load_whenLoaderFails_thenRethrowAndForgetKey() {
+        assertThrows(IllegalStateException.class, () -> singleFlight.load(1L, () -> {
+            throw new IllegalStateException("connection refused");
+        }));
+
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+}
@@ -0,0 +1,101 @@
+package com.mithwick93.stocks.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mithwick93.stocks.core.TestUtils.creatStock;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StockCountCacheTest {
+    private final MutableClock clock = new MutableClock();
+    private final StockCountCache stockCountCache = new StockCountCache(properties(Duration.ofSeconds(30)), clock);
+    private final AtomicInteger counts = new AtomicInteger();
+
+    @Test
+    public void get_whenCalledWithinTtl_thenCountOnce() {
+        assertEquals(1, stockCountCache.get(this::count));
+        clock.advance(Duration.ofSeconds(29));
+        assertEquals(1, stockCountCache.get(this::count));
+
+        assertEquals(1, counts.get());
+    }
+
+    @Test
+    public void get_whenTtlExpired_thenCountAgain() {
+        stockCountCache.get(this::count);
+        clock.advance(Duration.ofSeconds(30));
+
+        assertEquals(2, stockCountCache.get(this::count));
+    }
+
+    @Test
+    public void onStockChanged_whenStockCreatedOrDeleted_thenCountAgain() {
+        stockCountCache.get(this::count);
+        stockCountCache.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.CREATED, List.of(creatStock())));
+
+        assertEquals(2, stockCountCache.get(this::count));
+
+        stockCountCache.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.DELETED, List.of(creatStock())));
+
+        assertEquals(3, stockCountCache.get(this::count));
+    }
+
+    @Test
+    public void onStockChanged_whenStockUpdated_thenKeepCount() {
+        stockCountCache.get(this::count);
+        stockCountCache.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(creatStock())));
+
+        assertEquals(1, stockCountCache.get(this::count));
+    }
+
+    @Test
+    public void get_whenInvalidatedWhileCounting_thenDoNotKeepCount() {
+        assertEquals(1, stockCountCache.get(() -> {
+            stockCountCache.invalidate();
+            return count();
+        }));
+
+        assertEquals(2, stockCountCache.get(this::count));
+    }
+
+    private long count() {
+        return counts.incrementAndGet();
+    }
+
+    private static StockCountProperties properties(Duration cacheTtl) {
+        StockCountProperties stockCountProperties = new StockCountProperties();
+        stockCountProperties.setCacheTtl(cacheTtl);
+
+        return stockCountProperties;
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant = Instant.ofEpochMilli(1_000_000L);
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
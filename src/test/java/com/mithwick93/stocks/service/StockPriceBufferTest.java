@@ -0,0 +1,206 @@
+package com.mithwick93.stocks.service;
+
+import com.mithwick93.stocks.exception.StockNotFoundException;
+import com.mithwick93.stocks.exception.StockPriceBufferFullException;
+import com.mithwick93.stocks.modal.StockPrice;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static com.mithwick93.stocks.core.TestUtils.creatStock;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+
+class StockPriceBufferTest {
+    private static final Instant NOW = Instant.parse("2023-03-15T10:00:00Z");
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StockService stockService = Mockito.mock(StockService.class);
+    private StockPriceBuffer stockPriceBuffer;
+
+    @AfterEach
+    public void destroy() throws InterruptedException {
+        stockPriceBuffer.destroy();
+    }
+
+    @Test
+    public void put_whenStockUpdatedTwiceBeforeFlush_thenWriteOnlyLatestPrice() {
+        stockPriceBuffer = new StockPriceBuffer(stockService, properties(true, 10, 10), meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+        Mockito.when(stockService.updateStockPrices(anyCollection())).thenReturn(List.of(creatStock(1L), creatStock(2L)));
+
+        stockPriceBuffer.put(1L, BigDecimal.ONE);
+        stockPriceBuffer.put(2L, BigDecimal.TEN);
+        stockPriceBuffer.put(1L, BigDecimal.valueOf(2));
+
+        assertEquals(Optional.of(stockPrice(1L, BigDecimal.valueOf(2))), stockPriceBuffer.get(1L));
+        assertTrue(stockPriceBuffer.flush());
+        Mockito.verify(stockService, times(1)).updateStockPrices(List.of(stockPrice(1L, BigDecimal.valueOf(2)), stockPrice(2L, BigDecimal.TEN)));
+        assertEquals(0, stockPriceBuffer.getPendingCount());
+        assertEquals(1, meterRegistry.counter("stock.price.buffer.coalesced").count());
+        assertEquals(2, meterRegistry.counter("stock.price.buffer.flushed").count());
+    }
+
+    @Test
+    public void flush_whenMorePricesThanBatchSize_thenWriteOneStatementPerBatch() {
+        stockPriceBuffer = new StockPriceBuffer(stockService, properties(true, 2, 10), meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+        Mockito.when(stockService.updateStockPrices(anyCollection())).thenAnswer(invocation -> invocation.<Collection<StockPrice>>getArgument(0)
+                .stream()
+                .map(stockPrice -> creatStock(stockPrice.getStockId()))
+                .toList());
+
+        stockPriceBuffer.put(1L, BigDecimal.ONE);
+        stockPriceBuffer.put(2L, BigDecimal.ONE);
+        stockPriceBuffer.put(3L, BigDecimal.ONE);
+
+        assertTrue(stockPriceBuffer.flush());
+        Mockito.verify(stockService, times(2)).updateStockPrices(anyCollection());
+        assertEquals(0, stockPriceBuffer.getPendingCount());
+    }
+
+    @Test
+    public void flush_whenStockNotUpdated_thenDropPriceAndCountIt() {
+        stockPriceBuffer = new StockPriceBuffer(stockService, properties(true, 10, 10), meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+        Mockito.when(stockService.updateStockPrices(anyCollection())).thenReturn(List.of());
+
+        stockPriceBuffer.put(-2L, BigDecimal.ONE);
+
+        assertTrue(stockPriceBuffer.flush());
+        assertEquals(0, stockPriceBuffer.getPendingCount());
+        assertEquals(1, meterRegistry.counter("stock.price.buffer.skipped").count());
+    }
+
+    @Test
+    public void flush_whenWriteFails_thenKeepPricesForNextFlush() {
+        stockPriceBuffer = new StockPriceBuffer(stockService, properties(true, 10, 10), meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+        Mockito.when(stockService.updateStockPrices(anyCollection()))
+                .thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(List.of(creatStock(1L)));
+
+        stockPriceBuffer.put(1L, BigDecimal.ONE);
+
+        assertFalse(stockPriceBuffer.flush());
+        assertEquals(Optional.of(stockPrice(1L, BigDecimal.ONE)), stockPriceBuffer.get(1L));
+        assertEquals(1, meterRegistry.counter("stock.price.buffer.failed").count());
+        assertTrue(stockPriceBuffer.flush());
+        assertEquals(Optional.empty(), stockPriceBuffer.get(1L));
+    }
+
+    @Test
+    public void put_whenBufferFull_thenRejectNewStocksButReplaceBufferedPrices() {
+        stockPriceBuffer = new StockPriceBuffer(stockService, properties(true, 10, 2), meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        stockPriceBuffer.put(1L, BigDecimal.ONE);
+        stockPriceBuffer.put(2L, BigDecimal.ONE);
+
+        StockPriceBufferFullException exception = assertThrows(StockPriceBufferFullException.class, () -> stockPriceBuffer.put(3L, BigDecimal.ONE));
+        assertEquals(Duration.ofSeconds(1), exception.getRetryAfter());
+        stockPriceBuffer.put(2L, BigDecimal.TEN);
+        assertEquals(Optional.of(stockPrice(2L, BigDecimal.TEN)), stockPriceBuffer.get(2L));
+        assertEquals(Optional.empty(), stockPriceBuffer.get(3L));
+        assertEquals(1, meterRegistry.counter("stock.price.buffer.rejected").count());
+    }
+
+    @Test
+    public void destroy_whenPricesBuffered_thenFlushThemAndRejectLaterPrices() throws InterruptedException {
+        stockPriceBuffer = new StockPriceBuffer(stockService, properties(true, 10, 10), meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+        Mockito.when(stockService.updateStockPrices(anyCollection())).thenReturn(List.of(creatStock(1L)));
+
+        stockPriceBuffer.put(1L, BigDecimal.ONE);
+        stockPriceBuffer.destroy();
+
+        Mockito.verify(stockService, times(1)).updateStockPrices(List.of(stockPrice(1L, BigDecimal.ONE)));
+        assertEquals(0, stockPriceBuffer.getPendingCount());
+        assertThrows(StockPriceBufferFullException.class, () -> stockPriceBuffer.put(2L, BigDecimal.ONE));
+    }
+
+    @Test
+    public void destroy_whenFinalFlushFails_thenCountLostPrices() throws InterruptedException {
+        stockPriceBuffer = new StockPriceBuffer(stockService, properties(true, 10, 10), meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+        Mockito.when(stockService.updateStockPrices(anyCollection())).thenThrow(new IllegalStateException("connection refused"));
+
+        stockPriceBuffer.put(1L, BigDecimal.ONE);
+        stockPriceBuffer.destroy();
+
+        assertEquals(1, meterRegistry.counter("stock.price.buffer.lost").count());
+    }
+
+    @Test
+    public void put_whenBatchSizeReached_thenFlushBeforeInterval() {
+        stockPriceBuffer = new StockPriceBuffer(stockService, properties(true, 2, 10), meterRegistry);
+        stockPriceBuffer.afterPropertiesSet();
+        Mockito.when(stockService.updateStockPrices(anyCollection())).thenReturn(List.of(creatStock(1L), creatStock(2L)));
+
+        stockPriceBuffer.put(1L, BigDecimal.ONE);
+        stockPriceBuffer.put(2L, BigDecimal.ONE);
+
+        Mockito.verify(stockService, timeout(5000)).updateStockPrices(anyCollection());
+    }
+
+    @Test
+    public void put_whenWriteBehindDisabled_thenWriteBeforeReturning() {
+        stockPriceBuffer = new StockPriceBuffer(stockService, properties(false, 10, 10), meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+        Mockito.when(stockService.updateStockPrices(List.of(stockPrice(1L, BigDecimal.ONE)))).thenReturn(List.of(creatStock(1L)));
+
+        stockPriceBuffer.put(1L, BigDecimal.ONE);
+
+        Mockito.verify(stockService, times(1)).updateStockPrices(List.of(stockPrice(1L, BigDecimal.ONE)));
+        assertEquals(0, stockPriceBuffer.getPendingCount());
+        Mockito.when(stockService.findStockById(-2L)).thenThrow(new StockNotFoundException(-2L));
+        assertThrows(StockNotFoundException.class, () -> stockPriceBuffer.put(-2L, BigDecimal.ONE));
+    }
+
+    @Test
+    public void afterPropertiesSet_whenWriteBehindEnabled_thenStartWorker() {
+        stockPriceBuffer = new StockPriceBuffer(stockService, properties(true, 10, 10), meterRegistry);
+
+        assertFalse(isWorkerRunning());
+        stockPriceBuffer.afterPropertiesSet();
+        assertTrue(isWorkerRunning());
+    }
+
+    @Test
+    public void afterPropertiesSet_whenWriteBehindDisabled_thenDoNotStartWorker() {
+        stockPriceBuffer = new StockPriceBuffer(stockService, properties(false, 10, 10), meterRegistry);
+
+        stockPriceBuffer.afterPropertiesSet();
+
+        assertFalse(isWorkerRunning());
+    }
+
+    private static boolean isWorkerRunning() {
+        return Thread.getAllStackTraces()
+                .keySet()
+                .stream()
+                .anyMatch(thread -> thread.getName().equals("stock-price-buffer"));
+    }
+
+    private static StockPrice stockPrice(long stockId, BigDecimal price) {
+        return new StockPrice(stockId, price, NOW);
+    }
+
+    private static StockPriceBufferProperties properties(boolean writeBehind, int batchSize, int maxPending) {
+        StockPriceBufferProperties stockPriceBufferProperties = new StockPriceBufferProperties();
+        stockPriceBufferProperties.setWriteBehind(writeBehind);
+        stockPriceBufferProperties.setFlushInterval(Duration.ofHours(1));
+        stockPriceBufferProperties.setBatchSize(batchSize);
+        stockPriceBufferProperties.setMaxPending(maxPending);
+
+        return stockPriceBufferProperties;
+    }
+}
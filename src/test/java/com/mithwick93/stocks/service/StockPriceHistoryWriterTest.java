@@ -0,0 +1,139 @@
+package com.mithwick93.stocks.service;
+
+import com.mithwick93.stocks.dal.repository.StockPriceHistoryRepository;
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockPrice;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.mithwick93.stocks.core.TestUtils.creatStock;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+
+class StockPriceHistoryWriterTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StockPriceHistoryRepository stockPriceHistoryRepository = Mockito.mock(StockPriceHistoryRepository.class);
+    private StockPriceHistoryWriter stockPriceHistoryWriter;
+
+    @AfterEach
+    public void destroy() throws InterruptedException {
+        stockPriceHistoryWriter.destroy();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void record_whenNoTransactionActive_thenInsertPricesOnBackgroundThread() {
+        stockPriceHistoryWriter = new StockPriceHistoryWriter(stockPriceHistoryRepository, properties(10, 10), meterRegistry);
+        stockPriceHistoryWriter.afterPropertiesSet();
+        Stock stock = creatStock(5L);
+
+        stockPriceHistoryWriter.record(List.of(stock));
+
+        Mockito.verify(stockPriceHistoryRepository, timeout(5000)).insertAll(List.of(StockPrice.of(stock)));
+        Mockito.verify(stockPriceHistoryRepository).createPartition(LocalDate.of(1970, 1, 1));
+    }
+
+    @Test
+    public void record_whenTransactionNotCommitted_thenDoNotInsertPrices() throws InterruptedException {
+        stockPriceHistoryWriter = new StockPriceHistoryWriter(stockPriceHistoryRepository, properties(10, 10), meterRegistry);
+        stockPriceHistoryWriter.afterPropertiesSet();
+        TransactionSynchronizationManager.initSynchronization();
+
+        stockPriceHistoryWriter.record(List.of(creatStock(6L)));
+        stockPriceHistoryWriter.destroy();
+
+        Mockito.verifyNoInteractions(stockPriceHistoryRepository);
+    }
+
+    @Test
+    public void record_whenTransactionCommitted_thenRecordPricesAtCommit() {
+        stockPriceHistoryWriter = new StockPriceHistoryWriter(stockPriceHistoryRepository, properties(10, 10), meterRegistry);
+        stockPriceHistoryWriter.afterPropertiesSet();
+        Stock stock = creatStock(7L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        stockPriceHistoryWriter.record(List.of(stock));
+        stock.setLastUpdate(Timestamp.from(Instant.parse("2023-03-15T10:00:00Z")));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        Mockito.verify(stockPriceHistoryRepository, timeout(5000)).insertAll(List.of(new StockPrice(7L, stock.getCurrentPrice(), Instant.parse("2023-03-15T10:00:00Z"))));
+        Mockito.verify(stockPriceHistoryRepository).createPartition(LocalDate.of(2023, 3, 1));
+    }
+
+    @Test
+    public void record_whenQueueIsFull_thenDropPricesAndCountThem() throws InterruptedException {
+        stockPriceHistoryWriter = new StockPriceHistoryWriter(stockPriceHistoryRepository, properties(2, 10), meterRegistry);
+        stockPriceHistoryWriter.destroy();
+
+        stockPriceHistoryWriter.record(List.of(creatStock(1L), creatStock(2L), creatStock(3L), creatStock(4L)));
+
+        assertEquals(2.0, meterRegistry.get("stock.price.history.dropped").counter().count());
+        assertEquals(2.0, meterRegistry.get("stock.price.history.queue.size").gauge().value());
+    }
+
+    @Test
+    public void destroy_whenPricesQueued_thenWriteThemInBatches() throws InterruptedException {
+        Mockito.doThrow(new IllegalStateException("Partition exists")).when(stockPriceHistoryRepository).createPartition(any());
+        stockPriceHistoryWriter = new StockPriceHistoryWriter(stockPriceHistoryRepository, properties(10, 2), meterRegistry);
+        stockPriceHistoryWriter.afterPropertiesSet();
+
+        stockPriceHistoryWriter.record(List.of(creatStock(1L), creatStock(2L), creatStock(3L)));
+        stockPriceHistoryWriter.destroy();
+
+        Mockito.verify(stockPriceHistoryRepository, times(1)).createPartition(LocalDate.of(1970, 1, 1));
+        Mockito.verify(stockPriceHistoryRepository, Mockito.atLeast(2)).insertAll(anyCollection());
+    }
+
+    @Test
+    public void destroy_whenInsertFails_thenCountFailedPrices() throws InterruptedException {
+        Mockito.doThrow(new IllegalStateException("Database down")).when(stockPriceHistoryRepository).insertAll(anyCollection());
+        stockPriceHistoryWriter = new StockPriceHistoryWriter(stockPriceHistoryRepository, properties(10, 10), meterRegistry);
+        stockPriceHistoryWriter.afterPropertiesSet();
+
+        stockPriceHistoryWriter.record(List.of(creatStock(1L)));
+        stockPriceHistoryWriter.destroy();
+
+        assertEquals(1.0, meterRegistry.get("stock.price.history.failed").counter().count());
+    }
+
+    @Test
+    public void afterPropertiesSet_whenCalled_thenStartWorker() {
+        stockPriceHistoryWriter = new StockPriceHistoryWriter(stockPriceHistoryRepository, properties(10, 10), meterRegistry);
+
+        assertFalse(isWorkerRunning());
+        stockPriceHistoryWriter.afterPropertiesSet();
+        assertTrue(isWorkerRunning());
+    }
+
+    private static boolean isWorkerRunning() {
+        return Thread.getAllStackTraces()
+                .keySet()
+                .stream()
+                .anyMatch(thread -> thread.getName().equals("stock-price-history-writer"));
+    }
+
+    private static StockPriceHistoryProperties properties(int queueCapacity, int batchSize) {
+        StockPriceHistoryProperties stockPriceHistoryProperties = new StockPriceHistoryProperties();
+        stockPriceHistoryProperties.setQueueCapacity(queueCapacity);
+        stockPriceHistoryProperties.setBatchSize(batchSize);
+
+        return stockPriceHistoryProperties;
+    }
+}
@@ -0,0 +1,316 @@
+package com.mithwick93.stocks.service;
+
+import com.mithwick93.stocks.Constants;
+import com.mithwick93.stocks.configuration.CacheConfiguration;
+import com.mithwick93.stocks.dal.repository.StockPriceHistoryRepository;
+import com.mithwick93.stocks.dal.repository.StockRepository;
+import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockPrice;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.mithwick93.stocks.core.TestUtils.creatRequestStock;
+import static com.mithwick93.stocks.core.TestUtils.creatStock;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+
+@SpringJUnitConfig({CacheConfiguration.class, StockService.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+@TestPropertySource(properties = {
+        "spring.cache.type=caffeine",
+        "spring.cache.cache-names=" + Constants.STOCKS_CACHE_NAME,
+        "spring.cache.caffeine.spec=maximumSize=10,recordStats"
+})
+class StockServiceCacheTest {
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final TransactionTemplate failingCommitTransaction = new TransactionTemplate(new FailingCommitTransactionManager());
+
+    @MockBean
+    private StockRepository stockRepository;
+
+    @MockBean
+    private EntityManager entityManager;
+
+    @MockBean
+    private StockPriceHistoryRepository stockPriceHistoryRepository;
+
+    @MockBean
+    private StockPriceHistoryWriter stockPriceHistoryWriter;
+
+    @MockBean
+    private StockSymbolIndex stockSymbolIndex;
+
+    @MockBean
+    private StockCountCache stockCountCache;
+
+    @BeforeEach
+    public void init() {
+        cacheManager.getCache(Constants.STOCKS_CACHE_NAME).clear();
+    }
+
+    @Test
+    public void findStockById_whenCalledTwice_thenQueryRepositoryOnce() {
+        long id = 1234L;
+        Stock expectedStock = creatStock(id);
+
+        Mockito.when(stockRepository.findById(id)).thenReturn(Optional.of(expectedStock));
+
+        stockService.findStockById(id);
+        Stock resultStock = stockService.findStockById(id);
+
+        Mockito.verify(stockRepository, times(1)).findById(id);
+        assertEquals(expectedStock, resultStock);
+    }
+
+    @Test
+    public void findStockByName_whenNameKnownAndStockCached_thenDoNotQueryRepository() {
+        long id = 1240L;
+        Stock expectedStock = creatStock(id);
+
+        Mockito.when(stockRepository.findById(id)).thenReturn(Optional.of(expectedStock));
+        Mockito.when(stockSymbolIndex.findId(expectedStock.getName())).thenReturn(id);
+
+        stockService.findStockById(id);
+        Stock resultStock = stockService.findStockByName(expectedStock.getName());
+        Stock repeatedResultStock = stockService.findStockByName(expectedStock.getName());
+
+        Mockito.verify(stockRepository, times(1)).findById(id);
+        Mockito.verify(stockRepository, Mockito.never()).findByNameIgnoreCase(Mockito.anyString());
+        assertEquals(expectedStock, resultStock);
+        assertEquals(expectedStock, repeatedResultStock);
+    }
+
+    @Test
+    public void findStockByName_whenNameKnownAndStockNotCached_thenCacheStockLoadedById() {
+        long id = 1241L;
+        Stock expectedStock = creatStock(id);
+
+        Mockito.when(stockRepository.findById(id)).thenReturn(Optional.of(expectedStock));
+        Mockito.when(stockSymbolIndex.findId(expectedStock.getName())).thenReturn(id);
+
+        stockService.findStockByName(expectedStock.getName());
+        Stock resultStock = stockService.findStockById(id);
+
+        Mockito.verify(stockRepository, times(1)).findById(id);
+        assertEquals(expectedStock, resultStock);
+    }
+
+    @Test
+    public void createStock_whenCalled_thenCacheCreatedStock() {
+        long id = 1235L;
+        Stock requestStock = creatRequestStock();
+        Stock createdStock = creatStock(id);
+
+        Mockito.when(stockRepository.save(requestStock)).thenReturn(createdStock);
+
+        stockService.createStock(requestStock);
+        Stock resultStock = stockService.findStockById(id);
+
+        Mockito.verify(stockRepository, Mockito.never()).findById(id);
+        assertEquals(createdStock, resultStock);
+    }
+
+    @Test
+    public void updateStock_whenCalled_thenReplaceCachedStock() {
+        long id = 1236L;
+        Stock existingStock = creatStock(id);
+        Stock requestStock = creatRequestStock();
+        Stock updatedStock = creatStock(id);
+        updatedStock.setName(requestStock.getName());
+        updatedStock.setCurrentPrice(requestStock.getCurrentPrice());
+
+        Mockito.when(stockRepository.findById(id)).thenReturn(Optional.of(existingStock));
+        Mockito.when(stockRepository.updateById(id, null, requestStock.getName(), requestStock.getCurrentPrice())).thenReturn(Optional.of(updatedStock));
+
+        stockService.findStockById(id);
+        stockService.updateStock(id, null, requestStock);
+        Stock resultStock = stockService.findStockById(id);
+
+        assertEquals(updatedStock, resultStock);
+    }
+
+    @Test
+    public void updateStockPrices_whenCalled_thenReplaceOnlyUpdatedCachedStocks() {
+        Stock otherStock = creatStock(1239L);
+        Stock updatedStock = creatStock(1238L);
+        updatedStock.setCurrentPrice(BigDecimal.TEN);
+        List<StockPrice> stockPrices = List.of(StockPrice.builder().stockId(1238L).price(BigDecimal.TEN).recordedAt(Instant.now()).build());
+
+        Mockito.when(stockRepository.findById(1238L)).thenReturn(Optional.of(creatStock(1238L)));
+        Mockito.when(stockRepository.findById(1239L)).thenReturn(Optional.of(otherStock));
+        Mockito.when(stockRepository.updatePrices(stockPrices)).thenReturn(List.of(updatedStock));
+
+        stockService.findStockById(1238L);
+        stockService.findStockById(1239L);
+        stockService.updateStockPrices(stockPrices);
+
+        assertEquals(updatedStock, stockService.findStockById(1238L));
+        assertEquals(otherStock, stockService.findStockById(1239L));
+        Mockito.verify(stockRepository, times(1)).findById(1238L);
+        Mockito.verify(stockRepository, times(1)).findById(1239L);
+    }
+
+    @Test
+    public void updateStocks_whenCalled_thenReplaceOnlyUpdatedCachedStocks() {
+        Stock otherStock = creatStock(1241L);
+        Stock existingStock = creatStock(1240L);
+        Stock requestStock = creatRequestStock();
+        requestStock.setCurrentPrice(BigDecimal.TEN);
+
+        Mockito.when(stockRepository.findById(1240L)).thenReturn(Optional.of(creatStock(1240L)));
+        Mockito.when(stockRepository.findById(1241L)).thenReturn(Optional.of(otherStock));
+        Mockito.when(stockRepository.findAllById(Set.of(1240L))).thenReturn(List.of(existingStock));
+        Mockito.when(stockRepository.saveAll(List.of(existingStock))).thenReturn(List.of(existingStock));
+
+        stockService.findStockById(1240L);
+        stockService.findStockById(1241L);
+        stockService.updateStocks(Map.of(1240L, requestStock));
+
+        assertEquals(0, BigDecimal.TEN.compareTo(stockService.findStockById(1240L).getCurrentPrice()));
+        assertEquals(otherStock, stockService.findStockById(1241L));
+        Mockito.verify(stockRepository, times(1)).findById(1240L);
+        Mockito.verify(stockRepository, times(1)).findById(1241L);
+    }
+
+    @Test
+    public void updateStocks_whenCommitFails_thenKeepCachedStock() {
+        Stock cachedStock = creatStock(1247L);
+        Stock existingStock = creatStock(1247L);
+        Stock requestStock = creatRequestStock();
+        requestStock.setName("RENAMED");
+
+        Mockito.when(stockRepository.findById(1247L)).thenReturn(Optional.of(cachedStock));
+        Mockito.when(stockRepository.findAllById(Set.of(1247L))).thenReturn(List.of(existingStock));
+        Mockito.when(stockRepository.saveAll(List.of(existingStock))).thenReturn(List.of(existingStock));
+
+        stockService.findStockById(1247L);
+        assertThrows(TransactionSystemException.class, () -> failingCommitTransaction.executeWithoutResult(
+                status -> stockService.updateStocks(Map.of(1247L, requestStock))
+        ));
+
+        assertEquals(cachedStock.getName(), stockService.findStockById(1247L).getName());
+        Mockito.verify(stockRepository, times(1)).findById(1247L);
+    }
+
+    @Test
+    public void updateStock_whenCommitFails_thenKeepCachedStock() {
+        long id = 1248L;
+        Stock cachedStock = creatStock(id);
+        Stock requestStock = creatRequestStock();
+        requestStock.setName("RENAMED");
+        Stock updatedStock = creatStock(id);
+        updatedStock.setName(requestStock.getName());
+
+        Mockito.when(stockRepository.findById(id)).thenReturn(Optional.of(cachedStock));
+        Mockito.when(stockRepository.updateById(id, null, requestStock.getName(), requestStock.getCurrentPrice())).thenReturn(Optional.of(updatedStock));
+
+        stockService.findStockById(id);
+        assertThrows(TransactionSystemException.class, () -> failingCommitTransaction.executeWithoutResult(
+                status -> stockService.updateStock(id, null, requestStock)
+        ));
+
+        assertEquals(cachedStock.getName(), stockService.findStockById(id).getName());
+        Mockito.verify(stockRepository, times(1)).findById(id);
+    }
+
+    @Test
+    public void deleteStock_whenCalled_thenEvictCachedStock() {
+        long id = 1237L;
+
+        Mockito.when(stockRepository.findById(id)).thenReturn(Optional.of(creatStock(id)));
+        Mockito.when(stockRepository.deleteAllByIds(List.of(id))).thenReturn(List.of(creatStock(id)));
+
+        stockService.findStockById(id);
+        stockService.deleteStock(id);
+
+        assertNull(cacheManager.getCache(Constants.STOCKS_CACHE_NAME).get(id));
+    }
+
+    @Test
+    public void deleteStocks_whenCalled_thenEvictOnlyDeletedCachedStocks() {
+        Stock otherStock = creatStock(1243L);
+
+        Mockito.when(stockRepository.findById(1242L)).thenReturn(Optional.of(creatStock(1242L)));
+        Mockito.when(stockRepository.findById(1243L)).thenReturn(Optional.of(otherStock));
+        Mockito.when(stockRepository.deleteAllByIds(List.of(1242L, 1244L))).thenReturn(List.of(creatStock(1242L)));
+
+        stockService.findStockById(1242L);
+        stockService.findStockById(1243L);
+        stockService.deleteStocks(List.of(1242L, 1244L));
+
+        assertNull(cacheManager.getCache(Constants.STOCKS_CACHE_NAME).get(1242L));
+        assertEquals(otherStock, stockService.findStockById(1243L));
+        Mockito.verify(stockRepository, times(1)).findById(1243L);
+    }
+
+    @Test
+    public void deleteStocksUpdatedBefore_whenCalled_thenEvictOnlyDeletedCachedStocks() {
+        Instant updatedBefore = Instant.now();
+        Stock otherStock = creatStock(1246L);
+
+        Mockito.when(stockRepository.findById(1245L)).thenReturn(Optional.of(creatStock(1245L)));
+        Mockito.when(stockRepository.findById(1246L)).thenReturn(Optional.of(otherStock));
+        Mockito.when(stockRepository.deleteAllUpdatedBefore(updatedBefore)).thenReturn(List.of(creatStock(1245L)));
+
+        stockService.findStockById(1245L);
+        stockService.findStockById(1246L);
+        stockService.deleteStocksUpdatedBefore(updatedBefore);
+
+        assertNull(cacheManager.getCache(Constants.STOCKS_CACHE_NAME).get(1245L));
+        assertEquals(otherStock, stockService.findStockById(1246L));
+        Mockito.verify(stockRepository, times(1)).findById(1246L);
+    }
+
+    /**
+     * Transaction manager whose commits fail, like a commit violating a constraint checked at flush.
+     */
+    private static class FailingCommitTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            throw new TransactionSystemException("Commit failed");
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -1,27 +1,60 @@
 package com.mithwick93.stocks.service;
 
+import com.mithwick93.stocks.Constants;
+import com.mithwick93.stocks.dal.datasource.PrimaryPin;
+import com.mithwick93.stocks.dal.repository.StockPriceHistoryRepository;
 import com.mithwick93.stocks.dal.repository.StockRepository;
+import com.mithwick93.stocks.dal.repository.StocksVersion;
 import com.mithwick93.stocks.exception.StockNotFoundException;
+import com.mithwick93.stocks.exception.StockVersionMismatchException;
+import com.mithwick93.stocks.modal.CandleInterval;
 import com.mithwick93.stocks.modal.Stock;
+import com.mithwick93.stocks.modal.StockCandle;
+import com.mithwick93.stocks.modal.StockCountMode;
+import com.mithwick93.stocks.modal.StockField;
+import com.mithwick93.stocks.modal.StockFilter;
+import com.mithwick93.stocks.modal.StockPrice;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.math.BigDecimal;
 import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
+import static com.mithwick93.stocks.core.TestUtils.awaitOthersWaiting;
+import static com.mithwick93.stocks.core.TestUtils.callConcurrently;
 import static com.mithwick93.stocks.core.TestUtils.creatRequestStock;
 import static com.mithwick93.stocks.core.TestUtils.creatStock;
+import static com.mithwick93.stocks.core.TestUtils.creatStockCandle;
+import static com.mithwick93.stocks.core.TestUtils.creatStocksVersion;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.times;
 
@@ -34,22 +67,175 @@ class StockServiceTest {
     @Mock
     StockRepository stockRepository;
 
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    StockPriceHistoryRepository stockPriceHistoryRepository;
+
+    @Mock
+    StockPriceHistoryWriter stockPriceHistoryWriter;
+
+    @Mock
+    ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    StockSymbolIndex stockSymbolIndex;
+
+    @Mock
+    StockCountCache stockCountCache;
+
+    @Mock
+    CacheManager cacheManager;
+
+    @Mock
+    Cache cache;
+
+    @Test
+    public void findAllStocks_whenMoreStocksThanTotal_thenReturnPageWithoutCounting() {
+        Pageable pageable = PageRequest.of(1, 2);
+        Slice<Stock> stocksSlice = new SliceImpl<>(List.of(creatStock(3L), creatStock(4L)), pageable, true);
+
+        Mockito.when(stockRepository.findAllBy(Mockito.any(), Mockito.eq(pageable))).thenReturn(stocksSlice);
+
+        Page<Stock> resultStocksPage = stockService.findAllStocks(StockFilter.NONE, pageable, 3, StockField.ALL);
+
+        Mockito.verify(stockRepository, Mockito.never()).count();
+        assertEquals(2, resultStocksPage.getContent().size());
+        assertEquals(5, resultStocksPage.getTotalElements());
+        assertEquals(3, resultStocksPage.getTotalPages());
+    }
+
+    @Test
+    public void findAllStocks_whenLastPageFetched_thenReturnTotalOfFetchedStocks() {
+        Pageable pageable = PageRequest.of(1, 2);
+        Slice<Stock> stocksSlice = new SliceImpl<>(List.of(creatStock(3L)), pageable, false);
+
+        Mockito.when(stockRepository.findAllBy(Mockito.any(), Mockito.eq(pageable))).thenReturn(stocksSlice);
+
+        Page<Stock> resultStocksPage = stockService.findAllStocks(StockFilter.NONE, pageable, 100, StockField.ALL);
+
+        assertEquals(3, resultStocksPage.getTotalElements());
+        assertFalse(resultStocksPage.hasNext());
+    }
+
+    @Test
+    public void findAllStocks_whenPageAfterLastFetched_thenReturnGivenTotal() {
+        Pageable pageable = PageRequest.of(5, 2);
+
+        Mockito.when(stockRepository.findAllBy(Mockito.any(), Mockito.eq(pageable))).thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        Page<Stock> resultStocksPage = stockService.findAllStocks(StockFilter.NONE, pageable, 3, StockField.ALL);
+
+        assertEquals(3, resultStocksPage.getTotalElements());
+    }
+
+    @Test
+    public void findStocksSlice_whenPageParametersPassed_thenReturnSliceWithoutCounting() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Slice<Stock> stocksSlice = new SliceImpl<>(List.of(creatStock()), pageable, false);
+
+        Mockito.when(stockRepository.findAllBy(Mockito.any(), Mockito.eq(pageable))).thenReturn(stocksSlice);
+
+        Slice<Stock> resultStocksSlice = stockService.findStocksSlice(StockFilter.NONE, pageable, StockField.ALL);
+
+        Mockito.verify(stockRepository, Mockito.never()).count();
+        assertEquals(stocksSlice, resultStocksSlice);
+    }
+
+    @Test
+    public void findAllStocks_whenSparseFieldsPassed_thenSelectOnlyThoseFields() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Set<StockField> fields = EnumSet.of(StockField.ID, StockField.CURRENT_PRICE);
+        Slice<Stock> stocksSlice = new SliceImpl<>(List.of(creatStock()), pageable, false);
+
+        Mockito.when(stockRepository.findAllBy(Mockito.any(), Mockito.eq(pageable), Mockito.eq(fields))).thenReturn(stocksSlice);
+
+        Page<Stock> resultStocksPage = stockService.findAllStocks(StockFilter.NONE, pageable, 1, fields);
+
+        assertEquals(stocksSlice.getContent(), resultStocksPage.getContent());
+        Mockito.verify(stockRepository, Mockito.never()).findAllBy(Mockito.any(), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    public void countStocks_whenExact_thenCountStocks() {
+        Mockito.when(stockRepository.count()).thenReturn(42L);
+
+        assertEquals(42L, stockService.countStocks(StockCountMode.EXACT, StockFilter.NONE));
+        Mockito.verifyNoInteractions(stockCountCache);
+    }
+
+    @Test
+    public void countStocks_whenCached_thenCountThroughCache() {
+        Mockito.when(stockCountCache.get(Mockito.any())).thenReturn(42L);
+
+        assertEquals(42L, stockService.countStocks(StockCountMode.CACHED, StockFilter.NONE));
+        Mockito.verify(stockRepository, Mockito.never()).count();
+    }
+
+    @Test
+    public void countStocks_whenEstimated_thenReturnEstimate() {
+        Mockito.when(stockRepository.estimateCount()).thenReturn(40L);
+
+        assertEquals(40L, stockService.countStocks(StockCountMode.ESTIMATED, StockFilter.NONE));
+        Mockito.verifyNoInteractions(stockCountCache);
+    }
+
     @Test
-    public void findAllStocks_whenPageParametersPassed_thenReturnPageableResult() {
-        int page = 0;
+    public void countStocks_whenEstimatedButNeverAnalyzed_thenCountThroughCache() {
+        Mockito.when(stockRepository.estimateCount()).thenReturn(-1L);
+        Mockito.when(stockCountCache.get(Mockito.any())).thenReturn(42L);
+
+        assertEquals(42L, stockService.countStocks(StockCountMode.ESTIMATED, StockFilter.NONE));
+    }
+
+    @Test
+    public void countStocks_whenFilterPassed_thenCountMatchingStocksExactly() {
+        StockFilter filter = StockFilter.builder().minPrice(BigDecimal.TEN).build();
+
+        Mockito.when(stockRepository.count(Mockito.<Specification<Stock>>any())).thenReturn(7L);
+
+        assertEquals(7L, stockService.countStocks(StockCountMode.ESTIMATED, filter));
+        Mockito.verify(stockRepository, Mockito.never()).estimateCount();
+        Mockito.verifyNoInteractions(stockCountCache);
+    }
+
+    @Test
+    public void countStocks_whenNone_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> stockService.countStocks(StockCountMode.NONE, StockFilter.NONE));
+    }
+
+    @Test
+    public void findStocksAfter_whenCursorParametersPassed_thenReturnSliceResult() {
         int size = 10;
-        Pageable pageable = PageRequest.of(page, size);
+        Sort sort = Sort.by(Sort.Direction.DESC, "currentPrice");
+        Pageable pageable = PageRequest.of(0, size, sort);
 
         List<Stock> stocks = new ArrayList<>();
-        stocks.add(creatStock());
-        Page<Stock> stocksPage = new PageImpl<>(stocks);
+        stocks.add(creatStock(6L));
+        Slice<Stock> stocksSlice = new SliceImpl<>(stocks, pageable, false);
 
-        Mockito.when(stockRepository.findAll(pageable)).thenReturn(stocksPage);
+        Mockito.when(stockRepository.findAllBy(Mockito.<Specification<Stock>>any(), Mockito.eq(pageable))).thenReturn(stocksSlice);
 
-        Page<Stock> resultStocksPage = stockService.findAllStocks(page, size);
+        Slice<Stock> resultStocksSlice = stockService.findStocksAfter(StockFilter.NONE, sort, creatStock(5L), size);
 
-        Mockito.verify(stockRepository, times(1)).findAll(pageable);
-        assertEquals(stocks.size(), resultStocksPage.getContent().size());
+        Mockito.verify(stockRepository, times(1)).findAllBy(Mockito.<Specification<Stock>>any(), Mockito.eq(pageable));
+        Mockito.verify(stockRepository, Mockito.never()).count();
+        assertEquals(stocks.size(), resultStocksSlice.getContent().size());
+    }
+
+    @Test
+    public void exportStocks_whenStocksExist_thenPassEachStockToConsumerAndDetach() {
+        List<Stock> stocks = List.of(creatStock(1L), creatStock(2L));
+        List<Stock> exportedStocks = new ArrayList<>();
+
+        Mockito.when(stockRepository.streamAll()).thenReturn(stocks.stream());
+
+        stockService.exportStocks(exportedStocks::add);
+
+        assertEquals(stocks, exportedStocks);
+        Mockito.verify(entityManager, times(1)).detach(stocks.get(0));
+        Mockito.verify(entityManager, times(1)).detach(stocks.get(1));
     }
 
     @Test
@@ -82,6 +268,97 @@ class StockServiceTest {
         assertEquals(expectedErrorMessage, thrown.getMessage());
     }
 
+    @Test
+    public void findStockById_whenCalledConcurrently_thenQueryOnce() throws InterruptedException {
+        Stock expectedStock = creatStock(1234L);
+        AtomicReference<List<Thread>> callers = new AtomicReference<>();
+
+        Mockito.when(stockRepository.findById(1234L)).thenAnswer(invocation -> {
+            awaitOthersWaiting(callers.get());
+            return Optional.of(expectedStock);
+        });
+
+        List<Stock> stocks = callConcurrently(16, threads -> {
+            callers.set(threads);
+            return () -> stockService.findStockById(1234L);
+        });
+
+        Mockito.verify(stockRepository, times(1)).findById(1234L);
+        stocks.forEach(stock -> assertSame(expectedStock, stock));
+    }
+
+    @Test
+    public void findStockById_whenPinnedToPrimary_thenQueryWithoutJoiningOtherLookups() {
+        Mockito.when(stockRepository.findById(1234L)).thenReturn(Optional.of(creatStock(1234L)));
+
+        PrimaryPin.pin();
+        try {
+            stockService.findStockById(1234L);
+            stockService.findStockById(1234L);
+        } finally {
+            PrimaryPin.clear();
+        }
+
+        Mockito.verify(stockRepository, times(2)).findById(1234L);
+    }
+
+    @Test
+    public void findStockByName_whenNameKnown_thenLoadStockByIdOnly() {
+        Stock expectedStock = creatStock(1234L);
+
+        Mockito.when(stockSymbolIndex.findId("msw")).thenReturn(1234L);
+        Mockito.when(stockRepository.findById(1234L)).thenReturn(Optional.of(expectedStock));
+
+        Stock resultStock = stockService.findStockByName("msw");
+
+        assertEquals(expectedStock, resultStock);
+        Mockito.verify(stockRepository, Mockito.never()).findByNameIgnoreCase(Mockito.anyString());
+    }
+
+    @Test
+    public void findStockByName_whenNameUnknown_thenLookupByNameAndRememberId() {
+        Stock expectedStock = creatStock(1235L);
+
+        Mockito.when(stockSymbolIndex.findId("MSW")).thenReturn(null);
+        Mockito.when(stockRepository.findByNameIgnoreCase("MSW")).thenReturn(Optional.of(expectedStock));
+
+        Stock resultStock = stockService.findStockByName("MSW");
+
+        assertEquals(expectedStock, resultStock);
+        Mockito.verify(stockSymbolIndex, times(1)).put(expectedStock);
+        Mockito.verify(stockRepository, Mockito.never()).findById(Mockito.anyLong());
+    }
+
+    @Test
+    public void findStockByName_whenKnownIdWasRenamed_thenForgetIdAndLookupByName() {
+        Stock renamedStock = creatStock(1236L);
+        renamedStock.setName("OTHER");
+        Stock expectedStock = creatStock(1237L);
+
+        Mockito.when(stockSymbolIndex.findId("MSW")).thenReturn(1236L);
+        Mockito.when(stockRepository.findById(1236L)).thenReturn(Optional.of(renamedStock));
+        Mockito.when(stockRepository.findByNameIgnoreCase("MSW")).thenReturn(Optional.of(expectedStock));
+
+        Stock resultStock = stockService.findStockByName("MSW");
+
+        assertEquals(expectedStock, resultStock);
+        Mockito.verify(stockSymbolIndex, times(1)).remove(1236L);
+        Mockito.verify(stockSymbolIndex, times(1)).put(expectedStock);
+    }
+
+    @Test
+    public void findStockByName_whenNameNotExist_thenThrowStockNotFoundException() {
+        Mockito.when(stockSymbolIndex.findId("NONE")).thenReturn(null);
+        Mockito.when(stockRepository.findByNameIgnoreCase("NONE")).thenReturn(Optional.empty());
+
+        StockNotFoundException thrown = assertThrows(StockNotFoundException.class, () -> {
+            stockService.findStockByName("NONE");
+        });
+
+        assertEquals("Stock NONE not found", thrown.getMessage());
+        Mockito.verify(stockSymbolIndex, Mockito.never()).put(Mockito.any());
+    }
+
     @Test
     public void createStock_whenCorrectStockRequestPassed_thenReturnCreatedStock() {
         long id = 1234L;
@@ -95,70 +372,296 @@ class StockServiceTest {
         Stock resultStock = stockService.createStock(requestStock);
 
         Mockito.verify(stockRepository, times(1)).save(requestStock);
+        Mockito.verify(stockPriceHistoryWriter, times(1)).record(List.of(expectedStock));
+        Mockito.verify(applicationEventPublisher, times(1)).publishEvent(new StockChangedEvent(StockChangedEvent.Type.CREATED, List.of(expectedStock)));
         assertEquals(expectedStock, resultStock);
     }
 
+    @Test
+    public void createStocks_whenStockRequestsPassed_thenReturnCreatedStocks() {
+        List<Stock> requestStocks = List.of(creatRequestStock(), creatRequestStock());
+        List<Stock> expectedStocks = List.of(creatStock(1L), creatStock(2L));
+
+        Mockito.when(stockRepository.saveAll(requestStocks)).thenReturn(expectedStocks);
+
+        List<Stock> resultStocks = stockService.createStocks(requestStocks);
+
+        Mockito.verify(stockRepository, times(1)).saveAll(requestStocks);
+        Mockito.verify(stockPriceHistoryWriter, times(1)).record(expectedStocks);
+        Mockito.verify(applicationEventPublisher, times(1)).publishEvent(new StockChangedEvent(StockChangedEvent.Type.CREATED, expectedStocks));
+        assertEquals(expectedStocks, resultStocks);
+    }
+
+    @Test
+    void updateStocks_whenSomeStocksExist_thenReturnOnlyUpdatedStocks() {
+        Stock existingStock = creatStock(1L);
+        Stock requestStock = creatRequestStock();
+        Map<Long, Stock> requestStocks = Map.of(1L, requestStock, 2L, requestStock);
+
+        Mockito.when(stockRepository.findAllById(requestStocks.keySet())).thenReturn(List.of(existingStock));
+        Mockito.when(stockRepository.saveAll(List.of(existingStock))).thenReturn(List.of(existingStock));
+
+        Map<Long, Stock> resultStocks = stockService.updateStocks(requestStocks);
+
+        Mockito.verify(stockPriceHistoryWriter, times(1)).record(List.of(existingStock));
+        Mockito.verify(applicationEventPublisher, times(1)).publishEvent(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(existingStock)));
+        assertEquals(1, resultStocks.size());
+        assertEquals(requestStock.getName(), resultStocks.get(1L).getName());
+        assertEquals(requestStock.getCurrentPrice(), resultStocks.get(1L).getCurrentPrice());
+    }
+
+    @Test
+    void findStocksVersion_whenCalled_thenReturnStocksVersionFromRepository() {
+        StocksVersion stocksVersion = creatStocksVersion(2, 5, new Timestamp(67890));
+
+        Mockito.when(stockRepository.findStocksVersion()).thenReturn(stocksVersion);
+
+        assertEquals(stocksVersion, stockService.findStocksVersion());
+    }
+
+    @Test
+    void updateStockPrices_whenStocksExist_thenCacheRecordAndPublishUpdatedStocks() {
+        Stock updatedStock = creatStock(1234L);
+        List<StockPrice> stockPrices = List.of(
+                StockPrice.builder().stockId(1234L).price(BigDecimal.TEN).recordedAt(Instant.now()).build(),
+                StockPrice.builder().stockId(-2L).price(BigDecimal.ONE).recordedAt(Instant.now()).build()
+        );
+
+        Mockito.when(stockRepository.updatePrices(stockPrices)).thenReturn(List.of(updatedStock));
+        Mockito.when(cacheManager.getCache(Constants.STOCKS_CACHE_NAME)).thenReturn(cache);
+
+        List<Stock> result = stockService.updateStockPrices(stockPrices);
+
+        assertEquals(List.of(updatedStock), result);
+        Mockito.verify(stockRepository, Mockito.never()).findAllById(Mockito.any());
+        Mockito.verify(cache, times(1)).put(1234L, updatedStock);
+        Mockito.verify(stockPriceHistoryWriter, times(1)).record(List.of(updatedStock));
+        Mockito.verify(applicationEventPublisher, times(1)).publishEvent(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(updatedStock)));
+    }
+
+    @Test
+    void updateStockPrices_whenNoStockExists_thenNeitherCacheNorPublish() {
+        List<StockPrice> stockPrices = List.of(StockPrice.builder().stockId(-2L).price(BigDecimal.ONE).recordedAt(Instant.now()).build());
+
+        Mockito.when(stockRepository.updatePrices(stockPrices)).thenReturn(List.of());
+
+        assertEquals(List.of(), stockService.updateStockPrices(stockPrices));
+        Mockito.verifyNoInteractions(cacheManager, stockPriceHistoryWriter, applicationEventPublisher);
+    }
+
     @Test
     void updateStock_whenStockExist_thenReturnUpdatedStock() {
         long id = 1234L;
         Stock existingStock = creatStock(id);
-        Optional<Stock> stockOptional = Optional.of(existingStock);
-
         Stock requestStock = creatRequestStock();
 
-        Stock expectedStock = new Stock(existingStock.getId(), requestStock.getName(), requestStock.getCurrentPrice(), existingStock.getCreatedAt(), new Timestamp(789536));
+        Stock expectedStock = new Stock(existingStock.getId(), requestStock.getName(), requestStock.getCurrentPrice(), existingStock.getCreatedAt(), new Timestamp(789536), existingStock.getVersion() + 1);
 
-        Mockito.when(stockRepository.findById(id)).thenReturn(stockOptional);
-        Mockito.when(stockRepository.save(Mockito.any())).thenReturn(expectedStock);
+        Mockito.when(stockRepository.updateById(id, existingStock.getVersion(), requestStock.getName(), requestStock.getCurrentPrice())).thenReturn(Optional.of(expectedStock));
 
-        Stock resultStock = stockService.updateStock(id, requestStock);
+        Stock resultStock = stockService.updateStock(id, existingStock.getVersion(), requestStock);
 
         assertEquals(expectedStock, resultStock);
+        Mockito.verify(stockRepository, Mockito.never()).findById(id);
+        Mockito.verify(stockPriceHistoryWriter, times(1)).record(List.of(expectedStock));
+        Mockito.verify(applicationEventPublisher, times(1)).publishEvent(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(expectedStock)));
     }
 
     @Test
     void updateStock_whenStockNotExist_thenThrowStockNotFoundException() {
         long id = -2L;
         String expectedErrorMessage = "Stock -2 not found";
-        Optional<Stock> stockOptional = Optional.empty();
         Stock requestStock = creatRequestStock();
 
-        Mockito.when(stockRepository.findById(id)).thenReturn(stockOptional);
+        Mockito.when(stockRepository.updateById(id, null, requestStock.getName(), requestStock.getCurrentPrice())).thenReturn(Optional.empty());
 
         StockNotFoundException thrown = assertThrows(StockNotFoundException.class, () -> {
-            stockService.updateStock(id, requestStock);
+            stockService.updateStock(id, null, requestStock);
+        });
+
+        Mockito.verify(stockRepository, Mockito.never()).existsById(id);
+        Mockito.verifyNoInteractions(stockPriceHistoryWriter, applicationEventPublisher);
+        assertEquals(expectedErrorMessage, thrown.getMessage());
+    }
+
+    @Test
+    void updateStock_whenVersionPassedAndStockNotExist_thenThrowStockNotFoundException() {
+        long id = -4L;
+        String expectedErrorMessage = "Stock -4 not found";
+        Stock requestStock = creatRequestStock();
+
+        Mockito.when(stockRepository.updateById(id, 2L, requestStock.getName(), requestStock.getCurrentPrice())).thenReturn(Optional.empty());
+        Mockito.when(stockRepository.existsById(id)).thenReturn(false);
+
+        StockNotFoundException thrown = assertThrows(StockNotFoundException.class, () -> {
+            stockService.updateStock(id, 2L, requestStock);
+        });
+
+        assertEquals(expectedErrorMessage, thrown.getMessage());
+    }
+
+    @Test
+    void updateStock_whenStockAtOtherVersion_thenThrowStockVersionMismatchException() {
+        long id = 1238L;
+        String expectedErrorMessage = "Stock 1238 is not at version 2";
+        Stock requestStock = creatRequestStock();
+
+        Mockito.when(stockRepository.updateById(id, 2L, requestStock.getName(), requestStock.getCurrentPrice())).thenReturn(Optional.empty());
+        Mockito.when(stockRepository.existsById(id)).thenReturn(true);
+
+        StockVersionMismatchException thrown = assertThrows(StockVersionMismatchException.class, () -> {
+            stockService.updateStock(id, 2L, requestStock);
         });
 
-        Mockito.verify(stockRepository, times(1)).findById(id);
         assertEquals(expectedErrorMessage, thrown.getMessage());
     }
 
+    @Test
+    void patchStock_whenOnlyPriceChanged_thenUpdateOnlyPrice() {
+        long id = 1239L;
+        Stock requestStock = new Stock();
+        requestStock.setCurrentPrice(BigDecimal.valueOf(99.5));
+
+        Stock expectedStock = creatStock(id);
+        expectedStock.setCurrentPrice(requestStock.getCurrentPrice());
+
+        Mockito.when(stockRepository.updateById(id, 3L, null, requestStock.getCurrentPrice())).thenReturn(Optional.of(expectedStock));
+
+        Stock resultStock = stockService.patchStock(id, 3L, requestStock);
+
+        assertEquals(expectedStock, resultStock);
+        Mockito.verify(stockPriceHistoryWriter, times(1)).record(List.of(expectedStock));
+    }
+
+    @Test
+    void patchStock_whenOnlyNameChanged_thenDoNotRecordPrice() {
+        long id = 1240L;
+        Stock requestStock = new Stock();
+        requestStock.setName("MSW2");
+
+        Stock expectedStock = creatStock(id);
+        expectedStock.setName(requestStock.getName());
+
+        Mockito.when(stockRepository.updateById(id, null, requestStock.getName(), null)).thenReturn(Optional.of(expectedStock));
+
+        Stock resultStock = stockService.patchStock(id, null, requestStock);
+
+        assertEquals(expectedStock, resultStock);
+        Mockito.verifyNoInteractions(stockPriceHistoryWriter);
+        Mockito.verify(applicationEventPublisher, times(1)).publishEvent(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(expectedStock)));
+    }
+
+    @Test
+    void findCandles_whenRangePassed_thenReturnCandlesFromPriceHistory() {
+        long id = 1241L;
+        Instant from = Instant.parse("2023-03-01T00:00:00Z");
+        Instant to = Instant.parse("2023-03-02T00:00:00Z");
+        List<StockCandle> expectedCandles = List.of(creatStockCandle(from));
+
+        Mockito.when(stockPriceHistoryRepository.findCandles(id, CandleInterval.HOUR, from, to)).thenReturn(expectedCandles);
+
+        assertEquals(expectedCandles, stockService.findCandles(id, CandleInterval.HOUR, from, to));
+    }
+
+    @Test
+    void findCandles_whenNoRangePassed_thenReturnMaxCandlesUpToNow() {
+        long id = 1242L;
+        Instant before = Instant.now();
+
+        stockService.findCandles(id, CandleInterval.MINUTE, null, null);
+
+        ArgumentCaptor<Instant> from = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> to = ArgumentCaptor.forClass(Instant.class);
+        Mockito.verify(stockPriceHistoryRepository).findCandles(Mockito.eq(id), Mockito.eq(CandleInterval.MINUTE), from.capture(), to.capture());
+        assertFalse(to.getValue().isBefore(before));
+        assertEquals(Duration.ofMinutes(1000), Duration.between(from.getValue(), to.getValue()));
+    }
+
+    @Test
+    void findCandles_whenRangeIsEmpty_thenThrowIllegalArgumentException() {
+        Instant to = Instant.parse("2023-03-01T00:00:00Z");
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> {
+            stockService.findCandles(1L, CandleInterval.DAY, to, to);
+        });
+
+        assertEquals("Candle range start 2023-03-01T00:00:00Z must be before its end 2023-03-01T00:00:00Z", thrown.getMessage());
+        Mockito.verifyNoInteractions(stockPriceHistoryRepository);
+    }
+
+    @Test
+    void findCandles_whenRangeHasTooManyCandles_thenThrowIllegalArgumentException() {
+        Instant from = Instant.parse("2023-03-01T00:00:00Z");
+        Instant to = from.plus(Duration.ofMinutes(1001));
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> {
+            stockService.findCandles(1L, CandleInterval.MINUTE, from, to);
+        });
+
+        assertEquals("Candle range from 2023-03-01T00:00:00Z to 2023-03-01T16:41:00Z has more than 1000 1m candles", thrown.getMessage());
+        Mockito.verifyNoInteractions(stockPriceHistoryRepository);
+    }
+
     @Test
     void deleteStock_whenStockExist_thenReturnNothing() {
         long id = 1234L;
         Stock existingStock = creatStock(id);
-        Optional<Stock> stockOptional = Optional.of(existingStock);
 
-        Mockito.when(stockRepository.findById(id)).thenReturn(stockOptional);
+        Mockito.when(stockRepository.deleteAllByIds(List.of(id))).thenReturn(List.of(existingStock));
 
         stockService.deleteStock(id);
 
-        Mockito.verify(stockRepository, times(1)).deleteById(id);
+        Mockito.verify(stockRepository, Mockito.never()).findById(id);
+        Mockito.verify(applicationEventPublisher, times(1)).publishEvent(new StockChangedEvent(StockChangedEvent.Type.DELETED, List.of(existingStock)));
     }
 
     @Test
     void deleteStock_whenStockNotExist_thenThrowStockNotFoundException() {
         long id = -3L;
         String expectedErrorMessage = "Stock -3 not found";
-        Optional<Stock> stockOptional = Optional.empty();
 
-        Mockito.when(stockRepository.findById(id)).thenReturn(stockOptional);
+        Mockito.when(stockRepository.deleteAllByIds(List.of(id))).thenReturn(List.of());
 
         StockNotFoundException thrown = assertThrows(StockNotFoundException.class, () -> {
             stockService.deleteStock(id);
         });
 
-        Mockito.verify(stockRepository, times(1)).findById(id);
+        Mockito.verify(applicationEventPublisher, Mockito.never()).publishEvent(Mockito.any(StockChangedEvent.class));
         assertEquals(expectedErrorMessage, thrown.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findStocksByIds_whenSomeStocksExist_thenReturnFoundStocksById() {
+        Stock stock = creatStock(1L);
+
+        Mockito.when(stockRepository.findAllByIds(List.of(1L, 2L))).thenReturn(List.of(stock));
+
+        Map<Long, Stock> result = stockService.findStocksByIds(List.of(1L, 2L));
+
+        assertEquals(Map.of(1L, stock), result);
+    }
+
+    @Test
+    void deleteStocks_whenSomeStocksExist_thenReturnDeletedCount() {
+        List<Stock> deletedStocks = List.of(creatStock(1L), creatStock(2L));
+
+        Mockito.when(stockRepository.deleteAllByIds(List.of(1L, 2L, 3L))).thenReturn(deletedStocks);
+
+        int result = stockService.deleteStocks(List.of(1L, 2L, 3L));
+
+        assertEquals(2, result);
+        Mockito.verify(applicationEventPublisher, times(1)).publishEvent(new StockChangedEvent(StockChangedEvent.Type.DELETED, deletedStocks));
+    }
+
+    @Test
+    void deleteStocksUpdatedBefore_whenNoStockMatches_thenReturnZeroWithoutEvent() {
+        Instant updatedBefore = Instant.parse("2023-03-01T00:00:00Z");
+
+        Mockito.when(stockRepository.deleteAllUpdatedBefore(updatedBefore)).thenReturn(List.of());
+
+        int result = stockService.deleteStocksUpdatedBefore(updatedBefore);
+
+        assertEquals(0, result);
+        Mockito.verify(applicationEventPublisher, Mockito.never()).publishEvent(Mockito.any(StockChangedEvent.class));
+    }
+}
@@ -0,0 +1,62 @@
+package com.mithwick93.stocks.service;
+
+import com.mithwick93.stocks.modal.Stock;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.mithwick93.stocks.core.TestUtils.creatStock;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StockSymbolIndexTest {
+    private final StockSymbolIndex stockSymbolIndex = new StockSymbolIndex();
+
+    @Test
+    public void findId_whenStockPut_thenReturnIdRegardlessOfCase() {
+        stockSymbolIndex.put(creatStock(1L));
+
+        assertEquals(1L, stockSymbolIndex.findId("msw"));
+        assertEquals(1L, stockSymbolIndex.findId("MsW"));
+        assertNull(stockSymbolIndex.findId("other"));
+    }
+
+    @Test
+    public void onStockChanged_whenStockRenamed_thenForgetPreviousName() {
+        Stock stock = creatStock(2L);
+        stockSymbolIndex.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.CREATED, List.of(stock)));
+
+        stock.setName("RENAMED");
+        stockSymbolIndex.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.UPDATED, List.of(stock)));
+
+        assertNull(stockSymbolIndex.findId("MSW"));
+        assertEquals(2L, stockSymbolIndex.findId("renamed"));
+    }
+
+    @Test
+    public void onStockChanged_whenNameMovedToOtherStock_thenKeepOnlyNewMapping() {
+        stockSymbolIndex.put(creatStock(3L));
+        Stock renamedStock = creatStock(3L);
+        renamedStock.setName("OLD");
+        stockSymbolIndex.put(creatStock(4L));
+        stockSymbolIndex.put(renamedStock);
+
+        assertEquals(4L, stockSymbolIndex.findId("MSW"));
+        assertEquals(3L, stockSymbolIndex.findId("OLD"));
+
+        stockSymbolIndex.remove(3L);
+
+        assertEquals(4L, stockSymbolIndex.findId("MSW"));
+        assertNull(stockSymbolIndex.findId("OLD"));
+    }
+
+    @Test
+    public void onStockChanged_whenStockDeleted_thenForgetName() {
+        Stock stock = creatStock(5L);
+        stockSymbolIndex.put(stock);
+
+        stockSymbolIndex.onStockChanged(new StockChangedEvent(StockChangedEvent.Type.DELETED, List.of(stock)));
+
+        assertNull(stockSymbolIndex.findId("MSW"));
+    }
+}
@@ -0,0 +1,32 @@
+package com.mithwick93.stocks.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataIntegrityUtilTest {
+
+    @Test
+    public void isStockNameTaken_whenCauseNamesNameIndex_thenReturnTrue() {
+        DataIntegrityViolationException ex = new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("ERROR: duplicate key value violates unique constraint \"stocks_lower_name_idx\"")
+        );
+
+        assertTrue(DataIntegrityUtil.isStockNameTaken(ex));
+    }
+
+    @Test
+    public void isStockNameTaken_whenOtherConstraintViolated_thenReturnFalse() {
+        DataIntegrityViolationException ex = new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("ERROR: null value in column \"current_price\" violates not-null constraint")
+        );
+
+        assertFalse(DataIntegrityUtil.isStockNameTaken(ex));
+    }
+}
@@ -9,11 +9,53 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 class JsonUtilTest {
     @Test
     public void getJsonString_whenCorrectObjectPassed_thenReturnString() throws JsonProcessingException {
-        Object inputObject = new StockResponseDto();
-        String expectedResult = "{\"id\":null,\"name\":null,\"currentPrice\":null,\"createdAt\":0,\"lastUpdate\":0,\"links\":[]}";
+        Object inputObject = StockResponseDto.builder().id(1L).name("MSW").build();
+        String expectedResult = "{\"id\":1,\"name\":\"MSW\",\"links\":[]}";
 
         String result = JsonUtil.getJsonString(inputObject);
 
         assertEquals(expectedResult, result);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getJsonString_whenObjectWithoutPropertiesPassed_thenReturnEmptyObject() throws JsonProcessingException {
+        Object inputObject = new Object();
+
+        String result = JsonUtil.getJsonString(inputObject);
+
+        assertEquals("{}", result);
+    }
+
+    @Test
+    public void getJsonString_whenLongerThanMaxLength_thenReturnTruncatedString() throws JsonProcessingException {
+        Object inputObject = StockResponseDto.builder().id(1L).name("MSW").build();
+        String expectedResult = "{\"id\":1,\"n" + JsonUtil.TRUNCATED_SUFFIX;
+
+        String result = JsonUtil.getJsonString(inputObject, 10);
+
+        assertEquals(expectedResult, result);
+    }
+
+    @Test
+    public void getJsonString_whenShorterThanMaxLength_thenReturnFullString() throws JsonProcessingException {
+        Object inputObject = StockResponseDto.builder().id(1L).name("MSW").build();
+        String expectedResult = "{\"id\":1,\"name\":\"MSW\",\"links\":[]}";
+
+        String result = JsonUtil.getJsonString(inputObject, 1024);
+
+        assertEquals(expectedResult, result);
+    }
+
+    @Test
+    public void getLogString_whenLongerThanMaxLength_thenReturnTruncatedJsonString() {
+        String result = JsonUtil.getLogString(StockResponseDto.builder().id(1L).build(), 5);
+
+        assertEquals("{\"id\"" + JsonUtil.TRUNCATED_SUFFIX, result);
+    }
+
+    @Test
+    public void truncate_whenLongerThanMaxLength_thenCutAndSuffix() {
+        assertEquals("abc" + JsonUtil.TRUNCATED_SUFFIX, JsonUtil.truncate("abcdef", 3));
+        assertEquals("abc", JsonUtil.truncate("abc", 3));
+    }
+}